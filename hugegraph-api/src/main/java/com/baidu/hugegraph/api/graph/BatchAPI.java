@@ -24,11 +24,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 
-import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.api.API;
-import com.baidu.hugegraph.config.HugeConfig;
-import com.baidu.hugegraph.config.ServerOptions;
+import com.baidu.hugegraph.core.GraphManager;
 import com.baidu.hugegraph.metric.MetricsUtil;
 import com.baidu.hugegraph.server.RestServer;
 import com.baidu.hugegraph.util.Log;
@@ -53,14 +51,11 @@ public class BatchAPI extends API {
                                                     "batch-insert");
     }
 
-    public <R> R commit(HugeConfig config, HugeGraph g, int size,
+    public <R> R commit(GraphManager manager, HugeGraph g, int size,
                         Callable<R> callable) {
-        int maxWriteThreads = config.get(ServerOptions.MAX_WRITE_THREADS);
-        int writingThreads = batchWriteThreads.incrementAndGet();
-        if (writingThreads > maxWriteThreads) {
-            batchWriteThreads.decrementAndGet();
-            throw new HugeException("The rest server is too busy to write");
-        }
+        WriteAdmission admission = manager.writeAdmission();
+        admission.acquire(g.name());
+        batchWriteThreads.incrementAndGet();
 
         LOG.debug("The batch writing threads is {}", batchWriteThreads);
         try {
@@ -69,6 +64,7 @@ public class BatchAPI extends API {
             return result;
         } finally {
             batchWriteThreads.decrementAndGet();
+            admission.release(g.name());
         }
     }
 }
@@ -37,6 +37,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Direction;
@@ -65,10 +66,12 @@ import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.JsonUtil;
 import com.baidu.hugegraph.util.Log;
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
 
 @Path("graphs/{graph}/graph/edges")
 @Singleton
@@ -137,7 +140,7 @@ public class EdgeAPI extends BatchAPI {
         TriFunction<HugeGraph, Object, String, Vertex> getVertex =
                     checkVertex ? EdgeAPI::getVertex : EdgeAPI::newVertex;
 
-        return this.commit(config, g, jsonEdges.size(), () -> {
+        return this.commit(manager, g, jsonEdges.size(), () -> {
             List<String> ids = new ArrayList<>(jsonEdges.size());
             for (JsonEdge jsonEdge : jsonEdges) {
                 /*
@@ -210,24 +213,31 @@ public class EdgeAPI extends BatchAPI {
     @Timed
     @Compress
     @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String list(@Context GraphManager manager,
-                       @PathParam("graph") String graph,
-                       @QueryParam("vertex_id") String vertexId,
-                       @QueryParam("direction") String direction,
-                       @QueryParam("label") String label,
-                       @QueryParam("properties") String properties,
-                       @QueryParam("offset") @DefaultValue("0") long offset,
-                       @QueryParam("page") String page,
-                       @QueryParam("limit") @DefaultValue("100") long limit) {
+    public StreamingOutput list(@Context GraphManager manager,
+                                @PathParam("graph") String graph,
+                                @QueryParam("vertex_id") String vertexId,
+                                @QueryParam("direction") String direction,
+                                @QueryParam("label") String label,
+                                @QueryParam("properties") String properties,
+                                @QueryParam("offset")
+                                @DefaultValue("0") long offset,
+                                @QueryParam("page") String page,
+                                @QueryParam("limit")
+                                @DefaultValue("100") long limit,
+                                @QueryParam("count")
+                                @DefaultValue("false") boolean count) {
         LOG.debug("Graph [{}] query edges by vertex: {}, direction: {}, " +
-                  "label: {}, properties: {}, offset: {}, page: {}, limit: {}",
-                  vertexId, direction, label, properties, offset, page, limit);
+                  "label: {}, properties: {}, offset: {}, page: {}, " +
+                  "limit: {}, count: {}", vertexId, direction, label,
+                  properties, offset, page, limit, count);
         if (page != null) {
             E.checkArgument(vertexId == null && direction == null &&
                             label == null && properties == null && offset == 0,
                             "Not support quering edges based on paging and " +
                             "[vertex, direction, label, properties, offset] " +
                             "together");
+            E.checkArgument(!count, "Not support counting edges " +
+                                    "based on paging");
         }
 
         Id vertex = VertexAPI.checkAndParseVertexId(vertexId);
@@ -255,13 +265,22 @@ public class EdgeAPI extends BatchAPI {
             traversal = traversal.has(entry.getKey(), entry.getValue());
         }
 
+        if (count) {
+            // Just count the edges, which may be done by the backend
+            long number = traversal.count().next();
+            String result = JsonUtil.toJson(ImmutableMap.of("count", number));
+            return out -> out.write(result.getBytes(API.CHARSET));
+        }
+
         if (page == null) {
             traversal = traversal.range(offset, offset + limit);
         } else {
             traversal = traversal.has("~page", page).limit(limit);
         }
 
-        return manager.serializer(g).writeEdges(traversal, page != null);
+        GraphTraversal<?, Edge> edges = traversal;
+        return out -> manager.serializer(g).writeEdges(out, edges,
+                                                       page != null);
     }
 
     @GET
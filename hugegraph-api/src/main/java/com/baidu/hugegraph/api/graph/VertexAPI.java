@@ -37,6 +37,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.T;
@@ -64,6 +65,7 @@ import com.baidu.hugegraph.util.Log;
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
 
 @Path("graphs/{graph}/graph/vertices")
 @Singleton
@@ -105,7 +107,7 @@ public class VertexAPI extends BatchAPI {
         HugeGraph g = graph(manager, graph);
         checkBatchSize(config, jsonVertices);
 
-        return this.commit(config, g, jsonVertices.size(), () -> {
+        return this.commit(manager, g, jsonVertices.size(), () -> {
             List<String> ids = new ArrayList<>(jsonVertices.size());
             for (JsonVertex vertex : jsonVertices) {
                 ids.add(g.addVertex(vertex.properties()).id().toString());
@@ -163,20 +165,26 @@ public class VertexAPI extends BatchAPI {
     @Timed
     @Compress
     @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String list(@Context GraphManager manager,
-                       @PathParam("graph") String graph,
-                       @QueryParam("label") String label,
-                       @QueryParam("properties") String properties,
-                       @QueryParam("offset") @DefaultValue("0") long offset,
-                       @QueryParam("page") String page,
-                       @QueryParam("limit") @DefaultValue("100") long limit) {
+    public StreamingOutput list(@Context GraphManager manager,
+                                @PathParam("graph") String graph,
+                                @QueryParam("label") String label,
+                                @QueryParam("properties") String properties,
+                                @QueryParam("offset")
+                                @DefaultValue("0") long offset,
+                                @QueryParam("page") String page,
+                                @QueryParam("limit")
+                                @DefaultValue("100") long limit,
+                                @QueryParam("count")
+                                @DefaultValue("false") boolean count) {
         LOG.debug("Graph [{}] query vertices by label: {}, properties: {}, " +
-                  "offset: {}, page: {}, limit: {}",
-                  graph, label, properties, offset, page, limit);
+                  "offset: {}, page: {}, limit: {}, count: {}",
+                  graph, label, properties, offset, page, limit, count);
         if (page != null) {
             E.checkArgument(label == null && properties == null && offset == 0,
                             "Not support quering vertices based on paging " +
                             "and [label, properties, offset] together");
+            E.checkArgument(!count, "Not support counting vertices " +
+                                    "based on paging");
         }
 
         Map<String, Object> props = parseProperties(properties);
@@ -192,13 +200,22 @@ public class VertexAPI extends BatchAPI {
             traversal = traversal.has(entry.getKey(), entry.getValue());
         }
 
+        if (count) {
+            // Just count the vertices, which may be done by the backend
+            long number = traversal.count().next();
+            String result = JsonUtil.toJson(ImmutableMap.of("count", number));
+            return out -> out.write(result.getBytes(API.CHARSET));
+        }
+
         if (page == null) {
             traversal = traversal.range(offset, offset + limit);
         } else {
             traversal = traversal.has("~page", page).limit(limit);
         }
 
-        return manager.serializer(g).writeVertices(traversal, page != null);
+        GraphTraversal<Vertex, Vertex> vertices = traversal;
+        return out -> manager.serializer(g).writeVertices(out, vertices,
+                                                          page != null);
     }
 
     @GET
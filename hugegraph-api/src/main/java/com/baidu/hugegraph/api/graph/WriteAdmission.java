@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.api.graph;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.config.ServerOptions;
+import com.baidu.hugegraph.metric.MetricsUtil;
+import com.baidu.hugegraph.server.RestServer;
+import com.baidu.hugegraph.util.E;
+import com.codahale.metrics.Histogram;
+
+/**
+ * The fair admission of batch writing: the requests exceeding the max
+ * writing threads wait in a bounded FIFO queue until the writing threads
+ * (of the server and of the graph) are available, and they are rejected
+ * with 429 only if the queue is full, or with 503 if waiting timeout.
+ *
+ * It's created from the server config and shared by all the graphs of the
+ * server, see GraphManager.writeAdmission().
+ */
+public class WriteAdmission {
+
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    private static final Histogram queueDepthHistogram =
+            MetricsUtil.registerHistogram(RestServer.class,
+                                          "batch-write-queue-depth");
+    private static final Histogram waitTimeHistogram =
+            MetricsUtil.registerHistogram(RestServer.class,
+                                          "batch-write-wait-time");
+
+    private final Semaphore permits;
+    private final int maxGraphThreads;
+    private final Map<String, Semaphore> graphPermits;
+    private final int maxQueue;
+    private final long waitTimeout;
+    private final AtomicInteger waitingThreads;
+
+    public WriteAdmission(HugeConfig config) {
+        this(config.get(ServerOptions.MAX_WRITE_THREADS),
+             config.get(ServerOptions.MAX_GRAPH_WRITE_THREADS),
+             config.get(ServerOptions.MAX_WRITE_QUEUE),
+             config.get(ServerOptions.WRITE_WAIT_TIMEOUT));
+    }
+
+    public WriteAdmission(int maxThreads, int maxGraphThreads,
+                          int maxQueue, long waitTimeout) {
+        E.checkArgument(maxThreads >= 0 && maxGraphThreads >= 0 &&
+                        maxQueue >= 0 && waitTimeout >= 0L,
+                        "The options of batch writing must be >= 0");
+        this.permits = new Semaphore(maxThreads, true);
+        this.maxGraphThreads = maxGraphThreads;
+        this.graphPermits = new ConcurrentHashMap<>();
+        this.maxQueue = maxQueue;
+        this.waitTimeout = waitTimeout;
+        this.waitingThreads = new AtomicInteger(0);
+    }
+
+    /**
+     * The number of requests waiting in the queue
+     */
+    public int waitingThreads() {
+        return this.waitingThreads.get();
+    }
+
+    public void acquire(String graph) {
+        Semaphore graphPermits = this.graphPermits(graph);
+        try {
+            // Try to acquire without waiting (respect the waiting ones)
+            if (this.tryAcquire(graphPermits, 0L)) {
+                return;
+            }
+
+            int depth = this.waitingThreads.incrementAndGet();
+            long start = System.currentTimeMillis();
+            try {
+                queueDepthHistogram.update(depth);
+                if (depth > this.maxQueue) {
+                    throw tooBusy(TOO_MANY_REQUESTS, this.retryAfter(),
+                                  "The batch writing queue is full");
+                }
+                if (!this.tryAcquire(graphPermits, this.waitTimeout)) {
+                    throw tooBusy(Response.Status.SERVICE_UNAVAILABLE
+                                                 .getStatusCode(),
+                                  this.retryAfter(),
+                                  "Timeout to wait for batch writing");
+                }
+            } finally {
+                this.waitingThreads.decrementAndGet();
+                waitTimeHistogram.update(System.currentTimeMillis() - start);
+            }
+        } catch (InterruptedException e) {
+            throw new HugeException("Interrupted while waiting for " +
+                                    "batch writing", e);
+        }
+    }
+
+    public void release(String graph) {
+        this.permits.release();
+        Semaphore graphPermits = this.graphPermits(graph);
+        if (graphPermits != null) {
+            graphPermits.release();
+        }
+    }
+
+    private Semaphore graphPermits(String graph) {
+        if (this.maxGraphThreads <= 0) {
+            return null;
+        }
+        return this.graphPermits.computeIfAbsent(graph, g -> {
+            return new Semaphore(this.maxGraphThreads, true);
+        });
+    }
+
+    private boolean tryAcquire(Semaphore graphPermits, long timeout)
+                               throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        // Acquire the permit of graph first to not block other graphs
+        if (graphPermits != null &&
+            !graphPermits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        long remaining = Math.max(deadline - System.currentTimeMillis(), 0L);
+        boolean acquired = false;
+        try {
+            acquired = this.permits.tryAcquire(remaining,
+                                               TimeUnit.MILLISECONDS);
+        } finally {
+            if (!acquired && graphPermits != null) {
+                graphPermits.release();
+            }
+        }
+        return acquired;
+    }
+
+    private long retryAfter() {
+        // Suggest to retry after the time of waiting in seconds
+        return Math.max(TimeUnit.MILLISECONDS.toSeconds(this.waitTimeout),
+                        1L);
+    }
+
+    private static WebApplicationException tooBusy(int status,
+                                                   long retryAfter,
+                                                   String message) {
+        Response response = Response.status(status)
+                                    .header(HttpHeaders.RETRY_AFTER,
+                                            retryAfter)
+                                    .build();
+        return new WebApplicationException(message, response);
+    }
+}
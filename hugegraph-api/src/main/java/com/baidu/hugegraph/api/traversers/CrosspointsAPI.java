@@ -29,11 +29,13 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.slf4j.Logger;
 
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.api.API;
+import com.baidu.hugegraph.api.filter.CompressInterceptor.Compress;
 import com.baidu.hugegraph.api.graph.EdgeAPI;
 import com.baidu.hugegraph.api.graph.VertexAPI;
 import com.baidu.hugegraph.backend.id.Id;
@@ -52,17 +54,21 @@ public class CrosspointsAPI extends API {
 
     @GET
     @Timed
+    @Compress
     @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String get(@Context GraphManager manager,
-                      @PathParam("graph") String graph,
-                      @QueryParam("source") String source,
-                      @QueryParam("target") String target,
-                      @QueryParam("direction") String direction,
-                      @QueryParam("label") String edgeLabel,
-                      @QueryParam("max_depth") int depth,
-                      @QueryParam("max_degree") @DefaultValue("-1") long degree,
-                      @QueryParam("capacity") @DefaultValue("-1") long capacity,
-                      @QueryParam("limit") @DefaultValue("10") long limit) {
+    public StreamingOutput get(@Context GraphManager manager,
+                               @PathParam("graph") String graph,
+                               @QueryParam("source") String source,
+                               @QueryParam("target") String target,
+                               @QueryParam("direction") String direction,
+                               @QueryParam("label") String edgeLabel,
+                               @QueryParam("max_depth") int depth,
+                               @QueryParam("max_degree")
+                               @DefaultValue("-1") long degree,
+                               @QueryParam("capacity")
+                               @DefaultValue("-1") long capacity,
+                               @QueryParam("limit")
+                               @DefaultValue("10") long limit) {
         LOG.debug("Graph [{}] get crosspoints with paths from '{}', to '{}' " +
                   "with direction '{}', edge label '{}', max depth '{}', " +
                   "max degree '{}', capacity '{}' and limit '{}'",
@@ -80,6 +86,7 @@ public class CrosspointsAPI extends API {
                                                         edgeLabel, depth,
                                                         degree, capacity,
                                                         limit);
-        return manager.serializer(g).writePaths("crosspoints", paths, true);
+        return out -> manager.serializer(g).writePaths(out, "crosspoints",
+                                                       paths, true);
     }
 }
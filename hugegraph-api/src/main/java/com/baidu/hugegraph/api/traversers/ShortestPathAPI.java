@@ -19,8 +19,6 @@
 
 package com.baidu.hugegraph.api.traversers;
 
-import java.util.List;
-
 import javax.inject.Singleton;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
@@ -76,9 +74,12 @@ public class ShortestPathAPI extends API {
         HugeGraph g = graph(manager, graph);
 
         HugeTraverser traverser = new HugeTraverser(g);
-        List<Id> path = traverser.shortestPath(sourceId, targetId, dir,
-                                               edgeLabel, depth, degree,
-                                               capacity);
-        return manager.serializer(g).writeIds("path", path);
+        HugeTraverser.ShortestPath path = traverser.shortestPath(
+                                          sourceId, targetId, dir, edgeLabel,
+                                          depth, degree, capacity);
+        LOG.debug("Graph [{}] visited {} vertices while searching shortest " +
+                  "path from '{}' to '{}'", graph, path.visited(),
+                  source, target);
+        return manager.serializer(g).writeShortestPath(path);
     }
 }
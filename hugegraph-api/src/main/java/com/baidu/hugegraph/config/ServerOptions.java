@@ -98,6 +98,34 @@ public class ServerOptions extends OptionHolder {
                     nonNegativeInt(),
                     0);
 
+    public static final ConfigOption<Integer> MAX_GRAPH_WRITE_THREADS =
+            new ConfigOption<>(
+                    "batch.max_graph_write_threads",
+                    "The maximum threads for batch writing of each graph, " +
+                    "if the value is 0, it's only limited by " +
+                    "batch.max_write_threads.",
+                    nonNegativeInt(),
+                    0);
+
+    public static final ConfigOption<Integer> MAX_WRITE_QUEUE =
+            new ConfigOption<>(
+                    "batch.max_write_queue",
+                    "The maximum batch writing requests waiting for the " +
+                    "batch writing threads, if the value is 0, the actual " +
+                    "value will be set to half of the rest threads which " +
+                    "are not for batch writing.",
+                    nonNegativeInt(),
+                    0);
+
+    public static final ConfigOption<Integer> WRITE_WAIT_TIMEOUT =
+            new ConfigOption<>(
+                    "batch.write_wait_timeout",
+                    "The max time in milliseconds that a batch writing " +
+                    "request waits in the queue, if the value is 0, the " +
+                    "request is rejected at once when it's busy.",
+                    nonNegativeInt(),
+                    10000);
+
     public static final ConfigOption<Boolean> ALLOW_TRACE =
             new ConfigOption<>(
                     "exception.allow_trace",
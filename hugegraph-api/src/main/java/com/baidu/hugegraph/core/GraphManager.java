@@ -36,6 +36,7 @@ import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
 import org.slf4j.Logger;
 
 import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.api.graph.WriteAdmission;
 import com.baidu.hugegraph.auth.HugeAuthenticator;
 import com.baidu.hugegraph.auth.HugeFactoryAuthProxy;
 import com.baidu.hugegraph.auth.HugeGraphAuthProxy;
@@ -43,6 +44,7 @@ import com.baidu.hugegraph.backend.cache.Cache;
 import com.baidu.hugegraph.backend.cache.CacheManager;
 import com.baidu.hugegraph.backend.store.BackendStoreSystemInfo;
 import com.baidu.hugegraph.backend.store.memory.InMemoryDBStoreProvider;
+import com.baidu.hugegraph.backend.tx.AsyncIndexWorker;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.config.ServerOptions;
 import com.baidu.hugegraph.exception.NotSupportException;
@@ -61,9 +63,13 @@ public final class GraphManager {
 
     private final Map<String, Graph> graphs;
     private final HugeAuthenticator authenticator;
+    private final HugeConfig conf;
+    private volatile WriteAdmission writeAdmission;
 
     public GraphManager(HugeConfig conf) {
         this.graphs = new ConcurrentHashMap<>();
+        this.conf = conf;
+        this.writeAdmission = null;
 
         if (conf.get(ServerOptions.AUTHENTICATOR).isEmpty()) {
             this.authenticator = null;
@@ -174,6 +180,21 @@ public final class GraphManager {
         return this.authenticator.authenticate(credentials);
     }
 
+    public WriteAdmission writeAdmission() {
+        /*
+         * NOTE: create it lazily since the max write threads and queue may
+         * be calculated by RestServer after the http server started
+         */
+        if (this.writeAdmission == null) {
+            synchronized (this) {
+                if (this.writeAdmission == null) {
+                    this.writeAdmission = new WriteAdmission(this.conf);
+                }
+            }
+        }
+        return this.writeAdmission;
+    }
+
     private void loadGraph(String name, String path) {
         final Graph graph = GraphFactory.open(path);
         this.graphs.put(name, graph);
@@ -224,6 +245,12 @@ public final class GraphManager {
         MetricsUtil.registerGauge(RestServer.class, "max-write-threads", () -> {
             return maxWriteThreads;
         });
+        // Add metrics for the requests waiting for batch writing
+        MetricsUtil.registerGauge(RestServer.class, "batch-wait-threads",
+                                  () -> {
+            WriteAdmission admission = this.writeAdmission;
+            return admission == null ? 0 : admission.waitingThreads();
+        });
 
         // Add metrics for caches
         Map<String, Cache> caches = CacheManager.instance().caches();
@@ -246,6 +273,18 @@ public final class GraphManager {
         MetricsUtil.registerGauge(TaskManager.class, "pending-tasks", () -> {
             return TaskManager.instance().pendingTasks();
         });
+
+        // Add metrics for the lag of async indexes
+        for (String graph : this.graphs()) {
+            AsyncIndexWorker worker = this.graph(graph).asyncIndexWorker();
+            if (worker == null) {
+                continue;
+            }
+            String name = String.format("%s.%s", graph, "index-lag");
+            MetricsUtil.registerGauge(AsyncIndexWorker.class, name, () -> {
+                return worker.lag();
+            });
+        }
     }
 
     private static void registerCacheMetrics(Map<String, Cache> caches) {
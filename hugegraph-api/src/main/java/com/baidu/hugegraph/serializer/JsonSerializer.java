@@ -20,6 +20,8 @@
 package com.baidu.hugegraph.serializer;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -36,12 +38,14 @@ import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.api.API;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.store.Shard;
+import com.baidu.hugegraph.iterator.MapperIterator;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.PropertyKey;
 import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.traversal.optimize.HugeTraverser;
 import com.baidu.hugegraph.traversal.optimize.TraversalUtil;
+import com.google.common.collect.ImmutableMap;
 
 public class JsonSerializer implements Serializer {
 
@@ -77,21 +81,41 @@ public class JsonSerializer implements Serializer {
 
     private String writeList(String label, Iterator<?> itor, boolean paging) {
         try (ByteArrayOutputStream out = new ByteArrayOutputStream(LBUF_SIZE)) {
-            out.write("{".getBytes(API.CHARSET));
+            this.writeList(out, label, itor, paging);
+            return out.toString(API.CHARSET);
+        } catch (HugeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new HugeException("Failed to serialize %s", e, label);
+        }
+    }
 
-            out.write(String.format("\"%s\":[", label).getBytes(API.CHARSET));
+    /**
+     * Write the elements to the output stream one by one while iterating,
+     * each element is serialized into a small buffer first, so the memory
+     * used doesn't grow with the number of elements.
+     * NOTE: the IOException of the output stream would be thrown directly,
+     * like the client closed the connection.
+     */
+    private void writeList(OutputStream output, String label, Iterator<?> itor,
+                           boolean paging) throws IOException {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(BUF_SIZE)) {
+            output.write(String.format("{\"%s\":[", label)
+                               .getBytes(API.CHARSET));
 
             // Write data
             boolean first = true;
             while (itor.hasNext()) {
                 if (!first) {
-                    out.write(",".getBytes(API.CHARSET));
+                    output.write(',');
                 } else {
                     first = false;
                 }
-                this.writer.writeObject(out, itor.next());
+                this.writeElement(out, label, itor.next());
+                out.writeTo(output);
+                out.reset();
             }
-            out.write("]".getBytes(API.CHARSET));
+            output.write(']');
 
             // Write page
             if (paging) {
@@ -101,15 +125,11 @@ public class JsonSerializer implements Serializer {
                 } else {
                     page = ",\"page\": null";
                 }
-                out.write(page.getBytes(API.CHARSET));
+                output.write(page.getBytes(API.CHARSET));
             }
 
-            out.write("}".getBytes(API.CHARSET));
-            return out.toString(API.CHARSET);
-        } catch (HugeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new HugeException("Failed to serialize %s", e, label);
+            output.write('}');
+            output.flush();
         } finally {
             try {
                 CloseableIterator.closeIterator(itor);
@@ -119,6 +139,14 @@ public class JsonSerializer implements Serializer {
         }
     }
 
+    private void writeElement(OutputStream out, String label, Object elem) {
+        try {
+            this.writer.writeObject(out, elem);
+        } catch (Exception e) {
+            throw new HugeException("Failed to serialize %s", e, label);
+        }
+    }
+
     @Override
     public String writePropertyKey(PropertyKey propertyKey) {
         return writeObject(propertyKey);
@@ -181,6 +209,12 @@ public class JsonSerializer implements Serializer {
         return writeList("vertices", vertices, paging);
     }
 
+    @Override
+    public void writeVertices(OutputStream out, Iterator<Vertex> vertices,
+                              boolean paging) throws IOException {
+        writeList(out, "vertices", vertices, paging);
+    }
+
     @Override
     public String writeEdge(Edge edge) {
         return writeObject(edge);
@@ -191,6 +225,12 @@ public class JsonSerializer implements Serializer {
         return writeList("edges", edges, paging);
     }
 
+    @Override
+    public void writeEdges(OutputStream out, Iterator<Edge> edges,
+                           boolean paging) throws IOException {
+        writeList(out, "edges", edges, paging);
+    }
+
     @Override
     public String writeIds(String name, Collection<Id> ids) {
         if (ids instanceof List) {
@@ -210,6 +250,29 @@ public class JsonSerializer implements Serializer {
         return writeList(name, pathList);
     }
 
+    @Override
+    public void writeIds(OutputStream out, String name, Collection<Id> ids)
+                         throws IOException {
+        writeList(out, name, ids.iterator(), false);
+    }
+
+    @Override
+    public void writePaths(OutputStream out, String name,
+                           Collection<HugeTraverser.Path> paths,
+                           boolean withCrossPoint) throws IOException {
+        Iterator<Map<String, Object>> pathMaps = new MapperIterator<>(
+                                                 paths.iterator(), path -> {
+            return path.toMap(withCrossPoint);
+        });
+        writeList(out, name, pathMaps, false);
+    }
+
+    @Override
+    public String writeShortestPath(HugeTraverser.ShortestPath path) {
+        return writeObject(ImmutableMap.of("path", path.vertices(),
+                                           "visited", path.visited()));
+    }
+
     @Override
     public String writeShards(List<Shard> shards) {
         return this.writeList("shards", shards);
@@ -19,6 +19,8 @@
 
 package com.baidu.hugegraph.serializer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -58,14 +60,29 @@ public interface Serializer {
 
     public String writeVertices(Iterator<Vertex> vertices, boolean paging);
 
+    public void writeVertices(OutputStream out, Iterator<Vertex> vertices,
+                              boolean paging) throws IOException;
+
     public String writeEdge(Edge e);
 
     public String writeEdges(Iterator<Edge> edges, boolean paging);
 
+    public void writeEdges(OutputStream out, Iterator<Edge> edges,
+                           boolean paging) throws IOException;
+
     public String writeIds(String name, Collection<Id> ids);
 
+    public void writeIds(OutputStream out, String name, Collection<Id> ids)
+                         throws IOException;
+
     public String writePaths(String name, Collection<HugeTraverser.Path> paths,
                              boolean withCrossPoint);
 
+    public void writePaths(OutputStream out, String name,
+                           Collection<HugeTraverser.Path> paths,
+                           boolean withCrossPoint) throws IOException;
+
+    public String writeShortestPath(HugeTraverser.ShortestPath path);
+
     public String writeShards(List<Shard> shards);
 }
@@ -60,6 +60,7 @@ public class RestServer {
         this.httpServer.start();
 
         this.calcMaxWriteThreads();
+        this.calcMaxWriteQueue();
     }
 
     @SuppressWarnings("deprecation") // TODO: use shutdown instead
@@ -110,6 +111,25 @@ public class RestServer {
                               String.valueOf(maxWriteThreads));
     }
 
+    private void calcMaxWriteQueue() {
+        int maxWriteQueue = this.conf.get(ServerOptions.MAX_WRITE_QUEUE);
+        if (maxWriteQueue > 0) {
+            // Use the value of MAX_WRITE_QUEUE option if it's not 0
+            return;
+        }
+
+        assert maxWriteQueue == 0;
+
+        // Keep half of the other threads for reading
+        int maxWriteThreads = this.conf.get(ServerOptions.MAX_WRITE_THREADS);
+        int maxThreadPoolSize = this.maxThreadPoolSize();
+        maxWriteQueue = Math.max(maxThreadPoolSize - maxWriteThreads, 0) / 2;
+        LOG.info("The maximum batch writing queue is {} (total threads {})",
+                 maxWriteQueue, maxThreadPoolSize);
+        this.conf.addProperty(ServerOptions.MAX_WRITE_QUEUE.name(),
+                              String.valueOf(maxWriteQueue));
+    }
+
     private int maxThreadPoolSize() {
         Collection<NetworkListener> listeners = this.httpServer.getListeners();
         if (listeners.size() == 0) {
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.HugeFactory;
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.schema.SchemaManager;
+
+/**
+ * The graph used by benchmarks, which is stored in the in-memory backend so
+ * that the results are not affected by the storage
+ */
+public final class BenchmarkGraph {
+
+    public static final String PERSON = "person";
+    public static final String KNOWS = "knows";
+
+    private static final int COMMIT_BATCH = 500;
+
+    public static HugeGraph open(String name) {
+        PropertiesConfiguration conf = new PropertiesConfiguration();
+        conf.setProperty("gremlin.graph", HugeFactory.class.getName());
+        conf.setProperty("backend", "memory");
+        conf.setProperty("serializer", "text");
+        conf.setProperty("store", name);
+
+        HugeGraph graph = HugeFactory.open(conf);
+        graph.clearBackend();
+        graph.initBackend();
+        initSchema(graph.schema());
+        return graph;
+    }
+
+    public static void close(HugeGraph graph) {
+        try {
+            graph.close();
+            HugeGraph.shutdown(30L);
+        } catch (Exception e) {
+            throw new HugeException("Failed to close graph '%s'", e,
+                                    graph.name());
+        }
+    }
+
+    private static void initSchema(SchemaManager schema) {
+        schema.propertyKey("name").asText().ifNotExist().create();
+        schema.propertyKey("age").asInt().ifNotExist().create();
+        schema.propertyKey("date").asText().ifNotExist().create();
+
+        schema.vertexLabel(PERSON)
+              .properties("name", "age")
+              .useCustomizeNumberId()
+              .ifNotExist()
+              .create();
+
+        schema.edgeLabel(KNOWS)
+              .sourceLabel(PERSON).targetLabel(PERSON)
+              .properties("date")
+              .nullableKeys("date")
+              .ifNotExist()
+              .create();
+    }
+
+    public static Vertex addPerson(HugeGraph graph, long id) {
+        return graph.addVertex(T.label, PERSON, T.id, id,
+                               "name", "P" + id, "age", (int) (id % 100));
+    }
+
+    /**
+     * Load a random graph with the number ids [1, vertices], each vertex has
+     * `degree` out edges to random vertices
+     * @return the ids of vertices
+     */
+    public static List<Id> loadRandomGraph(HugeGraph graph, int vertices,
+                                           int degree, long seed) {
+        List<Id> ids = new ArrayList<>(vertices);
+        for (long i = 1; i <= vertices; i++) {
+            addPerson(graph, i);
+            ids.add(IdGenerator.of(i));
+            if (i % COMMIT_BATCH == 0) {
+                graph.tx().commit();
+            }
+        }
+        graph.tx().commit();
+
+        Random random = new Random(seed);
+        for (int i = 0; i < vertices; i++) {
+            Vertex source = graph.vertices(ids.get(i).asLong()).next();
+            for (int j = 0; j < degree; j++) {
+                long target = ids.get(random.nextInt(vertices)).asLong();
+                source.addEdge(KNOWS, graph.vertices(target).next(),
+                               "date", "2018-01-" + (j % 28 + 1));
+            }
+            if ((i + 1) % COMMIT_BATCH == 0) {
+                graph.tx().commit();
+            }
+        }
+        graph.tx().commit();
+        return ids;
+    }
+}
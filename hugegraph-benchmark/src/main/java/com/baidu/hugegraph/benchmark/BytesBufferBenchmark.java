@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.baidu.hugegraph.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+
+/**
+ * Encode and decode the ids and values by BytesBuffer, which is the base of
+ * the keys of binary serializer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BytesBufferBenchmark {
+
+    private Id numberId;
+    private Id stringId;
+    private String text;
+
+    private byte[] numberIdBytes;
+    private byte[] stringIdBytes;
+    private byte[] textBytes;
+
+    @Setup
+    public void setup() {
+        this.numberId = IdGenerator.of(123456789L);
+        this.stringId = IdGenerator.of("1:marko-abcdefghijklmn");
+        this.text = "The quick brown fox jumps over the lazy dog";
+
+        this.numberIdBytes = BytesBuffer.allocate(16).writeId(this.numberId)
+                                        .bytes();
+        this.stringIdBytes = BytesBuffer.allocate(64).writeId(this.stringId)
+                                        .bytes();
+        this.textBytes = BytesBuffer.allocate(64).writeString(this.text)
+                                    .bytes();
+    }
+
+    @Benchmark
+    public byte[] writeNumberId() {
+        return BytesBuffer.allocate(16).writeId(this.numberId).bytes();
+    }
+
+    @Benchmark
+    public Id readNumberId() {
+        return BytesBuffer.wrap(this.numberIdBytes).readId();
+    }
+
+    @Benchmark
+    public byte[] writeStringId() {
+        return BytesBuffer.allocate(64).writeId(this.stringId).bytes();
+    }
+
+    @Benchmark
+    public Id readStringId() {
+        return BytesBuffer.wrap(this.stringIdBytes).readId();
+    }
+
+    @Benchmark
+    public byte[] writeString() {
+        return BytesBuffer.allocate(64).writeString(this.text).bytes();
+    }
+
+    @Benchmark
+    public String readString() {
+        return BytesBuffer.wrap(this.textBytes).readString();
+    }
+
+    @Benchmark
+    public byte[] writeMixed() {
+        return BytesBuffer.allocate(128)
+                          .writeId(this.numberId)
+                          .write((byte) 0x82)
+                          .writeId(this.stringId)
+                          .writeInt(1024)
+                          .writeLong(System.currentTimeMillis())
+                          .bytes();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.baidu.hugegraph.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.query.Condition;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.query.ConditionQueryFlatten;
+import com.baidu.hugegraph.type.HugeType;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Flatten the condition queries with AND, OR and IN conditions into
+ * the queries with only AND relations
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConditionQueryFlattenBenchmark {
+
+    private ConditionQuery andQuery;
+    private ConditionQuery orQuery;
+    private ConditionQuery inQuery;
+
+    @Setup
+    public void setup() {
+        Id name = IdGenerator.of(1L);
+        Id age = IdGenerator.of(2L);
+        Id city = IdGenerator.of(3L);
+        Id lang = IdGenerator.of(4L);
+
+        // name = 'marko' and age > 18 and age < 60 and city = 'Beijing'
+        this.andQuery = new ConditionQuery(HugeType.VERTEX);
+        this.andQuery.query(Condition.eq(name, "marko"));
+        this.andQuery.query(Condition.gt(age, 18));
+        this.andQuery.query(Condition.lt(age, 60));
+        this.andQuery.query(Condition.eq(city, "Beijing"));
+
+        // (name = 'marko' or name = 'josh') and (city = 'Beijing' or
+        // (age > 18 and lang = 'java'))
+        this.orQuery = new ConditionQuery(HugeType.VERTEX);
+        this.orQuery.query(Condition.eq(name, "marko")
+                                    .or(Condition.eq(name, "josh")));
+        this.orQuery.query(Condition.eq(city, "Beijing")
+                                    .or(Condition.gt(age, 18)
+                                    .and(Condition.eq(lang, "java"))));
+
+        // city in (...) and lang in (...) and age >= 18
+        this.inQuery = new ConditionQuery(HugeType.VERTEX);
+        this.inQuery.query(Condition.in(city, ImmutableList.of(
+                           "Beijing", "Shanghai", "Shenzhen", "Hangzhou")));
+        this.inQuery.query(Condition.in(lang, ImmutableList.of(
+                           "java", "c++", "python")));
+        this.inQuery.query(Condition.gte(age, 18));
+    }
+
+    @Benchmark
+    public List<ConditionQuery> flattenAnd() {
+        return ConditionQueryFlatten.flatten(this.andQuery);
+    }
+
+    @Benchmark
+    public List<ConditionQuery> flattenOr() {
+        return ConditionQueryFlatten.flatten(this.orQuery);
+    }
+
+    @Benchmark
+    public List<ConditionQuery> flattenIn() {
+        return ConditionQueryFlatten.flatten(this.inQuery);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.benchmark;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.baidu.hugegraph.backend.id.EdgeId;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.type.define.Directions;
+
+/**
+ * Hash and deduplicate the edge ids of adjacent edges like traversers do,
+ * the `*String` benchmarks measure the previous way which hashes and
+ * compares the spliced string form of edge ids
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EdgeIdBenchmark {
+
+    private static final Id LABEL = IdGenerator.of(1L);
+
+    @Param({"1000"})
+    private int edges;
+
+    private Id[] owners;
+    private Id[] others;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0L);
+        this.owners = new Id[this.edges];
+        this.others = new Id[this.edges];
+        for (int i = 0; i < this.edges; i++) {
+            // Some edges are duplicated
+            this.owners[i] = IdGenerator.of("1:" + random.nextInt(this.edges));
+            this.others[i] = IdGenerator.of(random.nextInt(this.edges));
+        }
+    }
+
+    private EdgeId edgeId(int i) {
+        return new EdgeId(this.owners[i], Directions.OUT, LABEL, "",
+                          this.others[i]);
+    }
+
+    @Benchmark
+    public int hashEdgeIds() {
+        int hash = 0;
+        for (int i = 0; i < this.edges; i++) {
+            hash += this.edgeId(i).hashCode();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int hashEdgeIdStrings() {
+        int hash = 0;
+        for (int i = 0; i < this.edges; i++) {
+            hash += this.edgeId(i).asString().hashCode();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public Set<Id> dedupEdgeIds() {
+        Set<Id> ids = new HashSet<>();
+        for (int i = 0; i < this.edges; i++) {
+            ids.add(this.edgeId(i));
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public Set<String> dedupEdgeIdStrings() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < this.edges; i++) {
+            ids.add(this.edgeId(i).asString());
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public int writeEdgeIds() {
+        int size = 0;
+        for (int i = 0; i < this.edges; i++) {
+            BytesBuffer buffer = BytesBuffer.allocate(64);
+            size += buffer.writeEdgeId(this.edgeId(i)).bytes().length;
+        }
+        return size;
+    }
+}
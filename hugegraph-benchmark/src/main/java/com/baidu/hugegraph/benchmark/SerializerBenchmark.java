@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.baidu.hugegraph.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.serializer.AbstractSerializer;
+import com.baidu.hugegraph.backend.serializer.SerializerFactory;
+import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.structure.HugeVertex;
+
+/**
+ * Write and read vertices and edges by the binary and text serializers,
+ * the edges are read back through the entry of their owner vertex like
+ * what the backend stores do
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+    private static final int EDGES = 10;
+
+    @Param({"binary", "text"})
+    private String serializer;
+
+    private HugeGraph graph;
+    private AbstractSerializer ser;
+
+    private HugeVertex vertex;
+    private HugeEdge edge;
+    private BackendEntry vertexEntry;
+    private BackendEntry edgesEntry;
+
+    @Setup
+    public void setup() {
+        this.graph = BenchmarkGraph.open("serializer_benchmark");
+        this.ser = SerializerFactory.serializer(this.serializer);
+
+        this.vertex = (HugeVertex) BenchmarkGraph.addPerson(this.graph, 0L);
+        for (long i = 1; i <= EDGES; i++) {
+            Vertex target = BenchmarkGraph.addPerson(this.graph, i);
+            this.edge = (HugeEdge) this.vertex.addEdge(BenchmarkGraph.KNOWS,
+                                                       target,
+                                                       "date", "2018-01-01");
+        }
+        this.graph.tx().commit();
+
+        this.vertexEntry = this.ser.writeVertex(this.vertex);
+        this.edgesEntry = this.ser.writeVertex(this.vertex);
+        for (HugeEdge edge : this.vertex.getEdges()) {
+            this.edgesEntry.merge(this.ser.writeEdge(edge));
+        }
+    }
+
+    @TearDown
+    public void teardown() {
+        BenchmarkGraph.close(this.graph);
+    }
+
+    @Benchmark
+    public BackendEntry writeVertex() {
+        return this.ser.writeVertex(this.vertex);
+    }
+
+    @Benchmark
+    public HugeVertex readVertex() {
+        return this.ser.readVertex(this.graph, this.vertexEntry);
+    }
+
+    @Benchmark
+    public BackendEntry writeEdge() {
+        return this.ser.writeEdge(this.edge);
+    }
+
+    @Benchmark
+    public HugeVertex readVertexWithEdges() {
+        return this.ser.readVertex(this.graph, this.edgesEntry);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.baidu.hugegraph.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.traversal.optimize.HugeTraverser;
+import com.baidu.hugegraph.type.define.Directions;
+
+/**
+ * Traverse a random graph in the in-memory backend by HugeTraverser, the
+ * source and target vertices are changed in each iteration
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TraverserBenchmark {
+
+    private static final long DEGREE = 10000L;
+    private static final long CAPACITY = 10000000L;
+    private static final long LIMIT = 10000L;
+
+    @Param({"10000"})
+    private int vertices;
+
+    @Param({"5"})
+    private int degree;
+
+    @Param({"2", "3"})
+    private int depth;
+
+    private HugeGraph graph;
+    private HugeTraverser traverser;
+    private List<Id> ids;
+
+    private int round;
+    private Id source;
+    private Id target;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.graph = BenchmarkGraph.open("traverser_benchmark");
+        this.ids = BenchmarkGraph.loadRandomGraph(this.graph, this.vertices,
+                                                  this.degree, 1L);
+        this.traverser = new HugeTraverser(this.graph);
+        this.round = 0;
+    }
+
+    @Setup(Level.Iteration)
+    public void nextVertices() {
+        int size = this.ids.size();
+        this.source = this.ids.get(this.round * 31 % size);
+        this.target = this.ids.get((this.round * 31 + size / 2) % size);
+        this.round++;
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        BenchmarkGraph.close(this.graph);
+    }
+
+    @Benchmark
+    public Set<Id> kout() {
+        return this.traverser.kout(this.source, Directions.OUT,
+                                   BenchmarkGraph.KNOWS, this.depth, true,
+                                   DEGREE, CAPACITY, LIMIT);
+    }
+
+    @Benchmark
+    public Set<Id> koutBoth() {
+        return this.traverser.kout(this.source, Directions.BOTH,
+                                   BenchmarkGraph.KNOWS, this.depth, true,
+                                   DEGREE, CAPACITY, LIMIT);
+    }
+
+    @Benchmark
+    public Set<HugeTraverser.Path> paths() {
+        return this.traverser.paths(this.source, Directions.OUT,
+                                    this.target, Directions.IN,
+                                    BenchmarkGraph.KNOWS, this.depth,
+                                    DEGREE, CAPACITY, LIMIT);
+    }
+}
@@ -99,6 +99,23 @@ public class CassandraEntryIterator extends BackendEntryIterator {
         return subRowsSize > 0 ? subRowsSize : 1L;
     }
 
+    @Override
+    protected final long skipRecords(long count) {
+        /*
+         * There is one row for each vertex, edge or index element, so skip
+         * the rows without converting them to entries.
+         * NOTE: the offset can't be set when paging, no need to update the
+         * remaining rows of the page
+         */
+        assert !this.query.paging();
+        long skipped = 0L;
+        while (skipped < count && this.rows.hasNext()) {
+            this.rows.next();
+            skipped++;
+        }
+        return skipped;
+    }
+
     @Override
     protected final long skip(BackendEntry entry, long skip) {
         CassandraBackendEntry e = (CassandraBackendEntry) entry;
@@ -75,6 +75,11 @@ public class CassandraFeatures implements BackendFeatures {
         return true;
     }
 
+    @Override
+    public boolean supportsQueryInBatch() {
+        return true;
+    }
+
     @Override
     public boolean supportsDeleteEdgeByLabel() {
         return true;
@@ -106,4 +111,9 @@ public class CassandraFeatures implements BackendFeatures {
     public boolean supportsNumberType() {
         return true;
     }
+
+    @Override
+    public boolean supportsIndexBitmap() {
+        return false;
+    }
 }
@@ -239,6 +239,14 @@ public abstract class CassandraStore
         return table.query(this.sessions.session(), query);
     }
 
+    @Override
+    public long queryNumber(Query query) {
+        this.checkSessionConnected();
+
+        CassandraTable table = this.table(CassandraTable.tableType(query));
+        return table.queryNumber(this.sessions.session(), query);
+    }
+
     @Override
     public BackendFeatures features() {
         return FEATURES;
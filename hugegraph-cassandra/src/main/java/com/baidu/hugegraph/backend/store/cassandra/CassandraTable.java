@@ -31,8 +31,11 @@ import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.query.BatchQuery;
 import com.baidu.hugegraph.backend.query.Condition;
 import com.baidu.hugegraph.backend.query.Condition.Relation;
+import com.baidu.hugegraph.backend.query.Condition.RelationType;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.query.Query.Order;
 import com.baidu.hugegraph.backend.store.BackendEntry;
@@ -99,7 +102,20 @@ public abstract class CassandraTable
             return rs;
         }
 
-        List<Select> selections = this.query2Select(this.table(), query);
+        List<Select> selections;
+        if (query instanceof BatchQuery) {
+            selections = this.batch2Select(this.table(), (BatchQuery) query);
+            if (selections == null) {
+                // Query one by one if can't merge the sub-queries
+                for (Query q : ((BatchQuery) query).queries()) {
+                    rs.extend(this.query(session, q));
+                }
+                return rs;
+            }
+        } else {
+            selections = this.query2Select(this.table(), query);
+        }
+
         try {
             for (Select selection : selections) {
                 ResultSet results = session.query(selection);
@@ -113,10 +129,38 @@ public abstract class CassandraTable
         return rs;
     }
 
+    @Override
+    public long queryNumber(CassandraSessionPool.Session session,
+                            Query query) {
+        return this.queryNumber(session, this.table(), query);
+    }
+
+    protected long queryNumber(CassandraSessionPool.Session session,
+                               String table, Query query) {
+        // Count by the server rather than returning the rows
+        Select select = QueryBuilder.select().countAll().from(table);
+        long count = 0L;
+        try {
+            for (Select selection : this.query2Select(select, query)) {
+                Row row = session.query(selection).one();
+                if (row != null) {
+                    count += row.getLong(0);
+                }
+            }
+        } catch (DriverException e) {
+            throw new BackendException("Failed to query number [%s]",
+                                       e, query);
+        }
+        LOG.debug("Return {} for query number {}", count, query);
+        return count;
+    }
+
     protected List<Select> query2Select(String table, Query query) {
         // Set table
-        Select select = QueryBuilder.select().from(table);
+        return this.query2Select(QueryBuilder.select().from(table), query);
+    }
 
+    protected List<Select> query2Select(Select select, Query query) {
         // NOTE: Cassandra does not support query.offset()
         if (query.offset() != 0) {
             LOG.debug("Query offset is not supported on Cassandra store " +
@@ -171,6 +215,71 @@ public abstract class CassandraTable
         }
     }
 
+    /**
+     * Merge the sub-queries of a batch query which only differ in partition
+     * key into selections like "pk IN (...) AND ck = ... PER PARTITION LIMIT
+     * n", return null if they can't be merged.
+     */
+    protected List<Select> batch2Select(String table, BatchQuery batch) {
+        List<HugeKeys> pkNames = this.pkColumnName();
+        long limit = batch.subLimit();
+        if (pkNames.size() != 1 || limit < 0L) {
+            return null;
+        }
+        HugeKeys pkName = pkNames.get(0);
+
+        Set<Condition> conditions = null;
+        List<Object> pkValues = new ArrayList<>(batch.size());
+        for (Query query : batch.queries()) {
+            if (!(query instanceof ConditionQuery) || !query.ids().isEmpty() ||
+                query.offset() != 0L || query.paging() ||
+                !query.orders().isEmpty()) {
+                return null;
+            }
+            Relation pk = null;
+            Set<Condition> others = new HashSet<>();
+            for (Condition condition : query.conditions()) {
+                if (condition.isRelation() &&
+                    ((Relation) condition).key() == pkName &&
+                    ((Relation) condition).relation() == RelationType.EQ) {
+                    pk = (Relation) condition;
+                } else {
+                    others.add(condition);
+                }
+            }
+            if (pk == null) {
+                return null;
+            }
+            if (conditions == null) {
+                conditions = others;
+            } else if (!conditions.equals(others)) {
+                return null;
+            }
+            pkValues.add(serializeValue(pk.serialValue()));
+        }
+
+        if (limit == 0L) {
+            return ImmutableList.of();
+        }
+
+        Select select = QueryBuilder.select().from(table);
+        if (limit != Query.NO_LIMIT) {
+            select.perPartitionLimit((int) limit);
+        }
+        // NOTE: the where clauses will be lost when cloning select
+        List<Select> selects = this.ids2IdSelects(select, pkName, pkValues);
+        for (Select selection : selects) {
+            for (Condition condition : conditions) {
+                Clause clause = condition2Cql(condition);
+                selection.where(clause);
+                if (Clauses.needAllowFiltering(clause)) {
+                    selection.allowFiltering();
+                }
+            }
+        }
+        return selects;
+    }
+
     protected List<Select> queryId2Select(Query query, Select select) {
         // Query by id(s)
         if (query.ids().isEmpty()) {
@@ -23,6 +23,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -40,8 +42,10 @@ import org.slf4j.Logger;
 import com.baidu.hugegraph.analyzer.Analyzer;
 import com.baidu.hugegraph.analyzer.AnalyzerFactory;
 import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.BlockCounter;
 import com.baidu.hugegraph.backend.cache.CachedGraphTransaction;
 import com.baidu.hugegraph.backend.cache.CachedSchemaTransaction;
+import com.baidu.hugegraph.backend.cache.IndexCache;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.serializer.AbstractSerializer;
@@ -49,7 +53,10 @@ import com.baidu.hugegraph.backend.serializer.SerializerFactory;
 import com.baidu.hugegraph.backend.store.BackendProviderFactory;
 import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.backend.store.BackendStoreProvider;
+import com.baidu.hugegraph.backend.tx.AsyncIndexWorker;
+import com.baidu.hugegraph.backend.tx.IndexBitmapCompactor;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.backend.tx.GroupCommitter;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.config.HugeConfig;
@@ -66,8 +73,10 @@ import com.baidu.hugegraph.task.TaskManager;
 import com.baidu.hugegraph.task.TaskScheduler;
 import com.baidu.hugegraph.traversal.optimize.HugeGraphStepStrategy;
 import com.baidu.hugegraph.traversal.optimize.HugeVertexStepStrategy;
+import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.GraphMode;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
 import com.baidu.hugegraph.util.LockUtil;
 import com.baidu.hugegraph.util.Log;
 import com.baidu.hugegraph.variables.HugeVariables;
@@ -81,6 +90,8 @@ public class HugeGraph implements GremlinGraph {
 
     private static final Logger LOG = Log.logger(HugeGraph.class);
 
+    private static final long INDEX_BITMAP_SEQUENCE_BLOCK = 10000L;
+
     static {
         TraversalStrategies strategies = null;
         strategies = TraversalStrategies.GlobalCache
@@ -102,12 +113,21 @@ public class HugeGraph implements GremlinGraph {
     private final EventHub schemaEventHub;
     private final EventHub indexEventHub;
     private final RateLimiter rateLimiter;
+    private final GroupCommitter groupCommitter;
     private final TaskManager taskManager;
 
     private final HugeFeatures features;
 
     private final BackendStoreProvider storeProvider;
     private final TinkerpopTransaction tx;
+    private final AsyncIndexWorker asyncIndexWorker;
+    private final BlockCounter indexBitmapSequence;
+    private final IndexBitmapCompactor indexBitmapCompactor;
+    // The worker threads shared by the traversers, null if not concurrent
+    private final ExecutorService oltpExecutor;
+    private final ExecutorService schemaJobExecutor;
+    private final IndexCache indexCache;
+    private final boolean compactProperties;
 
     private HugeVariables variables;
 
@@ -120,6 +140,14 @@ public class HugeGraph implements GremlinGraph {
         final int limit = configuration.get(CoreOptions.RATE_LIMIT);
         this.rateLimiter = limit > 0 ? RateLimiter.create(limit) : null;
 
+        final int window = configuration.get(CoreOptions.GROUP_COMMIT_WINDOW);
+        final int size = configuration.get(CoreOptions.GROUP_COMMIT_SIZE);
+        this.groupCommitter = window > 0 ?
+                              new GroupCommitter(window, size) : null;
+
+        this.compactProperties = configuration.get(
+                                 CoreOptions.ELEMENT_COMPACT_PROPERTIES);
+
         this.taskManager = TaskManager.instance();
 
         this.features = new HugeFeatures(this, true);
@@ -138,11 +166,54 @@ public class HugeGraph implements GremlinGraph {
             throw new HugeException(message);
         }
 
+        // Create the index cache and compactor before opening any tx
+        final int capacity = configuration.get(
+                             CoreOptions.INDEX_CACHE_CAPACITY);
+        if (capacity > 0) {
+            this.indexCache = new IndexCache(
+                    this.name, this.storeProvider, capacity,
+                    configuration.get(CoreOptions.INDEX_CACHE_EXPIRE));
+        } else {
+            this.indexCache = null;
+        }
+        if (configuration.get(CoreOptions.INDEX_BITMAP)) {
+            this.indexBitmapCompactor = new IndexBitmapCompactor(this);
+        } else {
+            this.indexBitmapCompactor = null;
+        }
+
         this.tx = new TinkerpopTransaction(this);
 
         this.taskManager.addScheduler(this);
 
         this.variables = null;
+
+        if (!configuration.get(CoreOptions.INDEX_ASYNC_LABELS).isEmpty()) {
+            this.asyncIndexWorker = new AsyncIndexWorker(
+                    this,
+                    configuration.get(CoreOptions.INDEX_ASYNC_BATCH_SIZE),
+                    configuration.get(CoreOptions.INDEX_ASYNC_INTERVAL),
+                    configuration.get(CoreOptions.INDEX_ASYNC_READ_WAIT));
+        } else {
+            this.asyncIndexWorker = null;
+        }
+        this.indexBitmapSequence = new BlockCounter(
+                                   this, HugeType.SECONDARY_INDEX,
+                                   INDEX_BITMAP_SEQUENCE_BLOCK);
+
+        final int threads = configuration.get(
+                            CoreOptions.OLTP_CONCURRENT_THREADS);
+        if (threads > 1) {
+            String name = "oltp-worker-" + this.name + "-%d";
+            this.oltpExecutor = ExecutorUtil.newFixedThreadPool(threads, name);
+        } else {
+            this.oltpExecutor = null;
+        }
+
+        final int workers = configuration.get(CoreOptions.SCHEMA_JOB_WORKERS);
+        this.schemaJobExecutor = ExecutorUtil.newFixedThreadPool(
+                                 workers, "schema-job-worker-" +
+                                 this.name + "-%d");
     }
 
     @Override
@@ -189,6 +260,50 @@ public class HugeGraph implements GremlinGraph {
         return this.rateLimiter;
     }
 
+    public GroupCommitter groupCommitter() {
+        return this.groupCommitter;
+    }
+
+    public boolean compactProperties() {
+        return this.compactProperties;
+    }
+
+    public AsyncIndexWorker asyncIndexWorker() {
+        return this.asyncIndexWorker;
+    }
+
+    /**
+     * The sequence of index bitmap deltas, which keeps increasing across
+     * restarts to order the deltas of an index
+     */
+    public BlockCounter indexBitmapSequence() {
+        return this.indexBitmapSequence;
+    }
+
+    /**
+     * The compactor of index bitmap deltas, null if index.bitmap_encoding
+     * is disabled
+     */
+    public IndexBitmapCompactor indexBitmapCompactor() {
+        return this.indexBitmapCompactor;
+    }
+
+    public ExecutorService oltpExecutor() {
+        return this.oltpExecutor;
+    }
+
+    public ExecutorService schemaJobExecutor() {
+        return this.schemaJobExecutor;
+    }
+
+    /**
+     * The cache of index queries shared by the transactions of the graph,
+     * null if index.cache_capacity is 0
+     */
+    public IndexCache indexCache() {
+        return this.indexCache;
+    }
+
     @Override
     public void initBackend() {
         this.loadSchemaStore().open(this.configuration);
@@ -397,6 +512,10 @@ public class HugeGraph implements GremlinGraph {
         return this.graphTransaction().queryEdges(query);
     }
 
+    public long queryNumber(Query query) {
+        return this.graphTransaction().queryNumber(query);
+    }
+
     public PropertyKey propertyKey(Id id) {
         PropertyKey pk = this.schemaTransaction().getPropertyKey(id);
         E.checkArgument(pk != null, "Undefined property key id: '%s'", id);
@@ -453,6 +572,28 @@ public class HugeGraph implements GremlinGraph {
     @Override
     public void close() throws HugeException {
         this.taskManager.closeScheduler(this);
+        if (this.asyncIndexWorker != null) {
+            this.asyncIndexWorker.close();
+        }
+        if (this.indexBitmapCompactor != null) {
+            this.indexBitmapCompactor.close();
+        }
+        if (this.oltpExecutor != null) {
+            // The tx of worker thread is closed after each task
+            this.oltpExecutor.shutdown();
+        }
+        /*
+         * The schema jobs can continue from their checkpoints after restarting,
+         * cancel the pending shards to wake up the jobs waiting for them
+         */
+        for (Runnable shard : this.schemaJobExecutor.shutdownNow()) {
+            if (shard instanceof Future) {
+                ((Future<?>) shard).cancel(false);
+            }
+        }
+        if (this.indexCache != null) {
+            this.indexCache.close();
+        }
         try {
             this.closeTx();
         } finally {
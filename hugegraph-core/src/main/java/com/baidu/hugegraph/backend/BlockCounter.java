@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * Generate increasing numbers from the persistent counter of a type in the
+ * schema store. The numbers are allocated from the counter in blocks, so
+ * that the counter is updated once a block, and the numbers still increase
+ * after restarting since the rest of the last block is skipped.
+ */
+public class BlockCounter {
+
+    private final HugeGraph graph;
+    private final HugeType type;
+    private final long blockSize;
+
+    // The next number and the end (exclusive) of the current block
+    private long next;
+    private long end;
+
+    public BlockCounter(HugeGraph graph, HugeType type, long blockSize) {
+        E.checkArgument(blockSize > 0L,
+                        "The block size of counter must be > 0, but got %s",
+                        blockSize);
+        this.graph = graph;
+        this.type = type;
+        this.blockSize = blockSize;
+        this.next = 0L;
+        this.end = 0L;
+    }
+
+    public synchronized long next() {
+        if (this.next >= this.end) {
+            this.next = this.graph.schemaTransaction()
+                                  .getNextIdBlock(this.type, this.blockSize);
+            this.end = this.next + this.blockSize;
+        }
+        return this.next++;
+    }
+}
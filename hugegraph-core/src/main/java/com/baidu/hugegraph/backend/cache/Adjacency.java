@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.baidu.hugegraph.backend.id.EdgeId;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.id.IdUtil;
+import com.baidu.hugegraph.backend.id.SplicingIdGenerator;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
+
+/**
+ * The adjacent edges of a vertex in one direction, grouped by edge label.
+ * The other vertex ids are kept in a primitive long array if all of them
+ * are numbers, and the edge names (sort values) are only kept if any of
+ * them is not empty, so an edge costs 8 bytes in the common case.
+ * Any edge id can be rebuilt from the owner vertex, the direction and the
+ * (label, edge name, other vertex) triple.
+ */
+public final class Adjacency {
+
+    private static final String EMPTY_NAME = "";
+
+    private final Id owner;
+    private final Directions direction;
+
+    // Edges with label `labels[i]` are in the range [offsets[i], offsets[i+1])
+    private final Id[] labels;
+    private final int[] offsets;
+
+    // Only one of them is not null
+    private final long[] numberVertices;
+    private final Id[] vertices;
+
+    // Null if all edge names are empty
+    private final String[] names;
+
+    private Adjacency(Id owner, Directions direction, Id[] labels,
+                      int[] offsets, long[] numberVertices, Id[] vertices,
+                      String[] names) {
+        this.owner = owner;
+        this.direction = direction;
+        this.labels = labels;
+        this.offsets = offsets;
+        this.numberVertices = numberVertices;
+        this.vertices = vertices;
+        this.names = names;
+    }
+
+    public Id owner() {
+        return this.owner;
+    }
+
+    public Directions direction() {
+        return this.direction;
+    }
+
+    public int size() {
+        return this.offsets[this.labels.length];
+    }
+
+    public int size(Id label) {
+        if (label == null) {
+            return this.size();
+        }
+        int index = this.labelIndex(label);
+        if (index < 0) {
+            return 0;
+        }
+        return this.offsets[index + 1] - this.offsets[index];
+    }
+
+    /**
+     * Iterate edge ids with the specified label(all labels if null), at most
+     * `limit` edge ids are returned if limit is not negative
+     */
+    public Iterator<EdgeId> edgeIds(Id label, long limit) {
+        int begin;
+        int end;
+        if (label == null) {
+            begin = 0;
+            end = this.size();
+        } else {
+            int index = this.labelIndex(label);
+            if (index < 0) {
+                return Collections.emptyIterator();
+            }
+            begin = this.offsets[index];
+            end = this.offsets[index + 1];
+        }
+        if (limit >= 0L && limit < end - begin) {
+            end = begin + (int) limit;
+        }
+        return new EdgeIdIterator(begin, end);
+    }
+
+    private int labelIndex(Id label) {
+        for (int i = 0; i < this.labels.length; i++) {
+            if (this.labels[i].equals(label)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private EdgeId edgeId(int labelIndex, int position) {
+        Id other = this.vertices != null ?
+                   this.vertices[position] :
+                   IdGenerator.of(this.numberVertices[position]);
+        String name = this.names != null ? this.names[position] : EMPTY_NAME;
+        return new EdgeId(this.owner, this.direction, this.labels[labelIndex],
+                          name, other);
+    }
+
+    public static Id key(Id owner, Directions direction, Id label) {
+        assert direction == Directions.OUT || direction == Directions.IN;
+        String labelPart = label == null ? EMPTY_NAME : label.asString();
+        return IdGenerator.of(SplicingIdGenerator.concat(
+                              IdUtil.writeString(owner),
+                              direction.type().string(),
+                              labelPart));
+    }
+
+    public static Builder builder(Id owner, Directions direction) {
+        return new Builder(owner, direction);
+    }
+
+    public static class Builder {
+
+        private final Id owner;
+        private final Directions direction;
+        private final Map<Id, List<EdgeId>> edges;
+        private int size;
+
+        public Builder(Id owner, Directions direction) {
+            E.checkArgument(direction == Directions.OUT ||
+                            direction == Directions.IN,
+                            "The direction of adjacency must be OUT or IN, " +
+                            "but got '%s'", direction);
+            this.owner = owner;
+            this.direction = direction;
+            this.edges = InsertionOrderUtil.newMap();
+            this.size = 0;
+        }
+
+        public Builder add(EdgeId edge) {
+            assert this.owner.equals(edge.ownerVertexId());
+            assert this.direction == edge.direction();
+            List<EdgeId> group = this.edges.get(edge.edgeLabelId());
+            if (group == null) {
+                group = new ArrayList<>();
+                this.edges.put(edge.edgeLabelId(), group);
+            }
+            group.add(edge);
+            this.size++;
+            return this;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public Adjacency build() {
+            Id[] labels = new Id[this.edges.size()];
+            int[] offsets = new int[labels.length + 1];
+
+            boolean allNumber = true;
+            boolean anyName = false;
+            for (List<EdgeId> group : this.edges.values()) {
+                for (EdgeId edge : group) {
+                    if (!edge.otherVertexId().number()) {
+                        allNumber = false;
+                    }
+                    if (!edge.sortValues().isEmpty()) {
+                        anyName = true;
+                    }
+                }
+            }
+
+            long[] numberVertices = allNumber ? new long[this.size] : null;
+            Id[] vertices = allNumber ? null : new Id[this.size];
+            String[] names = anyName ? new String[this.size] : null;
+
+            int i = 0;
+            int position = 0;
+            for (Map.Entry<Id, List<EdgeId>> e : this.edges.entrySet()) {
+                labels[i] = e.getKey();
+                offsets[i] = position;
+                for (EdgeId edge : e.getValue()) {
+                    if (allNumber) {
+                        numberVertices[position] = edge.otherVertexId()
+                                                       .asLong();
+                    } else {
+                        vertices[position] = edge.otherVertexId();
+                    }
+                    if (anyName) {
+                        names[position] = edge.sortValues();
+                    }
+                    position++;
+                }
+                i++;
+            }
+            offsets[i] = position;
+            assert position == this.size;
+
+            return new Adjacency(this.owner, this.direction, labels, offsets,
+                                 numberVertices, vertices, names);
+        }
+    }
+
+    private class EdgeIdIterator implements Iterator<EdgeId> {
+
+        private final int end;
+        private int position;
+        private int labelIndex;
+
+        public EdgeIdIterator(int begin, int end) {
+            this.end = end;
+            this.position = begin;
+            this.labelIndex = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < this.end;
+        }
+
+        @Override
+        public EdgeId next() {
+            if (this.position >= this.end) {
+                throw new NoSuchElementException();
+            }
+            int[] offsets = Adjacency.this.offsets;
+            while (offsets[this.labelIndex + 1] <= this.position) {
+                this.labelIndex++;
+            }
+            return Adjacency.this.edgeId(this.labelIndex, this.position++);
+        }
+    }
+}
@@ -28,12 +28,16 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 
+import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.util.Log;
 
 public class CacheManager {
 
     private static final Logger LOG = Log.logger(Cache.class);
 
+    public static final String RAM_CACHE = "ram";
+    public static final String TINYLFU_CACHE = "tinylfu";
+
     private static CacheManager INSTANCE = new CacheManager();
 
     // Check the cache expiration every 30s by default
@@ -96,9 +100,33 @@ public class CacheManager {
     }
 
     public Cache cache(String name, int capacity) {
+        return this.cache(name, RAM_CACHE, capacity);
+    }
+
+    public Cache cache(String name, String type, int capacity) {
         if (!this.caches.containsKey(name)) {
-            this.caches.putIfAbsent(name, new RamCache(capacity));
+            this.caches.putIfAbsent(name, newCache(type, capacity));
         }
         return this.caches.get(name);
     }
+
+    public Cache offheapCache(String name, long capacity,
+                              OffheapCache.Codec codec) {
+        if (!this.caches.containsKey(name)) {
+            // The direct memory is allocated lazily, so it's cheap to create
+            this.caches.putIfAbsent(name, new OffheapCache(capacity, codec));
+        }
+        return this.caches.get(name);
+    }
+
+    private static Cache newCache(String type, int capacity) {
+        switch (type) {
+            case RAM_CACHE:
+                return new RamCache(capacity);
+            case TINYLFU_CACHE:
+                return new TinyLfuCache(capacity);
+            default:
+                throw new NotSupportException("cache type '%s'", type);
+        }
+    }
 }
@@ -152,6 +152,11 @@ public class CachedBackendStore implements BackendStore {
         }
     }
 
+    @Override
+    public long queryNumber(Query query) {
+        return this.store.queryNumber(query);
+    }
+
     /**
      * Query as an Id for cache
      */
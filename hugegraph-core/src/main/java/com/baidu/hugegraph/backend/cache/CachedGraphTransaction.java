@@ -21,11 +21,16 @@ package com.baidu.hugegraph.backend.cache;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
 
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.cache.CachedBackendStore.QueryId;
+import com.baidu.hugegraph.backend.id.EdgeId;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.query.IdQuery;
 import com.baidu.hugegraph.backend.query.Query;
@@ -34,10 +39,15 @@ import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.iterator.ExtendableIterator;
+import com.baidu.hugegraph.iterator.FilterIterator;
+import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.google.common.collect.ImmutableList;
 
 public class CachedGraphTransaction extends GraphTransaction {
@@ -45,25 +55,54 @@ public class CachedGraphTransaction extends GraphTransaction {
     private final static int MAX_CACHE_EDGES_PER_QUERY = 100;
 
     private final Cache verticesCache;
+    // The second tier of vertex cache which is off heap, null if disabled
+    private final Cache verticesOffheapCache;
     private final Cache edgesCache;
+    // The adjacent edges of vertices, null if disabled
+    private final Cache adjacencyCache;
+    private final int adjacencyMaxDegree;
 
     public CachedGraphTransaction(HugeGraph graph, BackendStore store) {
         super(graph, store);
 
         HugeConfig conf = graph.configuration();
 
+        String type = conf.get(CoreOptions.VERTEX_CACHE_TYPE);
         int capacity = conf.get(CoreOptions.VERTEX_CACHE_CAPACITY);
         int expire = conf.get(CoreOptions.VERTEX_CACHE_EXPIRE);
-        this.verticesCache = this.cache("vertex", capacity, expire);
+        this.verticesCache = this.cache("vertex", type, capacity, expire);
+
+        long maxBytes = conf.get(CoreOptions.VERTEX_CACHE_MAX_BYTES);
+        if (maxBytes > 0L) {
+            String name = "vertex-offheap-" + graph.name();
+            this.verticesOffheapCache = CacheManager.instance().offheapCache(
+                                        name, maxBytes,
+                                        OffheapCache.vertexCodec(graph));
+            this.verticesOffheapCache.expire(expire);
+        } else {
+            this.verticesOffheapCache = null;
+        }
 
+        type = conf.get(CoreOptions.EDGE_CACHE_TYPE);
         capacity = conf.get(CoreOptions.EDGE_CACHE_CAPACITY);
         expire = conf.get(CoreOptions.EDGE_CACHE_EXPIRE);
-        this.edgesCache = this.cache("edge", capacity, expire);
+        this.edgesCache = this.cache("edge", type, capacity, expire);
+
+        capacity = conf.get(CoreOptions.EDGE_ADJACENCY_CACHE_CAPACITY);
+        if (capacity > 0) {
+            this.adjacencyCache = this.cache("adjacency", type,
+                                             capacity, expire);
+        } else {
+            this.adjacencyCache = null;
+        }
+        this.adjacencyMaxDegree = conf.get(
+                                  CoreOptions.EDGE_ADJACENCY_CACHE_MAX_DEGREE);
     }
 
-    private Cache cache(String prefix, int capacity, long expire) {
+    private Cache cache(String prefix, String type,
+                        int capacity, long expire) {
         String name = prefix + "-" + super.graph().name();
-        Cache cache = CacheManager.instance().cache(name, capacity);
+        Cache cache = CacheManager.instance().cache(name, type, capacity);
         cache.expire(expire);
         return cache;
     }
@@ -82,6 +121,13 @@ public class CachedGraphTransaction extends GraphTransaction {
         List<HugeVertex> vertices = new ArrayList<>(query.ids().size());
         for (Id vertexId : query.ids()) {
             Object vertex = this.verticesCache.get(vertexId);
+            if (vertex == null && this.verticesOffheapCache != null) {
+                vertex = this.verticesOffheapCache.get(vertexId);
+                if (vertex != null) {
+                    // Promote the vertex to the first tier
+                    this.verticesCache.update(vertexId, vertex);
+                }
+            }
             if (vertex != null) {
                 vertices.add((HugeVertex) vertex);
             } else {
@@ -98,6 +144,9 @@ public class CachedGraphTransaction extends GraphTransaction {
                 HugeVertex vertex = rs.next();
                 vertices.add(vertex);
                 this.verticesCache.update(vertex.id(), vertex);
+                if (this.verticesOffheapCache != null) {
+                    this.verticesOffheapCache.update(vertex.id(), vertex);
+                }
             }
         }
         return vertices.iterator();
@@ -123,6 +172,194 @@ public class CachedGraphTransaction extends GraphTransaction {
         return edges.iterator();
     }
 
+    @Override
+    public Iterator<EdgeId> queryAdjacentEdgeIds(Id vertex,
+                                                 Directions direction,
+                                                 Id label, long limit) {
+        if (this.adjacencyCache == null || this.hasUpdates()) {
+            // The changes in local tx are not reflected in the cache
+            return super.queryAdjacentEdgeIds(vertex, direction,
+                                              label, limit);
+        }
+
+        if (direction != Directions.BOTH) {
+            Adjacency adjacency = this.adjacency(vertex, direction,
+                                                 label, limit);
+            if (adjacency == null) {
+                return super.queryAdjacentEdgeIds(vertex, direction,
+                                                  label, limit);
+            }
+            return adjacency.edgeIds(label, limit);
+        }
+
+        Adjacency outs = this.adjacency(vertex, Directions.OUT, label, limit);
+        Adjacency ins = this.adjacency(vertex, Directions.IN, label, limit);
+        if (outs == null || ins == null) {
+            return super.queryAdjacentEdgeIds(vertex, direction,
+                                              label, limit);
+        }
+        return bothEdgeIds(outs, ins, label, limit);
+    }
+
+    @Override
+    public Iterator<EdgeId> queryAdjacentEdgeIds(Collection<Id> vertices,
+                                                 Directions direction,
+                                                 Id label, long limit) {
+        if (this.adjacencyCache == null || this.hasUpdates()) {
+            // The changes in local tx are not reflected in the cache
+            return super.queryAdjacentEdgeIds(vertices, direction,
+                                              label, limit);
+        }
+
+        ExtendableIterator<EdgeId> results = new ExtendableIterator<>();
+        List<Id> uncached = new ArrayList<>();
+        if (direction != Directions.BOTH) {
+            Map<Id, Adjacency> adjacencies = this.adjacencies(vertices,
+                                                              direction,
+                                                              label, limit);
+            for (Id vertex : vertices) {
+                Adjacency adjacency = adjacencies.get(vertex);
+                if (adjacency == null) {
+                    uncached.add(vertex);
+                } else {
+                    results.extend(adjacency.edgeIds(label, limit));
+                }
+            }
+        } else {
+            Map<Id, Adjacency> outs = this.adjacencies(vertices, Directions.OUT,
+                                                       label, limit);
+            Map<Id, Adjacency> ins = this.adjacencies(vertices, Directions.IN,
+                                                      label, limit);
+            for (Id vertex : vertices) {
+                Adjacency out = outs.get(vertex);
+                Adjacency in = ins.get(vertex);
+                if (out == null || in == null) {
+                    uncached.add(vertex);
+                } else {
+                    results.extend(bothEdgeIds(out, in, label, limit));
+                }
+            }
+        }
+
+        if (!uncached.isEmpty()) {
+            results.extend(super.queryAdjacentEdgeIds(uncached, direction,
+                                                      label, limit));
+        }
+        return results;
+    }
+
+    /**
+     * Get the adjacent edges of a vertex in one direction from the cache, or
+     * fetch them from the backend and put them into the cache if the count
+     * of them doesn't exceed the max degree. The label-filtered read can be
+     * served by the cached item of all labels. Return null if the edges are
+     * too many to be cached and the limit can't be satisfied by fetched ones.
+     */
+    private Adjacency adjacency(Id vertex, Directions direction,
+                                Id label, long limit) {
+        return this.adjacencies(ImmutableList.of(vertex), direction,
+                                label, limit).get(vertex);
+    }
+
+    /**
+     * Batch version of adjacency(), the uncached vertices are fetched from
+     * the backend by one batch query, the vertices which can't be served
+     * are absent from the returned map.
+     */
+    private Map<Id, Adjacency> adjacencies(Collection<Id> vertices,
+                                           Directions direction,
+                                           Id label, long limit) {
+        assert direction == Directions.OUT || direction == Directions.IN;
+        Map<Id, Adjacency> adjacencies = new HashMap<>();
+        Map<Id, Adjacency.Builder> builders = InsertionOrderUtil.newMap();
+        for (Id vertex : vertices) {
+            Id key = Adjacency.key(vertex, direction, label);
+            Object value = this.adjacencyCache.get(key);
+            if (value == null && label != null) {
+                Id allLabelsKey = Adjacency.key(vertex, direction, null);
+                value = this.adjacencyCache.get(allLabelsKey);
+            }
+            if (value != null) {
+                adjacencies.put(vertex, (Adjacency) value);
+            } else if (!builders.containsKey(vertex)) {
+                builders.put(vertex, Adjacency.builder(vertex, direction));
+            }
+        }
+        if (builders.isEmpty()) {
+            return adjacencies;
+        }
+
+        Map<Id, Integer> fetched = new HashMap<>();
+        Iterator<HugeEdge> edges = super.queryAdjacentEdgesFromBackend(
+                                   builders.keySet(), direction, label,
+                                   this.adjacencyMaxDegree + 1L);
+        while (edges.hasNext()) {
+            HugeEdge edge = edges.next();
+            Id owner = edge.id().ownerVertexId();
+            int count = fetched.merge(owner, 1, Integer::sum);
+            if (count > this.adjacencyMaxDegree ||
+                Graph.Hidden.isHidden(edge.label())) {
+                // The edge exceeding max degree is only used to detect it
+                continue;
+            }
+            Adjacency.Builder builder = builders.get(owner);
+            assert builder != null : owner;
+            builder.add(edge.id());
+        }
+
+        for (Map.Entry<Id, Adjacency.Builder> e : builders.entrySet()) {
+            Id vertex = e.getKey();
+            Adjacency adjacency = e.getValue().build();
+            if (fetched.getOrDefault(vertex, 0) <= this.adjacencyMaxDegree) {
+                Id key = Adjacency.key(vertex, direction, label);
+                this.adjacencyCache.update(key, adjacency);
+            } else if (limit < 0L || limit > this.adjacencyMaxDegree) {
+                // Some edges are not fetched, can't serve the query
+                continue;
+            }
+            adjacencies.put(vertex, adjacency);
+        }
+        return adjacencies;
+    }
+
+    private static Iterator<EdgeId> bothEdgeIds(Adjacency outs,
+                                                Adjacency ins,
+                                                Id label, long limit) {
+        Id vertex = outs.owner();
+        List<EdgeId> edges = new ArrayList<>(outs.size(label) +
+                                             ins.size(label));
+        Iterator<EdgeId> iter = outs.edgeIds(label, limit);
+        while (iter.hasNext()) {
+            edges.add(iter.next());
+        }
+        // The self-loop edge has been returned as an OUT edge
+        iter = new FilterIterator<>(ins.edgeIds(label, -1L), edge -> {
+            return !edge.otherVertexId().equals(vertex);
+        });
+        while (iter.hasNext() && (limit < 0L || edges.size() < limit)) {
+            edges.add(iter.next());
+        }
+        return edges.iterator();
+    }
+
+    private void invalidateAdjacency(Collection<HugeEdge> edges) {
+        for (HugeEdge edge : edges) {
+            EdgeId id = edge.id();
+            Id label = id.edgeLabelId();
+            Id owner = id.ownerVertexId();
+            Id other = id.otherVertexId();
+            Directions direction = id.direction();
+            Directions opposite = direction.opposite();
+            this.adjacencyCache.invalidate(Adjacency.key(owner, direction,
+                                                         label));
+            this.adjacencyCache.invalidate(Adjacency.key(owner, direction,
+                                                         null));
+            this.adjacencyCache.invalidate(Adjacency.key(other, opposite,
+                                                         label));
+            this.adjacencyCache.invalidate(Adjacency.key(other, opposite,
+                                                         null));
+        }
+    }
 
     @Override
     protected void commitMutation2Backend(BackendMutation... mutations) {
@@ -130,6 +367,12 @@ public class CachedGraphTransaction extends GraphTransaction {
         Collection<HugeVertex> changes = this.verticesInTxUpdated();
         Collection<HugeVertex> deletions = this.verticesInTxRemoved();
         int edgesInTxSize = this.edgesInTxSize();
+        Collection<HugeEdge> adjacencyChanges = null;
+        if (this.adjacencyCache != null && edgesInTxSize > 0) {
+            // Collect edges whose adjacent vertices need to be refreshed
+            adjacencyChanges = this.edgesInTxRemoved();
+            adjacencyChanges.addAll(this.edgesInTxUpdated());
+        }
 
         try {
             super.commitMutation2Backend(mutations);
@@ -137,11 +380,18 @@ public class CachedGraphTransaction extends GraphTransaction {
             for (HugeVertex vertex : changes) {
                 vertex = vertex.resetTx();
                 this.verticesCache.updateIfPresent(vertex.id(), vertex);
+                if (this.verticesOffheapCache != null) {
+                    this.verticesOffheapCache.updateIfPresent(vertex.id(),
+                                                              vertex);
+                }
             }
         } finally {
             // Update removed vertex in cache whatever success or fail
             for (HugeVertex vertex : deletions) {
                 this.verticesCache.invalidate(vertex.id());
+                if (this.verticesOffheapCache != null) {
+                    this.verticesOffheapCache.invalidate(vertex.id());
+                }
             }
 
             // Update edge cache if any edges change
@@ -149,6 +399,23 @@ public class CachedGraphTransaction extends GraphTransaction {
                 // TODO: Use a more precise strategy to update the edge cache
                 this.edgesCache.clear();
             }
+            // Update adjacency cache precisely by the added/removed edges
+            if (adjacencyChanges != null) {
+                this.invalidateAdjacency(adjacencyChanges);
+            }
+        }
+    }
+
+    @Override
+    public void removeEdges(EdgeLabel edgeLabel) {
+        try {
+            super.removeEdges(edgeLabel);
+        } finally {
+            // The edges may be deleted by label directly in backend
+            this.edgesCache.clear();
+            if (this.adjacencyCache != null) {
+                this.adjacencyCache.clear();
+            }
         }
     }
 
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.query.Condition;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.store.BackendStoreProvider;
+import com.baidu.hugegraph.event.EventListener;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Events;
+import com.baidu.hugegraph.util.Log;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The cache of index queries of a graph, each item holds the element ids
+ * of an index query. The key of an item contains the version of the index
+ * label, which is bumped when the index label is updated, so that all the
+ * cached items of it become unreachable and are evicted later.
+ *
+ * It's shared by the index transactions of a graph, and listens to the
+ * store events only once to clear the items.
+ */
+public class IndexCache {
+
+    private static final Logger LOG = Log.logger(IndexCache.class);
+
+    // Generate the versions of index labels, unique in the process
+    private static final AtomicLong VERSION = new AtomicLong(0L);
+
+    private static final Set<String> STORE_EVENTS = ImmutableSet.of(
+                                                    Events.STORE_INIT,
+                                                    Events.STORE_CLEAR,
+                                                    Events.STORE_TRUNCATE);
+
+    private final String graph;
+    private final BackendStoreProvider provider;
+    // The element ids of index queries
+    private final Cache ids;
+    // The versions of index labels, which are parts of the cache keys
+    private final Cache versions;
+    private final EventListener storeEventListener;
+
+    public IndexCache(String graph, BackendStoreProvider provider,
+                      int capacity, long expire) {
+        E.checkArgument(capacity > 0,
+                        "The capacity of index cache must be > 0, " +
+                        "but got %s", capacity);
+        this.graph = graph;
+        this.provider = provider;
+        this.ids = CacheManager.instance().cache("index-" + graph, capacity);
+        this.ids.expire(expire);
+        this.versions = CacheManager.instance().cache("index-version-" +
+                                                      graph, capacity);
+        this.storeEventListener = event -> {
+            if (STORE_EVENTS.contains(event.name())) {
+                LOG.debug("Graph {} clear index cache on event '{}'",
+                          this.graph, event.name());
+                this.clear();
+                return true;
+            }
+            return false;
+        };
+        this.provider.listen(this.storeEventListener);
+    }
+
+    /**
+     * Generate the cache key of index query by the current version of the
+     * index label and the normalized query, it must be generated before
+     * querying from the backend, so that the ids read before the index
+     * label is updated are not cached with the new version
+     */
+    public Id key(Id indexLabel, ConditionQuery query) {
+        Object version = this.versions.getOrFetch(indexLabel, id -> {
+            return VERSION.incrementAndGet();
+        });
+        // Sort the conditions which are ordered by adding
+        List<String> conditions = new ArrayList<>(query.conditions().size());
+        for (Condition condition : query.conditions()) {
+            conditions.add(condition.toString());
+        }
+        Collections.sort(conditions);
+        return IdGenerator.of(indexLabel.asString() + "-" + version +
+                              "-" + conditions + "-" + query.offset() +
+                              "-" + query.limit());
+    }
+
+    @SuppressWarnings("unchecked")
+    public Set<Id> get(Id key) {
+        return (Set<Id>) this.ids.get(key);
+    }
+
+    public void update(Id key, Set<Id> ids) {
+        this.ids.update(key, Collections.unmodifiableSet(ids));
+    }
+
+    /**
+     * Make the cached items of the index label unreachable by bumping its
+     * version, it's called after the updates of the index label committed
+     */
+    public void invalidate(Id indexLabel) {
+        this.versions.update(indexLabel, VERSION.incrementAndGet());
+    }
+
+    public void clear() {
+        this.ids.clear();
+        this.versions.clear();
+    }
+
+    public void close() {
+        this.provider.unlisten(this.storeEventListener);
+    }
+}
@@ -0,0 +1,712 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.serializer.BinaryBackendEntry;
+import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.perf.PerfUtil.Watched;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * A cache that stores the serialized values in direct memory bounded by
+ * bytes, so that lots of items can be cached without GC pressure.
+ *
+ * The memory is split into segments by hash of key, each segment is a
+ * circular log of entries guarded by its own lock, the oldest entries are
+ * evicted when the log is full (FIFO). Only a compact index from the hash
+ * of key to the offset of entry stays in heap.
+ *
+ * Entry layout: | length(int) | time(long) | key | value |
+ */
+public class OffheapCache implements Cache {
+
+    private static final Logger LOG = Log.logger(Cache.class);
+
+    private static final int MIN_SEGMENTS = 64;
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+    private static final int MIN_SEGMENT_BYTES = 64 * 1024;
+
+    private static final int WRAP_MARK = -1;
+    private static final int HEADER_LEN = BytesBuffer.INT_LEN +
+                                          BytesBuffer.LONG_LEN;
+
+    private final LongAdder hits;
+    private final LongAdder miss;
+
+    // Default expire time(ms)
+    private volatile long expire;
+
+    // NOTE: the capacity in bytes, not in number of items
+    private final long capacity;
+
+    private final Codec codec;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    public OffheapCache(long capacity, Codec codec) {
+        E.checkArgument(capacity > 0L,
+                        "The capacity of offheap cache must be > 0, " +
+                        "but got %s", capacity);
+        E.checkNotNull(codec, "codec");
+        this.capacity = capacity;
+        this.codec = codec;
+        this.hits = new LongAdder();
+        this.miss = new LongAdder();
+        this.expire = 0L;
+
+        int segments = MIN_SEGMENTS;
+        while (capacity / segments > MAX_SEGMENT_BYTES) {
+            segments <<= 1;
+        }
+        while (segments > 1 && capacity / segments < MIN_SEGMENT_BYTES) {
+            segments >>= 1;
+        }
+        int segmentBytes = (int) Math.min(capacity / segments,
+                                          MAX_SEGMENT_BYTES);
+        this.segments = new Segment[segments];
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new Segment(segmentBytes);
+        }
+        this.segmentMask = segments - 1;
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public Object get(Id id) {
+        if (id == null) {
+            return null;
+        }
+        byte[] key = keyBytes(id);
+        byte[] value = this.segment(id).get(key, this.expire);
+        if (value == null) {
+            this.miss.increment();
+            return null;
+        }
+        this.hits.increment();
+        return this.codec.decode(id, value);
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public Object getOrFetch(Id id, Function<Id, Object> fetcher) {
+        Object value = this.get(id);
+        if (value == null) {
+            // Do fetch and update the cache
+            value = fetcher.apply(id);
+            this.update(id, value);
+        }
+        return value;
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void update(Id id, Object value) {
+        this.write(id, value, null);
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void updateIfAbsent(Id id, Object value) {
+        this.write(id, value, false);
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void updateIfPresent(Id id, Object value) {
+        this.write(id, value, true);
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void invalidate(Id id) {
+        if (id == null) {
+            return;
+        }
+        this.segment(id).remove(keyBytes(id));
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void traverse(Consumer<Object> consumer) {
+        E.checkNotNull(consumer, "consumer");
+        for (Segment segment : this.segments) {
+            // Copy out the values of a segment, decode them without lock
+            Map<Id, byte[]> values = segment.values();
+            for (Map.Entry<Id, byte[]> e : values.entrySet()) {
+                consumer.accept(this.codec.decode(e.getKey(), e.getValue()));
+            }
+        }
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void clear() {
+        for (Segment segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public void expire(long seconds) {
+        // Convert the unit from seconds to milliseconds
+        this.expire = seconds * 1000;
+    }
+
+    @Override
+    public long expire() {
+        return this.expire;
+    }
+
+    @Override
+    public long tick() {
+        long expireTime = this.expire;
+        if (expireTime <= 0) {
+            return 0L;
+        }
+
+        long expireItems = 0L;
+        long current = now();
+        for (Segment segment : this.segments) {
+            expireItems += segment.expire(current - expireTime);
+        }
+
+        if (expireItems > 0) {
+            LOG.debug("Cache expired {} items cost {}ms (size {}, expire {}ms)",
+                      expireItems, now() - current, this.size(), expireTime);
+        }
+        return expireItems;
+    }
+
+    @Override
+    public long capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public long size() {
+        long size = 0L;
+        for (Segment segment : this.segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long miss() {
+        return this.miss.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OffheapCache{capacity=%s, segments=%s, size=%s}",
+                             this.capacity, this.segments.length,
+                             this.size());
+    }
+
+    /**
+     * Write a value, the `present` means: null for always writing,
+     * true for writing only if present, false for only if absent
+     */
+    private void write(Id id, Object value, Boolean present) {
+        if (id == null || value == null) {
+            return;
+        }
+        byte[] key = keyBytes(id);
+        byte[] bytes = this.codec.encode(value);
+        Segment segment = this.segment(id);
+        if (!segment.put(key, bytes, present) && LOG.isDebugEnabled()) {
+            LOG.debug("OffheapCache skipped '{}' with {} bytes (capacity={})",
+                      id, bytes.length, this.capacity);
+        }
+    }
+
+    private Segment segment(Id id) {
+        int hash = id.hashCode();
+        hash ^= (hash >>> 16);
+        return this.segments[hash & this.segmentMask];
+    }
+
+    private static byte[] keyBytes(Id id) {
+        return BytesBuffer.allocate(1 + id.length()).writeId(id).bytes();
+    }
+
+    private static final long now() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Convert values from/to bytes
+     */
+    public interface Codec {
+
+        public byte[] encode(Object value);
+
+        public Object decode(Id id, byte[] bytes);
+    }
+
+    /**
+     * Create a codec which converts vertices with BinarySerializer
+     */
+    public static Codec vertexCodec(HugeGraph graph) {
+        return new VertexCodec(graph);
+    }
+
+    private static final class VertexCodec implements Codec {
+
+        private final HugeGraph graph;
+        // Don't prefix column names with vertex id
+        private final BinarySerializer serializer;
+
+        public VertexCodec(HugeGraph graph) {
+            E.checkNotNull(graph, "graph");
+            this.graph = graph;
+            this.serializer = new BinarySerializer(false);
+        }
+
+        @Override
+        public byte[] encode(Object value) {
+            E.checkArgument(value instanceof HugeVertex,
+                            "The offheap cache only supports vertex, " +
+                            "but got %s", value.getClass().getSimpleName());
+            HugeVertex vertex = (HugeVertex) value;
+            BinaryBackendEntry entry = (BinaryBackendEntry)
+                                       this.serializer.writeVertex(vertex);
+            BytesBuffer buffer = BytesBuffer.allocate(64);
+            buffer.writeInt(entry.columnsSize());
+            for (BackendColumn col : entry.columns()) {
+                buffer.writeInt(col.name.length);
+                buffer.write(col.name);
+                buffer.writeInt(col.value.length);
+                buffer.write(col.value);
+            }
+            return buffer.bytes();
+        }
+
+        @Override
+        public Object decode(Id id, byte[] bytes) {
+            BinaryBackendEntry entry = this.serializer.newBackendEntry(
+                                       HugeType.VERTEX, id);
+            BytesBuffer buffer = BytesBuffer.wrap(bytes);
+            int size = buffer.readInt();
+            for (int i = 0; i < size; i++) {
+                byte[] name = buffer.read(buffer.readInt());
+                byte[] value = buffer.read(buffer.readInt());
+                entry.column(name, value);
+            }
+            return this.serializer.readVertex(this.graph, entry);
+        }
+    }
+
+    private static final class Segment {
+
+        private static final int EMPTY = -1;
+        private static final int MIN_SLOTS = 16;
+
+        private final ReentrantLock lock;
+        private final int capacity;
+
+        /*
+         * The fields below are guarded by lock.
+         * The index is an open addressing table with linear probing, which
+         * maps the hash of key to the offset of the entry, the key is
+         * stored in the entry and compared when probing
+         */
+        private int[] slots;
+        private int[] hashes;
+        private int size;
+
+        private ByteBuffer buffer;
+        private int head;
+        private int tail;
+        private int entries;
+
+        public Segment(int capacity) {
+            this.lock = new ReentrantLock();
+            this.capacity = capacity;
+            this.resetIndex();
+            // Allocate direct memory lazily at the first write
+            this.buffer = null;
+            this.reset();
+        }
+
+        public int size() {
+            this.lock.lock();
+            try {
+                return this.size;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        public byte[] get(byte[] key, long expire) {
+            int hash = hash(key);
+            this.lock.lock();
+            try {
+                int slot = this.find(hash, key);
+                if (slot < 0) {
+                    return null;
+                }
+                int offset = this.slots[slot];
+                int length = this.buffer.getInt(offset);
+                long time = this.buffer.getLong(offset + BytesBuffer.INT_LEN);
+                if (expire > 0L && now() - time > expire) {
+                    this.delete(slot);
+                    return null;
+                }
+                int valueOffset = offset + HEADER_LEN + key.length;
+                byte[] value = new byte[length - HEADER_LEN - key.length];
+                this.buffer.position(valueOffset);
+                this.buffer.get(value);
+                return value;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        public boolean put(byte[] key, byte[] value, Boolean present) {
+            long length = (long) HEADER_LEN + key.length + value.length;
+            // Don't let a wide entry flush too much of the segment
+            if (length > this.capacity >> 2) {
+                this.remove(key);
+                return false;
+            }
+
+            int hash = hash(key);
+            this.lock.lock();
+            try {
+                if (present != null &&
+                    present != (this.find(hash, key) >= 0)) {
+                    return false;
+                }
+                if (this.buffer == null) {
+                    this.buffer = ByteBuffer.allocateDirect(this.capacity);
+                }
+                int offset = this.allocate((int) length);
+                // Find the slot after allocating, which may evict entries
+                int slot = this.find(hash, key);
+                this.buffer.position(offset);
+                this.buffer.putInt((int) length);
+                this.buffer.putLong(now());
+                this.buffer.put(key);
+                this.buffer.put(value);
+                if (slot >= 0) {
+                    this.slots[slot] = offset;
+                } else {
+                    this.insert(~slot, hash, offset);
+                }
+                return true;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        public void remove(byte[] key) {
+            int hash = hash(key);
+            this.lock.lock();
+            try {
+                // The entry is left in the log until it's evicted
+                int slot = this.find(hash, key);
+                if (slot >= 0) {
+                    this.delete(slot);
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        public Map<Id, byte[]> values() {
+            Map<Id, byte[]> values = new HashMap<>();
+            this.lock.lock();
+            try {
+                for (int offset : this.slots) {
+                    if (offset == EMPTY) {
+                        continue;
+                    }
+                    int length = this.buffer.getInt(offset);
+                    byte[] key = this.keyBytes(offset + HEADER_LEN);
+                    byte[] value = new byte[length - HEADER_LEN - key.length];
+                    this.buffer.position(offset + HEADER_LEN + key.length);
+                    this.buffer.get(value);
+                    values.put(BytesBuffer.wrap(key).readId(), value);
+                }
+            } finally {
+                this.lock.unlock();
+            }
+            return values;
+        }
+
+        public void clear() {
+            this.lock.lock();
+            try {
+                this.resetIndex();
+                this.reset();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Evict the entries written before the deadline, the entries in
+         * the log are in order of write time, so just evict from the head
+         */
+        public int expire(long deadline) {
+            int expired = 0;
+            this.lock.lock();
+            try {
+                while (this.entries > 0) {
+                    if (this.wrapped(this.head)) {
+                        this.head = 0;
+                        continue;
+                    }
+                    long time = this.buffer.getLong(this.head +
+                                                    BytesBuffer.INT_LEN);
+                    if (time >= deadline) {
+                        break;
+                    }
+                    if (this.evictHead()) {
+                        expired++;
+                    }
+                }
+            } finally {
+                this.lock.unlock();
+            }
+            return expired;
+        }
+
+        /**
+         * Find space for an entry at the tail, evict the oldest entries if
+         * they are overlapped with the space
+         */
+        private int allocate(int length) {
+            assert length <= this.capacity;
+            if (this.tail + length > this.capacity) {
+                // Drop the entries after the tail, then wrap to the start
+                while (this.entries > 0 && this.head >= this.tail) {
+                    this.evictHead();
+                }
+                if (this.tail + BytesBuffer.INT_LEN <= this.capacity) {
+                    this.buffer.putInt(this.tail, WRAP_MARK);
+                }
+                this.tail = 0;
+                if (this.entries == 0) {
+                    this.head = 0;
+                }
+            }
+            int end = this.tail + length;
+            while (this.entries > 0 && this.head >= this.tail &&
+                   this.head < end) {
+                this.evictHead();
+            }
+            int offset = this.tail;
+            this.tail = end;
+            this.entries++;
+            return offset;
+        }
+
+        /**
+         * Evict the entry at head and return whether it's a live entry
+         */
+        private boolean evictHead() {
+            assert this.entries > 0;
+            if (this.wrapped(this.head)) {
+                this.head = 0;
+                return false;
+            }
+            int offset = this.head;
+            int length = this.buffer.getInt(offset);
+            this.head += length;
+            if (--this.entries == 0) {
+                this.head = this.tail;
+            }
+
+            // The entry is live only if the index still points to it
+            int mask = this.slots.length - 1;
+            int hash = this.keyHash(offset + HEADER_LEN);
+            for (int i = hash & mask; this.slots[i] != EMPTY;
+                 i = (i + 1) & mask) {
+                if (this.slots[i] == offset) {
+                    this.delete(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Find the slot of the key, return the complement of the empty slot
+         * to insert into if not found
+         */
+        private int find(int hash, byte[] key) {
+            int mask = this.slots.length - 1;
+            int i = hash & mask;
+            for (; this.slots[i] != EMPTY; i = (i + 1) & mask) {
+                if (this.hashes[i] == hash &&
+                    this.keyMatched(this.slots[i] + HEADER_LEN, key)) {
+                    return i;
+                }
+            }
+            return ~i;
+        }
+
+        private void insert(int slot, int hash, int offset) {
+            assert this.slots[slot] == EMPTY;
+            this.slots[slot] = offset;
+            this.hashes[slot] = hash;
+            // Keep the load factor under 0.75
+            if (++this.size > this.slots.length - (this.slots.length >> 2)) {
+                this.resize(this.slots.length << 1);
+            }
+        }
+
+        /**
+         * Delete a slot and shift the following slots of the same probe
+         * sequence backward, so that no tombstone is needed
+         */
+        private void delete(int slot) {
+            int mask = this.slots.length - 1;
+            int i = slot;
+            for (int j = (i + 1) & mask; this.slots[j] != EMPTY;
+                 j = (j + 1) & mask) {
+                int home = this.hashes[j] & mask;
+                // Skip the slot if its home is cyclically in range (i, j]
+                boolean skip = i <= j ? (i < home && home <= j) :
+                                        (i < home || home <= j);
+                if (!skip) {
+                    this.slots[i] = this.slots[j];
+                    this.hashes[i] = this.hashes[j];
+                    i = j;
+                }
+            }
+            this.slots[i] = EMPTY;
+            this.size--;
+        }
+
+        private void resize(int length) {
+            int[] slots = this.slots;
+            int[] hashes = this.hashes;
+            this.slots = new int[length];
+            this.hashes = new int[length];
+            Arrays.fill(this.slots, EMPTY);
+            int mask = length - 1;
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] == EMPTY) {
+                    continue;
+                }
+                int j = hashes[i] & mask;
+                while (this.slots[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                this.slots[j] = slots[i];
+                this.hashes[j] = hashes[i];
+            }
+        }
+
+        private boolean wrapped(int offset) {
+            return offset + BytesBuffer.INT_LEN > this.capacity ||
+                   this.buffer.getInt(offset) == WRAP_MARK;
+        }
+
+        private boolean keyMatched(int offset, byte[] key) {
+            if (this.keyLength(offset) != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (this.buffer.get(offset + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private byte[] keyBytes(int offset) {
+            byte[] key = new byte[this.keyLength(offset)];
+            this.buffer.position(offset);
+            this.buffer.get(key);
+            return key;
+        }
+
+        private int keyHash(int offset) {
+            // The same as hash(keyBytes(offset)) without copying
+            int length = this.keyLength(offset);
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + this.buffer.get(offset + i);
+            }
+            return spread(hash);
+        }
+
+        private int keyLength(int offset) {
+            // The same encoding as BytesBuffer.writeId()
+            int b = this.buffer.get(offset) & 0xff;
+            int len = b & 0x7f;
+            if ((b & 0x80) == 0) {
+                // Number id: the length of number in bytes
+                return 1 + len;
+            }
+            // String id: the length is mapped from [1, 128] to [0, 127]
+            return 1 + len + 1;
+        }
+
+        private void resetIndex() {
+            this.slots = new int[MIN_SLOTS];
+            this.hashes = new int[MIN_SLOTS];
+            Arrays.fill(this.slots, EMPTY);
+            this.size = 0;
+        }
+
+        private void reset() {
+            this.head = 0;
+            this.tail = 0;
+            this.entries = 0;
+        }
+
+        private static int hash(byte[] key) {
+            return spread(Arrays.hashCode(key));
+        }
+
+        private static int spread(int hash) {
+            hash *= 0x9e3779b9;
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,760 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.perf.PerfUtil.Watched;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * A W-TinyLFU cache: the hot path (get/update) never takes a lock, the
+ * accesses are recorded into striped lossy buffers and the writes into a
+ * write buffer, both of them are replayed against the eviction policy by
+ * whichever thread wins the eviction lock.
+ *
+ * The eviction policy is made up of a small LRU admission window and a
+ * segmented LRU main space (probation + protected), an entry evicted from
+ * the window only enters the main space if it is accessed more frequently
+ * than the main space's victim, that's estimated by a count-min sketch.
+ * So a scan over lots of cold items can't flush the hot items.
+ */
+public class TinyLfuCache implements Cache {
+
+    public static final int DEFAULT_SIZE = RamCache.DEFAULT_SIZE;
+
+    private static final Logger LOG = Log.logger(Cache.class);
+
+    // The admission window takes 1% of the capacity
+    private static final int WINDOW_PERCENT = 1;
+    // The protected segment takes 80% of the main space
+    private static final int PROTECTED_PERCENT = 80;
+
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+    private static final int READ_BUFFERS = ceilingPowerOfTwo(NCPU * 4);
+    private static final int READ_BUFFER_SIZE = 32;
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = 16;
+    private static final int WRITE_BUFFER_DRAIN_THRESHOLD = 64;
+
+    private final LongAdder hits;
+    private final LongAdder miss;
+
+    // Default expire time(ms)
+    private volatile long expire;
+
+    // NOTE: the count in number of items, not in bytes
+    private final int capacity;
+    private final int windowCapacity;
+    private final int protectedCapacity;
+
+    private final ConcurrentMap<Id, Node> map;
+
+    private final ReadBuffer[] readBuffers;
+    private final Queue<Node> writeBuffer;
+    private final AtomicInteger pendingWrites;
+
+    // The fields below are guarded by evictionLock
+    private final ReentrantLock evictionLock;
+    private final FrequencySketch sketch;
+    private final AccessQueue window;
+    private final AccessQueue probation;
+    private final AccessQueue protection;
+
+    public TinyLfuCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    public TinyLfuCache(int capacity) {
+        if (capacity < 1) {
+            capacity = 1;
+        }
+        this.capacity = capacity;
+        this.windowCapacity = Math.max(1, capacity / 100 * WINDOW_PERCENT);
+        int mainCapacity = Math.max(0, capacity - this.windowCapacity);
+        this.protectedCapacity = (int) ((long) mainCapacity *
+                                        PROTECTED_PERCENT / 100);
+
+        this.hits = new LongAdder();
+        this.miss = new LongAdder();
+        this.expire = 0L;
+
+        int initialCapacity = capacity >> 3;
+        if (initialCapacity > RamCache.MAX_INIT_CAP) {
+            initialCapacity = RamCache.MAX_INIT_CAP;
+        }
+        this.map = new ConcurrentHashMap<>(initialCapacity);
+
+        this.readBuffers = new ReadBuffer[READ_BUFFERS];
+        for (int i = 0; i < READ_BUFFERS; i++) {
+            this.readBuffers[i] = new ReadBuffer();
+        }
+        this.writeBuffer = new ConcurrentLinkedQueue<>();
+        this.pendingWrites = new AtomicInteger(0);
+
+        this.evictionLock = new ReentrantLock();
+        this.sketch = new FrequencySketch(capacity);
+        this.window = new AccessQueue(Node.WINDOW);
+        this.probation = new AccessQueue(Node.PROBATION);
+        this.protection = new AccessQueue(Node.PROTECTED);
+    }
+
+    @Watched(prefix = "tinylfucache")
+    @Override
+    public Object get(Id id) {
+        if (id == null) {
+            return null;
+        }
+        Node node = this.map.get(id);
+        if (node == null) {
+            this.miss.increment();
+            return null;
+        }
+        this.afterRead(node);
+        this.hits.increment();
+        return node.value();
+    }
+
+    @Watched(prefix = "tinylfucache")
+    @Override
+    public Object getOrFetch(Id id, Function<Id, Object> fetcher) {
+        Object value = this.get(id);
+        if (value == null) {
+            // Do fetch and update the cache
+            value = fetcher.apply(id);
+            this.update(id, value);
+        }
+        return value;
+    }
+
+    @Watched(prefix = "tinylfucache")
+    @Override
+    public void update(Id id, Object value) {
+        if (id == null || value == null) {
+            return;
+        }
+        Node node = new Node(id, value);
+        Node old = this.map.putIfAbsent(id, node);
+        if (old == null) {
+            this.afterWrite(node);
+        } else {
+            /*
+             * Overwrite the existing node in place, if the node has been
+             * removed concurrently the value is just dropped (a miss later)
+             */
+            old.value(value);
+            this.afterRead(old);
+        }
+    }
+
+    @Watched(prefix = "tinylfucache")
+    @Override
+    public void updateIfAbsent(Id id, Object value) {
+        if (id == null || value == null) {
+            return;
+        }
+        Node node = new Node(id, value);
+        if (this.map.putIfAbsent(id, node) == null) {
+            this.afterWrite(node);
+        }
+    }
+
+    @Watched(prefix = "tinylfucache")
+    @Override
+    public void updateIfPresent(Id id, Object value) {
+        if (id == null || value == null) {
+            return;
+        }
+        Node old = this.map.get(id);
+        if (old != null) {
+            old.value(value);
+            this.afterRead(old);
+        }
+    }
+
+    @Watched(prefix = "tinylfucache")
+    @Override
+    public void invalidate(Id id) {
+        if (id == null) {
+            return;
+        }
+        Node node = this.map.remove(id);
+        if (node != null) {
+            this.afterWrite(node);
+        }
+    }
+
+    @Watched(prefix = "tinylfucache")
+    @Override
+    public void traverse(Consumer<Object> consumer) {
+        E.checkNotNull(consumer, "consumer");
+        this.map.values().forEach(node -> consumer.accept(node.value()));
+    }
+
+    @Watched(prefix = "tinylfucache")
+    @Override
+    public void clear() {
+        this.evictionLock.lock();
+        try {
+            this.map.clear();
+            this.drainBuffers();
+            this.window.clear();
+            this.probation.clear();
+            this.protection.clear();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void expire(long seconds) {
+        // Convert the unit from seconds to milliseconds
+        this.expire = seconds * 1000;
+    }
+
+    @Override
+    public long expire() {
+        return this.expire;
+    }
+
+    @Override
+    public long tick() {
+        long expireTime = this.expire;
+        if (expireTime <= 0) {
+            return 0L;
+        }
+
+        int expireItems = 0;
+        long current = now();
+        for (Node node : this.map.values()) {
+            if (current - node.time() > expireTime &&
+                this.map.remove(node.key(), node)) {
+                this.writeBuffer.offer(node);
+                this.pendingWrites.incrementAndGet();
+                expireItems++;
+            }
+        }
+        this.scheduleDrain(true);
+
+        if (expireItems > 0) {
+            LOG.debug("Cache expired {} items cost {}ms (size {}, expire {}ms)",
+                      expireItems, now() - current, this.size(), expireTime);
+        }
+        return expireItems;
+    }
+
+    @Override
+    public long capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public long size() {
+        return this.map.size();
+    }
+
+    @Override
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long miss() {
+        return this.miss.sum();
+    }
+
+    @Override
+    public String toString() {
+        return this.map.toString();
+    }
+
+    private void afterRead(Node node) {
+        ReadBuffer buffer = this.readBuffers[readBufferIndex()];
+        if (buffer.offer(node) >= READ_BUFFER_DRAIN_THRESHOLD) {
+            this.scheduleDrain(false);
+        }
+    }
+
+    private void afterWrite(Node node) {
+        this.writeBuffer.offer(node);
+        int pending = this.pendingWrites.incrementAndGet();
+        /*
+         * Wait for the eviction lock if the writers are much faster than
+         * the maintenance, so that the cache size keeps bounded
+         */
+        this.scheduleDrain(pending > WRITE_BUFFER_DRAIN_THRESHOLD);
+    }
+
+    private void scheduleDrain(boolean force) {
+        do {
+            if (force) {
+                this.evictionLock.lock();
+                force = false;
+            } else if (!this.evictionLock.tryLock()) {
+                // Someone else is draining and will recheck the write buffer
+                return;
+            }
+            try {
+                this.drainBuffers();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        } while (this.pendingWrites.get() > 0);
+    }
+
+    private void drainBuffers() {
+        assert this.evictionLock.isHeldByCurrentThread();
+
+        for (ReadBuffer buffer : this.readBuffers) {
+            buffer.drainTo(this::onAccess);
+        }
+
+        Node node;
+        while ((node = this.writeBuffer.poll()) != null) {
+            this.pendingWrites.decrementAndGet();
+            if (this.map.get(node.key()) == node) {
+                this.onAdd(node);
+            } else {
+                this.onRemove(node);
+            }
+        }
+    }
+
+    private void onAccess(Node node) {
+        if (node.queue() == Node.NONE) {
+            // The node is removed or not added to the policy yet
+            return;
+        }
+        this.sketch.increment(node.key());
+
+        switch (node.queue()) {
+            case Node.WINDOW:
+                this.window.moveToTail(node);
+                break;
+            case Node.PROBATION:
+                // Promote the node to the protected segment
+                this.probation.remove(node);
+                this.protection.add(node);
+                this.demoteProtected();
+                break;
+            case Node.PROTECTED:
+                this.protection.moveToTail(node);
+                break;
+            default:
+                throw new AssertionError("Unknown queue: " + node.queue());
+        }
+    }
+
+    private void onAdd(Node node) {
+        if (node.queue() != Node.NONE) {
+            // Added by the previous write of the same node
+            return;
+        }
+        this.sketch.increment(node.key());
+        this.window.add(node);
+        this.evict();
+    }
+
+    private void onRemove(Node node) {
+        switch (node.queue()) {
+            case Node.NONE:
+                // Not added to the policy yet, or removed already
+                break;
+            case Node.WINDOW:
+                this.window.remove(node);
+                break;
+            case Node.PROBATION:
+                this.probation.remove(node);
+                break;
+            case Node.PROTECTED:
+                this.protection.remove(node);
+                break;
+            default:
+                throw new AssertionError("Unknown queue: " + node.queue());
+        }
+    }
+
+    private void demoteProtected() {
+        while (this.protection.size() > this.protectedCapacity) {
+            Node demoted = this.protection.poll();
+            this.probation.add(demoted);
+        }
+    }
+
+    private void evict() {
+        // Move the candidates from the admission window to the main space
+        while (this.window.size() > this.windowCapacity) {
+            Node candidate = this.window.poll();
+            this.probation.add(candidate);
+            if (this.policySize() <= this.capacity) {
+                continue;
+            }
+
+            // The main space is full, let the candidate compete with victim
+            Node victim = this.probation.peek();
+            if (victim == candidate) {
+                victim = this.protection.peek();
+            }
+            if (victim == null) {
+                this.evictNode(candidate, this.probation);
+                continue;
+            }
+            int candidateFreq = this.sketch.frequency(candidate.key());
+            int victimFreq = this.sketch.frequency(victim.key());
+            if (candidateFreq > victimFreq) {
+                this.evictNode(victim, victim.queue() == Node.PROBATION ?
+                                       this.probation : this.protection);
+            } else {
+                this.evictNode(candidate, this.probation);
+            }
+        }
+
+        // Just a guard, the policy size should never exceed the capacity
+        while (this.policySize() > this.capacity) {
+            AccessQueue queue = this.probation.size() > 0 ? this.probation :
+                                this.protection.size() > 0 ? this.protection :
+                                this.window;
+            this.evictNode(queue.peek(), queue);
+        }
+    }
+
+    private void evictNode(Node node, AccessQueue queue) {
+        queue.remove(node);
+        this.map.remove(node.key(), node);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("TinyLfuCache evicted '{}' (capacity={})",
+                      node.key(), this.capacity);
+        }
+    }
+
+    private int policySize() {
+        return this.window.size() + this.probation.size() +
+               this.protection.size();
+    }
+
+    private static int readBufferIndex() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9e3779b9;
+        return (hash ^ (hash >>> 16)) & (READ_BUFFERS - 1);
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        return 1 << (Integer.SIZE - Integer.numberOfLeadingZeros(x - 1));
+    }
+
+    private static final long now() {
+        return System.currentTimeMillis();
+    }
+
+    private static final class Node {
+
+        private static final byte NONE = 0;
+        private static final byte WINDOW = 1;
+        private static final byte PROBATION = 2;
+        private static final byte PROTECTED = 3;
+
+        private final Id key;
+        private volatile Object value;
+        private volatile long time;
+
+        // The fields below are guarded by evictionLock
+        private byte queue;
+        private Node prev;
+        private Node next;
+
+        public Node(Id key, Object value) {
+            assert key != null;
+            this.key = key;
+            this.value = value;
+            this.time = now();
+            this.queue = NONE;
+        }
+
+        public Id key() {
+            return this.key;
+        }
+
+        public Object value() {
+            return this.value;
+        }
+
+        public void value(Object value) {
+            this.value = value;
+            this.time = now();
+        }
+
+        public long time() {
+            return this.time;
+        }
+
+        public byte queue() {
+            return this.queue;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(this.value);
+        }
+    }
+
+    /**
+     * Doubly linked list in access order, it's not thread safe and must be
+     * accessed with the eviction lock held
+     */
+    private static final class AccessQueue {
+
+        private final byte type;
+        private Node head;
+        private Node tail;
+        private int size;
+
+        public AccessQueue(byte type) {
+            this.type = type;
+            this.head = null;
+            this.tail = null;
+            this.size = 0;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public Node peek() {
+            return this.head;
+        }
+
+        public Node poll() {
+            Node node = this.head;
+            if (node != null) {
+                this.remove(node);
+            }
+            return node;
+        }
+
+        public void add(Node node) {
+            assert node.queue == Node.NONE;
+            node.queue = this.type;
+            node.prev = this.tail;
+            node.next = null;
+            if (this.tail == null) {
+                this.head = node;
+            } else {
+                this.tail.next = node;
+            }
+            this.tail = node;
+            this.size++;
+        }
+
+        public void remove(Node node) {
+            assert node.queue == this.type;
+            if (node.prev == null) {
+                this.head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                this.tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.queue = Node.NONE;
+            this.size--;
+        }
+
+        public void moveToTail(Node node) {
+            if (node != this.tail) {
+                this.remove(node);
+                this.add(node);
+            }
+        }
+
+        public void clear() {
+            Node node = this.head;
+            while (node != null) {
+                Node next = node.next;
+                node.prev = null;
+                node.next = null;
+                node.queue = Node.NONE;
+                node = next;
+            }
+            this.head = null;
+            this.tail = null;
+            this.size = 0;
+        }
+    }
+
+    /**
+     * Lossy ring buffer to record accesses: multiple producers and a single
+     * consumer (the thread holding the eviction lock), the accesses are
+     * just dropped when the buffer is full since it's only a hint.
+     */
+    private static final class ReadBuffer {
+
+        private static final int MASK = READ_BUFFER_SIZE - 1;
+
+        private final AtomicLong writes;
+        private volatile long reads;
+        private final AtomicReferenceArray<Node> buffer;
+
+        public ReadBuffer() {
+            this.writes = new AtomicLong(0L);
+            this.reads = 0L;
+            this.buffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        }
+
+        /**
+         * Record a node and return the number of pending items
+         */
+        public int offer(Node node) {
+            long head = this.reads;
+            long tail = this.writes.get();
+            long size = tail - head;
+            if (size >= READ_BUFFER_SIZE) {
+                return READ_BUFFER_SIZE;
+            }
+            if (this.writes.compareAndSet(tail, tail + 1)) {
+                this.buffer.lazySet((int) (tail & MASK), node);
+                return (int) size + 1;
+            }
+            // Contended, just drop it
+            return 0;
+        }
+
+        public void drainTo(Consumer<Node> consumer) {
+            long head = this.reads;
+            long tail = this.writes.get();
+            while (head < tail) {
+                int index = (int) (head & MASK);
+                Node node = this.buffer.get(index);
+                if (node == null) {
+                    // The producer has not published the node yet
+                    break;
+                }
+                this.buffer.lazySet(index, null);
+                consumer.accept(node);
+                head++;
+            }
+            this.reads = head;
+        }
+    }
+
+    /**
+     * Count-min sketch with 4-bit counters to estimate the access frequency
+     * of keys in the recent history, counters are halved periodically so
+     * that the old popularity fades away.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = new long[]{
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final long ONE_MASK = 0x1111111111111111L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int size;
+
+        public FrequencySketch(int capacity) {
+            // Each long holds 16 counters, that's 4 keys with 4 counters
+            int length = ceilingPowerOfTwo(Math.max(8, Math.min(capacity >> 2,
+                                                    1 << 28)));
+            this.table = new long[length];
+            this.tableMask = length - 1;
+            this.sampleSize = (int) Math.min(10L * capacity,
+                                             Integer.MAX_VALUE);
+            this.size = 0;
+        }
+
+        public int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = this.indexOf(hash, i);
+                int offset = (start + i) << 2;
+                int count = (int) ((this.table[index] >>> offset) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        public void increment(Object key) {
+            int hash = spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = this.indexOf(hash, i);
+                added |= this.incrementAt(index, start + i);
+            }
+            if (added && ++this.size >= this.sampleSize) {
+                this.reset();
+            }
+        }
+
+        private boolean incrementAt(int index, int counter) {
+            int offset = counter << 2;
+            long mask = 0xfL << offset;
+            if ((this.table[index] & mask) != mask) {
+                this.table[index] += 1L << offset;
+                return true;
+            }
+            return false;
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return ((int) h) & this.tableMask;
+        }
+
+        private void reset() {
+            int odd = 0;
+            for (int i = 0; i < this.table.length; i++) {
+                odd += Long.bitCount(this.table[i] & ONE_MASK);
+                this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+            }
+            this.size = (this.size >>> 1) - (odd >>> 2);
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
@@ -50,6 +50,7 @@ public class EdgeId implements Id {
     private final Id otherVertexId;
 
     private final boolean directed;
+    private int hash;
     private String cache;
 
     public EdgeId(HugeVertex ownerVertex, Directions direction,
@@ -72,6 +73,7 @@ public class EdgeId implements Id {
         this.sortValues = sortValues;
         this.otherVertexId = otherVertexId;
         this.directed = directed;
+        this.hash = 0;
         this.cache = null;
     }
 
@@ -118,6 +120,10 @@ public class EdgeId implements Id {
         return this.otherVertexId;
     }
 
+    public boolean directed() {
+        return this.directed;
+    }
+
     @Override
     public Object asObject() {
         return this.asString();
@@ -170,18 +176,57 @@ public class EdgeId implements Id {
         return this.asString().compareTo(other.asString());
     }
 
+    /**
+     * Hash on the component ids rather than the string form, which is
+     * consistent with equals(): the undirected id of an edge is the same
+     * from both of the source vertex and the target vertex
+     */
     @Override
     public int hashCode() {
-        return this.asString().hashCode();
+        int hash = this.hash;
+        if (hash == 0) {
+            if (this.directed) {
+                hash = this.ownerVertexId.hashCode();
+                hash = 31 * hash + this.direction.code();
+                hash = 31 * hash + this.edgeLabelId.hashCode();
+                hash = 31 * hash + this.sortValues.hashCode();
+                hash = 31 * hash + this.otherVertexId.hashCode();
+            } else {
+                hash = this.sourceVertexId().hashCode();
+                hash = 31 * hash + this.edgeLabelId.hashCode();
+                hash = 31 * hash + this.sortValues.hashCode();
+                hash = 31 * hash + this.targetVertexId().hashCode();
+            }
+            this.hash = hash;
+        }
+        return hash;
     }
 
     @Override
     public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
         if (!(object instanceof EdgeId)) {
             return false;
         }
         EdgeId other = (EdgeId) object;
-        return this.asString().equals(other.asString());
+        if (this.directed != other.directed ||
+            this.hashCode() != other.hashCode()) {
+            return false;
+        }
+        if (this.directed) {
+            return this.direction == other.direction &&
+                   this.ownerVertexId.equals(other.ownerVertexId) &&
+                   this.edgeLabelId.equals(other.edgeLabelId) &&
+                   this.sortValues.equals(other.sortValues) &&
+                   this.otherVertexId.equals(other.otherVertexId);
+        } else {
+            return this.sourceVertexId().equals(other.sourceVertexId()) &&
+                   this.edgeLabelId.equals(other.edgeLabelId) &&
+                   this.sortValues.equals(other.sortValues) &&
+                   this.targetVertexId().equals(other.targetVertexId());
+        }
     }
 
     @Override
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * A batch of queries with the same result type and shape, like the adjacent
+ * edges queries of multi owner vertices (with the same direction and label).
+ * The offset/limit/capacity of each sub-query applies to its own results,
+ * the backend store which supports it can execute the batch natively,
+ * otherwise the sub-queries will be executed one by one.
+ * NOTE: the origin query is the first sub-query, which can be used to
+ * decide the table to query, like EDGE_OUT or EDGE_IN.
+ */
+public class BatchQuery extends Query {
+
+    private final List<Query> queries;
+
+    public BatchQuery(List<? extends Query> queries) {
+        super(resultType(queries), queries.get(0));
+        this.queries = Collections.unmodifiableList(new ArrayList<>(queries));
+    }
+
+    public List<Query> queries() {
+        return this.queries;
+    }
+
+    public int size() {
+        return this.queries.size();
+    }
+
+    /**
+     * Get the limit of sub-queries if all of them are the same
+     * @return the same limit of sub-queries, or -1 if not the same
+     */
+    public long subLimit() {
+        long limit = this.queries.get(0).limit();
+        for (Query query : this.queries) {
+            if (query.limit() != limit) {
+                return -1L;
+            }
+        }
+        return limit;
+    }
+
+    public BatchQuery map(Function<Query, Query> mapper) {
+        List<Query> queries = new ArrayList<>(this.queries.size());
+        for (Query query : this.queries) {
+            queries.add(mapper.apply(query));
+        }
+        BatchQuery batch = new BatchQuery(queries);
+        batch.showHidden(this.showHidden());
+        batch.capacity(this.capacity());
+        return batch;
+    }
+
+    @Override
+    public boolean empty() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s with %s sub-queries like: %s",
+                             super.toString(), this.queries.size(),
+                             this.queries.get(0));
+    }
+
+    private static HugeType resultType(List<? extends Query> queries) {
+        E.checkArgument(queries != null && !queries.isEmpty(),
+                        "The sub-queries of batch query can't be empty");
+        HugeType type = queries.get(0).resultType();
+        for (Query query : queries) {
+            E.checkArgument(query.resultType() == type,
+                            "The sub-queries of batch query must be with " +
+                            "the same result type '%s', but got '%s'",
+                            type, query.resultType());
+        }
+        return type;
+    }
+}
@@ -126,6 +126,10 @@ public class Query implements Cloneable {
         this.limit = limit;
     }
 
+    public boolean noLimit() {
+        return this.limit == NO_LIMIT;
+    }
+
     public boolean reachLimit(long count) {
         if (this.limit == NO_LIMIT) {
             return false;
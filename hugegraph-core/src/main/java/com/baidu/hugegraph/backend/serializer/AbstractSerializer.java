@@ -21,6 +21,7 @@ package com.baidu.hugegraph.backend.serializer;
 
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.query.BatchQuery;
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.IdQuery;
 import com.baidu.hugegraph.backend.query.Query;
@@ -46,6 +47,19 @@ public abstract class AbstractSerializer
     public Query writeQuery(Query query) {
         HugeType type = query.resultType();
 
+        // Serialize each sub-query of batch query
+        if (query instanceof BatchQuery) {
+            return ((BatchQuery) query).map(q -> {
+                Query result = this.writeQuery(q);
+                // Keep the limit of sub-query to limit results per sub-query
+                if (result.limit() == Query.NO_LIMIT &&
+                    q.limit() != Query.NO_LIMIT) {
+                    result.limit(q.limit());
+                }
+                return result;
+            });
+        }
+
         // Serialize edge condition query (TODO: add VEQ(for EOUT/EIN))
         if (type.isEdge() && !query.conditions().isEmpty()) {
             if (!query.ids().isEmpty()) {
@@ -25,8 +25,10 @@ import java.util.function.BiFunction;
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendIterator;
 import com.baidu.hugegraph.backend.store.BackendEntryIterator;
+import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
 
@@ -119,6 +121,21 @@ public class BinaryEntryIterator<Elem> extends BackendEntryIterator {
         return e.columnsSize();
     }
 
+    @Override
+    protected final long skipRecords(long count) {
+        /*
+         * The columns can be skipped directly if each record of the results
+         * is a column, since there is one edge per column or one element id
+         * per column (except the bitmap index which is never skipped)
+         */
+        HugeType type = this.query.resultType();
+        if ((type.isEdge() || type.isIndex()) &&
+            this.results instanceof BackendColumnIterator) {
+            return this.results.skip(count);
+        }
+        return 0L;
+    }
+
     @Override
     protected String pageState() {
         byte[] position = this.results.position();
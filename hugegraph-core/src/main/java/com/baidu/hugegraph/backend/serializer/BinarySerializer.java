@@ -64,6 +64,7 @@ import com.baidu.hugegraph.type.define.SchemaStatus;
 import com.baidu.hugegraph.type.define.SerialEnum;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.IdBitmap;
 import com.baidu.hugegraph.util.JsonUtil;
 import com.baidu.hugegraph.util.KryoUtil;
 import com.baidu.hugegraph.util.StringEncoding;
@@ -73,6 +74,8 @@ public class BinarySerializer extends AbstractSerializer {
 
     private static final byte[] EMPTY_BYTES = new byte[0];
 
+    private static final byte INDEX_BITMAP_MARKER = 0x00;
+
     /*
      * Id is stored in column name if keyWithIdPrefix=true like RocksDB,
      * else stored in rowkey like HBase.
@@ -335,17 +338,85 @@ public class BinarySerializer extends AbstractSerializer {
 
     protected void parseIndexName(BinaryBackendEntry entry, HugeIndex index,
                                   Object fieldValues) {
+        IdBitmap bitmap = null;
         for (BackendColumn col : entry.columns()) {
-            if (indexFieldValuesUnmatched(col.value, fieldValues)) {
-                // Skip if field-values is not matched (just the same hash)
-                continue;
-            }
             BytesBuffer buffer = BytesBuffer.wrap(col.name);
             if (this.keyWithIdPrefix) {
                 buffer.readId();
             }
+            int position = col.name.length - buffer.remaining();
+            if (position < col.name.length &&
+                col.name[position] == INDEX_BITMAP_MARKER) {
+                // Apply the bitmap deltas in the order of sequence
+                IdBitmap[] delta = parseIndexBitmap(col.value, fieldValues);
+                if (delta == null) {
+                    continue;
+                }
+                buffer.read(1);
+                index.bitmapSequences(buffer.readLong());
+                if (bitmap == null) {
+                    bitmap = new IdBitmap();
+                }
+                bitmap.or(delta[0]);
+                bitmap.andNot(delta[1]);
+                continue;
+            }
+            if (indexFieldValuesUnmatched(col.value, fieldValues)) {
+                // Skip if field-values is not matched (just the same hash)
+                continue;
+            }
             index.elementIds(buffer.readId(true));
         }
+        if (bitmap != null) {
+            index.elementBitmap(bitmap, new IdBitmap());
+        }
+    }
+
+    protected byte[] formatIndexBitmapName(Id indexId, long sequence) {
+        int length = 1 + BytesBuffer.LONG_LEN;
+        BytesBuffer buffer;
+        if (!this.keyWithIdPrefix) {
+            buffer = BytesBuffer.allocate(length);
+        } else {
+            buffer = BytesBuffer.allocate(length + 1 + indexId.length());
+            buffer.writeId(indexId);
+        }
+        /*
+         * The marker 0x00 is not a valid prefix of element id, and the
+         * sequence keeps the bitmap deltas in the order of write time
+         */
+        buffer.write(INDEX_BITMAP_MARKER);
+        buffer.writeLong(sequence);
+        return buffer.bytes();
+    }
+
+    protected static byte[] formatIndexBitmapValue(HugeIndex index,
+                                                   boolean hashed) {
+        byte[] delta = HugeIndex.bitmap2bytes(index.elementBitmap(),
+                                              index.removedBitmap());
+        byte[] values = hashed ?
+                        StringEncoding.encode(index.fieldValues().toString()) :
+                        EMPTY_BYTES;
+        BytesBuffer buffer = BytesBuffer.allocate(BytesBuffer.INT_LEN +
+                                                  delta.length +
+                                                  values.length);
+        buffer.writeInt(delta.length);
+        buffer.write(delta);
+        // Save field-values after the delta if the key is a hash string
+        buffer.write(values);
+        return buffer.bytes();
+    }
+
+    protected static IdBitmap[] parseIndexBitmap(byte[] value,
+                                                 Object fieldValues) {
+        BytesBuffer buffer = BytesBuffer.wrap(value);
+        byte[] delta = buffer.read(buffer.readInt());
+        if (indexFieldValuesUnmatched(buffer.read(buffer.remaining()),
+                                      fieldValues)) {
+            // Skip if field-values is not matched (just the same hash)
+            return null;
+        }
+        return HugeIndex.bytes2bitmap(delta);
     }
 
     @Override
@@ -430,6 +501,21 @@ public class BinarySerializer extends AbstractSerializer {
              * TODO: improve
              */
             entry = this.formatILDeletion(index);
+        } else if (index.bitmapEncoded()) {
+            Id id = index.id();
+            boolean hashed = indexIdLengthExceedLimit(id);
+            if (hashed) {
+                id = index.hashId();
+            }
+            entry = newBackendEntry(index.type(), id);
+            E.checkState(index.bitmapSequences().size() == 1,
+                         "Expect one sequence of bitmap delta, actual %s",
+                         index.bitmapSequences());
+            long sequence = index.bitmapSequences().get(0);
+            entry.column(this.formatIndexBitmapName(id, sequence),
+                         formatIndexBitmapValue(index, hashed));
+            // The deltas of an index are different sub-entries
+            entry.subId(IdGenerator.of(sequence));
         } else {
             Id id = index.id();
             byte[] value = null;
@@ -766,11 +852,7 @@ public class BinarySerializer extends AbstractSerializer {
             edgeId = EdgeId.parse(id.asString());
         }
         BytesBuffer buffer = BytesBuffer.allocate(256);
-        buffer.writeId(edgeId.ownerVertexId());
-        buffer.write(edgeId.direction().type().code());
-        buffer.writeId(edgeId.edgeLabelId());
-        buffer.writeString(edgeId.sortValues());
-        buffer.writeId(edgeId.otherVertexId());
+        buffer.writeEdgeId(edgeId);
         return new BinaryId(buffer.bytes(), id);
     }
 
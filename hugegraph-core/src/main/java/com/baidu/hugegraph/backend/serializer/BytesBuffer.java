@@ -22,9 +22,13 @@ package com.baidu.hugegraph.backend.serializer;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
+import com.baidu.hugegraph.backend.id.EdgeId;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.IdGenerator;
 import com.baidu.hugegraph.backend.serializer.BinaryBackendEntry.BinaryId;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.type.define.SerialEnum;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.StringEncoding;
 
@@ -339,6 +343,26 @@ public final class BytesBuffer {
         }
     }
 
+    public BytesBuffer writeEdgeId(EdgeId id) {
+        // owner-vertex + dir + edge-label + sort-values + other-vertex
+        this.writeId(id.ownerVertexId());
+        this.write(id.direction().type().code());
+        this.writeId(id.edgeLabelId());
+        this.writeString(id.sortValues());
+        this.writeId(id.otherVertexId());
+        return this;
+    }
+
+    public EdgeId readEdgeId() {
+        Id ownerVertexId = this.readId();
+        HugeType type = SerialEnum.fromCode(HugeType.class, this.read());
+        Id edgeLabelId = this.readId();
+        String sortValues = this.readString();
+        Id otherVertexId = this.readId();
+        return new EdgeId(ownerVertexId, Directions.convert(type),
+                          edgeLabelId, sortValues, otherVertexId, true);
+    }
+
     public BinaryId asId() {
         return new BinaryId(this.bytes(), null);
     }
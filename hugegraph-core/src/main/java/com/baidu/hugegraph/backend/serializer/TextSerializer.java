@@ -20,6 +20,7 @@
 package com.baidu.hugegraph.backend.serializer;
 
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +63,7 @@ import com.baidu.hugegraph.type.define.IdStrategy;
 import com.baidu.hugegraph.type.define.IndexType;
 import com.baidu.hugegraph.type.define.SchemaStatus;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.IdBitmap;
 import com.baidu.hugegraph.util.JsonUtil;
 
 public class TextSerializer extends AbstractSerializer {
@@ -338,7 +340,15 @@ public class TextSerializer extends AbstractSerializer {
                          writeId(index.indexLabel()));
             entry.column(formatSyspropName(HugeKeys.ELEMENT_IDS),
                          writeIds(index.elementIds()));
-            entry.subId(index.elementId());
+            if (index.bitmapEncoded()) {
+                byte[] delta = HugeIndex.bitmap2bytes(index.elementBitmap(),
+                                                      index.removedBitmap());
+                entry.column(formatSyspropName(HugeKeys.ELEMENT_BITMAP),
+                             Base64.getEncoder().encodeToString(delta));
+                entry.subId(index.id());
+            } else {
+                entry.subId(index.elementId());
+            }
         }
         return entry;
     }
@@ -358,11 +368,20 @@ public class TextSerializer extends AbstractSerializer {
                 formatSyspropName(HugeKeys.INDEX_LABEL_ID));
         String elementIds = entry.column(
                 formatSyspropName(HugeKeys.ELEMENT_IDS));
+        String elementBitmap = entry.column(
+                formatSyspropName(HugeKeys.ELEMENT_BITMAP));
 
         IndexLabel indexLabel = IndexLabel.label(graph, readId(indexLabelId));
         HugeIndex index = new HugeIndex(indexLabel);
         index.fieldValues(JsonUtil.fromJson(indexValues, Object.class));
         index.elementIds(readIds(elementIds));
+        if (elementBitmap != null) {
+            IdBitmap[] delta = HugeIndex.bytes2bitmap(
+                               Base64.getDecoder().decode(elementBitmap));
+            IdBitmap bitmap = delta[0];
+            bitmap.andNot(delta[1]);
+            index.elementBitmap(bitmap, new IdBitmap());
+        }
         return index;
     }
 
@@ -95,6 +95,21 @@ public interface BackendEntry {
 
         public byte[] position();
 
+        /**
+         * Skip the next records, the backend may skip them without reading
+         * the values or creating the records
+         * @param count the number of records to skip
+         * @return      the number of records skipped actually, which is less
+         *              than `count` if there are not enough records
+         */
+        public default long skip(long count) {
+            long skipped = 0L;
+            while (skipped < count && this.hasNext()) {
+                this.next();
+                skipped++;
+            }
+            return skipped;
+        }
     }
 
     public interface BackendColumnIterator
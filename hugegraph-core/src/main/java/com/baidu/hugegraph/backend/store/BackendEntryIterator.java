@@ -115,6 +115,12 @@ public abstract class BackendEntryIterator
     protected void skipOffset() {
         long offset = this.offset();
 
+        // Skip the records of backend without fetching entries if possible
+        if (this.count < offset) {
+            this.count += this.skipRecords(offset - this.count);
+            assert this.count <= offset;
+        }
+
         // Skip offset
         while (this.count < offset && this.fetch()) {
             assert this.current != null;
@@ -136,6 +142,16 @@ public abstract class BackendEntryIterator
         return this.query.offset();
     }
 
+    /**
+     * Skip the records of backend directly, it's only possible if each
+     * record is exactly one item counted by sizeOf(), like an edge
+     * @param count the number of items to skip
+     * @return      the number of records skipped
+     */
+    protected long skipRecords(long count) {
+        return 0L;
+    }
+
     protected long sizeOf(BackendEntry entry) {
         return 1;
     }
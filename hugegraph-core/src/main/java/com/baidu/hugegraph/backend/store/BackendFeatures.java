@@ -41,6 +41,8 @@ public interface BackendFeatures {
 
     public boolean supportsQueryByPage();
 
+    public boolean supportsQueryInBatch();
+
     public boolean supportsDeleteEdgeByLabel();
 
     public boolean supportsUpdateVertexProperty();
@@ -52,4 +54,6 @@ public interface BackendFeatures {
     public boolean supportsTransaction();
 
     public boolean supportsNumberType();
+
+    public boolean supportsIndexBitmap();
 }
@@ -56,6 +56,11 @@ public interface BackendStore {
     // Query data
     public Iterator<BackendEntry> query(Query query);
 
+    // Count data natively, return -1 if the query can't be counted natively
+    public default long queryNumber(Query query) {
+        return -1L;
+    }
+
     // Transaction
     public void beginTx();
     public void commitTx();
@@ -94,6 +99,35 @@ public interface BackendStore {
         return IdGenerator.of(expect);
     }
 
+    // Generate a block of ids for a specific type, return the first one
+    public default long nextIdBlock(HugeType type, long size) {
+        E.checkArgument(size > 0L, "The size of id block must be > 0, " +
+                        "but got %s", size);
+        final int MAX_TIMES = 1000;
+        // Do get-increase-get-compare operation like nextId()
+        long counter = 0L;
+        long expect = -1L;
+        synchronized(this) {
+            for (int i = 0; i < MAX_TIMES; i++) {
+                counter = this.getCounter(type);
+
+                if (counter == expect) {
+                    break;
+                }
+                // Increase local counter
+                expect = counter + size;
+                // Increase remote counter
+                this.increaseCounter(type, size);
+            }
+        }
+
+        E.checkState(counter != 0L, "Please check whether '%s' is OK",
+                     this.provider().type());
+        E.checkState(counter == expect, "'%s' is busy please try again",
+                     this.provider().type());
+        return expect - size + 1L;
+    }
+
     // Set next id >= lowest for a specific type
     public default void setCounterLowest(HugeType type, long lowest) {
         long current = this.getCounter(type);
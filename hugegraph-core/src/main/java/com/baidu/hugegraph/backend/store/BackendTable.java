@@ -107,6 +107,16 @@ public abstract class BackendTable<Session extends BackendSession, Entry> {
 
     public abstract Iterator<BackendEntry> query(Session session, Query query);
 
+    /**
+     * Count the records matched by the query natively
+     * @param session the session of the table
+     * @param query   the query without offset and limit
+     * @return        the count, or -1 if it can't be counted natively
+     */
+    public long queryNumber(Session session, Query query) {
+        return -1L;
+    }
+
     public abstract void insert(Session session, Entry entry);
 
     public abstract void delete(Session session, Entry entry);
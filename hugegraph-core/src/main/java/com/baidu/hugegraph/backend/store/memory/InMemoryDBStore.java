@@ -366,6 +366,11 @@ public abstract class InMemoryDBStore
             return false;
         }
 
+        @Override
+        public boolean supportsQueryInBatch() {
+            return false;
+        }
+
         @Override
         public boolean supportsDeleteEdgeByLabel() {
             return false;
@@ -395,5 +400,10 @@ public abstract class InMemoryDBStore
         public boolean supportsNumberType() {
             return false;
         }
+
+        @Override
+        public boolean supportsIndexBitmap() {
+            return true;
+        }
     };
 }
@@ -21,6 +21,7 @@ package com.baidu.hugegraph.backend.store.memory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -28,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 
 import com.baidu.hugegraph.backend.id.EdgeId;
@@ -43,10 +45,12 @@ import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
 import com.baidu.hugegraph.backend.store.BackendSession;
 import com.baidu.hugegraph.iterator.ExtendableIterator;
+import com.baidu.hugegraph.iterator.MapperIterator;
 import com.baidu.hugegraph.structure.HugeIndex;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.IdBitmap;
 import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.google.common.collect.ImmutableList;
 
@@ -349,12 +353,46 @@ public class InMemoryDBTables {
 
     public static class SecondaryIndex extends InMemoryDBTable {
 
+        // The element ids packed in bitmap of each index
+        private final Map<Id, IdBitmap> bitmaps;
+
         public SecondaryIndex() {
-            super(HugeType.SECONDARY_INDEX);
+            this(HugeType.SECONDARY_INDEX);
         }
 
         protected SecondaryIndex(HugeType type) {
             super(type);
+            this.bitmaps = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public void clear(BackendSession session) {
+            super.clear(session);
+            this.bitmaps.clear();
+        }
+
+        @Override
+        public void delete(BackendSession session, TextBackendEntry entry) {
+            super.delete(session, entry);
+            this.bitmaps.remove(entry.id());
+        }
+
+        @Override
+        public void append(BackendSession session, TextBackendEntry entry) {
+            String column = bitmapColumn(entry);
+            if (column != null) {
+                // Apply the bitmap delta natively, instead of merging text
+                byte[] bytes = Base64.getDecoder().decode(entry.column(column));
+                IdBitmap[] delta = HugeIndex.bytes2bitmap(bytes);
+                this.bitmaps.compute(entry.id(), (id, bitmap) -> {
+                    // Copy on write, the bitmap may be read by queries
+                    bitmap = bitmap == null ? delta[0] :
+                             IdBitmap.or(bitmap, delta[0]);
+                    bitmap.andNot(delta[1]);
+                    return bitmap;
+                });
+            }
+            super.append(session, entry);
         }
 
         @Override
@@ -385,7 +423,36 @@ public class InMemoryDBTables {
             IdQuery q = new IdQuery(query, id);
             q.offset(query.offset());
             q.limit(query.limit());
-            return super.query(session, q);
+            Iterator<BackendEntry> entries = super.query(session, q);
+            if (this.bitmaps.isEmpty()) {
+                return entries;
+            }
+            return new MapperIterator<>(entries, this::attachBitmap);
+        }
+
+        private BackendEntry attachBitmap(BackendEntry entry) {
+            IdBitmap bitmap = this.bitmaps.get(entry.id());
+            if (bitmap == null) {
+                return entry;
+            }
+            TextBackendEntry text = (TextBackendEntry) entry;
+            String column = bitmapColumn(text);
+            assert column != null;
+            // Return the whole bitmap as a delta without removed ids
+            byte[] bytes = HugeIndex.bitmap2bytes(bitmap, new IdBitmap());
+            text = text.copy();
+            text.column(column, Base64.getEncoder().encodeToString(bytes));
+            return text;
+        }
+
+        private static String bitmapColumn(TextBackendEntry entry) {
+            String suffix = HugeKeys.ELEMENT_BITMAP.string();
+            for (String column : entry.columnNames()) {
+                if (column.endsWith(suffix)) {
+                    return column;
+                }
+            }
+            return null;
         }
     }
 
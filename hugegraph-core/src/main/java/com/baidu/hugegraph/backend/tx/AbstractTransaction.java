@@ -27,6 +27,7 @@ import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.Transaction;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.query.BatchQuery;
 import com.baidu.hugegraph.backend.query.IdQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.serializer.AbstractSerializer;
@@ -34,6 +35,7 @@ import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.exception.NotFoundException;
+import com.baidu.hugegraph.iterator.FlatMapperIterator;
 import com.baidu.hugegraph.perf.PerfUtil.Watched;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.Action;
@@ -89,6 +91,9 @@ public abstract class AbstractTransaction implements Transaction {
     @Watched(prefix = "tx")
     public Iterator<BackendEntry> query(Query query) {
         LOG.debug("Transaction query: {}", query);
+        if (query instanceof BatchQuery) {
+            return this.queryInBatch((BatchQuery) query);
+        }
         /*
          * NOTE: it's dangerous if an IdQuery/ConditionQuery is empty
          * check if the query is empty and its class is not the Query itself
@@ -107,6 +112,53 @@ public abstract class AbstractTransaction implements Transaction {
         }
     }
 
+    @Watched(prefix = "tx")
+    public long queryNumber(Query query) {
+        LOG.debug("Transaction queryNumber: {}", query);
+        E.checkArgument(query.offset() == 0L && query.noLimit(),
+                        "Can't count with offset or limit: %s", query);
+
+        query = this.serializer.writeQuery(query);
+
+        this.beforeRead();
+        try {
+            return this.store.queryNumber(query);
+        } finally {
+            this.afterRead();
+        }
+    }
+
+    protected Iterator<BackendEntry> queryInBatch(BatchQuery batch) {
+        for (Query query : batch.queries()) {
+            if (query.empty() && !query.getClass().equals(Query.class)) {
+                throw new BackendException("Query without any id or " +
+                                           "condition: %s", query);
+            }
+        }
+
+        // The limit of each sub-query is kept by the serialized batch
+        BatchQuery query = (BatchQuery) this.serializer.writeQuery(batch);
+
+        if (!this.store.features().supportsQueryInBatch()) {
+            // Execute the serialized sub-queries one by one (lazily)
+            return new FlatMapperIterator<>(query.queries().iterator(), q -> {
+                this.beforeRead();
+                try {
+                    return this.store.query(q);
+                } finally {
+                    this.afterRead();
+                }
+            });
+        }
+
+        this.beforeRead();
+        try {
+            return this.store.query(query);
+        } finally {
+            this.afterRead();
+        }
+    }
+
     @Watched(prefix = "tx")
     public BackendEntry query(HugeType type, Id id) {
         IdQuery q = new IdQuery(type, id);
@@ -235,6 +287,14 @@ public abstract class AbstractTransaction implements Transaction {
 
     protected void commitMutation2Backend(BackendMutation... mutations) {
         assert mutations.length > 0;
+        GroupCommitter groupCommitter = this.graph.groupCommitter();
+        if (groupCommitter != null &&
+            this.store.features().supportsTransaction() &&
+            groupCommitter.commit(this.store, mutations)) {
+            // Committed with the mutations of other transactions
+            return;
+        }
+
         this.committing2Backend = true;
 
         // If an exception occurred, catch in the upper layer and rollback
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.tx;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Build the async indexes of a graph in background: the elements of the
+ * async index labels are committed with pending marks, which are a durable
+ * queue of the elements to be indexed, the worker scans the marks in
+ * rounds, builds the indexes in batches and removes the marks.
+ *
+ * A round is started when it's woken up by the committed marks, or every
+ * interval to process the marks committed by other processes. A query
+ * answered by an async index can wait for a new round to read the indexes
+ * of the elements committed before it.
+ */
+public class AsyncIndexWorker {
+
+    private static final Logger LOG = Log.logger(AsyncIndexWorker.class);
+
+    private static final long CLOSE_TIMEOUT = 30L;
+
+    private final HugeGraph graph;
+    private final long batchSize;
+    private final long interval;
+    private final long readWait;
+    private final ExecutorService executor;
+
+    // The number of marks committed in the process, guarded by this
+    private long pending;
+    // The number of marks committed before the last finished round
+    private long applied;
+    private boolean requested;
+    private volatile boolean closed;
+
+    public AsyncIndexWorker(HugeGraph graph, long batchSize,
+                            long interval, long readWait) {
+        E.checkArgument(batchSize > 0L,
+                        "The batch size of async index must be > 0, " +
+                        "but got %s", batchSize);
+        E.checkArgument(interval > 0L,
+                        "The interval of async index must be > 0, " +
+                        "but got %s", interval);
+        this.graph = graph;
+        this.batchSize = batchSize;
+        this.interval = interval;
+        this.readWait = readWait;
+        this.pending = 0L;
+        this.applied = 0L;
+        this.requested = false;
+        this.closed = false;
+
+        String name = "async-index-" + graph.name() + "-%d";
+        this.executor = ExecutorUtil.newFixedThreadPool(1, name);
+        this.executor.submit(this::run);
+    }
+
+    /**
+     * The index lag, namely the number of marks committed in the process
+     * but not processed by a finished round yet
+     */
+    public synchronized long lag() {
+        return this.pending - this.applied;
+    }
+
+    /**
+     * Notify the worker of the committed marks
+     */
+    public synchronized void pending(long count) {
+        assert count > 0L;
+        this.pending += count;
+        this.requested = true;
+        this.notifyAll();
+    }
+
+    /**
+     * Wait for the marks committed before to be processed, at most wait
+     * for `index.async_read_wait` milliseconds
+     */
+    public synchronized void waitPending() {
+        long target = this.pending;
+        if (this.applied >= target || this.readWait <= 0L) {
+            return;
+        }
+        this.requested = true;
+        this.notifyAll();
+
+        long deadline = System.currentTimeMillis() + this.readWait;
+        long remaining = this.readWait;
+        try {
+            while (this.applied < target && remaining > 0L && !this.closed) {
+                this.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (this.applied < target) {
+            LOG.info("The async indexes of graph '{}' are still lagging " +
+                     "after waiting {}ms, lag: {}", this.graph.name(),
+                     this.readWait, this.lag());
+        }
+    }
+
+    public void close() {
+        synchronized (this) {
+            this.closed = true;
+            this.notifyAll();
+        }
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            long target;
+            while ((target = this.awaitRound()) >= 0L) {
+                try {
+                    this.applyAll();
+                    this.finishRound(target);
+                } catch (Throwable e) {
+                    LOG.warn("Failed to build async indexes of graph '{}'",
+                             this.graph.name(), e);
+                }
+            }
+        } finally {
+            // Close the transactions opened by the worker thread
+            this.graph.closeTx();
+        }
+    }
+
+    /**
+     * Wait for the next round
+     * @return the number of marks committed before the round, or -1 if
+     *         the worker is closed
+     */
+    private synchronized long awaitRound() {
+        if (!this.requested && !this.closed) {
+            try {
+                this.wait(this.interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1L;
+            }
+        }
+        this.requested = false;
+        return this.closed ? -1L : this.pending;
+    }
+
+    private synchronized void finishRound(long target) {
+        if (target > this.applied) {
+            this.applied = target;
+        }
+        this.notifyAll();
+    }
+
+    private void applyAll() {
+        GraphTransaction tx = this.graph.graphTransaction();
+        long count;
+        do {
+            count = tx.applyAsyncIndexes(this.batchSize);
+            if (count > 0L) {
+                LOG.debug("Built async indexes of {} elements of graph '{}'",
+                          count, this.graph.name());
+            }
+        } while (count > 0L && !this.closed);
+    }
+}
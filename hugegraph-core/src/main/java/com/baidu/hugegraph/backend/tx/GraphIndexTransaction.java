@@ -22,19 +22,26 @@ package com.baidu.hugegraph.backend.tx;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
 
 import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.analyzer.Analyzer;
 import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.BlockCounter;
+import com.baidu.hugegraph.backend.cache.IndexCache;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
 import com.baidu.hugegraph.backend.id.SplicingIdGenerator;
 import com.baidu.hugegraph.backend.query.Condition;
 import com.baidu.hugegraph.backend.query.Condition.Relation;
@@ -43,8 +50,14 @@ import com.baidu.hugegraph.backend.query.ConditionQueryFlatten;
 import com.baidu.hugegraph.backend.query.IdQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.exception.NoIndexException;
+import com.baidu.hugegraph.iterator.ExtendableIterator;
+import com.baidu.hugegraph.iterator.FlatMapperIterator;
+import com.baidu.hugegraph.iterator.MapperIterator;
 import com.baidu.hugegraph.perf.PerfUtil.Watched;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.PropertyKey;
@@ -56,9 +69,11 @@ import com.baidu.hugegraph.structure.HugeProperty;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.type.define.IdStrategy;
 import com.baidu.hugegraph.type.define.IndexType;
 import com.baidu.hugegraph.util.CollectionUtil;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.IdBitmap;
 import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.baidu.hugegraph.util.LockUtil;
 import com.baidu.hugegraph.util.NumericUtil;
@@ -70,13 +85,116 @@ public class GraphIndexTransaction extends AbstractTransaction {
     private static final String INDEX_EMPTY_SYM = "\u0000";
     private static final Query EMPTY_QUERY = new ConditionQuery(null);
 
+    private static final int INDEX_JOIN_BATCH = 64;
+    private static final int INDEX_JOIN_MAX_BATCH = 4096;
+
+    private static final int MAX_CACHE_IDS_PER_QUERY = 1000;
+    // Request to fold the bitmap deltas of an index if more than it
+    private static final int INDEX_BITMAP_MAX_DELTAS = 64;
+
     private final Analyzer textAnalyzer;
+    private final boolean indexBitmap;
+    private final boolean forceStringId;
+
+    // The element ids of index queries shared by the graph, null if disabled
+    private final IndexCache indexCache;
+    // The compactor of the index bitmaps, null if bitmap encoding disabled
+    private final IndexBitmapCompactor bitmapCompactor;
+
+    // The names of index labels maintained asynchronously
+    private final Set<String> asyncIndexLabels;
+
+    // The bitmap deltas of the indexes updated in the transaction
+    private Map<Id, HugeIndex> bitmapUpdates;
+    // The commit locks of the index labels of the bitmap deltas
+    private List<Lock> bitmapLocks;
+    // The index labels updated in the transaction
+    private Set<Id> updatedIndexLabels;
+    // The number of pending marks written in the transaction
+    private long pendingIndexes;
 
     public GraphIndexTransaction(HugeGraph graph, BackendStore store) {
         super(graph, store);
 
         this.textAnalyzer = graph.analyzer();
         assert this.textAnalyzer != null;
+
+        HugeConfig conf = graph.configuration();
+        this.indexBitmap = conf.get(CoreOptions.INDEX_BITMAP) &&
+                           store.features().supportsIndexBitmap();
+        this.forceStringId = conf.get(CoreOptions.SNOWFLAKE_FORCE_STRING);
+
+        this.indexCache = graph.indexCache();
+        this.bitmapCompactor = this.indexBitmap ?
+                               graph.indexBitmapCompactor() : null;
+
+        this.asyncIndexLabels = ImmutableSet.copyOf(
+                                conf.get(CoreOptions.INDEX_ASYNC_LABELS));
+    }
+
+    @Override
+    public boolean hasUpdates() {
+        return !this.bitmapUpdates.isEmpty() || super.hasUpdates();
+    }
+
+    @Override
+    public int mutationSize() {
+        return this.bitmapUpdates.size() + super.mutationSize();
+    }
+
+    @Override
+    protected void reset() {
+        super.reset();
+        this.bitmapUpdates = InsertionOrderUtil.newMap();
+
+        // Release the commit locks after committed (or rolled back)
+        if (this.bitmapLocks != null) {
+            for (Lock lock : this.bitmapLocks) {
+                lock.unlock();
+            }
+        }
+        this.bitmapLocks = new ArrayList<>();
+
+        /*
+         * Invalidate the cached ids of the updated indexes by bumping the
+         * versions, it's called after committed (or rolled back), so that
+         * the ids read before committing are not cached with new versions
+         */
+        if (this.updatedIndexLabels != null) {
+            for (Id id : this.updatedIndexLabels) {
+                this.indexCache.invalidate(id);
+            }
+        }
+        this.updatedIndexLabels = new HashSet<>();
+        this.pendingIndexes = 0L;
+    }
+
+    @Override
+    protected BackendMutation prepareCommit() {
+        /*
+         * Hold the commit locks before allocating the sequences, to not
+         * commit a delta while the index is folded with greater sequences.
+         * The locks are held in the order of index labels.
+         */
+        if (!this.bitmapUpdates.isEmpty()) {
+            Set<Id> indexLabels = new TreeSet<>();
+            for (HugeIndex index : this.bitmapUpdates.values()) {
+                indexLabels.add(index.indexLabel());
+            }
+            for (Id indexLabel : indexLabels) {
+                this.bitmapLocks.add(
+                     this.bitmapCompactor.lockCommit(indexLabel));
+            }
+        }
+
+        // Write the bitmap delta of each updated index
+        BlockCounter sequence = this.graph().indexBitmapSequence();
+        for (HugeIndex index : this.bitmapUpdates.values()) {
+            index.bitmapSequences(sequence.next());
+            this.doAppend(this.serializer.writeIndex(index));
+        }
+        this.bitmapUpdates = InsertionOrderUtil.newMap();
+        return super.prepareCommit();
     }
 
     protected void removeIndexLeft(ConditionQuery query, HugeElement element) {
@@ -123,6 +241,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
                 if (index.elementIds().contains(element.id())) {
                     index.resetElementIds();
                     index.elementIds(element.id());
+                    this.indexUpdated(index.indexLabel());
                     this.doEliminate(this.serializer.writeIndex(index));
                 }
             }
@@ -197,8 +316,16 @@ public class GraphIndexTransaction extends AbstractTransaction {
         }
 
         // Update label index if backend store not supports label-query
-        HugeIndex index = new HugeIndex(IndexLabel.label(element.type()));
-        index.fieldValues(element.schemaLabel().id().asLong());
+        IndexLabel indexLabel = IndexLabel.label(element.type());
+        Object label = element.schemaLabel().id().asLong();
+        this.indexUpdated(indexLabel);
+        if (this.bitmapEncoded(indexLabel, element.id())) {
+            this.updateIndexBitmap(indexLabel, label, element.id(), removed);
+            return;
+        }
+
+        HugeIndex index = new HugeIndex(indexLabel);
+        index.fieldValues(label);
         index.elementIds(element.id());
 
         if (removed) {
@@ -211,19 +338,120 @@ public class GraphIndexTransaction extends AbstractTransaction {
     @Watched(prefix = "index")
     public void updateVertexIndex(HugeVertex vertex, boolean removed) {
         // Update index(only property, no edge) of a vertex
-        for (Id id : vertex.schemaLabel().indexLabels()) {
-            this.updateIndex(id, vertex, removed);
-        }
+        this.updateElementIndex(vertex, removed);
     }
 
     @Watched(prefix = "index")
     public void updateEdgeIndex(HugeEdge edge, boolean removed) {
         // Update index of an edge
-        for (Id id : edge.schemaLabel().indexLabels()) {
-            this.updateIndex(id, edge, removed);
+        this.updateElementIndex(edge, removed);
+    }
+
+    private void updateElementIndex(HugeElement element, boolean removed) {
+        boolean async = false;
+        for (Id id : element.schemaLabel().indexLabels()) {
+            if (this.asyncIndex(id)) {
+                async = true;
+                if (!removed) {
+                    // Built by the async index worker with the pending mark
+                    continue;
+                }
+            }
+            // The old index is always removed in time as it needs old values
+            this.updateIndex(id, element, removed);
+        }
+        if (async) {
+            this.updatePendingIndex(element, removed);
         }
     }
 
+    /**
+     * Mark the element to build its async indexes, the mark is committed
+     * with the element and removed after the indexes are built
+     */
+    private void updatePendingIndex(HugeElement element, boolean removed) {
+        IndexLabel indexLabel = IndexLabel.pending(element.type());
+        HugeIndex index = new HugeIndex(indexLabel);
+        index.fieldValues(element.schemaLabel().id().asLong());
+        index.elementIds(element.id());
+
+        if (removed) {
+            this.doEliminate(this.serializer.writeIndex(index));
+        } else {
+            this.doAppend(this.serializer.writeIndex(index));
+            this.pendingIndexes++;
+        }
+    }
+
+    private boolean asyncIndex(Id ilId) {
+        if (this.asyncIndexLabels.isEmpty()) {
+            return false;
+        }
+        IndexLabel indexLabel = this.graph().indexLabel(ilId);
+        return this.asyncIndexLabels.contains(indexLabel.name());
+    }
+
+    protected long pendingIndexes() {
+        return this.pendingIndexes;
+    }
+
+    /**
+     * Collect the created async index labels grouped by the base labels
+     */
+    protected Map<SchemaLabel, List<IndexLabel>> asyncIndexLabels() {
+        SchemaTransaction schema = this.graph().schemaTransaction();
+        Map<SchemaLabel, List<IndexLabel>> labels = new HashMap<>();
+        for (String name : this.asyncIndexLabels) {
+            IndexLabel indexLabel = schema.getIndexLabel(name);
+            if (indexLabel == null) {
+                continue;
+            }
+            SchemaLabel label;
+            if (indexLabel.baseType() == HugeType.VERTEX_LABEL) {
+                label = schema.getVertexLabel(indexLabel.baseValue());
+            } else {
+                label = schema.getEdgeLabel(indexLabel.baseValue());
+            }
+            labels.computeIfAbsent(label, l -> new ArrayList<>())
+                  .add(indexLabel);
+        }
+        return labels;
+    }
+
+    /**
+     * Whether the query may be answered by an async index, which may lag
+     * behind the committed elements
+     */
+    public boolean matchAsyncIndex(ConditionQuery query) {
+        if (this.asyncIndexLabels.isEmpty() || query.allSysprop()) {
+            return false;
+        }
+        for (MatchedIndex index : this.collectMatchedIndexes(query)) {
+            for (IndexLabel indexLabel : index.indexLabels()) {
+                if (this.asyncIndexLabels.contains(indexLabel.name())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    protected Set<Id> queryPendingIndex(HugeType type, Id label, long limit) {
+        IndexLabel indexLabel = IndexLabel.pending(type);
+        ConditionQuery query = new ConditionQuery(HugeType.SECONDARY_INDEX);
+        query.eq(HugeKeys.INDEX_LABEL_ID, indexLabel.id());
+        query.eq(HugeKeys.FIELD_VALUES, label);
+        query.limit(limit);
+        return this.doIndexQueryFromBackend(indexLabel, query);
+    }
+
+    protected void removePendingIndex(HugeType type, Id label, Id elementId) {
+        HugeIndex index = new HugeIndex(IndexLabel.pending(type));
+        index.fieldValues(label.asLong());
+        index.elementIds(elementId);
+        this.doEliminate(this.serializer.writeIndex(index));
+    }
+
     /**
      * Update index(user properties) of vertex or edge
      */
@@ -294,6 +522,12 @@ public class GraphIndexTransaction extends AbstractTransaction {
 
     private void updateIndex(IndexLabel indexLabel, Object propValue,
                              Id elementId, boolean removed) {
+        this.indexUpdated(indexLabel);
+        if (this.bitmapEncoded(indexLabel, elementId)) {
+            this.updateIndexBitmap(indexLabel, propValue, elementId, removed);
+            return;
+        }
+
         HugeIndex index = new HugeIndex(indexLabel);
         index.fieldValues(propValue);
         index.elementIds(elementId);
@@ -305,6 +539,164 @@ public class GraphIndexTransaction extends AbstractTransaction {
         }
     }
 
+    /**
+     * Record the update of index in the bitmap delta, the deltas are
+     * written when committing, one delta for each index
+     */
+    private void updateIndexBitmap(IndexLabel indexLabel, Object propValue,
+                                   Id elementId, boolean removed) {
+        HugeIndex index = new HugeIndex(indexLabel);
+        index.fieldValues(propValue);
+
+        HugeIndex delta = this.bitmapUpdates.get(index.id());
+        if (delta == null) {
+            delta = index;
+            delta.elementBitmap(new IdBitmap(), new IdBitmap());
+            this.bitmapUpdates.put(delta.id(), delta);
+        }
+
+        long id = elementId.asLong();
+        if (removed) {
+            delta.elementBitmap().remove(id);
+            delta.removedBitmap().add(id);
+            /*
+             * Also eliminate the index written one by one, which may be
+             * written before enabling the bitmap encoding
+             */
+            HugeIndex single = new HugeIndex(indexLabel);
+            single.fieldValues(propValue);
+            single.elementIds(elementId);
+            this.doEliminate(this.serializer.writeIndex(single));
+        } else {
+            delta.removedBitmap().remove(id);
+            delta.elementBitmap().add(id);
+        }
+    }
+
+    private void indexUpdated(IndexLabel indexLabel) {
+        if (this.indexCache != null) {
+            this.updatedIndexLabels.add(indexLabel.id());
+        }
+    }
+
+    private boolean bitmapEncoded(IndexLabel indexLabel, Id elementId) {
+        return this.indexBitmap &&
+               indexLabel.indexType() == IndexType.SECONDARY &&
+               elementId.number();
+    }
+
+    /**
+     * Whether the index may contain element ids packed in bitmap, which
+     * means the index must be read completely and limited by element ids
+     */
+    private boolean bitmapEncoded(IndexLabel indexLabel,
+                                  ConditionQuery query) {
+        if (!this.indexBitmap ||
+            indexLabel.indexType() != IndexType.SECONDARY) {
+            return false;
+        }
+
+        Id label;
+        if (indexLabel.baseType() == HugeType.VERTEX_LABEL) {
+            label = indexLabel.baseValue();
+        } else if (indexLabel == IndexLabel.label(HugeType.VERTEX)) {
+            label = (Id) query.condition(HugeKeys.FIELD_VALUES);
+        } else {
+            // Edge ids are never number
+            return false;
+        }
+        // Only the vertices with number ids are packed in bitmap
+        IdStrategy strategy = this.graph().vertexLabel(label).idStrategy();
+        if (strategy == IdStrategy.AUTOMATIC) {
+            return !this.forceStringId;
+        }
+        return strategy == IdStrategy.CUSTOMIZE_NUMBER;
+    }
+
+    /**
+     * Fold the bitmap deltas of an index, it's called by the compactor in
+     * background: the folded bitmap overwrites the last delta and the other
+     * deltas are removed. The deltas written after the last read one are
+     * still applied after the folded bitmap.
+     * NOTE: it holds the compact lock of the index label while folding, so
+     * no delta with a less sequence is being committed in the process.
+     */
+    public void compactIndexBitmap(IndexLabel indexLabel,
+                                   Object fieldValues) {
+        E.checkState(!this.hasUpdates(),
+                     "Can't compact index bitmap when there are " +
+                     "uncommitted changes");
+
+        LockUtil.Locks locks = new LockUtil.Locks(this.graph().name());
+        Lock lock = null;
+        try {
+            locks.lockReads(LockUtil.INDEX_LABEL_DELETE, indexLabel.id());
+            locks.lockReads(LockUtil.INDEX_LABEL_REBUILD, indexLabel.id());
+            lock = this.bitmapCompactor.lockCompact(indexLabel.id());
+
+            ConditionQuery query;
+            query = new ConditionQuery(HugeType.SECONDARY_INDEX);
+            query.eq(HugeKeys.INDEX_LABEL_ID, indexLabel.id());
+            query.eq(HugeKeys.FIELD_VALUES, fieldValues);
+            Iterator<BackendEntry> entries = super.query(query);
+            while (entries.hasNext()) {
+                BackendEntry entry = entries.next();
+                HugeIndex index = this.serializer.readIndex(graph(), query,
+                                                            entry);
+                if (index.bitmapEncoded()) {
+                    this.foldIndexBitmap(indexLabel, index, entry);
+                }
+            }
+            this.commit();
+        } catch (Throwable e) {
+            this.rollback();
+            throw e;
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+            locks.unlock();
+        }
+    }
+
+    private void foldIndexBitmap(IndexLabel indexLabel, HugeIndex index,
+                                 BackendEntry entry) {
+        List<Long> sequences = index.bitmapSequences();
+        if (sequences.size() <= 1) {
+            return;
+        }
+        int last = sequences.size() - 1;
+        HugeIndex folded = new HugeIndex(indexLabel);
+        folded.fieldValues(index.fieldValues());
+        folded.elementBitmap(index.elementBitmap(), new IdBitmap());
+        folded.bitmapSequences(sequences.get(last));
+        BackendEntry foldedEntry = this.serializer.writeIndex(folded);
+        if (!foldedEntry.id().equals(entry.id())) {
+            // The entry is matched by prefix rather than the field values
+            return;
+        }
+        for (int i = 0; i < last; i++) {
+            HugeIndex delta = new HugeIndex(indexLabel);
+            delta.fieldValues(index.fieldValues());
+            delta.elementBitmap(new IdBitmap(), new IdBitmap());
+            delta.bitmapSequences(sequences.get(i));
+            this.doEliminate(this.serializer.writeIndex(delta));
+        }
+        this.doAppend(foldedEntry);
+    }
+
+    /**
+     * Request the compactor to fold the deltas of an index if there are
+     * too many of them, the index is still read with all the deltas
+     */
+    private void requestCompactIndexBitmap(IndexLabel indexLabel,
+                                           HugeIndex index) {
+        if (this.bitmapCompactor != null &&
+            index.bitmapSequences().size() > INDEX_BITMAP_MAX_DELTAS) {
+            this.bitmapCompactor.compact(indexLabel, index);
+        }
+    }
+
     /**
      * Composite index, an index involving multiple columns.
      * Single index, an index involving only one column.
@@ -409,7 +801,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
             } else {
                 // Do secondary-index or range-index query
                 IndexQueries queries = index.constructIndexQueries(query);
-                ids.addAll(this.intersectIndexQueries(queries));
+                ids.addAll(this.intersectIndexQueries(query, queries));
             }
 
             if (query.reachLimit(ids.size())) {
@@ -464,7 +856,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
         Set<Id> ids = InsertionOrderUtil.newSet();
         for (ConditionQuery q : ConditionQueryFlatten.flatten(query)) {
             IndexQueries queries = index.constructIndexQueries(q);
-            ids.addAll(this.intersectIndexQueries(queries));
+            ids.addAll(this.intersectIndexQueries(q, queries));
         }
         return ids;
     }
@@ -483,47 +875,310 @@ public class GraphIndexTransaction extends AbstractTransaction {
         return !this.store().features().supportsQueryByLabel();
     }
 
+    /**
+     * Intersect the results of joint index queries lazily: the indexes are
+     * read in turn with the same batch size (the cheaper index type first),
+     * so the first exhausted one is the most selective index, then the
+     * rest candidates of it are probed by loading the elements and testing
+     * the conditions of other indexes. The intersection stops as soon as
+     * the ids reach the limit of query, so it costs about O(smallest index)
+     * rather than O(largest index).
+     */
     @Watched(prefix = "index")
-    private Collection<Id> intersectIndexQueries(IndexQueries queries) {
-        Collection<Id> intersectIds = null;
+    private Collection<Id> intersectIndexQueries(ConditionQuery query,
+                                                 IndexQueries queries) {
+        if (queries.size() == 1) {
+            Map.Entry<IndexLabel, ConditionQuery> entry;
+            entry = queries.entrySet().iterator().next();
+            return this.doIndexQuery(entry.getKey(), entry.getValue());
+        }
 
+        List<IndexCursor> cursors = new ArrayList<>(queries.size());
         for (Map.Entry<IndexLabel, ConditionQuery> entry : queries.entrySet()) {
-            Set<Id> ids = this.doIndexQuery(entry.getKey(), entry.getValue());
-            if (intersectIds == null) {
-                intersectIds = ids;
-            } else {
-                CollectionUtil.intersectWithModify(intersectIds, ids);
+            cursors.add(new IndexCursor(entry.getKey(), entry.getValue()));
+        }
+        cursors.sort(Comparator.comparingInt(IndexCursor::cost));
+
+        LockUtil.Locks locks = new LockUtil.Locks(this.graph().name());
+        try {
+            for (IndexCursor cursor : cursors) {
+                Id ilId = cursor.indexLabel().id();
+                locks.lockReads(LockUtil.INDEX_LABEL_DELETE, ilId);
+                locks.lockReads(LockUtil.INDEX_LABEL_REBUILD, ilId);
             }
-            if (intersectIds.isEmpty()) {
+
+            // Intersect the bitmaps natively if all indexes are bitmaps
+            IdBitmap bitmap = this.intersectIndexBitmaps(queries);
+            if (bitmap != null) {
+                Set<Id> ids = InsertionOrderUtil.newSet();
+                Iterator<Id> iter = bitmapIds(bitmap);
+                while (iter.hasNext() && ids.size() < query.total()) {
+                    ids.add(iter.next());
+                }
+                return ids;
+            }
+            return this.joinIndexCursors(query, cursors);
+        } finally {
+            locks.unlock();
+        }
+    }
+
+    /**
+     * Intersect the bitmaps of joint indexes
+     * @return the bitmap, or null if there is any index not encoded as bitmap
+     */
+    private IdBitmap intersectIndexBitmaps(IndexQueries queries) {
+        for (Map.Entry<IndexLabel, ConditionQuery> entry : queries.entrySet()) {
+            if (!this.bitmapEncoded(entry.getKey(), entry.getValue())) {
+                return null;
+            }
+        }
+
+        IdBitmap result = null;
+        for (Map.Entry<IndexLabel, ConditionQuery> entry : queries.entrySet()) {
+            IdBitmap bitmap = this.queryIndexBitmap(entry.getKey(),
+                                                    entry.getValue());
+            if (bitmap == null) {
+                return null;
+            }
+            result = result == null ? bitmap : IdBitmap.and(result, bitmap);
+            if (result.isEmpty()) {
                 break;
             }
         }
-        return intersectIds;
+        return result;
+    }
+
+    private Set<Id> joinIndexCursors(ConditionQuery query,
+                                     List<IndexCursor> cursors) {
+        long total = query.total();
+        Set<Id> ids = InsertionOrderUtil.newSet();
+        for (IndexCursor cursor : cursors) {
+            cursor.open(this.indexIds(cursor.indexLabel(), cursor.query()));
+        }
+
+        // Read the indexes in turn until the most selective one is exhausted
+        IndexCursor smallest = null;
+        int batch = INDEX_JOIN_BATCH;
+        while (smallest == null) {
+            for (IndexCursor cursor : cursors) {
+                for (int i = 0; i < batch && cursor.hasNext(); i++) {
+                    Id id = cursor.next();
+                    // An id is matched once it's read from all the indexes
+                    if (readByAll(id, cursors)) {
+                        ids.add(id);
+                    }
+                }
+                if (ids.size() >= total) {
+                    return ids;
+                }
+                if (!cursor.hasNext()) {
+                    smallest = cursor;
+                    break;
+                }
+            }
+            batch = Math.min(batch << 1, INDEX_JOIN_MAX_BATCH);
+        }
+
+        /*
+         * The search index can't be probed by testing the condition of
+         * element, since the words of text are matched, read it completely
+         */
+        for (IndexCursor cursor : cursors) {
+            if (cursor.indexLabel().indexType() == IndexType.SEARCH) {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                }
+            }
+        }
+
+        // Probe the candidates of the most selective index in batch
+        List<Id> candidates = new ArrayList<>();
+        for (Id id : smallest.ids()) {
+            if (ids.contains(id) || !mayBeMatched(id, cursors)) {
+                continue;
+            }
+            candidates.add(id);
+            if (candidates.size() >= batch) {
+                this.probeCandidates(query, cursors, candidates, ids);
+                candidates.clear();
+                if (ids.size() >= total) {
+                    return ids;
+                }
+            }
+        }
+        if (!candidates.isEmpty()) {
+            this.probeCandidates(query, cursors, candidates, ids);
+        }
+        return ids;
+    }
+
+    private void probeCandidates(ConditionQuery query,
+                                 List<IndexCursor> cursors,
+                                 List<Id> candidates, Set<Id> ids) {
+        GraphTransaction tx = this.graph().graphTransaction();
+        Iterator<?> elements = query.resultType().isVertex() ?
+                               tx.queryVertices(candidates.toArray()) :
+                               tx.queryEdges(candidates.toArray());
+        while (elements.hasNext()) {
+            HugeElement element = (HugeElement) elements.next();
+            if (element == null) {
+                // The element has been deleted, but its index is left
+                continue;
+            }
+            boolean matched = true;
+            for (IndexCursor cursor : cursors) {
+                if (!cursor.ids().contains(element.id()) &&
+                    !cursor.test(query, element)) {
+                    matched = false;
+                    break;
+                }
+            }
+            if (matched) {
+                ids.add(element.id());
+            }
+        }
+    }
+
+    private static boolean readByAll(Id id, List<IndexCursor> cursors) {
+        for (IndexCursor cursor : cursors) {
+            if (!cursor.ids().contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean mayBeMatched(Id id, List<IndexCursor> cursors) {
+        for (IndexCursor cursor : cursors) {
+            if (!cursor.hasNext() && !cursor.ids().contains(id)) {
+                // Not in the index which has been read completely
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Iterator<Id> indexIds(IndexLabel indexLabel,
+                                  ConditionQuery query) {
+        Iterator<BackendEntry> entries = this.queryIndex(indexLabel, query);
+        return new FlatMapperIterator<>(entries, entry -> {
+            HugeIndex index = this.serializer.readIndex(graph(), query, entry);
+            if (index.bitmapEncoded()) {
+                this.requestCompactIndexBitmap(indexLabel, index);
+            }
+            return elementIds(index);
+        });
     }
 
     @Watched(prefix = "index")
     private Set<Id> doIndexQuery(IndexLabel indexLabel, ConditionQuery query) {
-        Set<Id> ids = InsertionOrderUtil.newSet();
         LockUtil.Locks locks = new LockUtil.Locks(this.graph().name());
         try {
             locks.lockReads(LockUtil.INDEX_LABEL_DELETE, indexLabel.id());
             locks.lockReads(LockUtil.INDEX_LABEL_REBUILD, indexLabel.id());
 
-            Iterator<BackendEntry> entries = super.query(query);
-            while(entries.hasNext()) {
-                HugeIndex index = this.serializer.readIndex(graph(), query,
-                                                            entries.next());
-                ids.addAll(index.elementIds());
-                if (query.reachLimit(ids.size())) {
-                    break;
+            if (this.indexCache == null || query.paging()) {
+                return this.doIndexQueryFromBackend(indexLabel, query);
+            }
+
+            // The key must be generated before querying from the backend
+            Id key = this.indexCache.key(indexLabel.id(), query);
+            Set<Id> ids = this.indexCache.get(key);
+            if (ids == null) {
+                ids = this.doIndexQueryFromBackend(indexLabel, query);
+                if (ids.size() <= MAX_CACHE_IDS_PER_QUERY) {
+                    this.indexCache.update(key, ids);
                 }
             }
+            return ids;
         } finally {
             locks.unlock();
         }
+    }
+
+    private Set<Id> doIndexQueryFromBackend(IndexLabel indexLabel,
+                                            ConditionQuery query) {
+        Set<Id> ids = InsertionOrderUtil.newSet();
+        if (this.bitmapEncoded(indexLabel, query)) {
+            // Skip and limit by element ids rather than index entries
+            Iterator<Id> iter = this.indexIds(indexLabel, query);
+            for (long i = 0L; i < query.offset() && iter.hasNext(); i++) {
+                iter.next();
+            }
+            while (iter.hasNext() && ids.size() < query.limit()) {
+                ids.add(iter.next());
+            }
+            return ids;
+        }
+
+        Iterator<BackendEntry> entries = super.query(query);
+        while(entries.hasNext()) {
+            HugeIndex index = this.serializer.readIndex(graph(), query,
+                                                        entries.next());
+            ids.addAll(index.elementIds());
+            if (query.reachLimit(ids.size())) {
+                break;
+            }
+        }
         return ids;
     }
 
+    private Iterator<BackendEntry> queryIndex(IndexLabel indexLabel,
+                                              ConditionQuery query) {
+        if (this.bitmapEncoded(indexLabel, query) &&
+            (query.offset() > 0L || query.limit() != Query.NO_LIMIT)) {
+            // The bitmap deltas of an index must be read completely
+            ConditionQuery copy = query.copy();
+            copy.offset(0L);
+            copy.limit(Query.NO_LIMIT);
+            query = copy;
+        }
+        return super.query(query);
+    }
+
+    /**
+     * Read all the ids of index into a bitmap
+     * @return the bitmap, or null if there is a non-number id
+     */
+    private IdBitmap queryIndexBitmap(IndexLabel indexLabel,
+                                      ConditionQuery query) {
+        IdBitmap bitmap = new IdBitmap();
+        Iterator<BackendEntry> entries = this.queryIndex(indexLabel, query);
+        while (entries.hasNext()) {
+            BackendEntry entry = entries.next();
+            HugeIndex index = this.serializer.readIndex(graph(), query, entry);
+            if (index.bitmapEncoded()) {
+                this.requestCompactIndexBitmap(indexLabel, index);
+                bitmap.or(index.elementBitmap());
+            }
+            for (Id id : index.elementIds()) {
+                if (!id.number()) {
+                    return null;
+                }
+                bitmap.add(id.asLong());
+            }
+        }
+        return bitmap;
+    }
+
+    private static Iterator<Id> elementIds(HugeIndex index) {
+        Iterator<Id> ids = index.elementIds().iterator();
+        if (!index.bitmapEncoded()) {
+            return ids;
+        }
+        ExtendableIterator<Id> results = new ExtendableIterator<>(ids);
+        results.extend(bitmapIds(index.elementBitmap()));
+        return results;
+    }
+
+    private static Iterator<Id> bitmapIds(IdBitmap bitmap) {
+        PrimitiveIterator.OfLong values = bitmap.iterator();
+        return new MapperIterator<>(values, value -> {
+            return IdGenerator.of(value.longValue());
+        });
+    }
+
     @Watched(prefix = "index")
     private Set<MatchedIndex> collectMatchedIndexes(ConditionQuery query) {
         SchemaTransaction schema = this.graph().schemaTransaction();
@@ -1018,6 +1673,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
     }
 
     public void removeIndex(IndexLabel indexLabel) {
+        this.indexUpdated(indexLabel);
         HugeIndex index = new HugeIndex(indexLabel);
         this.doRemove(this.serializer.writeIndex(index));
     }
@@ -1077,6 +1733,86 @@ public class GraphIndexTransaction extends AbstractTransaction {
         }
     }
 
+    /**
+     * The state of an index query in the intersection of joint indexes,
+     * the ids read from the index are recorded
+     */
+    private static class IndexCursor {
+
+        private final IndexLabel indexLabel;
+        private final ConditionQuery query;
+        private final Set<Id> ids;
+        private Iterator<Id> iterator;
+
+        public IndexCursor(IndexLabel indexLabel, ConditionQuery query) {
+            this.indexLabel = indexLabel;
+            this.query = query;
+            this.ids = InsertionOrderUtil.newSet();
+            this.iterator = null;
+        }
+
+        public IndexLabel indexLabel() {
+            return this.indexLabel;
+        }
+
+        public ConditionQuery query() {
+            return this.query;
+        }
+
+        public Set<Id> ids() {
+            return this.ids;
+        }
+
+        public void open(Iterator<Id> iterator) {
+            this.iterator = iterator;
+        }
+
+        public boolean hasNext() {
+            return this.iterator.hasNext();
+        }
+
+        public Id next() {
+            Id id = this.iterator.next();
+            this.ids.add(id);
+            return id;
+        }
+
+        /**
+         * The estimated cost to read the index, secondary index is cheaper
+         * than range index and search index, and the index with more fields
+         * is cheaper since it's more selective
+         */
+        public int cost() {
+            int cost;
+            switch (this.indexLabel.indexType()) {
+                case SECONDARY:
+                    cost = 100;
+                    break;
+                case RANGE:
+                    cost = 200;
+                    break;
+                default:
+                    cost = 300;
+                    break;
+            }
+            return cost - this.indexLabel.indexFields().size();
+        }
+
+        /**
+         * Test if the element matches the conditions of the index fields
+         */
+        public boolean test(ConditionQuery query, HugeElement element) {
+            for (Id field : this.indexLabel.indexFields()) {
+                for (Condition condition : query.userpropConditions(field)) {
+                    if (!condition.test(element)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
     private static class IndexQueries
                    extends HashMap<IndexLabel, ConditionQuery> {
 
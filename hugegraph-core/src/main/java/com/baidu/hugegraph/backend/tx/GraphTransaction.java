@@ -23,10 +23,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -45,14 +47,17 @@ import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.id.EdgeId;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.SplicingIdGenerator;
+import com.baidu.hugegraph.backend.query.BatchQuery;
 import com.baidu.hugegraph.backend.query.Condition;
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.ConditionQueryFlatten;
 import com.baidu.hugegraph.backend.query.IdQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.BackendFeatures;
 import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.backend.tx.GraphIndexTransaction.OptimizedType;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.config.HugeConfig;
@@ -155,6 +160,18 @@ public class GraphTransaction extends IndexableTransaction {
         return this.indexTx;
     }
 
+    @Override
+    protected void commit2Backend() {
+        super.commit2Backend();
+
+        // Wake up the worker to build the async indexes of committed elements
+        long pendingIndexes = this.indexTx.pendingIndexes();
+        AsyncIndexWorker worker = this.graph().asyncIndexWorker();
+        if (pendingIndexes > 0L && worker != null) {
+            worker.pending(pendingIndexes);
+        }
+    }
+
     @Override
     protected void beforeWrite() {
         this.checkTxVerticesCapacity();
@@ -187,6 +204,18 @@ public class GraphTransaction extends IndexableTransaction {
         return new ArrayList<>(this.removedVertexes.values());
     }
 
+    protected final Collection<HugeEdge> edgesInTxUpdated() {
+        int size = this.addedEdges.size() + this.updatedEdges.size();
+        List<HugeEdge> edges = new ArrayList<>(size);
+        edges.addAll(this.addedEdges.values());
+        edges.addAll(this.updatedEdges.values());
+        return edges;
+    }
+
+    protected final Collection<HugeEdge> edgesInTxRemoved() {
+        return new ArrayList<>(this.removedEdges.values());
+    }
+
     protected final boolean removingEdgeOwner(HugeEdge edge) {
         for (HugeVertex vertex : this.removedVertexes.values()) {
             if (edge.belongToVertex(vertex)) {
@@ -637,6 +666,223 @@ public class GraphTransaction extends IndexableTransaction {
         return r;
     }
 
+    /**
+     * Count the vertices or edges matched by the query, it's answered
+     * natively by the backend store only if there are no changes in the
+     * transaction and the query is a query-all, a query by label (which
+     * the store supports) or by other sysprops. Otherwise, the matched
+     * elements are read and counted one by one.
+     * NOTE: the queries by index are always counted by the matched
+     * elements, since the index entries may be left by the updated elements.
+     * @param query the query without offset, limit and page
+     * @return      the count of matched vertices or edges
+     */
+    @Watched(prefix = "graph")
+    public long queryNumber(Query query) {
+        HugeType type = query.resultType();
+        E.checkArgument(type.isVertex() || type.isEdge(),
+                        "Can't count the records of type %s", type);
+        E.checkArgument(query.offset() == 0L && query.noLimit() &&
+                        !query.paging(),
+                        "Can't count with offset, limit or page: %s", query);
+
+        if (!this.hasUpdates()) {
+            long count = this.queryNumberNatively(query);
+            if (count >= 0L) {
+                return count;
+            }
+        }
+
+        // Count the results one by one, which are joined with the changes
+        Iterator<?> results = type.isVertex() ? this.queryVertices(query) :
+                                                this.queryEdges(query);
+        long count = 0L;
+        while (results.hasNext()) {
+            results.next();
+            count++;
+        }
+        return count;
+    }
+
+    private long queryNumberNatively(Query query) {
+        if (!query.ids().isEmpty()) {
+            // The existence of each id must be checked
+            return -1L;
+        }
+        if (!(query instanceof ConditionQuery)) {
+            return super.queryNumber(query);
+        }
+
+        List<ConditionQuery> queries = ConditionQueryFlatten.flatten(
+                                       (ConditionQuery) query);
+        if (query.resultType().isEdge()) {
+            Set<Object> directions = new HashSet<>();
+            for (ConditionQuery cq : queries) {
+                directions.add(cq.condition(HugeKeys.DIRECTION));
+            }
+            if (directions.size() > 1) {
+                // The self-loop edges of both directions must be deduplicated
+                return -1L;
+            }
+        }
+
+        long count = 0L;
+        for (ConditionQuery cq : queries) {
+            if (!cq.allSysprop() || this.needIndexForLabel(cq)) {
+                /*
+                 * The index entries can't be counted directly: the left
+                 * entries of updated elements and the candidates of range
+                 * or search index are filtered only by the elements
+                 */
+                return -1L;
+            }
+            Query q = this.optimizeQuery(cq);
+            assert q == cq : q;
+            long number = super.queryNumber(q);
+            if (number < 0L) {
+                return -1L;
+            }
+            count += number;
+        }
+        return count;
+    }
+
+    private boolean needIndexForLabel(ConditionQuery query) {
+        boolean byLabel = query.condition(HugeKeys.LABEL) != null &&
+                          query.conditions().size() == 1;
+        return byLabel && !this.store().features().supportsQueryByLabel();
+    }
+
+    /**
+     * Query ids of the adjacent edges of a vertex, it's used by traversers
+     * which only care about the adjacent vertices
+     * @param vertex the owner vertex id
+     * @param direction only be "IN", "OUT" or "BOTH"
+     * @param label the edge label id, all edge labels if null
+     * @param limit the max number of returned edge ids, NO_LIMIT if negative
+     * @return edge ids whose owner vertex is the specified vertex
+     */
+    public Iterator<EdgeId> queryAdjacentEdgeIds(Id vertex,
+                                                 Directions direction,
+                                                 Id label, long limit) {
+        Id[] labels = label == null ? new Id[]{} : new Id[]{label};
+        Query query = constructEdgesQuery(vertex, direction, labels);
+        if (limit >= 0L) {
+            query.limit(limit);
+        }
+        return new MapperIterator<>(this.queryEdges(query), edge -> {
+            return ((HugeEdge) edge).id();
+        });
+    }
+
+    /**
+     * Query ids of the adjacent edges of multi vertices in batch, the backend
+     * store which supports batch query would execute the queries of all the
+     * vertices with few requests, rather than one request per vertex
+     * @param vertices the owner vertex ids
+     * @param direction only be "IN", "OUT" or "BOTH"
+     * @param label the edge label id, all edge labels if null
+     * @param limit the max number of returned edge ids of each vertex,
+     *              NO_LIMIT if negative
+     * @return edge ids whose owner vertex is one of the specified vertices,
+     *         NOTE: they are not necessarily grouped by the owner vertex
+     */
+    public Iterator<EdgeId> queryAdjacentEdgeIds(Collection<Id> vertices,
+                                                 Directions direction,
+                                                 Id label, long limit) {
+        if (vertices.size() <= 1 || this.hasUpdates()) {
+            // The changes in local tx are joined by per-vertex queries
+            return new FlatMapperIterator<>(vertices.iterator(), vertex -> {
+                return this.queryAdjacentEdgeIds(vertex, direction,
+                                                 label, limit);
+            });
+        }
+
+        Iterator<HugeEdge> edges;
+        if (direction == Directions.BOTH) {
+            ExtendableIterator<HugeEdge> results = new ExtendableIterator<>();
+            results.extend(this.queryAdjacentEdgesFromBackend(
+                                vertices, Directions.OUT, label, limit));
+            results.extend(this.queryAdjacentEdgesFromBackend(
+                                vertices, Directions.IN, label, limit));
+            edges = results;
+        } else {
+            edges = this.queryAdjacentEdgesFromBackend(vertices, direction,
+                                                       label, limit);
+        }
+
+        Map<Id, Long> counts = new HashMap<>();
+        edges = new FilterIterator<>(edges, edge -> {
+            if (Graph.Hidden.isHidden(edge.label())) {
+                return false;
+            }
+            EdgeId id = edge.id();
+            // The self-loop edge has been returned as an OUT edge
+            if (direction == Directions.BOTH &&
+                id.direction() == Directions.IN &&
+                id.ownerVertexId().equals(id.otherVertexId())) {
+                return false;
+            }
+            /*
+             * The limit of each vertex is pushed down into its OUT and IN
+             * sub-queries, only the merged edges of both need to be limited
+             */
+            if (direction == Directions.BOTH && limit >= 0L) {
+                long count = counts.getOrDefault(id.ownerVertexId(), 0L);
+                if (count >= limit) {
+                    return false;
+                }
+                counts.put(id.ownerVertexId(), count + 1L);
+            }
+            return true;
+        });
+        return new MapperIterator<>(edges, edge -> {
+            return edge.id();
+        });
+    }
+
+    /**
+     * Query the adjacent edges of multi vertices in one direction from the
+     * backend store by a batch query, without joining the changes in tx
+     * @param vertices the owner vertex ids
+     * @param direction only be "IN" or "OUT"
+     * @param label the edge label id, all edge labels if null
+     * @param limit the max number of edges of each vertex, NO_LIMIT if
+     *              negative
+     * @return edges (including hidden ones) of the vertices
+     */
+    protected Iterator<HugeEdge> queryAdjacentEdgesFromBackend(
+                                 Collection<Id> vertices,
+                                 Directions direction,
+                                 Id label, long limit) {
+        assert direction == Directions.OUT || direction == Directions.IN;
+        Id[] labels = label == null ? new Id[]{} : new Id[]{label};
+        List<Query> queries = new ArrayList<>(vertices.size());
+        for (Id vertex : vertices) {
+            Query query = constructEdgesQuery(vertex, direction, labels);
+            if (limit >= 0L) {
+                query.limit(limit);
+            }
+            queries.add(query);
+        }
+        if (queries.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+
+        /*
+         * NOTE: the limit of a single query is also kept by the batch query
+         * when serialized, and don't go through the queryEdgesFromBackend()
+         * of sub-class
+         */
+        Query query = new BatchQuery(queries);
+        Iterator<BackendEntry> entries = this.query(query);
+        return new FlatMapperIterator<>(entries, entry -> {
+            HugeVertex vertex = this.serializer.readVertex(graph(), entry);
+            assert vertex != null;
+            return ImmutableList.copyOf(vertex.getEdges()).iterator();
+        });
+    }
+
     protected Iterator<HugeEdge> queryEdgesFromBackend(Query query) {
         assert query.resultType().isEdge();
 
@@ -1026,12 +1272,21 @@ public class GraphTransaction extends IndexableTransaction {
          */
         this.beforeRead();
         try {
+            this.waitAsyncIndex(query);
             return this.indexTx.query(query);
         } finally {
             this.afterRead();
         }
     }
 
+    private void waitAsyncIndex(ConditionQuery query) {
+        // Wait for the committed elements to be indexed if it's async
+        AsyncIndexWorker worker = this.graph().asyncIndexWorker();
+        if (worker != null && this.indexTx.matchAsyncIndex(query)) {
+            worker.waitPending();
+        }
+    }
+
     private VertexLabel checkVertexLabel(Object label, boolean verifyLabel) {
         HugeVertexFeatures features = graph().features().vertex();
 
@@ -1339,6 +1594,127 @@ public class GraphTransaction extends IndexableTransaction {
         this.afterWrite();
     }
 
+    /**
+     * Fold the bitmap deltas of an index, see IndexBitmapCompactor
+     */
+    public void compactIndexBitmap(IndexLabel indexLabel,
+                                   Object fieldValues) {
+        this.checkOwnerThread();
+        E.checkState(!this.hasUpdates(),
+                     "Can't compact index bitmap when there are " +
+                     "uncommitted changes");
+        this.indexTx.compactIndexBitmap(indexLabel, fieldValues);
+    }
+
+    /**
+     * Build the async indexes of the elements with pending marks, the
+     * elements of each label are processed in a transaction, at most
+     * `batch` elements of a label at a time
+     * @return the number of pending elements processed
+     */
+    public long applyAsyncIndexes(long batch) {
+        this.checkOwnerThread();
+        E.checkState(!this.hasUpdates(),
+                     "Can't build async indexes when there are " +
+                     "uncommitted changes");
+
+        long count = 0L;
+        Map<SchemaLabel, List<IndexLabel>> labels;
+        labels = this.indexTx.asyncIndexLabels();
+        for (Map.Entry<SchemaLabel, List<IndexLabel>> e : labels.entrySet()) {
+            SchemaLabel label = e.getKey();
+            HugeType type = label.type() == HugeType.VERTEX_LABEL ?
+                            HugeType.VERTEX : HugeType.EDGE;
+            Set<Id> ids = this.indexTx.queryPendingIndex(type, label.id(),
+                                                         batch);
+            if (ids.isEmpty()) {
+                continue;
+            }
+
+            List<IndexLabel> indexLabels = e.getValue();
+            Map<Id, HugeElement> indexed = this.queryElements(type, ids);
+            for (HugeElement element : indexed.values()) {
+                for (IndexLabel indexLabel : indexLabels) {
+                    this.indexTx.updateIndex(indexLabel.id(), element, false);
+                }
+            }
+            // Also remove the marks of the elements which don't exist
+            for (Id id : ids) {
+                this.indexTx.removePendingIndex(type, label.id(), id);
+            }
+            this.commit();
+
+            this.recheckAsyncIndexes(type, ids, indexed, indexLabels);
+            count += ids.size();
+        }
+        return count;
+    }
+
+    /**
+     * Rebuild the async indexes of the elements updated or removed by others
+     * after they are read by applyAsyncIndexes(): the marks of the changes
+     * have been removed with the read ones (with the same row), and the old
+     * indexes were removed before built, so re-read the elements after the
+     * marks are removed and fix the indexes of the changed ones. The later
+     * changes are committed with new marks which are processed next round.
+     */
+    private void recheckAsyncIndexes(HugeType type, Set<Id> ids,
+                                     Map<Id, HugeElement> indexed,
+                                     List<IndexLabel> indexLabels) {
+        Map<Id, HugeElement> latest = this.queryElements(type, ids);
+        for (Id id : ids) {
+            HugeElement old = indexed.get(id);
+            HugeElement element = latest.get(id);
+            for (IndexLabel indexLabel : indexLabels) {
+                if (sameIndexValues(indexLabel, old, element)) {
+                    continue;
+                }
+                if (old != null) {
+                    this.indexTx.updateIndex(indexLabel.id(), old, true);
+                }
+                if (element != null) {
+                    this.indexTx.updateIndex(indexLabel.id(), element, false);
+                }
+            }
+        }
+        if (this.hasUpdates()) {
+            LOG.debug("Rebuilt async indexes of the elements changed " +
+                      "while building: {}", ids);
+            this.commit();
+        }
+    }
+
+    private Map<Id, HugeElement> queryElements(HugeType type, Set<Id> ids) {
+        IdQuery query = new IdQuery(type, ids);
+        Iterator<? extends HugeElement> elements;
+        if (type.isVertex()) {
+            elements = this.queryVerticesFromBackend(query);
+        } else {
+            elements = this.queryEdgesFromBackend(query);
+        }
+        Map<Id, HugeElement> results = new HashMap<>();
+        while (elements.hasNext()) {
+            HugeElement element = elements.next();
+            results.put(element.id(), element);
+        }
+        return results;
+    }
+
+    private static boolean sameIndexValues(IndexLabel indexLabel,
+                                           HugeElement e1, HugeElement e2) {
+        if (e1 == null || e2 == null) {
+            return e1 == e2;
+        }
+        for (Id field : indexLabel.indexFields()) {
+            Object v1 = e1.getPropertyValue(field);
+            Object v2 = e2.getPropertyValue(field);
+            if (!Objects.equals(v1, v2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void removeVertices(VertexLabel vertexLabel) {
         if (this.hasUpdates()) {
             throw new BackendException("There are still changes to commit");
@@ -1403,6 +1779,96 @@ public class GraphTransaction extends IndexableTransaction {
         this.traverseByLabel(label, this::queryEdges, consumer);
     }
 
+    /**
+     * Whether the vertices or edges can be traversed shard by shard, the
+     * shards are split by the "splits" meta of the store
+     */
+    public boolean supportsTraverseByShard() {
+        BackendFeatures features = this.store().features();
+        return features.supportsScanToken() || features.supportsScanKeyRange();
+    }
+
+    /**
+     * Whether the label has more vertices or edges than the specified size,
+     * the label without label index is always regarded as exceeded since
+     * its elements can only be found by scanning all. It's counted natively
+     * by the store, or by the ids of label index, rather than reading the
+     * elements if possible.
+     */
+    public boolean labelExceeds(SchemaLabel label, long size) {
+        if (!label.enableLabelIndex()) {
+            return true;
+        }
+        boolean isVertex = label.type() == HugeType.VERTEX_LABEL;
+        ConditionQuery query = new ConditionQuery(isVertex ? HugeType.VERTEX :
+                                                             HugeType.EDGE);
+        query.eq(HugeKeys.LABEL, label.id());
+
+        if (!this.hasUpdates()) {
+            long count = this.queryNumberNatively(query);
+            if (count >= 0L) {
+                return count > size;
+            }
+            if (this.needIndexForLabel(query)) {
+                // Only read the ids of label index (may contain left ones)
+                query.limit(size + 1L);
+                List<ConditionQuery> queries;
+                queries = ConditionQueryFlatten.flatten(query);
+                assert queries.size() == 1 : queries;
+                Query ids = this.indexTx.query(queries.get(0));
+                return ids.ids().size() > size;
+            }
+        }
+
+        query.limit(size + 1L);
+        query.capacity(Query.NO_CAPACITY);
+        if (label.hidden()) {
+            query.showHidden(true);
+        }
+        Iterator<?> itor = isVertex ? this.queryVertices(query) :
+                                      this.queryEdges(query);
+        long count = 0L;
+        while (itor.hasNext()) {
+            itor.next();
+            if (++count > size) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void traverseVerticesByShard(VertexLabel label, Shard shard,
+                                        Consumer<Vertex> consumer) {
+        this.traverseByShard(label, HugeType.VERTEX, shard,
+                             this::queryVertices, consumer);
+    }
+
+    public void traverseEdgesByShard(EdgeLabel label, Shard shard,
+                                     Consumer<Edge> consumer) {
+        this.traverseByShard(label, HugeType.EDGE_OUT, shard,
+                             this::queryEdges, consumer);
+    }
+
+    private <T> void traverseByShard(SchemaLabel label, HugeType type,
+                                     Shard shard,
+                                     Function<Query, Iterator<T>> fetcher,
+                                     Consumer<T> consumer) {
+        // Scan the shard with a cursor and filter by label
+        ConditionQuery query = new ConditionQuery(type);
+        query.scan(shard.start(), shard.end());
+        query.capacity(Query.NO_CAPACITY);
+        if (label.hidden()) {
+            query.showHidden(true);
+        }
+        Iterator<T> itor = fetcher.apply(query);
+        while (itor.hasNext()) {
+            T e = itor.next();
+            if (label.equals(((HugeElement) e).schemaLabel())) {
+                consumer.accept(e);
+            }
+        }
+    }
+
     private <T> void traverseByLabel(SchemaLabel label,
                                      Function<Query, Iterator<T>> fetcher,
                                      Consumer<T> consumer) {
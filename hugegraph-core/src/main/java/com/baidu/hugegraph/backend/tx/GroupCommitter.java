@@ -0,0 +1,197 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.baidu.hugegraph.backend.tx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.store.BackendMutation;
+import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Commit the mutations of concurrent transactions in groups: the first
+ * committer of a group becomes the leader, it waits for other committers
+ * to join the group within a short window (or until enough mutations are
+ * gathered), then writes all the mutations of the group into the backend
+ * in one batch, and notifies the other committers after the batch is
+ * committed. If the group fails to commit, each committer commits its own
+ * mutations alone, so that a bad transaction doesn't fail the others.
+ */
+public class GroupCommitter {
+
+    private static final Logger LOG = Log.logger(GroupCommitter.class);
+
+    private final long window;
+    private final int maxSize;
+    private final Map<BackendStore, Gatherer> gatherers;
+
+    public GroupCommitter(long window, int maxSize) {
+        E.checkArgument(window > 0L,
+                        "The window of group commit must be > 0, " +
+                        "but got %s", window);
+        E.checkArgument(maxSize > 0,
+                        "The max size of group commit must be > 0, " +
+                        "but got %s", maxSize);
+        this.window = window;
+        this.maxSize = maxSize;
+        this.gatherers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Commit the mutations with the ones of other concurrent transactions
+     * @return true if committed in a group, or false if the caller should
+     *         commit the mutations alone
+     */
+    public boolean commit(BackendStore store, BackendMutation... mutations) {
+        Gatherer gatherer = this.gatherers.computeIfAbsent(store, s -> {
+            return new Gatherer();
+        });
+        Committer committer = new Committer(mutations);
+        List<Committer> group = gatherer.join(committer);
+        if (group == null) {
+            // Joined the group of another leader
+            return committer.await();
+        }
+
+        if (group.size() == 1) {
+            // Nobody joined the group, commit it as usual
+            assert group.get(0) == committer;
+            return false;
+        }
+
+        boolean success = commitGroup(store, group);
+        for (Committer member : group) {
+            member.complete(success);
+        }
+        return success;
+    }
+
+    private static boolean commitGroup(BackendStore store,
+                                       List<Committer> group) {
+        try {
+            store.beginTx();
+            for (Committer committer : group) {
+                for (BackendMutation mutation : committer.mutations) {
+                    store.mutate(mutation);
+                }
+            }
+            store.commitTx();
+            LOG.debug("Committed the mutations of {} transactions in a group",
+                      group.size());
+            return true;
+        } catch (Throwable e) {
+            LOG.warn("Failed to commit the mutations of {} transactions in " +
+                     "a group, commit them one by one", group.size(), e);
+            try {
+                store.rollbackTx();
+            } catch (Throwable e2) {
+                LOG.error("Failed to rollback the group commit", e2);
+            }
+            return false;
+        }
+    }
+
+    private class Gatherer {
+
+        private List<Committer> committers = new ArrayList<>();
+        private int size = 0;
+        private boolean leading = false;
+
+        /**
+         * Join the gathering group
+         * @return the committers of the group if it's the leader, otherwise
+         *         null
+         */
+        public synchronized List<Committer> join(Committer committer) {
+            this.committers.add(committer);
+            this.size += committer.size;
+            if (this.leading) {
+                if (this.size >= maxSize) {
+                    // Wake up the leader to commit the full group
+                    this.notifyAll();
+                }
+                return null;
+            }
+
+            this.leading = true;
+            long deadline = System.currentTimeMillis() + window;
+            long remaining = window;
+            try {
+                while (this.size < maxSize && remaining > 0L) {
+                    // Release the monitor to let others join the group
+                    this.wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+            } catch (InterruptedException e) {
+                // Stop waiting and commit the gathered group
+                Thread.currentThread().interrupt();
+            }
+
+            List<Committer> group = this.committers;
+            this.committers = new ArrayList<>();
+            this.size = 0;
+            this.leading = false;
+            return group;
+        }
+    }
+
+    private static class Committer {
+
+        private final BackendMutation[] mutations;
+        private final int size;
+        private final CompletableFuture<Boolean> future;
+
+        public Committer(BackendMutation[] mutations) {
+            this.mutations = mutations;
+            int size = 0;
+            for (BackendMutation mutation : mutations) {
+                size += mutation.size();
+            }
+            this.size = size;
+            this.future = new CompletableFuture<>();
+        }
+
+        public void complete(boolean success) {
+            this.future.complete(success);
+        }
+
+        public boolean await() {
+            /*
+             * Must wait until the group is done even if interrupted, since
+             * the mutations may be committed by the leader at any time
+             */
+            try {
+                return Uninterruptibles.getUninterruptibly(this.future);
+            } catch (ExecutionException e) {
+                throw new AssertionError("Never complete exceptionally", e);
+            }
+        }
+    }
+}
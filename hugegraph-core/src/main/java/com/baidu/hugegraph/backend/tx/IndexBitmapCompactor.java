@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.tx;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.schema.IndexLabel;
+import com.baidu.hugegraph.structure.HugeIndex;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Fold the bitmap deltas of the indexes of a graph in background: a query
+ * reading an index with too many deltas requests to compact it, and the
+ * compactor folds the deltas in its own transaction.
+ *
+ * The transactions committing bitmap deltas hold the commit locks (read
+ * locks) of the index labels, and the compactor holds the write lock of
+ * the index label while folding, so that no delta of the index with a less
+ * sequence is being committed in the process meanwhile.
+ */
+public class IndexBitmapCompactor {
+
+    private static final Logger LOG = Log.logger(IndexBitmapCompactor.class);
+
+    private static final long CLOSE_TIMEOUT = 30L;
+
+    private final HugeGraph graph;
+    private final ExecutorService executor;
+    // The ids of indexes requested to compact but not compacted yet
+    private final Set<Id> pending;
+    private final Map<Id, ReadWriteLock> locks;
+
+    public IndexBitmapCompactor(HugeGraph graph) {
+        this.graph = graph;
+        this.pending = ConcurrentHashMap.newKeySet();
+        this.locks = new ConcurrentHashMap<>();
+
+        String name = "index-bitmap-" + graph.name() + "-%d";
+        this.executor = ExecutorUtil.newFixedThreadPool(1, name);
+    }
+
+    /**
+     * Request to compact the index in background, the requests of an index
+     * are ignored until it's compacted
+     */
+    public void compact(IndexLabel indexLabel, HugeIndex index) {
+        Id id = index.id();
+        if (!this.pending.add(id)) {
+            return;
+        }
+        Object fieldValues = index.fieldValues();
+        try {
+            this.executor.execute(() -> {
+                try {
+                    this.doCompact(indexLabel, fieldValues);
+                } finally {
+                    this.pending.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The compactor is closed
+            this.pending.remove(id);
+        }
+    }
+
+    /**
+     * Hold the commit lock of the index label, until the deltas are
+     * committed or rolled back
+     */
+    public Lock lockCommit(Id indexLabel) {
+        Lock lock = this.lock(indexLabel).readLock();
+        lock.lock();
+        return lock;
+    }
+
+    /**
+     * Hold the compact lock of the index label, which waits for the
+     * transactions committing deltas of the index label
+     */
+    public Lock lockCompact(Id indexLabel) {
+        Lock lock = this.lock(indexLabel).writeLock();
+        lock.lock();
+        return lock;
+    }
+
+    public void close() {
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ReadWriteLock lock(Id indexLabel) {
+        return this.locks.computeIfAbsent(indexLabel, id -> {
+            return new ReentrantReadWriteLock();
+        });
+    }
+
+    private void doCompact(IndexLabel indexLabel, Object fieldValues) {
+        try {
+            GraphTransaction tx = this.graph.graphTransaction();
+            tx.compactIndexBitmap(indexLabel, fieldValues);
+        } catch (Throwable e) {
+            LOG.warn("Failed to compact the bitmap of index '{}' of " +
+                     "graph '{}'", indexLabel.name(), this.graph.name(), e);
+        } finally {
+            // Close the transactions opened by the worker thread
+            this.graph.closeTx();
+        }
+    }
+}
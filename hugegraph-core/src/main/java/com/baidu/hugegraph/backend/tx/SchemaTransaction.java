@@ -412,6 +412,12 @@ public class SchemaTransaction extends IndexableTransaction {
         return this.store().nextId(type);
     }
 
+    @Watched(prefix = "schema")
+    public long getNextIdBlock(HugeType type, long size) {
+        LOG.debug("SchemaTransaction get next {} ids for {}", size, type);
+        return this.store().nextIdBlock(type, size);
+    }
+
     @Watched(prefix = "schema")
     public void setNextIdLowest(HugeType type, long lowest) {
         LOG.debug("SchemaTransaction set next id to {} for {}", lowest, type);
@@ -19,9 +19,13 @@
 
 package com.baidu.hugegraph.config;
 
+import static com.baidu.hugegraph.config.OptionChecker.allowValues;
 import static com.baidu.hugegraph.config.OptionChecker.disallowEmpty;
+import static com.baidu.hugegraph.config.OptionChecker.nonNegativeInt;
 import static com.baidu.hugegraph.config.OptionChecker.rangeInt;
 
+import com.google.common.collect.ImmutableList;
+
 public class CoreOptions extends OptionHolder {
 
     private CoreOptions() {
@@ -103,6 +107,27 @@ public class CoreOptions extends OptionHolder {
                     0
             );
 
+    public static final ConfigOption<Integer> GROUP_COMMIT_WINDOW =
+            new ConfigOption<>(
+                    "group_commit.window",
+                    "The time in milliseconds to wait for the concurrent " +
+                    "transactions to commit their mutations together in " +
+                    "one backend batch, 0 means disabled. It only takes " +
+                    "effect on the backends supporting transaction.",
+                    rangeInt(0, 1000),
+                    0
+            );
+
+    public static final ConfigOption<Integer> GROUP_COMMIT_SIZE =
+            new ConfigOption<>(
+                    "group_commit.size",
+                    "The max size(items) of the mutations committed in one " +
+                    "group, the group is committed without waiting when " +
+                    "it's reached.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    10000
+            );
+
     public static final ConfigOption<Long> TASK_WAIT_TIMEOUT =
             new ConfigOption<>(
                     "task.wait_timeout",
@@ -145,6 +170,17 @@ public class CoreOptions extends OptionHolder {
                     10000
             );
 
+    public static final ConfigOption<Boolean> ELEMENT_COMPACT_PROPERTIES =
+            new ConfigOption<>(
+                    "element.compact_properties",
+                    "Whether to store the properties of vertices and edges " +
+                    "compactly in arrays by the property order of label, " +
+                    "the primitive values are stored unboxed and the " +
+                    "property objects are created only when accessed.",
+                    disallowEmpty(),
+                    false
+            );
+
     /**
      * The schema name rule:
      * 1、Not allowed end with spaces
@@ -174,6 +210,35 @@ public class CoreOptions extends OptionHolder {
                     false
             );
 
+    public static final ConfigOption<Integer> SCHEMA_JOB_WORKERS =
+            new ConfigOption<>(
+                    "schema.job_workers",
+                    "The number of threads shared by the schema jobs of " +
+                    "each graph, like rebuilding index or removing label, " +
+                    "to process the shards of vertices or edges in parallel.",
+                    rangeInt(1, 256),
+                    4
+            );
+
+    public static final ConfigOption<Long> SCHEMA_JOB_SPLIT_SIZE =
+            new ConfigOption<>(
+                    "schema.job_split_size",
+                    "The size in bytes of each shard processed by schema " +
+                    "jobs, only for the backends supporting scan by shard.",
+                    rangeInt(1024L * 1024L, Long.MAX_VALUE),
+                    64L * 1024L * 1024L
+            );
+
+    public static final ConfigOption<Integer> SCHEMA_JOB_SHARD_THRESHOLD =
+            new ConfigOption<>(
+                    "schema.job_shard_threshold",
+                    "The minimum number of vertices or edges of a label to " +
+                    "be processed by shards in schema jobs, the smaller " +
+                    "labels are traversed by label index sequentially.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    100000
+            );
+
     public static final ConfigOption<Integer> VERTEX_CACHE_CAPACITY =
             new ConfigOption<>(
                     "vertex.cache_capacity",
@@ -190,6 +255,25 @@ public class CoreOptions extends OptionHolder {
                     (60 * 10)
             );
 
+    public static final ConfigOption<String> VERTEX_CACHE_TYPE =
+            new ConfigOption<>(
+                    "vertex.cache_type",
+                    "The type of vertex cache: ram(LRU with node locks) or " +
+                    "tinylfu(lock-free W-TinyLFU).",
+                    allowValues("ram", "tinylfu"),
+                    "ram"
+            );
+
+    public static final ConfigOption<Long> VERTEX_CACHE_MAX_BYTES =
+            new ConfigOption<>(
+                    "vertex.cache_max_bytes",
+                    "The max size(bytes) of the off-heap vertex cache which " +
+                    "stores serialized vertices in direct memory as the " +
+                    "second tier of vertex cache, 0 means disabled.",
+                    nonNegativeInt(),
+                    0L
+            );
+
     public static final ConfigOption<Integer> EDGE_CACHE_CAPACITY =
             new ConfigOption<>(
                     "edge.cache_capacity",
@@ -206,6 +290,131 @@ public class CoreOptions extends OptionHolder {
                     (60 * 10)
             );
 
+    public static final ConfigOption<String> EDGE_CACHE_TYPE =
+            new ConfigOption<>(
+                    "edge.cache_type",
+                    "The type of edge cache: ram(LRU with node locks) or " +
+                    "tinylfu(lock-free W-TinyLFU).",
+                    allowValues("ram", "tinylfu"),
+                    "ram"
+            );
+
+    public static final ConfigOption<Integer> EDGE_ADJACENCY_CACHE_CAPACITY =
+            new ConfigOption<>(
+                    "edge.adjacency_cache_capacity",
+                    "The max cache size(items) of adjacency cache, each item " +
+                    "holds the adjacent edges of a vertex in one direction " +
+                    "(optionally of one edge label), 0 means disabled.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    (1000 * 100)
+            );
+
+    public static final ConfigOption<Integer> EDGE_ADJACENCY_CACHE_MAX_DEGREE =
+            new ConfigOption<>(
+                    "edge.adjacency_cache_max_degree",
+                    "The max number of adjacent edges of a vertex in one " +
+                    "direction that can be kept in an adjacency cache item.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    (1000 * 10)
+            );
+
+    public static final ConfigOption<Integer> INDEX_CACHE_CAPACITY =
+            new ConfigOption<>(
+                    "index.cache_capacity",
+                    "The max cache size(items) of index cache, each item " +
+                    "holds the element ids of an index query, the items of " +
+                    "an index label are invalidated when it's updated, " +
+                    "0 means disabled (by default).",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    0
+            );
+
+    public static final ConfigOption<Integer> INDEX_CACHE_EXPIRE =
+            new ConfigOption<>(
+                    "index.cache_expire",
+                    "The expire time in seconds of index cache.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    (60 * 10)
+            );
+
+    public static final ConfigOption<Integer> OLTP_CONCURRENT_THREADS =
+            new ConfigOption<>(
+                    "oltp.concurrent_threads",
+                    "The number of worker threads of a graph shared by the " +
+                    "kout/kneighbor traversers to expand the frontier of " +
+                    "each level concurrently, 1 means expanding in the " +
+                    "request thread.",
+                    rangeInt(1, 1024),
+                    1
+            );
+
+    public static final ConfigOption<Integer> OLTP_CONCURRENT_BATCH_SIZE =
+            new ConfigOption<>(
+                    "oltp.concurrent_batch_size",
+                    "The number of frontier vertices expanded in one batch " +
+                    "by a batch query of their adjacent edges (and by a " +
+                    "worker thread if expanding concurrently), the level " +
+                    "whose frontier is smaller than twice of it is " +
+                    "expanded in the request thread.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    100
+            );
+
+    public static final ConfigOption<Boolean> INDEX_BITMAP =
+            new ConfigOption<>(
+                    "index.bitmap_encoding",
+                    "Whether to pack the number ids of vertices into " +
+                    "compressed bitmaps in the label index and secondary " +
+                    "indexes, each transaction writes a bitmap delta for " +
+                    "the updated index, and the deltas of an index are " +
+                    "folded in background if there are too many, it's " +
+                    "only supported by the rocksdb and memory backends.",
+                    disallowEmpty(),
+                    false
+            );
+
+    public static final ConfigListOption<String> INDEX_ASYNC_LABELS =
+            new ConfigListOption<>(
+                    "index.async_labels",
+                    false,
+                    "The names of index labels maintained asynchronously, " +
+                    "the elements are committed with pending marks rather " +
+                    "than the index entries, and the indexes are built by " +
+                    "a background worker in batches.",
+                    null,
+                    String.class,
+                    ImmutableList.of()
+            );
+
+    public static final ConfigOption<Integer> INDEX_ASYNC_BATCH_SIZE =
+            new ConfigOption<>(
+                    "index.async_batch_size",
+                    "The max number of pending elements whose async " +
+                    "indexes are built in one transaction by the worker.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    500
+            );
+
+    public static final ConfigOption<Long> INDEX_ASYNC_INTERVAL =
+            new ConfigOption<>(
+                    "index.async_interval",
+                    "The interval in milliseconds of the worker to check " +
+                    "the pending elements, it's also woken up once " +
+                    "elements are committed with pending marks.",
+                    rangeInt(10L, Long.MAX_VALUE),
+                    1000L
+            );
+
+    public static final ConfigOption<Long> INDEX_ASYNC_READ_WAIT =
+            new ConfigOption<>(
+                    "index.async_read_wait",
+                    "The max time in milliseconds for a query to wait for " +
+                    "the worker to build the pending indexes when it's " +
+                    "answered by an async index, 0 means not to wait.",
+                    rangeInt(0L, Long.MAX_VALUE),
+                    1000L
+            );
+
     public static final ConfigOption<Long> SNOWFLAKE_WORKER_ID =
             new ConfigOption<>(
                     "snowflake.worker_id",
@@ -26,6 +26,7 @@ import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
 import com.baidu.hugegraph.schema.EdgeLabel;
+import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.type.define.SchemaStatus;
 import com.baidu.hugegraph.util.LockUtil;
 import com.google.common.collect.ImmutableSet;
@@ -39,11 +40,11 @@ public class EdgeLabelRemoveCallable extends SchemaCallable {
 
     @Override
     public Object execute() {
-        removeEdgeLabel(this.graph(), this.schemaId());
+        this.removeEdgeLabel(this.graph(), this.schemaId());
         return null;
     }
 
-    protected static void removeEdgeLabel(HugeGraph graph, Id id) {
+    protected void removeEdgeLabel(HugeGraph graph, Id id) {
         GraphTransaction graphTx = graph.graphTransaction();
         SchemaTransaction schemaTx = graph.schemaTransaction();
         EdgeLabel edgeLabel = schemaTx.getEdgeLabel(id);
@@ -62,7 +63,16 @@ public class EdgeLabelRemoveCallable extends SchemaCallable {
                 IndexLabelRemoveCallable.removeIndexLabel(graph, indexId);
             }
             // Remove all edges which has matched label
-            graphTx.removeEdges(edgeLabel);
+            LabelTraverser traverser = new LabelTraverser(this, edgeLabel);
+            boolean deleteByLabel = graphTx.store().features()
+                                           .supportsDeleteEdgeByLabel();
+            if (!deleteByLabel && traverser.sharded()) {
+                traverser.traverse((tx, edge) -> {
+                    tx.removeEdge((HugeEdge) edge);
+                });
+            } else {
+                graphTx.removeEdges(edgeLabel);
+            }
             removeSchema(schemaTx, edgeLabel);
             // Should commit changes to backend store before release delete lock
             graph.tx().commit();
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.schema;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.store.Shard;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.schema.EdgeLabel;
+import com.baidu.hugegraph.schema.SchemaLabel;
+import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.structure.HugeElement;
+import com.baidu.hugegraph.task.HugeTask;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.JsonUtil;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Traverse the vertices or edges of a label for a schema job. If the store
+ * supports scan by shard and the label is large, the shards are processed by
+ * the schema job workers of the graph and the finished shards are saved as
+ * the checkpoint of the task, so that the job can continue from the
+ * checkpoint after restarting. The small labels are traversed by label index
+ * sequentially, which is cheaper than scanning all the shards.
+ */
+public class LabelTraverser {
+
+    private static final Logger LOG = Log.logger(LabelTraverser.class);
+
+    private static final String SHARDS = "shards";
+    private static final String DONE = "done";
+
+    private final SchemaCallable job;
+    private final SchemaLabel label;
+    private final List<Shard> shards;
+    private final Set<Integer> done;
+    private Boolean sharded;
+
+    public LabelTraverser(SchemaCallable job, SchemaLabel label) {
+        E.checkArgument(label.type() == HugeType.VERTEX_LABEL ||
+                        label.type() == HugeType.EDGE_LABEL,
+                        "Can't traverse elements of %s", label.type());
+        this.job = job;
+        this.label = label;
+        this.shards = new ArrayList<>();
+        this.done = new HashSet<>();
+        this.restore(job.task().checkpoint());
+    }
+
+    /**
+     * Whether the traversal is continued from the checkpoint of the task
+     */
+    public boolean resumed() {
+        return !this.shards.isEmpty();
+    }
+
+    /**
+     * Whether the elements are traversed shard by shard, the shards are
+     * scanned and filtered by label, so only used for the large labels
+     */
+    public boolean sharded() {
+        if (this.sharded == null) {
+            this.sharded = this.resumed() || this.shardable();
+        }
+        return this.sharded;
+    }
+
+    private boolean shardable() {
+        GraphTransaction tx = this.graph().graphTransaction();
+        if (!tx.supportsTraverseByShard()) {
+            return false;
+        }
+        int threshold = this.graph().configuration()
+                            .get(CoreOptions.SCHEMA_JOB_SHARD_THRESHOLD);
+        return tx.labelExceeds(this.label, threshold);
+    }
+
+    /**
+     * Traverse the elements of the label, the consumer is called with the
+     * transaction of the current worker, which is committed in batch
+     */
+    public void traverse(BiConsumer<GraphTransaction, HugeElement> consumer) {
+        if (!this.sharded()) {
+            GraphTransaction tx = this.graph().graphTransaction();
+            if (this.label.type() == HugeType.VERTEX_LABEL) {
+                tx.traverseVerticesByLabel((VertexLabel) this.label, v -> {
+                    this.accept(tx, (HugeElement) v, consumer);
+                });
+            } else {
+                tx.traverseEdgesByLabel((EdgeLabel) this.label, e -> {
+                    this.accept(tx, (HugeElement) e, consumer);
+                });
+            }
+            tx.commit();
+            return;
+        }
+
+        if (this.shards.isEmpty()) {
+            this.shards.addAll(this.split());
+            this.save();
+        }
+        this.traverseShards(consumer);
+    }
+
+    private void traverseShards(BiConsumer<GraphTransaction,
+                                           HugeElement> consumer) {
+        List<Integer> shards = new ArrayList<>();
+        for (int i = 0; i < this.shards.size(); i++) {
+            if (!this.done.contains(i)) {
+                shards.add(i);
+            }
+        }
+        if (shards.isEmpty()) {
+            return;
+        }
+        LOG.info("Traverse {} shards of label '{}' ({} finished)",
+                 shards.size(), this.label.name(), this.done.size());
+
+        // The workers are shared by all the schema jobs of the graph
+        ExecutorService executor = this.graph().schemaJobExecutor();
+        List<Future<?>> futures = new ArrayList<>(shards.size());
+        try {
+            for (int shard : shards) {
+                futures.add(executor.submit(() -> {
+                    this.traverseShard(shard, consumer);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HugeException("Interrupted while traversing label '%s'",
+                                    e, this.label.name());
+        } catch (ExecutionException e) {
+            throw new HugeException("Failed to traverse label '%s'",
+                                    e.getCause(), this.label.name());
+        } finally {
+            // Cancel the unfinished shards of this job if failed or interrupted
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private void traverseShard(int index,
+                               BiConsumer<GraphTransaction,
+                                          HugeElement> consumer) {
+        Shard shard = this.shards.get(index);
+        HugeGraph graph = this.graph();
+        try {
+            GraphTransaction tx = graph.graphTransaction();
+            if (this.label.type() == HugeType.VERTEX_LABEL) {
+                VertexLabel label = (VertexLabel) this.label;
+                tx.traverseVerticesByShard(label, shard, v -> {
+                    this.accept(tx, (HugeElement) v, consumer);
+                });
+            } else {
+                EdgeLabel label = (EdgeLabel) this.label;
+                tx.traverseEdgesByShard(label, shard, e -> {
+                    this.accept(tx, (HugeElement) e, consumer);
+                });
+            }
+            tx.commit();
+        } finally {
+            // Close the transactions opened by the worker thread
+            graph.closeTx();
+        }
+        this.finish(index);
+    }
+
+    private void accept(GraphTransaction tx, HugeElement element,
+                        BiConsumer<GraphTransaction, HugeElement> consumer) {
+        consumer.accept(tx, element);
+        /*
+         * Commit per batch to avoid too much data in single commit,
+         * especially for Cassandra backend
+         */
+        tx.commitIfGtSize(GraphTransaction.COMMIT_BATCH);
+    }
+
+    private List<Shard> split() {
+        long splitSize = this.graph().configuration()
+                             .get(CoreOptions.SCHEMA_JOB_SPLIT_SIZE);
+        HugeType type = this.label.type() == HugeType.VERTEX_LABEL ?
+                        HugeType.VERTEX : HugeType.EDGE_OUT;
+        return this.graph().graphTransaction().metadata(type, "splits",
+                                                        splitSize);
+    }
+
+    private synchronized void finish(int index) {
+        this.done.add(index);
+        int progress = (int) (this.done.size() * 100L / this.shards.size());
+        HugeTask<Object> task = this.job.task();
+        task.progress(progress);
+        this.save();
+        LOG.debug("Finished shard {} of label '{}', progress {}%",
+                  index, this.label.name(), progress);
+    }
+
+    private synchronized void save() {
+        List<List<String>> shards = new ArrayList<>(this.shards.size());
+        for (Shard shard : this.shards) {
+            List<String> range = new ArrayList<>(2);
+            range.add(shard.start());
+            range.add(shard.end());
+            shards.add(range);
+        }
+        Map<String, Object> checkpoint = new LinkedHashMap<>();
+        checkpoint.put(SHARDS, shards);
+        checkpoint.put(DONE, this.done);
+
+        HugeTask<Object> task = this.job.task();
+        task.checkpoint(JsonUtil.toJson(checkpoint));
+        task.updateTime(new Date());
+        this.job.scheduler().save(task);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void restore(String checkpoint) {
+        if (checkpoint == null) {
+            return;
+        }
+        Map<String, Object> map = JsonUtil.fromJson(checkpoint, Map.class);
+        for (Object range : (List<Object>) map.get(SHARDS)) {
+            List<String> bounds = (List<String>) range;
+            this.shards.add(new Shard(bounds.get(0), bounds.get(1), 0L));
+        }
+        for (Object index : (List<Object>) map.get(DONE)) {
+            this.done.add(((Number) index).intValue());
+        }
+    }
+
+    private HugeGraph graph() {
+        return this.job.graph();
+    }
+}
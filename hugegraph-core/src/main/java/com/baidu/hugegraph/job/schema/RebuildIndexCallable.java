@@ -21,20 +21,15 @@ package com.baidu.hugegraph.job.schema;
 
 import java.util.Collection;
 import java.util.Set;
-import java.util.function.Consumer;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
-import org.apache.tinkerpop.gremlin.structure.Edge;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
-
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
-import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.SchemaElement;
 import com.baidu.hugegraph.schema.SchemaLabel;
-import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.structure.HugeElement;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.SchemaStatus;
@@ -83,16 +78,13 @@ public class RebuildIndexCallable extends SchemaCallable {
         SchemaTransaction schemaTx = this.graph().schemaTransaction();
         GraphTransaction graphTx = this.graph().graphTransaction();
 
-        Consumer<?> indexUpdater = (elem) -> {
+        BiConsumer<GraphTransaction, HugeElement> indexUpdater;
+        indexUpdater = (tx, elem) -> {
             for (Id id : indexLabelIds) {
-                graphTx.updateIndex(id, (HugeElement) elem);
-                /*
-                 * Commit per batch to avoid too much data in single commit,
-                 * especially for Cassandra backend
-                 */
-                graphTx.commitIfGtSize(GraphTransaction.COMMIT_BATCH);
+                tx.updateIndex(id, elem);
             }
         };
+        LabelTraverser traverser = new LabelTraverser(this, label);
 
         LockUtil.Locks locks = new LockUtil.Locks(this.graph().name());
         try {
@@ -109,7 +101,10 @@ public class RebuildIndexCallable extends SchemaCallable {
                 schemaTx.updateSchemaStatus(il, SchemaStatus.REBUILDING);
             }
 
-            this.removeIndex(indexLabelIds);
+            if (!traverser.resumed()) {
+                // The index has been removed before restarting if resumed
+                this.removeIndex(indexLabelIds);
+            }
             /*
              * Note: Here must commit index transaction firstly.
              * Because remove index convert to (id like <?>:personByCity):
@@ -120,16 +115,7 @@ public class RebuildIndexCallable extends SchemaCallable {
              * They have different id lead to it can't compare and optimize
              */
             graphTx.commit();
-            if (label.type() == HugeType.VERTEX_LABEL) {
-                @SuppressWarnings("unchecked")
-                Consumer<Vertex> consumer = (Consumer<Vertex>) indexUpdater;
-                graphTx.traverseVerticesByLabel((VertexLabel) label, consumer);
-            } else {
-                assert label.type() == HugeType.EDGE_LABEL;
-                @SuppressWarnings("unchecked")
-                Consumer<Edge> consumer = (Consumer<Edge>) indexUpdater;
-                graphTx.traverseEdgesByLabel((EdgeLabel) label, consumer);
-            }
+            traverser.traverse(indexUpdater);
             graphTx.commit();
 
             for (IndexLabel il : ils) {
@@ -29,6 +29,7 @@ import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.type.define.SchemaStatus;
 import com.baidu.hugegraph.util.LockUtil;
 import com.google.common.collect.ImmutableSet;
@@ -42,11 +43,11 @@ public class VertexLabelRemoveCallable extends SchemaCallable {
 
     @Override
     public Object execute() {
-        removeVertexLabel(this.graph(), this.schemaId());
+        this.removeVertexLabel(this.graph(), this.schemaId());
         return null;
     }
 
-    protected static void removeVertexLabel(HugeGraph graph, Id id) {
+    protected void removeVertexLabel(HugeGraph graph, Id id) {
         GraphTransaction graphTx = graph.graphTransaction();
         SchemaTransaction schemaTx = graph.schemaTransaction();
         VertexLabel vertexLabel = schemaTx.getVertexLabel(id);
@@ -80,7 +81,14 @@ public class VertexLabelRemoveCallable extends SchemaCallable {
 
             // TODO: use event to replace direct call
             // Deleting a vertex will automatically deletes the held edge
-            graphTx.removeVertices(vertexLabel);
+            LabelTraverser traverser = new LabelTraverser(this, vertexLabel);
+            if (traverser.sharded()) {
+                traverser.traverse((tx, vertex) -> {
+                    tx.removeVertex((HugeVertex) vertex);
+                });
+            } else {
+                graphTx.removeVertices(vertexLabel);
+            }
             removeSchema(schemaTx, vertexLabel);
             // Should commit changes to backend store before release delete lock
             graph.tx().commit();
@@ -135,6 +135,8 @@ public class IndexLabel extends SchemaElement {
     private static final int VLN_IL_ID = -4;
     private static final int ELN_IL_ID = -5;
     private static final int ILN_IL_ID = -6;
+    private static final int VP_IL_ID = -7;
+    private static final int EP_IL_ID = -8;
 
     // Label index
     static final IndexLabel VL_IL = new IndexLabel(VL_IL_ID, "~vli");
@@ -146,6 +148,10 @@ public class IndexLabel extends SchemaElement {
     static final IndexLabel ELN_IL = new IndexLabel(ELN_IL_ID, "~elni");
     static final IndexLabel ILN_IL = new IndexLabel(ILN_IL_ID, "~ilni");
 
+    // Pending index, the elements whose async indexes are not built yet
+    static final IndexLabel VP_IL = new IndexLabel(VP_IL_ID, "~vpi");
+    static final IndexLabel EP_IL = new IndexLabel(EP_IL_ID, "~epi");
+
     public static IndexLabel label(HugeType type) {
         switch (type) {
             case VERTEX:
@@ -168,6 +174,20 @@ public class IndexLabel extends SchemaElement {
         }
     }
 
+    public static IndexLabel pending(HugeType type) {
+        switch (type) {
+            case VERTEX:
+                return VP_IL;
+            case EDGE:
+            case EDGE_OUT:
+            case EDGE_IN:
+                return EP_IL;
+            default:
+                throw new AssertionError(String.format(
+                          "No pending index label for '%s'", type));
+        }
+    }
+
     public static IndexLabel label(HugeGraph graph, Id id) {
         // Primitive IndexLabel first
         if (id.asLong() < 0 && id.asLong() > -NEXT_PRIMITIVE_SYS_ID) {
@@ -184,6 +204,10 @@ public class IndexLabel extends SchemaElement {
                     return ELN_IL;
                 case ILN_IL_ID:
                     return ILN_IL;
+                case VP_IL_ID:
+                    return VP_IL;
+                case EP_IL_ID:
+                    return EP_IL;
                 default:
                     throw new AssertionError(String.format(
                               "No primitive index label for '%s'", id));
@@ -38,7 +38,7 @@ import com.baidu.hugegraph.util.E;
 public abstract class SchemaElement implements Namifiable, Typifiable {
 
     public static final int MAX_PRIMITIVE_SYS_ID = 32;
-    public static final int NEXT_PRIMITIVE_SYS_ID = 7;
+    public static final int NEXT_PRIMITIVE_SYS_ID = 9;
 
     protected final HugeGraph graph;
 
@@ -41,6 +41,8 @@ public abstract class SchemaLabel extends SchemaElement
     private final Set<Id> indexLabels;
     private boolean enableLabelIndex;
 
+    private volatile Id[] propertyOrder;
+
     public SchemaLabel(final HugeGraph graph, Id id, String name) {
         super(graph, id, name);
         this.properties = new HashSet<>();
@@ -56,15 +58,32 @@ public abstract class SchemaLabel extends SchemaElement
 
     public void properties(Set<Id> properties) {
         this.properties.addAll(properties);
+        this.propertyOrder = null;
     }
 
     public SchemaLabel properties(Id... ids) {
         this.properties.addAll(Arrays.asList(ids));
+        this.propertyOrder = null;
         return this;
     }
 
     public void property(Id id) {
         this.properties.add(id);
+        this.propertyOrder = null;
+    }
+
+    /**
+     * The properties of the label in a fixed order, which is used to locate
+     * the property values of elements stored compactly by position.
+     * NOTE: the returned array is shared and must not be modified
+     */
+    public Id[] propertyOrder() {
+        Id[] order = this.propertyOrder;
+        if (order == null) {
+            order = this.properties.toArray(new Id[0]);
+            this.propertyOrder = order;
+        }
+        return order;
     }
 
     public Set<Id> nullableKeys() {
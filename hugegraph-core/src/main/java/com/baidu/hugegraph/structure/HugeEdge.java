@@ -20,7 +20,6 @@
 package com.baidu.hugegraph.structure;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
@@ -152,10 +151,17 @@ public class HugeEdge extends HugeElement implements Edge, Cloneable {
                              this.schemaLabel().id(), this.name(),
                              this.otherVertex());
 
-        int len = this.id.length();
-        E.checkArgument(len <= BytesBuffer.BIG_ID_MAX_LEN,
-                        "The max length of edge id is %s, but got %s {%s}",
-                        BytesBuffer.BIG_ID_MAX_LEN, len, this.id);
+        if (this.fresh()) {
+            /*
+             * Check the length of the string form just for the new edge,
+             * the edge read from backend has a valid id and it's not
+             * necessary to build the string form of the id
+             */
+            int len = this.id.length();
+            E.checkArgument(len <= BytesBuffer.BIG_ID_MAX_LEN,
+                            "The max length of edge id is %s, but got %s {%s}",
+                            BytesBuffer.BIG_ID_MAX_LEN, len, this.id);
+        }
     }
 
     @Watched(prefix = "edge")
@@ -429,7 +435,7 @@ public class HugeEdge extends HugeElement implements Edge, Cloneable {
     @Override
     public HugeEdge copy() {
         HugeEdge edge = this.clone();
-        edge.properties = new HashMap<>(edge.properties);
+        edge.properties = edge.newProperties(this.properties);
         return edge;
     }
 
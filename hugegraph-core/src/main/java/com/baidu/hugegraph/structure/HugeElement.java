@@ -62,7 +62,7 @@ public abstract class HugeElement implements Element, GraphType {
         E.checkArgument(graph != null, "HugeElement graph can't be null");
         this.graph = graph;
         this.id = id;
-        this.properties = new HashMap<>();
+        this.properties = this.newProperties();
         this.removed = false;
         this.fresh = false;
         this.propLoaded = true;
@@ -231,15 +231,30 @@ public abstract class HugeElement implements Element, GraphType {
     }
 
     public void resetProperties() {
-        this.properties = new HashMap<>();
+        this.properties = this.newProperties();
         this.propLoaded = false;
     }
 
     public void copyProperties(HugeElement element) {
-        this.properties = new HashMap<>(element.properties);
+        this.properties = this.newProperties(element.properties);
         this.propLoaded = true;
     }
 
+    private Map<Id, HugeProperty<?>> newProperties() {
+        if (this.graph.compactProperties()) {
+            return new HugeElementProperties(this);
+        }
+        return new HashMap<>();
+    }
+
+    protected Map<Id, HugeProperty<?>> newProperties(
+                                       Map<Id, HugeProperty<?>> properties) {
+        if (properties instanceof HugeElementProperties) {
+            return ((HugeElementProperties) properties).copy(this);
+        }
+        return new HashMap<>(properties);
+    }
+
     public HugeElement copyAsFresh() {
         HugeElement elem = this.copy();
         elem.fresh = true;
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.structure;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.SchemaLabel;
+import com.baidu.hugegraph.type.define.Cardinality;
+import com.baidu.hugegraph.type.define.DataType;
+
+/**
+ * A compact properties container of element, the values are stored in an
+ * array by the position of property key in the label, and the values of
+ * primitive types are stored unboxed in a long array. The HugeProperty of a
+ * value is created only when it's accessed.
+ * The properties that don't belong to the label are stored in a map.
+ */
+final class HugeElementProperties extends AbstractMap<Id, HugeProperty<?>> {
+
+    private static final Id[] EMPTY = new Id[0];
+
+    private final HugeElement owner;
+
+    // The property order of label, bound when adding the first property
+    private Id[] keys;
+    /*
+     * The value of each position is one of:
+     *  - null if the property is absent
+     *  - an Unboxed flag if the value is stored in `primitives`
+     *  - a HugeProperty if the cardinality is SET or LIST, since the
+     *    collection value of it is updated in place
+     *  - the value itself otherwise
+     */
+    private Object[] values;
+    private long[] primitives;
+    private int count;
+    private Map<Id, HugeProperty<?>> others;
+
+    public HugeElementProperties(HugeElement owner) {
+        this.owner = owner;
+        this.keys = null;
+        this.values = null;
+        this.primitives = null;
+        this.count = 0;
+        this.others = null;
+    }
+
+    public HugeElementProperties copy(HugeElement owner) {
+        HugeElementProperties props = new HugeElementProperties(owner);
+        props.keys = this.keys;
+        if (this.values != null) {
+            props.values = this.values.clone();
+        }
+        if (this.primitives != null) {
+            props.primitives = this.primitives.clone();
+        }
+        props.count = this.count;
+        if (this.others != null) {
+            props.others = new HashMap<>(this.others);
+        }
+        return props;
+    }
+
+    @Override
+    public int size() {
+        int size = this.count;
+        if (this.others != null) {
+            size += this.others.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int index = this.indexOf(key);
+        if (index >= 0) {
+            return this.values[index] != null;
+        }
+        return this.others != null && this.others.containsKey(key);
+    }
+
+    @Override
+    public HugeProperty<?> get(Object key) {
+        int index = this.indexOf(key);
+        if (index >= 0) {
+            return this.property(index);
+        }
+        return this.others == null ? null : this.others.get(key);
+    }
+
+    @Override
+    public HugeProperty<?> put(Id key, HugeProperty<?> property) {
+        if (this.keys == null) {
+            SchemaLabel label = this.owner.schemaLabel();
+            this.keys = label == null ? EMPTY : label.propertyOrder();
+            this.values = new Object[this.keys.length];
+        }
+
+        int index = this.indexOf(key);
+        if (index < 0) {
+            if (this.others == null) {
+                this.others = new HashMap<>();
+            }
+            return this.others.put(key, property);
+        }
+
+        HugeProperty<?> old = this.property(index);
+        if (old == null) {
+            this.count++;
+        }
+
+        PropertyKey pkey = property.propertyKey();
+        Object value = property.value();
+        if (pkey.cardinality() != Cardinality.SINGLE) {
+            this.values[index] = property;
+            return old;
+        }
+        Unboxed unboxed = Unboxed.of(pkey.dataType());
+        if (unboxed != null && pkey.dataType().clazz().isInstance(value)) {
+            if (this.primitives == null) {
+                this.primitives = new long[this.keys.length];
+            }
+            this.primitives[index] = unboxed.pack(value);
+            this.values[index] = unboxed;
+        } else {
+            this.values[index] = value;
+        }
+        return old;
+    }
+
+    @Override
+    public HugeProperty<?> remove(Object key) {
+        int index = this.indexOf(key);
+        if (index < 0) {
+            return this.others == null ? null : this.others.remove(key);
+        }
+        HugeProperty<?> old = this.property(index);
+        if (old != null) {
+            this.values[index] = null;
+            this.count--;
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        this.keys = null;
+        this.values = null;
+        this.primitives = null;
+        this.count = 0;
+        this.others = null;
+    }
+
+    @Override
+    public Set<Entry<Id, HugeProperty<?>>> entrySet() {
+        return new AbstractSet<Entry<Id, HugeProperty<?>>>() {
+
+            @Override
+            public Iterator<Entry<Id, HugeProperty<?>>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return HugeElementProperties.this.size();
+            }
+        };
+    }
+
+    private int indexOf(Object key) {
+        Id[] keys = this.keys;
+        if (keys == null) {
+            return -1;
+        }
+        // The properties of a label are few, a scan is cheaper than a map
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private HugeProperty<?> property(int index) {
+        Object value = this.values[index];
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof HugeProperty) {
+            return (HugeProperty<?>) value;
+        }
+        if (value instanceof Unboxed) {
+            value = ((Unboxed) value).unpack(this.primitives[index]);
+        }
+        PropertyKey pkey = this.owner.graph().propertyKey(this.keys[index]);
+        return this.owner.newProperty(pkey, value);
+    }
+
+    private class EntryIterator
+            implements Iterator<Entry<Id, HugeProperty<?>>> {
+
+        private int index;
+        private final Iterator<Entry<Id, HugeProperty<?>>> others;
+
+        public EntryIterator() {
+            this.index = this.seek(0);
+            Map<Id, HugeProperty<?>> others = HugeElementProperties.this.others;
+            this.others = others == null ? null : others.entrySet().iterator();
+        }
+
+        private int seek(int index) {
+            Object[] values = HugeElementProperties.this.values;
+            if (values == null) {
+                return 0;
+            }
+            while (index < values.length && values[index] == null) {
+                index++;
+            }
+            return index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            Object[] values = HugeElementProperties.this.values;
+            if (values != null && this.index < values.length) {
+                return true;
+            }
+            return this.others != null && this.others.hasNext();
+        }
+
+        @Override
+        public Entry<Id, HugeProperty<?>> next() {
+            HugeElementProperties props = HugeElementProperties.this;
+            if (props.values != null && this.index < props.values.length) {
+                int current = this.index;
+                this.index = this.seek(current + 1);
+                return new SimpleImmutableEntry<>(props.keys[current],
+                                                  props.property(current));
+            }
+            if (this.others == null) {
+                throw new NoSuchElementException();
+            }
+            return this.others.next();
+        }
+    }
+
+    private enum Unboxed {
+
+        BOOLEAN,
+        BYTE,
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        DATE;
+
+        public static Unboxed of(DataType dataType) {
+            switch (dataType) {
+                case BOOLEAN:
+                    return BOOLEAN;
+                case BYTE:
+                    return BYTE;
+                case INT:
+                    return INT;
+                case LONG:
+                    return LONG;
+                case FLOAT:
+                    return FLOAT;
+                case DOUBLE:
+                    return DOUBLE;
+                case DATE:
+                    return DATE;
+                default:
+                    return null;
+            }
+        }
+
+        public long pack(Object value) {
+            switch (this) {
+                case BOOLEAN:
+                    return (Boolean) value ? 1L : 0L;
+                case FLOAT:
+                    return Float.floatToRawIntBits((Float) value);
+                case DOUBLE:
+                    return Double.doubleToRawLongBits((Double) value);
+                case DATE:
+                    return ((Date) value).getTime();
+                default:
+                    return ((Number) value).longValue();
+            }
+        }
+
+        public Object unpack(long bits) {
+            switch (this) {
+                case BOOLEAN:
+                    return bits != 0L;
+                case BYTE:
+                    return (byte) bits;
+                case INT:
+                    return (int) bits;
+                case LONG:
+                    return bits;
+                case FLOAT:
+                    return Float.intBitsToFloat((int) bits);
+                case DOUBLE:
+                    return Double.longBitsToDouble(bits);
+                case DATE:
+                    return new Date(bits);
+                default:
+                    throw new AssertionError("Unknown unboxed type " + this);
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package com.baidu.hugegraph.structure;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -36,6 +37,7 @@ import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.DataType;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.HashUtil;
+import com.baidu.hugegraph.util.IdBitmap;
 import com.baidu.hugegraph.util.NumericUtil;
 
 public class HugeIndex implements GraphType {
@@ -43,6 +45,11 @@ public class HugeIndex implements GraphType {
     private Object fieldValues;
     private IndexLabel indexLabel;
     private Set<Id> elementIds;
+    // The number element ids packed in bitmap, and the removed ones
+    private IdBitmap elementBitmap;
+    private IdBitmap removedBitmap;
+    // The sequences of the read bitmap deltas, or the one to write
+    private List<Long> bitmapSequences;
 
     public HugeIndex(IndexLabel indexLabel) {
         E.checkNotNull(indexLabel, "label");
@@ -50,6 +57,9 @@ public class HugeIndex implements GraphType {
         this.indexLabel = indexLabel;
         this.elementIds = new LinkedHashSet<>();
         this.fieldValues = null;
+        this.elementBitmap = null;
+        this.removedBitmap = null;
+        this.bitmapSequences = new ArrayList<>();
     }
 
     @Override
@@ -101,6 +111,48 @@ public class HugeIndex implements GraphType {
         this.elementIds = new LinkedHashSet<>();
     }
 
+    /**
+     * Whether the element ids are packed in bitmap, the bitmap of written
+     * index is a delta: the added ids and the removed ids
+     */
+    public boolean bitmapEncoded() {
+        return this.elementBitmap != null;
+    }
+
+    public IdBitmap elementBitmap() {
+        return this.elementBitmap;
+    }
+
+    public IdBitmap removedBitmap() {
+        return this.removedBitmap;
+    }
+
+    public void elementBitmap(IdBitmap added, IdBitmap removed) {
+        E.checkNotNull(added, "added bitmap");
+        E.checkNotNull(removed, "removed bitmap");
+        this.elementBitmap = added;
+        this.removedBitmap = removed;
+    }
+
+    public List<Long> bitmapSequences() {
+        return Collections.unmodifiableList(this.bitmapSequences);
+    }
+
+    public void bitmapSequences(Long... sequences) {
+        this.bitmapSequences.addAll(Arrays.asList(sequences));
+    }
+
+    /**
+     * Count of the element ids, including the ones packed in bitmap
+     */
+    public long elementIdsSize() {
+        long size = this.elementIds.size();
+        if (this.elementBitmap != null) {
+            size += this.elementBitmap.cardinality();
+        }
+        return size;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof HugeIndex)) {
@@ -118,10 +170,12 @@ public class HugeIndex implements GraphType {
 
     @Override
     public String toString() {
-        return String.format("{label=%s<%s>, fieldValues=%s, elementIds=%s}",
+        return String.format("{label=%s<%s>, fieldValues=%s, elementIds=%s%s}",
                              this.indexLabel.name(),
                              this.indexLabel.indexType().string(),
-                             this.fieldValues, this.elementIds);
+                             this.fieldValues, this.elementIds,
+                             this.elementBitmap == null ? "" :
+                             ", elementBitmap=" + this.elementBitmap);
     }
 
     public static Id formatIndexHashId(HugeType type, Id indexLabel,
@@ -190,6 +244,29 @@ public class HugeIndex implements GraphType {
         return index;
     }
 
+    /**
+     * Serialize the bitmap delta of index: the added ids and the removed ids
+     */
+    public static byte[] bitmap2bytes(IdBitmap added, IdBitmap removed) {
+        byte[] addedBytes = added.toBytes();
+        byte[] removedBytes = removed.toBytes();
+        int length = 2 * BytesBuffer.INT_LEN + addedBytes.length +
+                     removedBytes.length;
+        BytesBuffer buffer = BytesBuffer.allocate(length);
+        buffer.writeInt(addedBytes.length);
+        buffer.write(addedBytes);
+        buffer.writeInt(removedBytes.length);
+        buffer.write(removedBytes);
+        return buffer.bytes();
+    }
+
+    public static IdBitmap[] bytes2bitmap(byte[] bytes) {
+        BytesBuffer buffer = BytesBuffer.wrap(bytes);
+        IdBitmap added = IdBitmap.fromBytes(buffer.read(buffer.readInt()));
+        IdBitmap removed = IdBitmap.fromBytes(buffer.read(buffer.readInt()));
+        return new IdBitmap[]{added, removed};
+    }
+
     public static byte[] number2bytes(Number number) {
         return NumericUtil.numberToSortableBytes(number);
     }
@@ -63,6 +63,7 @@ public class HugeTask<V> extends FutureTask<V> {
     private volatile int retries;
     private volatile String input;
     private volatile String result;
+    private volatile String checkpoint;
 
     public HugeTask(Id id, Id parent, String callable, String input) {
         this(id, parent, TaskCallable.fromClass(callable));
@@ -90,6 +91,7 @@ public class HugeTask<V> extends FutureTask<V> {
         this.retries = 0;
         this.input = null;
         this.result = null;
+        this.checkpoint = null;
     }
 
     public Id id() {
@@ -185,6 +187,18 @@ public class HugeTask<V> extends FutureTask<V> {
         return this.result;
     }
 
+    /**
+     * Set the progress state of a running task, which is saved with the
+     * task to resume the task from it after restarting
+     */
+    public void checkpoint(String checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public String checkpoint() {
+        return this.checkpoint;
+    }
+
     public boolean completed() {
         return TaskStatus.COMPLETED_STATUSES.contains(this.status);
     }
@@ -333,6 +347,9 @@ public class HugeTask<V> extends FutureTask<V> {
             case P.RESULT:
                 this.result = (String) value;
                 break;
+            case P.CHECKPOINT:
+                this.checkpoint = (String) value;
+                break;
             default:
                 throw new AssertionError("Unsupported key: " + key);
         }
@@ -342,7 +359,7 @@ public class HugeTask<V> extends FutureTask<V> {
         E.checkState(this.type != null, "Task type can't be null");
         E.checkState(this.name != null, "Task name can't be null");
 
-        List<Object> list = new ArrayList<>(28);
+        List<Object> list = new ArrayList<>(30);
 
         list.add(T.label);
         list.add(P.TASK);
@@ -397,6 +414,11 @@ public class HugeTask<V> extends FutureTask<V> {
             list.add(this.result);
         }
 
+        if (this.checkpoint != null) {
+            list.add(P.CHECKPOINT);
+            list.add(this.checkpoint);
+        }
+
         return list.toArray();
     }
 
@@ -482,6 +504,7 @@ public class HugeTask<V> extends FutureTask<V> {
         public static final String INPUT = "~task_input";
         public static final String RESULT = "~task_result";
         public static final String DEPENDENCIES = "~task_dependencies";
+        public static final String CHECKPOINT = "~task_checkpoint";
 
         //public static final String PARENT = hide("parent");
         //public static final String CHILDREN = hide("children");
@@ -435,6 +435,7 @@ public class TaskScheduler {
             HugeGraph graph = this.graph();
             VertexLabel label = graph.schemaTransaction().getVertexLabel(TASK);
             if (label != null) {
+                this.upgradeSchema(label);
                 return;
             }
 
@@ -445,7 +446,8 @@ public class TaskScheduler {
                          .properties(properties)
                          .useCustomizeNumberId()
                          .nullableKeys(P.DESCRIPTION, P.UPDATE,
-                                       P.INPUT, P.RESULT, P.DEPENDENCIES)
+                                       P.INPUT, P.RESULT, P.DEPENDENCIES,
+                                       P.CHECKPOINT)
                          .enableLabelIndex(true)
                          .build();
             graph.schemaTransaction().addVertexLabel(label);
@@ -454,6 +456,25 @@ public class TaskScheduler {
             this.createIndex(label, P.STATUS);
         }
 
+        /**
+         * Append the property keys added after the schema of task was
+         * created, for the graphs created by an old version
+         */
+        private void upgradeSchema(VertexLabel label) {
+            HugeGraph graph = this.graph();
+            PropertyKey checkpoint = graph.schemaTransaction()
+                                          .getPropertyKey(P.CHECKPOINT);
+            if (checkpoint == null) {
+                this.createPropertyKey(P.CHECKPOINT);
+            } else if (label.properties().contains(checkpoint.id())) {
+                return;
+            }
+            graph.schema().vertexLabel(TASK)
+                 .properties(P.CHECKPOINT)
+                 .nullableKeys(P.CHECKPOINT)
+                 .append();
+        }
+
         private String[] initProperties() {
             List<String> props = new ArrayList<>();
 
@@ -470,6 +491,7 @@ public class TaskScheduler {
             props.add(createPropertyKey(P.RESULT));
             props.add(createPropertyKey(P.DEPENDENCIES, DataType.LONG,
                                         Cardinality.SET));
+            props.add(createPropertyKey(P.CHECKPOINT));
 
             return props.toArray(new String[0]);
         }
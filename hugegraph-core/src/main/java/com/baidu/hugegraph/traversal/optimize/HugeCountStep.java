@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.traversal.optimize;
+
+import java.util.NoSuchElementException;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+/**
+ * The step which replaces a HugeGraphStep/HugeVertexStep and the following
+ * count step, the results of the origin step are counted natively by the
+ * backend store rather than read one by one.
+ */
+public final class HugeCountStep<S> extends AbstractStep<S, Long> {
+
+    private static final long serialVersionUID = 3924016325093186537L;
+
+    private final Step<?, ?> originStep;
+    private boolean done = false;
+
+    public HugeCountStep(final HugeGraphStep<?, ?> originGraphStep) {
+        super(originGraphStep.getTraversal());
+        this.originStep = originGraphStep;
+    }
+
+    public HugeCountStep(final HugeVertexStep<?> originVertexStep) {
+        super(originVertexStep.getTraversal());
+        this.originStep = originVertexStep;
+    }
+
+    @Override
+    protected Traverser.Admin<Long> processNextStart()
+                                    throws NoSuchElementException {
+        if (this.done) {
+            throw FastNoSuchElementException.instance();
+        }
+        this.done = true;
+
+        long count = 0L;
+        if (this.originStep instanceof HugeGraphStep) {
+            count = ((HugeGraphStep<?, ?>) this.originStep).count();
+        } else {
+            HugeVertexStep<?> step = (HugeVertexStep<?>) this.originStep;
+            // Count the adjacent edges of each vertex
+            while (this.starts.hasNext()) {
+                Traverser.Admin<S> start = this.starts.next();
+                @SuppressWarnings("unchecked")
+                Traverser.Admin<Vertex> vertex = (Traverser.Admin<Vertex>)
+                                                 start;
+                count += step.count(vertex) * start.bulk();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Step<Long, Long> step = (Step<Long, Long>) (Step<?, ?>) this;
+        return this.getTraversal().getTraverserGenerator()
+                   .generate(count, step, 1L);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.done = false;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.originStep);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.originStep.hashCode();
+    }
+}
@@ -78,18 +78,7 @@ public final class HugeGraphStep<S, E extends Element>
                                               graph.vertices(this.ids));
         }
 
-        Query query = null;
-        if (this.hasContainers.isEmpty()) {
-            // Query all
-            query = new Query(HugeType.VERTEX);
-        } else {
-            ConditionQuery q = new ConditionQuery(HugeType.VERTEX);
-            query = TraversalUtil.fillConditionQuery(this.hasContainers,
-                                                     q, graph);
-        }
-
-        query = this.injectQueryInfo(query);
-
+        Query query = this.makeQuery(graph, HugeType.VERTEX);
         @SuppressWarnings("unchecked")
         Iterator<E> result = (Iterator<E>) graph.vertices(query);
         return result;
@@ -105,22 +94,36 @@ public final class HugeGraphStep<S, E extends Element>
                                               graph.edges(this.ids));
         }
 
-        Query query = null;
+        Query query = this.makeQuery(graph, HugeType.EDGE);
+        @SuppressWarnings("unchecked")
+        Iterator<E> result = (Iterator<E>) graph.edges(query);
+        return result;
+    }
+
+    /**
+     * Count the vertices or edges natively without reading them, it can't
+     * be used if the step is with ids or with offset/limit
+     */
+    public long count() {
+        LOG.debug("HugeGraphStep.count(): {}", this);
+
+        assert this.ids == null || this.ids.length == 0;
+        HugeGraph graph = (HugeGraph) this.getTraversal().getGraph().get();
+        HugeType type = this.returnsVertex() ? HugeType.VERTEX : HugeType.EDGE;
+        return graph.queryNumber(this.makeQuery(graph, type));
+    }
 
+    private Query makeQuery(HugeGraph graph, HugeType type) {
+        Query query = null;
         if (this.hasContainers.isEmpty()) {
-            /* Query all */
-            query = new Query(HugeType.EDGE);
+            // Query all
+            query = new Query(type);
         } else {
-            ConditionQuery q = new ConditionQuery(HugeType.EDGE);
+            ConditionQuery q = new ConditionQuery(type);
             query = TraversalUtil.fillConditionQuery(this.hasContainers,
                                                      q, graph);
         }
-
-        query = this.injectQueryInfo(query);
-
-        @SuppressWarnings("unchecked")
-        Iterator<E> result = (Iterator<E>) graph.edges(query);
-        return result;
+        return this.injectQueryInfo(query);
     }
 
     @Override
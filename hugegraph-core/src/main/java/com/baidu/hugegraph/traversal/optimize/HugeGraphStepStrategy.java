@@ -63,6 +63,12 @@ public final class HugeGraphStepStrategy
             TraversalUtil.extractRange(newStep, traversal, false);
 
             TraversalUtil.extractCount(newStep, traversal);
+
+            // Count natively like g.V().hasLabel('person').count()
+            if (newStep.isStartStep() && newStep.getIds().length == 0) {
+                TraversalUtil.convCountStep(newStep, new HugeCountStep<>(
+                                            newStep), traversal);
+            }
         }
     }
 
@@ -20,48 +20,63 @@
 package com.baidu.hugegraph.traversal.optimize;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.tinkerpop.gremlin.structure.Edge;
 
+import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.EdgeId;
 import com.baidu.hugegraph.backend.id.Id;
-import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.rest.ClientException;
 import com.baidu.hugegraph.schema.SchemaLabel;
-import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.util.ConcurrentIdSet;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.IdParentMap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 
 public class HugeTraverser {
 
     private HugeGraph graph;
 
+    private final int concurrentThreads;
+    private final int concurrentBatchSize;
+
     public static final List<Id> PATH_NONE = ImmutableList.of();
     public static final long NO_LIMIT = -1L;
 
     public HugeTraverser(HugeGraph graph) {
         this.graph = graph;
+        this.concurrentThreads = graph.configuration().get(
+                                 CoreOptions.OLTP_CONCURRENT_THREADS);
+        this.concurrentBatchSize = graph.configuration().get(
+                                   CoreOptions.OLTP_CONCURRENT_BATCH_SIZE);
     }
 
-    public List<Id> shortestPath(Id sourceV, Id targetV, Directions dir,
-                                 String label, int depth, long degree,
-                                 long capacity) {
+    public ShortestPath shortestPath(Id sourceV, Id targetV, Directions dir,
+                                     String label, int depth, long degree,
+                                     long capacity) {
         E.checkNotNull(sourceV, "source vertex id");
         E.checkNotNull(targetV, "target vertex id");
         E.checkNotNull(dir, "direction");
@@ -70,28 +85,27 @@ public class HugeTraverser {
         checkCapacity(capacity);
 
         if (sourceV.equals(targetV)) {
-            return ImmutableList.of(sourceV);
+            return new ShortestPath(ImmutableList.of(sourceV), 1L);
         }
 
         Id labelId = this.getEdgeLabelId(label);
         ShortestPathTraverser traverser = new ShortestPathTraverser(
                                               sourceV, targetV, dir, labelId,
                                               degree, capacity);
-        List<Id> path;
-        while (true) {
-            // Found, reach max depth or reach capacity, stop searching
-            if ((path = traverser.forward()) != PATH_NONE ||
-                --depth <= 0 || traverser.reachCapacity()) {
-                break;
+        List<Id> path = PATH_NONE;
+        while (depth-- > 0 && !traverser.finished()) {
+            // Always expand the side with smaller frontier
+            if (traverser.forwardFirst()) {
+                path = traverser.forward();
+            } else {
+                path = traverser.backward();
             }
-
-            if ((path = traverser.backward()) != PATH_NONE ||
-                --depth <= 0 || traverser.reachCapacity()) {
-                Collections.reverse(path);
+            // Found or reach capacity, stop searching
+            if (path != PATH_NONE || traverser.reachCapacity()) {
                 break;
             }
         }
-        return path;
+        return new ShortestPath(path, traverser.visited());
     }
 
     public Set<Path> paths(Id sourceV, Directions sourceDir,
@@ -202,7 +216,7 @@ public class HugeTraverser {
         long remaining = capacity == NO_LIMIT ?
                          NO_LIMIT : capacity - latest.size();
         while (depth-- > 0) {
-            // Just get limit nodes in last layer if limit < remaining capacity
+            // Just get limit nodes in last layer if limit < remaining
             if (depth == 0 && limit != NO_LIMIT &&
                 (limit < remaining || remaining == NO_LIMIT)) {
                 remaining = limit;
@@ -248,7 +262,8 @@ public class HugeTraverser {
         all.add(sourceV);
 
         while (depth-- > 0) {
-            long remaining = limit == NO_LIMIT ? NO_LIMIT : limit - all.size();
+            long remaining = limit == NO_LIMIT ?
+                             NO_LIMIT : limit - all.size();
             latest = this.adjacentVertices(latest, dir, labelId, all,
                                            degree, remaining);
             all.addAll(latest);
@@ -267,13 +282,18 @@ public class HugeTraverser {
             return ImmutableSet.of();
         }
 
+        if (this.expandConcurrently(vertices)) {
+            return this.adjacentVerticesConcurrently(vertices, dir, label,
+                                                     excluded, degree, limit);
+        }
+
         Set<Id> neighbors = newSet();
-        for (Id source : vertices) {
-            Iterator<Edge> edges = this.edgesOfVertex(source, dir,
-                                                      label, degree);
+        for (List<Id> batch : Iterables.partition(vertices,
+                                                  this.concurrentBatchSize)) {
+            Iterator<EdgeId> edges = this.edgesOfVertices(batch, dir,
+                                                          label, degree);
             while (edges.hasNext()) {
-                HugeEdge e = (HugeEdge) edges.next();
-                Id target = e.id().otherVertexId();
+                Id target = edges.next().otherVertexId();
                 if (excluded != null && excluded.contains(target)) {
                     continue;
                 }
@@ -286,18 +306,121 @@ public class HugeTraverser {
         return neighbors;
     }
 
-    private Iterator<Edge> edgesOfVertex(Id source, Directions dir,
-                                         Id label, long limit) {
-        Id[] labels = {};
-        if (label != null) {
-            labels = new Id[]{label};
+    private boolean expandConcurrently(Collection<Id> vertices) {
+        if (this.concurrentThreads <= 1 ||
+            vertices.size() < 2 * this.concurrentBatchSize) {
+            return false;
+        }
+        // The worker threads can't see the changes in the tx of this thread
+        return !this.graph.graphTransaction().hasUpdates();
+    }
+
+    /**
+     * Expand the frontier level by partitioning it into batches which are
+     * executed by the worker threads, the neighbors are deduplicated by a
+     * shared visited set, and the limit is enforced over all the workers.
+     * The vertices in `excluded` must not be modified during expanding.
+     */
+    private Set<Id> adjacentVerticesConcurrently(Set<Id> vertices,
+                                                 Directions dir, Id label,
+                                                 Set<Id> excluded,
+                                                 long degree, long limit) {
+        ConcurrentIdSet visited = new ConcurrentIdSet();
+        AtomicLong count = new AtomicLong(0L);
+
+        List<Future<List<Id>>> futures = new ArrayList<>();
+        List<Id> batch = new ArrayList<>(this.concurrentBatchSize);
+        for (Id vertex : vertices) {
+            batch.add(vertex);
+            if (batch.size() >= this.concurrentBatchSize) {
+                futures.add(this.expandBatch(batch, dir, label, excluded,
+                                             degree, limit, visited, count));
+                batch = new ArrayList<>(this.concurrentBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            futures.add(this.expandBatch(batch, dir, label, excluded,
+                                         degree, limit, visited, count));
         }
 
-        Query query = GraphTransaction.constructEdgesQuery(source, dir, labels);
-        if (limit != NO_LIMIT) {
-            query.limit(limit);
+        Set<Id> neighbors = newSet();
+        for (Future<List<Id>> future : futures) {
+            try {
+                neighbors.addAll(future.get());
+            } catch (InterruptedException e) {
+                throw new HugeException("Interrupted while expanding " +
+                                        "adjacent vertices", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new HugeException("Failed to expand adjacent vertices",
+                                        cause);
+            }
         }
-        return this.graph.edges(query);
+        return neighbors;
+    }
+
+    private Future<List<Id>> expandBatch(List<Id> sources, Directions dir,
+                                         Id label, Set<Id> excluded,
+                                         long degree, long limit,
+                                         ConcurrentIdSet visited,
+                                         AtomicLong count) {
+        return this.submit(() -> {
+            List<Id> neighbors = new ArrayList<>();
+            if (limit != NO_LIMIT && count.get() >= limit) {
+                return neighbors;
+            }
+            Iterator<EdgeId> edges = this.edgesOfVertices(sources, dir,
+                                                          label, degree);
+            while (edges.hasNext()) {
+                Id target = edges.next().otherVertexId();
+                if (excluded != null && excluded.contains(target)) {
+                    continue;
+                }
+                if (!visited.add(target)) {
+                    continue;
+                }
+                if (limit != NO_LIMIT && count.incrementAndGet() > limit) {
+                    return neighbors;
+                }
+                neighbors.add(target);
+            }
+            return neighbors;
+        });
+    }
+
+    /**
+     * Submit a task to the worker threads shared by the traversers of graph,
+     * the tx opened by the worker thread is closed after the task
+     */
+    private <T> Future<T> submit(Callable<T> task) {
+        HugeGraph graph = this.graph;
+        ExecutorService executor = graph.oltpExecutor();
+        E.checkState(executor != null,
+                     "The oltp executor of graph '%s' is not enabled",
+                     graph.name());
+        return executor.submit(() -> {
+            try {
+                return task.call();
+            } finally {
+                graph.closeTx();
+            }
+        });
+    }
+
+    private Iterator<EdgeId> edgesOfVertex(Id source, Directions dir,
+                                           Id label, long limit) {
+        GraphTransaction tx = this.graph.graphTransaction();
+        return tx.queryAdjacentEdgeIds(source, dir, label, limit);
+    }
+
+    private Iterator<EdgeId> edgesOfVertices(Collection<Id> sources,
+                                             Directions dir, Id label,
+                                             long limit) {
+        GraphTransaction tx = this.graph.graphTransaction();
+        return tx.queryAdjacentEdgeIds(sources, dir, label, limit);
     }
 
     private Id getEdgeLabelId(Object label) {
@@ -335,73 +458,62 @@ public class HugeTraverser {
         return new HashSet<>();
     }
 
-    private static <K, V> Map<K, V> newMap() {
-        return new HashMap<>();
-    }
-
     private static <K, V> MultivaluedMap<K, V> newMultivalueMap() {
         return new MultivaluedHashMap<>();
     }
 
+    /**
+     * Bidirectional BFS which records the visited vertices of each side with
+     * their parents, and expands the side with smaller frontier each time.
+     * The frontier is expanded by batch queries, and by the worker threads
+     * if it's large enough, the cross point is checked by the request thread
+     * while merging the adjacent edges of each batch.
+     */
     private class ShortestPathTraverser {
 
-        // TODO: change Map to Set to reduce memory cost
-        private Map<Id, Node> sources = newMap();
-        private Map<Id, Node> targets = newMap();
+        private final IdParentMap sources = new IdParentMap();
+        private final IdParentMap targets = new IdParentMap();
+        private List<Id> sourceFrontier;
+        private List<Id> targetFrontier;
 
         private final Directions direction;
         private final Id label;
         private final long degree;
         private final long capacity;
-        private long size;
 
         public ShortestPathTraverser(Id sourceV, Id targetV, Directions dir,
                                      Id label, long degree, long capacity) {
-            this.sources.put(sourceV, new Node(sourceV));
-            this.targets.put(targetV, new Node(targetV));
+            // The parent of the root is itself
+            this.sources.putIfAbsent(sourceV, sourceV);
+            this.targets.putIfAbsent(targetV, targetV);
+            this.sourceFrontier = ImmutableList.of(sourceV);
+            this.targetFrontier = ImmutableList.of(targetV);
             this.direction = dir;
             this.label = label;
             this.degree = degree;
             this.capacity = capacity;
-            this.size = 0L;
         }
 
         /**
          * Search forward from source
          */
         public List<Id> forward() {
-            Map<Id, Node> newVertices = newMap();
-            // Traversal vertices of previous level
-            for (Node v : this.sources.values()) {
-                Iterator<Edge> edges = edgesOfVertex(v.id(), this.direction,
-                                                     this.label, this.degree);
-                while (edges.hasNext()) {
-                    HugeEdge edge = (HugeEdge) edges.next();
-                    Id target = edge.id().otherVertexId();
-
+            List<Id> next = new ArrayList<>();
+            for (List<EdgeId> edges : this.expand(this.sourceFrontier,
+                                                  this.direction)) {
+                for (EdgeId edge : edges) {
+                    Id parent = edge.ownerVertexId();
+                    Id target = edge.otherVertexId();
                     // If cross point exists, shortest path found, concat them
                     if (this.targets.containsKey(target)) {
-                        return v.joinPath(this.targets.get(target));
+                        return this.joinPath(parent, target);
                     }
-
-                    /*
-                     * Not found shortest path yet, node is added to
-                     * newVertices if:
-                     * 1. not in sources and newVertices yet
-                     * 2. path of node doesn't have loop
-                     */
-                    if (!newVertices.containsKey(target) &&
-                        !this.sources.containsKey(target) &&
-                        !v.contains(target)) {
-                        newVertices.put(target, new Node(target, v));
+                    if (this.sources.putIfAbsent(target, parent)) {
+                        next.add(target);
                     }
                 }
             }
-
-            // Re-init sources
-            this.sources = newVertices;
-            this.size += newVertices.size();
-
+            this.sourceFrontier = next;
             return PATH_NONE;
         }
 
@@ -409,48 +521,115 @@ public class HugeTraverser {
          * Search backward from target
          */
         public List<Id> backward() {
-            Map<Id, Node> newVertices = newMap();
-            Directions opposite = this.direction.opposite();
-            // Traversal vertices of previous level
-            for (Node v : this.targets.values()) {
-                Iterator<Edge> edges = edgesOfVertex(v.id(), opposite,
-                                                     this.label, this.degree);
-                while (edges.hasNext()) {
-                    HugeEdge edge = (HugeEdge) edges.next();
-                    Id target = edge.id().otherVertexId();
-
+            List<Id> next = new ArrayList<>();
+            for (List<EdgeId> edges : this.expand(this.targetFrontier,
+                                                  this.direction.opposite())) {
+                for (EdgeId edge : edges) {
+                    Id parent = edge.ownerVertexId();
+                    Id target = edge.otherVertexId();
                     // If cross point exists, shortest path found, concat them
                     if (this.sources.containsKey(target)) {
-                        return v.joinPath(this.sources.get(target));
+                        return this.joinPath(target, parent);
                     }
-
-                    /*
-                     * Not found shortest path yet, node is added to
-                     * newVertices if:
-                     * 1. not in targets and newVertices yet
-                     * 2. path of node doesn't have loop
-                     */
-                    if (!newVertices.containsKey(target) &&
-                        !this.targets.containsKey(target) &&
-                        !v.contains(target)) {
-                        newVertices.put(target, new Node(target, v));
+                    if (this.targets.putIfAbsent(target, parent)) {
+                        next.add(target);
                     }
                 }
             }
+            this.targetFrontier = next;
+            return PATH_NONE;
+        }
 
-            // Re-init targets
-            this.targets = newVertices;
-            this.size += newVertices.size();
+        public boolean forwardFirst() {
+            return this.sourceFrontier.size() <= this.targetFrontier.size();
+        }
 
-            return PATH_NONE;
+        public boolean finished() {
+            // No path if any side can't be expanded any more
+            return this.sourceFrontier.isEmpty() ||
+                   this.targetFrontier.isEmpty();
+        }
+
+        public long visited() {
+            return this.sources.size() + this.targets.size();
         }
 
-        private boolean reachCapacity() {
-            if (this.capacity == NO_LIMIT || this.size < this.capacity) {
+        public boolean reachCapacity() {
+            if (this.capacity == NO_LIMIT || this.visited() < this.capacity) {
                 return false;
             }
             return true;
         }
+
+        /**
+         * Get the adjacent edges of the frontier in batches, the batches
+         * are queried by the worker threads if expanding concurrently,
+         * and the results are returned in the order of the batches.
+         */
+        private Iterable<List<EdgeId>> expand(List<Id> frontier,
+                                              Directions dir) {
+            Iterable<List<Id>> batches = Iterables.partition(
+                                         frontier, concurrentBatchSize);
+            if (!expandConcurrently(frontier)) {
+                return Iterables.transform(batches, batch -> {
+                    return this.edgesOfBatch(batch, dir);
+                });
+            }
+
+            List<Future<List<EdgeId>>> futures = new ArrayList<>();
+            for (List<Id> batch : batches) {
+                futures.add(submit(() -> {
+                    return this.edgesOfBatch(batch, dir);
+                }));
+            }
+            return Iterables.transform(futures, future -> {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    throw new HugeException("Interrupted while expanding " +
+                                            "adjacent vertices", e);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new HugeException("Failed to expand adjacent " +
+                                            "vertices", cause);
+                }
+            });
+        }
+
+        private List<EdgeId> edgesOfBatch(List<Id> batch, Directions dir) {
+            List<EdgeId> results = new ArrayList<>();
+            Iterator<EdgeId> edges = edgesOfVertices(batch, dir, this.label,
+                                                     this.degree);
+            while (edges.hasNext()) {
+                results.add(edges.next());
+            }
+            return results;
+        }
+
+        /**
+         * Concat the path from source to `sourceSide` and the path from
+         * `targetSide` to target, the two vertices are adjacent.
+         */
+        private List<Id> joinPath(Id sourceSide, Id targetSide) {
+            List<Id> path = new ArrayList<>();
+            for (Id id = sourceSide; ; id = this.sources.get(id)) {
+                path.add(id);
+                if (id.equals(this.sources.get(id))) {
+                    break;
+                }
+            }
+            Collections.reverse(path);
+            for (Id id = targetSide; ; id = this.targets.get(id)) {
+                path.add(id);
+                if (id.equals(this.targets.get(id))) {
+                    break;
+                }
+            }
+            return path;
+        }
     }
 
     private class PathsTraverser {
@@ -485,15 +664,15 @@ public class HugeTraverser {
         public List<Path> forward(Directions direction) {
             List<Path> paths = new ArrayList<>();
             MultivaluedMap<Id, Node> newVertices = newMultivalueMap();
-            Iterator<Edge> edges;
+            Iterator<EdgeId> edges;
             // Traversal vertices of previous level
             for (List<Node> nodes : this.sources.values()) {
                 for (Node n : nodes) {
                     edges = edgesOfVertex(n.id(), direction,
                                           this.label, this.degree);
                     while (edges.hasNext()) {
-                        HugeEdge edge = (HugeEdge) edges.next();
-                        Id target = edge.id().otherVertexId();
+                        EdgeId edge = edges.next();
+                        Id target = edge.otherVertexId();
 
                         // If have loop, skip target
                         if (n.contains(target)) {
@@ -533,15 +712,15 @@ public class HugeTraverser {
         public List<Path> backward(Directions direction) {
             List<Path> paths = new ArrayList<>();
             MultivaluedMap<Id, Node> newVertices = newMultivalueMap();
-            Iterator<Edge> edges;
+            Iterator<EdgeId> edges;
             // Traversal vertices of previous level
             for (List<Node> nodes : this.targets.values()) {
                 for (Node n : nodes) {
                     edges = edgesOfVertex(n.id(), direction,
                                           this.label, this.degree);
                     while (edges.hasNext()) {
-                        HugeEdge edge = (HugeEdge) edges.next();
-                        Id target = edge.id().otherVertexId();
+                        EdgeId edge = edges.next();
+                        Id target = edge.otherVertexId();
 
                         // If have loop, skip target
                         if (n.contains(target)) {
@@ -622,7 +801,7 @@ public class HugeTraverser {
         public List<Path> forward(Directions direction) {
             List<Path> paths = new ArrayList<>();
             MultivaluedMap<Id, Node> newVertices = newMultivalueMap();
-            Iterator<Edge> edges;
+            Iterator<EdgeId> edges;
             // Traversal vertices of previous level
             for (List<Node> nodes : this.sources.values()) {
                 for (Node n : nodes) {
@@ -642,8 +821,8 @@ public class HugeTraverser {
                         continue;
                     }
                     while (edges.hasNext()) {
-                        HugeEdge edge = (HugeEdge) edges.next();
-                        Id target = edge.id().otherVertexId();
+                        EdgeId edge = edges.next();
+                        Id target = edge.otherVertexId();
                         this.accessedVertices.add(target);
 
                         if (!n.contains(target)) {
@@ -766,6 +945,28 @@ public class HugeTraverser {
         }
     }
 
+    public static class ShortestPath {
+
+        private final List<Id> vertices;
+        private final long visited;
+
+        public ShortestPath(List<Id> vertices, long visited) {
+            this.vertices = vertices;
+            this.visited = visited;
+        }
+
+        public List<Id> vertices() {
+            return this.vertices;
+        }
+
+        /**
+         * The number of vertices visited by both sides while searching
+         */
+        public long visited() {
+            return this.visited;
+        }
+    }
+
     public static class Path {
 
         private Id crosspoint;
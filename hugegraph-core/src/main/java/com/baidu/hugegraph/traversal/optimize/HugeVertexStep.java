@@ -162,6 +162,26 @@ public final class HugeVertexStep<E extends Element>
         return results;
     }
 
+    /**
+     * Count the adjacent edges of the vertex natively without reading them,
+     * it can't be used if the step is with conditions or offset/limit
+     */
+    public long count(Traverser.Admin<Vertex> traverser) {
+        assert this.returnsEdge() && this.hasContainers.isEmpty();
+        HugeGraph graph = (HugeGraph) traverser.get().graph();
+
+        Id vertex = (Id) traverser.get().id();
+        Directions direction = Directions.convert(this.getDirection());
+        Id[] edgeLabelIds = graph.mapElName2Id(this.getEdgeLabels());
+
+        LOG.debug("HugeVertexStep.count(): vertex={}, direction={}, " +
+                  "edgeLabels={}", vertex, direction, this.getEdgeLabels());
+
+        ConditionQuery query = GraphTransaction.constructEdgesQuery(
+                               vertex, direction, edgeLabelIds);
+        return graph.queryNumber(this.injectQueryInfo(query));
+    }
+
     @Override
     public String toString() {
         if (this.hasContainers.isEmpty()) {
@@ -62,6 +62,12 @@ public final class HugeVertexStepStrategy
             TraversalUtil.extractRange(newStep, traversal, true);
 
             TraversalUtil.extractCount(newStep, traversal);
+
+            // Count natively like g.V(id).outE('knows').count()
+            if (newStep.returnsEdge() && newStep.getHasContainers().isEmpty()) {
+                TraversalUtil.convCountStep(newStep, new HugeCountStep<>(
+                                            newStep), traversal);
+            }
         }
     }
 
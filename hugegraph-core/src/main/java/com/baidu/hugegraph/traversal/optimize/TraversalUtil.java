@@ -178,6 +178,46 @@ public final class TraversalUtil {
                  step instanceof NoOpBarrierStep);
     }
 
+    /**
+     * Replace the step and the following count step with a HugeCountStep if
+     * the results of the step are counted directly, like g.V().count()
+     * @param newStep   the HugeGraphStep or HugeVertexStep
+     * @param countStep the HugeCountStep to count the results of newStep
+     * @param traversal the traversal which newStep belongs to
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static void convCountStep(Step<?, ?> newStep,
+                                     HugeCountStep<?> countStep,
+                                     Traversal.Admin<?, ?> traversal) {
+        Query query = ((QueryHolder) newStep).queryInfo();
+        if (!newStep.getLabels().isEmpty() || query.offset() != 0L ||
+            !query.noLimit() || query.paging()) {
+            return;
+        }
+
+        List<Step<?, ?>> removedSteps = new ArrayList<>();
+        Step<?, ?> step = newStep.getNextStep();
+        while (step instanceof IdentityStep ||
+               step instanceof NoOpBarrierStep) {
+            if (!step.getLabels().isEmpty()) {
+                return;
+            }
+            removedSteps.add(step);
+            step = step.getNextStep();
+        }
+        if (!(step instanceof CountGlobalStep)) {
+            return;
+        }
+        removedSteps.add(step);
+
+        step.getLabels().forEach(countStep::addLabel);
+        TraversalHelper.replaceStep((Step) newStep, (Step) countStep,
+                                    traversal);
+        for (Step<?, ?> removed : removedSteps) {
+            traversal.removeStep(removed);
+        }
+    }
+
     public static ConditionQuery fillConditionQuery(
                                  List<HasContainer> hasContainers,
                                  ConditionQuery query,
@@ -62,6 +62,7 @@ public enum HugeKeys {
     FIELD_VALUES(181, "field_values"),
     INDEX_LABEL_ID(182, "index_label_id"),
     ELEMENT_IDS(183, "element_ids"),
+    ELEMENT_BITMAP(184, "element_bitmap"),
 
     /* Column names of data type (Vertex/Edge) */
     LABEL(200, "label"),
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.util;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.baidu.hugegraph.backend.id.Id;
+
+/**
+ * A thread-safe set of ids which only supports adding, it's used to record
+ * visited vertices by concurrent traversers. The number ids are kept in
+ * striped primitive long hash tables to avoid boxing, and the others are
+ * kept in a concurrent hash set.
+ */
+public final class ConcurrentIdSet {
+
+    private static final int SEGMENTS = 64;
+    private static final int SEGMENT_SHIFT = 64 - 6;
+    private static final int INIT_SEGMENT_CAPACITY = 16;
+
+    private final LongSegment[] segments;
+    private final Set<Id> nonNumberIds;
+    private final AtomicLong size;
+
+    public ConcurrentIdSet() {
+        this.segments = new LongSegment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new LongSegment(INIT_SEGMENT_CAPACITY);
+        }
+        this.nonNumberIds = ConcurrentHashMap.newKeySet();
+        this.size = new AtomicLong(0L);
+    }
+
+    /**
+     * Add an id to the set
+     * @return true if the id is not in the set before
+     */
+    public boolean add(Id id) {
+        boolean added;
+        if (id.number()) {
+            long value = id.asLong();
+            long hash = mix(value);
+            added = this.segments[(int) (hash >>> SEGMENT_SHIFT)]
+                        .add(value, hash);
+        } else {
+            added = this.nonNumberIds.add(id);
+        }
+        if (added) {
+            this.size.incrementAndGet();
+        }
+        return added;
+    }
+
+    public boolean contains(Id id) {
+        if (id.number()) {
+            long value = id.asLong();
+            long hash = mix(value);
+            return this.segments[(int) (hash >>> SEGMENT_SHIFT)]
+                       .contains(value, hash);
+        } else {
+            return this.nonNumberIds.contains(id);
+        }
+    }
+
+    public long size() {
+        return this.size.get();
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0L;
+    }
+
+    private static long mix(long value) {
+        // The finalizer of MurmurHash3
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * Open addressing hash table with linear probing, the slot with value 0
+     * means free, so value 0 itself is recorded by a flag.
+     */
+    private static final class LongSegment {
+
+        private static final long FREE = 0L;
+
+        private long[] table;
+        private int size;
+        private boolean containsFree;
+
+        public LongSegment(int capacity) {
+            this.table = new long[capacity];
+            this.size = 0;
+            this.containsFree = false;
+        }
+
+        public synchronized boolean add(long value, long hash) {
+            if (value == FREE) {
+                if (this.containsFree) {
+                    return false;
+                }
+                this.containsFree = true;
+                return true;
+            }
+            int mask = this.table.length - 1;
+            int index = (int) hash & mask;
+            long current;
+            while ((current = this.table[index]) != FREE) {
+                if (current == value) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            this.table[index] = value;
+            // Keep load factor <= 0.5
+            if (++this.size > (this.table.length >> 1)) {
+                this.resize();
+            }
+            return true;
+        }
+
+        public synchronized boolean contains(long value, long hash) {
+            if (value == FREE) {
+                return this.containsFree;
+            }
+            int mask = this.table.length - 1;
+            int index = (int) hash & mask;
+            long current;
+            while ((current = this.table[index]) != FREE) {
+                if (current == value) {
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        private void resize() {
+            long[] old = this.table;
+            long[] table = new long[old.length << 1];
+            int mask = table.length - 1;
+            for (long value : old) {
+                if (value == FREE) {
+                    continue;
+                }
+                int index = (int) mix(value) & mask;
+                while (table[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+            this.table = table;
+        }
+    }
+}
@@ -0,0 +1,805 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.baidu.hugegraph.util;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import com.baidu.hugegraph.HugeException;
+
+/**
+ * A compressed bitmap of long ids (like the roaring bitmap), which is used
+ * as the posting list of index. The ids are split into chunks by the high
+ * 48 bits, and the low 16 bits of each chunk are stored in a sorted array
+ * if the chunk is sparse (<= 4096 ids), otherwise in a 8KB bitmap.
+ * NOTE: it's not thread-safe.
+ */
+public final class IdBitmap {
+
+    private static final int ARRAY_MAX_SIZE = 4096;
+    private static final int BITMAP_WORDS = (1 << 16) / Long.SIZE;
+    private static final int INIT_CHUNKS = 4;
+
+    private static final byte ARRAY = 1;
+    private static final byte BITMAP = 2;
+
+    private long[] keys;
+    private Container[] containers;
+    private int size;
+
+    public IdBitmap() {
+        this(INIT_CHUNKS);
+    }
+
+    private IdBitmap(int capacity) {
+        this.keys = new long[Math.max(capacity, 1)];
+        this.containers = new Container[this.keys.length];
+        this.size = 0;
+    }
+
+    public static IdBitmap of(long... values) {
+        IdBitmap bitmap = new IdBitmap();
+        for (long value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Add an id to the bitmap
+     * @return true if the id is not in the bitmap before
+     */
+    public boolean add(long value) {
+        long key = value >> 16;
+        char low = (char) value;
+        int i = this.indexOf(key);
+        if (i >= 0) {
+            Container container = this.containers[i];
+            if (container.contains(low)) {
+                return false;
+            }
+            this.containers[i] = container.add(low);
+            return true;
+        }
+        this.insert(-i - 1, key, new ArrayContainer().add(low));
+        return true;
+    }
+
+    /**
+     * Remove an id from the bitmap
+     * @return true if the id is in the bitmap before
+     */
+    public boolean remove(long value) {
+        int i = this.indexOf(value >> 16);
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Container container = this.containers[i];
+        if (!container.contains(low)) {
+            return false;
+        }
+        container = container.remove(low);
+        if (container.cardinality() == 0) {
+            this.delete(i);
+        } else {
+            this.containers[i] = container;
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        int i = this.indexOf(value >> 16);
+        return i >= 0 && this.containers[i].contains((char) value);
+    }
+
+    public long cardinality() {
+        long cardinality = 0L;
+        for (int i = 0; i < this.size; i++) {
+            cardinality += this.containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Union with the other bitmap in place
+     */
+    public void or(IdBitmap other) {
+        this.assign(or(this, other));
+    }
+
+    /**
+     * Intersect with the other bitmap in place
+     */
+    public void and(IdBitmap other) {
+        this.assign(and(this, other));
+    }
+
+    /**
+     * Remove the ids of the other bitmap in place
+     */
+    public void andNot(IdBitmap other) {
+        this.assign(andNot(this, other));
+    }
+
+    public IdBitmap copy() {
+        IdBitmap copy = new IdBitmap(this.size);
+        for (int i = 0; i < this.size; i++) {
+            copy.append(this.keys[i], this.containers[i].copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Iterate the ids in ascending order
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+
+            private int chunk = 0;
+            private ContainerIterator values = null;
+
+            @Override
+            public boolean hasNext() {
+                while (this.values == null || !this.values.hasNext()) {
+                    if (this.chunk >= IdBitmap.this.size) {
+                        return false;
+                    }
+                    this.values = IdBitmap.this.containers[this.chunk++]
+                                               .iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                long high = IdBitmap.this.keys[this.chunk - 1] << 16;
+                return high | this.values.next();
+            }
+        };
+    }
+
+    public static IdBitmap or(IdBitmap a, IdBitmap b) {
+        IdBitmap result = new IdBitmap(a.size + b.size);
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            long ka = a.keys[i];
+            long kb = b.keys[j];
+            if (ka < kb) {
+                result.append(ka, a.containers[i++].copy());
+            } else if (ka > kb) {
+                result.append(kb, b.containers[j++].copy());
+            } else {
+                result.append(ka, a.containers[i++].or(b.containers[j++]));
+            }
+        }
+        for (; i < a.size; i++) {
+            result.append(a.keys[i], a.containers[i].copy());
+        }
+        for (; j < b.size; j++) {
+            result.append(b.keys[j], b.containers[j].copy());
+        }
+        return result;
+    }
+
+    public static IdBitmap and(IdBitmap a, IdBitmap b) {
+        IdBitmap result = new IdBitmap(Math.min(a.size, b.size));
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            long ka = a.keys[i];
+            long kb = b.keys[j];
+            if (ka < kb) {
+                i++;
+            } else if (ka > kb) {
+                j++;
+            } else {
+                result.append(ka, a.containers[i++].and(b.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    public static IdBitmap andNot(IdBitmap a, IdBitmap b) {
+        IdBitmap result = new IdBitmap(a.size);
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            long key = a.keys[i];
+            while (j < b.size && b.keys[j] < key) {
+                j++;
+            }
+            if (j < b.size && b.keys[j] == key) {
+                result.append(key, a.containers[i].andNot(b.containers[j]));
+            } else {
+                result.append(key, a.containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Serialize the bitmap, the format is:
+     * chunks(int) + [key(long) + type(byte) + cardinality(int) + values]*
+     */
+    public byte[] toBytes() {
+        int length = Integer.BYTES;
+        for (int i = 0; i < this.size; i++) {
+            length += Long.BYTES + 1 + Integer.BYTES +
+                      this.containers[i].bytesLength();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(this.size);
+        for (int i = 0; i < this.size; i++) {
+            Container container = this.containers[i];
+            buffer.putLong(this.keys[i]);
+            buffer.put(container.type());
+            buffer.putInt(container.cardinality());
+            container.write(buffer);
+        }
+        assert !buffer.hasRemaining();
+        return buffer.array();
+    }
+
+    public static IdBitmap fromBytes(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int size = buffer.getInt();
+            E.checkArgument(size >= 0, "Invalid chunks of bitmap: %s", size);
+            IdBitmap bitmap = new IdBitmap(size);
+            for (int i = 0; i < size; i++) {
+                long key = buffer.getLong();
+                byte type = buffer.get();
+                int cardinality = buffer.getInt();
+                Container container;
+                if (type == ARRAY) {
+                    container = ArrayContainer.read(buffer, cardinality);
+                } else {
+                    E.checkArgument(type == BITMAP,
+                                    "Invalid container type of bitmap: %s",
+                                    type);
+                    container = BitmapContainer.read(buffer, cardinality);
+                }
+                E.checkArgument(bitmap.size == 0 ||
+                                key > bitmap.keys[bitmap.size - 1],
+                                "Invalid chunk order of bitmap");
+                bitmap.append(key, container);
+            }
+            return bitmap;
+        } catch (BufferUnderflowException e) {
+            throw new HugeException("Invalid bitmap bytes with length %s",
+                                    e, bytes.length);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof IdBitmap)) {
+            return false;
+        }
+        IdBitmap other = (IdBitmap) obj;
+        if (this.size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < this.size; i++) {
+            if (this.keys[i] != other.keys[i] ||
+                !this.containers[i].equals(other.containers[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.size;
+        for (int i = 0; i < this.size; i++) {
+            hash = 31 * hash + Long.hashCode(this.keys[i]);
+            hash = 31 * hash + this.containers[i].cardinality();
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IdBitmap{chunks=%s, cardinality=%s}",
+                             this.size, this.cardinality());
+    }
+
+    private int indexOf(long key) {
+        // Fast path for appending ids in ascending order
+        if (this.size > 0 && this.keys[this.size - 1] == key) {
+            return this.size - 1;
+        }
+        return Arrays.binarySearch(this.keys, 0, this.size, key);
+    }
+
+    private void append(long key, Container container) {
+        if (container == null || container.cardinality() == 0) {
+            return;
+        }
+        this.insert(this.size, key, container);
+    }
+
+    private void insert(int i, long key, Container container) {
+        if (this.size == this.keys.length) {
+            int capacity = this.size << 1;
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.containers = Arrays.copyOf(this.containers, capacity);
+        }
+        System.arraycopy(this.keys, i, this.keys, i + 1, this.size - i);
+        System.arraycopy(this.containers, i, this.containers, i + 1,
+                         this.size - i);
+        this.keys[i] = key;
+        this.containers[i] = container;
+        this.size++;
+    }
+
+    private void delete(int i) {
+        System.arraycopy(this.keys, i + 1, this.keys, i, this.size - i - 1);
+        System.arraycopy(this.containers, i + 1, this.containers, i,
+                         this.size - i - 1);
+        this.containers[--this.size] = null;
+    }
+
+    private void assign(IdBitmap other) {
+        this.keys = other.keys;
+        this.containers = other.containers;
+        this.size = other.size;
+    }
+
+    private interface ContainerIterator {
+
+        public boolean hasNext();
+
+        public int next();
+    }
+
+    /**
+     * The low 16 bits of the ids in a chunk
+     */
+    private static abstract class Container {
+
+        public abstract byte type();
+
+        public abstract int cardinality();
+
+        public abstract boolean contains(char value);
+
+        /**
+         * Add a value which is not in the container
+         * @return the container (maybe converted) contains the value
+         */
+        public abstract Container add(char value);
+
+        /**
+         * Remove a value which is in the container
+         * @return the container (maybe converted) without the value
+         */
+        public abstract Container remove(char value);
+
+        public abstract Container or(Container other);
+
+        public abstract Container and(Container other);
+
+        public abstract Container andNot(Container other);
+
+        public abstract Container copy();
+
+        public abstract ContainerIterator iterator();
+
+        public abstract int bytesLength();
+
+        public abstract void write(ByteBuffer buffer);
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Container)) {
+                return false;
+            }
+            Container other = (Container) obj;
+            if (this.cardinality() != other.cardinality()) {
+                return false;
+            }
+            ContainerIterator iter1 = this.iterator();
+            ContainerIterator iter2 = other.iterator();
+            while (iter1.hasNext()) {
+                if (iter1.next() != iter2.next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.cardinality();
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int size;
+
+        public ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public byte type() {
+            return ARRAY;
+        }
+
+        @Override
+        public int cardinality() {
+            return this.size;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return this.indexOf(value) >= 0;
+        }
+
+        @Override
+        public Container add(char value) {
+            if (this.size >= ARRAY_MAX_SIZE) {
+                return this.toBitmap().add(value);
+            }
+            int i = -this.indexOf(value) - 1;
+            assert i >= 0 : "Can't add an existing value";
+            if (this.size == this.values.length) {
+                int capacity = Math.min(this.size << 1, ARRAY_MAX_SIZE);
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+            System.arraycopy(this.values, i, this.values, i + 1,
+                             this.size - i);
+            this.values[i] = value;
+            this.size++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int i = this.indexOf(value);
+            assert i >= 0 : "Can't remove a nonexistent value";
+            System.arraycopy(this.values, i + 1, this.values, i,
+                             this.size - i - 1);
+            this.size--;
+            return this;
+        }
+
+        @Override
+        public Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer that = (ArrayContainer) other;
+            char[] result = new char[this.size + that.size];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < this.size && j < that.size) {
+                char v1 = this.values[i];
+                char v2 = that.values[j];
+                if (v1 < v2) {
+                    result[k++] = v1;
+                    i++;
+                } else if (v1 > v2) {
+                    result[k++] = v2;
+                    j++;
+                } else {
+                    result[k++] = v1;
+                    i++;
+                    j++;
+                }
+            }
+            while (i < this.size) {
+                result[k++] = this.values[i++];
+            }
+            while (j < that.size) {
+                result[k++] = that.values[j++];
+            }
+            ArrayContainer container = new ArrayContainer(result, k);
+            return k > ARRAY_MAX_SIZE ? container.toBitmap() : container;
+        }
+
+        @Override
+        public Container and(Container other) {
+            char[] result = new char[this.size];
+            int k = 0;
+            for (int i = 0; i < this.size; i++) {
+                if (other.contains(this.values[i])) {
+                    result[k++] = this.values[i];
+                }
+            }
+            return new ArrayContainer(result, k);
+        }
+
+        @Override
+        public Container andNot(Container other) {
+            char[] result = new char[this.size];
+            int k = 0;
+            for (int i = 0; i < this.size; i++) {
+                if (!other.contains(this.values[i])) {
+                    result[k++] = this.values[i];
+                }
+            }
+            return new ArrayContainer(result, k);
+        }
+
+        @Override
+        public Container copy() {
+            return new ArrayContainer(Arrays.copyOf(this.values, this.size),
+                                      this.size);
+        }
+
+        @Override
+        public ContainerIterator iterator() {
+            return new ContainerIterator() {
+
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return this.index < ArrayContainer.this.size;
+                }
+
+                @Override
+                public int next() {
+                    return ArrayContainer.this.values[this.index++];
+                }
+            };
+        }
+
+        @Override
+        public int bytesLength() {
+            return this.size * Character.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer) {
+            for (int i = 0; i < this.size; i++) {
+                buffer.putChar(this.values[i]);
+            }
+        }
+
+        public static ArrayContainer read(ByteBuffer buffer, int size) {
+            E.checkArgument(size > 0 && size <= ARRAY_MAX_SIZE,
+                            "Invalid cardinality of array container: %s",
+                            size);
+            char[] values = new char[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = buffer.getChar();
+                E.checkArgument(i == 0 || values[i] > values[i - 1],
+                                "Invalid value order of array container");
+            }
+            return new ArrayContainer(values, size);
+        }
+
+        private int indexOf(char value) {
+            return Arrays.binarySearch(this.values, 0, this.size, value);
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < this.size; i++) {
+                bitmap.set(this.values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        public BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public byte type() {
+            return BITMAP;
+        }
+
+        @Override
+        public int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (this.words[value >>> 6] & (1L << value)) != 0L;
+        }
+
+        @Override
+        public Container add(char value) {
+            this.set(value);
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            this.words[value >>> 6] &= ~(1L << value);
+            this.cardinality--;
+            return this.cardinality > ARRAY_MAX_SIZE ? this : this.toArray();
+        }
+
+        @Override
+        public Container or(Container other) {
+            BitmapContainer result = (BitmapContainer) this.copy();
+            if (other instanceof ArrayContainer) {
+                ArrayContainer that = (ArrayContainer) other;
+                for (int i = 0; i < that.size; i++) {
+                    if (!result.contains(that.values[i])) {
+                        result.set(that.values[i]);
+                    }
+                }
+                return result;
+            }
+            long[] words = ((BitmapContainer) other).words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] |= words[i];
+            }
+            return result.normalize();
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] words = ((BitmapContainer) other).words;
+            long[] result = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = this.words[i] & words[i];
+            }
+            return new BitmapContainer(result, 0).normalize();
+        }
+
+        @Override
+        public Container andNot(Container other) {
+            BitmapContainer result = (BitmapContainer) this.copy();
+            if (other instanceof ArrayContainer) {
+                ArrayContainer that = (ArrayContainer) other;
+                for (int i = 0; i < that.size; i++) {
+                    char value = that.values[i];
+                    result.words[value >>> 6] &= ~(1L << value);
+                }
+            } else {
+                long[] words = ((BitmapContainer) other).words;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result.words[i] &= ~words[i];
+                }
+            }
+            return result.normalize();
+        }
+
+        @Override
+        public Container copy() {
+            return new BitmapContainer(this.words.clone(), this.cardinality);
+        }
+
+        @Override
+        public ContainerIterator iterator() {
+            return new ContainerIterator() {
+
+                private int index = 0;
+                private long word = BitmapContainer.this.words[0];
+
+                @Override
+                public boolean hasNext() {
+                    while (this.word == 0L) {
+                        if (++this.index >= BITMAP_WORDS) {
+                            return false;
+                        }
+                        this.word = BitmapContainer.this.words[this.index];
+                    }
+                    return true;
+                }
+
+                @Override
+                public int next() {
+                    if (!this.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int bit = Long.numberOfTrailingZeros(this.word);
+                    // Clear the lowest set bit
+                    this.word &= this.word - 1L;
+                    return (this.index << 6) + bit;
+                }
+            };
+        }
+
+        @Override
+        public int bytesLength() {
+            return BITMAP_WORDS * Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer) {
+            for (long word : this.words) {
+                buffer.putLong(word);
+            }
+        }
+
+        public static Container read(ByteBuffer buffer, int cardinality) {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] = buffer.getLong();
+            }
+            Container container = new BitmapContainer(words, 0).normalize();
+            E.checkArgument(container.cardinality() == cardinality,
+                            "Invalid cardinality of bitmap container: %s",
+                            cardinality);
+            return container;
+        }
+
+        private void set(char value) {
+            this.words[value >>> 6] |= 1L << value;
+            this.cardinality++;
+        }
+
+        /**
+         * Recount the cardinality, and convert to array container if sparse
+         */
+        private Container normalize() {
+            int cardinality = 0;
+            for (long word : this.words) {
+                cardinality += Long.bitCount(word);
+            }
+            this.cardinality = cardinality;
+            return cardinality > ARRAY_MAX_SIZE ? this : this.toArray();
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[this.cardinality];
+            int k = 0;
+            ContainerIterator iter = this.iterator();
+            while (iter.hasNext()) {
+                values[k++] = (char) iter.next();
+            }
+            return new ArrayContainer(values, k);
+        }
+    }
+}
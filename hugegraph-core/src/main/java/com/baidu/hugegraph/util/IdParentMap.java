@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+
+/**
+ * A map from visited vertex id to its parent vertex id, it's used to record
+ * the BFS tree of traversers. If both the id and its parent are number ids,
+ * they are kept in a primitive long hash table to avoid boxing, otherwise
+ * they are kept in a hash map. It's not thread-safe.
+ */
+public final class IdParentMap {
+
+    private static final long FREE = 0L;
+    private static final int INIT_CAPACITY = 64;
+
+    private long[] keys;
+    private long[] parents;
+    private int numberSize;
+    // The key 0 is recorded by a flag since 0 means free slot
+    private boolean containsZero;
+    private long zeroParent;
+
+    private final Map<Id, Id> others;
+
+    public IdParentMap() {
+        this.keys = new long[INIT_CAPACITY];
+        this.parents = new long[INIT_CAPACITY];
+        this.numberSize = 0;
+        this.containsZero = false;
+        this.zeroParent = 0L;
+        this.others = new HashMap<>();
+    }
+
+    /**
+     * Add an id with its parent to the map if the id is not in the map
+     * @return true if the id is not in the map before
+     */
+    public boolean putIfAbsent(Id id, Id parent) {
+        E.checkArgumentNotNull(id, "The id can't be null");
+        E.checkArgumentNotNull(parent, "The parent of '%s' can't be null", id);
+        if (this.containsKey(id)) {
+            return false;
+        }
+        if (id.number() && parent.number()) {
+            this.putNumber(id.asLong(), parent.asLong());
+        } else {
+            this.others.put(id, parent);
+        }
+        return true;
+    }
+
+    public boolean containsKey(Id id) {
+        if (id.number() && this.indexOf(id.asLong()) >= 0) {
+            return true;
+        }
+        return !this.others.isEmpty() && this.others.containsKey(id);
+    }
+
+    /**
+     * Get the parent of an id
+     * @return the parent id, or null if the id is not in the map
+     */
+    public Id get(Id id) {
+        if (id.number()) {
+            long key = id.asLong();
+            if (key == FREE) {
+                if (this.containsZero) {
+                    return IdGenerator.of(this.zeroParent);
+                }
+            } else {
+                int index = this.indexOf(key);
+                if (index >= 0) {
+                    return IdGenerator.of(this.parents[index]);
+                }
+            }
+        }
+        return this.others.get(id);
+    }
+
+    public long size() {
+        return this.numberSize + (this.containsZero ? 1 : 0) +
+               this.others.size();
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0L;
+    }
+
+    private int indexOf(long key) {
+        if (key == FREE) {
+            return this.containsZero ? Integer.MAX_VALUE : -1;
+        }
+        int mask = this.keys.length - 1;
+        int index = (int) mix(key) & mask;
+        long current;
+        while ((current = this.keys[index]) != FREE) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void putNumber(long key, long parent) {
+        if (key == FREE) {
+            this.containsZero = true;
+            this.zeroParent = parent;
+            return;
+        }
+        insert(this.keys, this.parents, key, parent);
+        // Keep load factor <= 0.5
+        if (++this.numberSize > (this.keys.length >> 1)) {
+            this.resize();
+        }
+    }
+
+    private void resize() {
+        long[] keys = new long[this.keys.length << 1];
+        long[] parents = new long[this.parents.length << 1];
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i] != FREE) {
+                insert(keys, parents, this.keys[i], this.parents[i]);
+            }
+        }
+        this.keys = keys;
+        this.parents = parents;
+    }
+
+    private static void insert(long[] keys, long[] parents,
+                               long key, long parent) {
+        int mask = keys.length - 1;
+        int index = (int) mix(key) & mask;
+        while (keys[index] != FREE) {
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        parents[index] = parent;
+    }
+
+    private static long mix(long value) {
+        // The finalizer of MurmurHash3
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -77,6 +77,11 @@ public class HbaseFeatures implements BackendFeatures {
         return true;
     }
 
+    @Override
+    public boolean supportsQueryInBatch() {
+        return true;
+    }
+
     @Override
     public boolean supportsDeleteEdgeByLabel() {
         // TODO: Supports this feature through HBase secondary index
@@ -109,4 +114,9 @@ public class HbaseFeatures implements BackendFeatures {
     public boolean supportsNumberType() {
         return false;
     }
+
+    @Override
+    public boolean supportsIndexBitmap() {
+        return false;
+    }
 }
@@ -54,8 +54,10 @@ import org.apache.hadoop.hbase.client.Row;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.client.TableDescriptorBuilder;
+import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
-import org.apache.hadoop.hbase.filter.FilterList.Operator;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
 import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
 import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.apache.hadoop.hbase.filter.PageFilter;
@@ -438,23 +440,29 @@ public class HbaseSessions extends BackendSessionPool {
         }
 
         /**
-         * Scan records by multi rowkey prefixs from a table
+         * Scan records by multi rowkey prefixs from a table, with one scan
+         * starting from the least prefix and only visiting the row ranges
+         * of the prefixs
          */
-        public RowIterator scan(String table, Set<byte[]> prefixs) {
+        public RowIterator scan(String table, Collection<byte[]> prefixs) {
             assert !this.hasChanges();
+            if (prefixs.isEmpty()) {
+                return new RowIterator();
+            }
 
-            FilterList orFilters = new FilterList(Operator.MUST_PASS_ONE);
+            byte[] startRow = null;
+            List<RowRange> ranges = new ArrayList<>(prefixs.size());
             for (byte[] prefix : prefixs) {
-                FilterList andFilters = new FilterList(Operator.MUST_PASS_ALL);
-                List<RowRange> ranges = new ArrayList<>();
-                ranges.add(new RowRange(prefix, true, null, true));
-                andFilters.addFilter(new MultiRowRangeFilter(ranges));
-                andFilters.addFilter(new PrefixFilter(prefix));
-
-                orFilters.addFilter(andFilters);
+                // Range [prefix, next prefix), the empty end means end of table
+                ranges.add(new RowRange(prefix, true,
+                                        nextPrefix(prefix), false));
+                if (startRow == null || Bytes.compare(prefix, startRow) < 0) {
+                    startRow = prefix;
+                }
             }
 
-            Scan scan = new Scan().setFilter(orFilters);
+            Scan scan = new Scan().withStartRow(startRow)
+                                  .setFilter(new MultiRowRangeFilter(ranges));
             return this.scan(table, scan);
         }
 
@@ -463,9 +471,22 @@ public class HbaseSessions extends BackendSessionPool {
          */
         public RowIterator scan(String table, byte[] startRow,
                                 boolean inclusiveStart, byte[] prefix) {
+            return this.scan(table, startRow, inclusiveStart, prefix, -1L);
+        }
+
+        /**
+         * Scan at most `limit` records by rowkey start and prefix from a
+         * table, the region servers stop scanning once reached the limit
+         */
+        public RowIterator scan(String table, byte[] startRow,
+                                boolean inclusiveStart, byte[] prefix,
+                                long limit) {
             assert !this.hasChanges();
             Scan scan = new Scan().withStartRow(startRow, inclusiveStart)
                                   .setFilter(new PrefixFilter(prefix));
+            if (limit >= 0L && limit < Integer.MAX_VALUE) {
+                scan.setLimit((int) limit);
+            }
             return this.scan(table, scan);
         }
 
@@ -515,6 +536,51 @@ public class HbaseSessions extends BackendSessionPool {
             }
         }
 
+        /**
+         * Count all records of a table
+         */
+        public long count(String table) {
+            assert !this.hasChanges();
+            return this.count(table, new Scan());
+        }
+
+        /**
+         * Count records by rowkey start and prefix from a table
+         */
+        public long count(String table, byte[] startRow,
+                          boolean inclusiveStart, byte[] prefix) {
+            assert !this.hasChanges();
+            Scan scan = new Scan().withStartRow(startRow, inclusiveStart)
+                                  .setFilter(new PrefixFilter(prefix));
+            return this.count(table, scan);
+        }
+
+        /**
+         * Inner count: just the first key of each row is returned from
+         * the region servers, without any value
+         */
+        private long count(String table, Scan scan) {
+            FilterList filters = new FilterList();
+            Filter filter = scan.getFilter();
+            if (filter != null) {
+                filters.addFilter(filter);
+            }
+            filters.addFilter(new FirstKeyOnlyFilter());
+            filters.addFilter(new KeyOnlyFilter());
+            scan.setFilter(filters).setCacheBlocks(false);
+
+            long count = 0L;
+            try (Table htable = table(table);
+                 ResultScanner scanner = htable.getScanner(scan)) {
+                while (scanner.next() != null) {
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new BackendException(e);
+            }
+            return count;
+        }
+
         /**
          * Increase a counter by rowkey and qualifier to a table
          */
@@ -559,6 +625,22 @@ public class HbaseSessions extends BackendSessionPool {
         }
     }
 
+    /**
+     * Get the least row key which is greater than all the row keys prefixed
+     * with the specified prefix, or an empty array (means the end of table)
+     * if all the bytes of the prefix are 0xff
+     */
+    private static byte[] nextPrefix(byte[] prefix) {
+        byte[] next = Arrays.copyOf(prefix, prefix.length);
+        for (int i = next.length - 1; i >= 0; i--) {
+            if (next[i] != (byte) 0xff) {
+                next[i]++;
+                return Arrays.copyOf(next, i + 1);
+            }
+        }
+        return new byte[0];
+    }
+
     protected static class RowIterator implements BackendIterator<Result> {
 
         private final ResultScanner resultScanner;
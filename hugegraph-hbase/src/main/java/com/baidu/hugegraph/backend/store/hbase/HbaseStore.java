@@ -197,6 +197,14 @@ public abstract class HbaseStore extends AbstractBackendStore<Session> {
         return table.query(session, query);
     }
 
+    @Override
+    public long queryNumber(Query query) {
+        this.checkOpened();
+        Session session = this.sessions.session();
+        HbaseTable table = this.table(HbaseTable.tableType(query));
+        return table.queryNumber(session, query);
+    }
+
     @Override
     public void init() {
         this.checkOpened();
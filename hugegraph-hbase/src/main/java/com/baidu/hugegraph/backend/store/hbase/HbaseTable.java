@@ -20,6 +20,7 @@
 package com.baidu.hugegraph.backend.store.hbase;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -33,6 +34,7 @@ import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.query.BatchQuery;
 import com.baidu.hugegraph.backend.query.Condition.Relation;
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.IdPrefixQuery;
@@ -43,12 +45,14 @@ import com.baidu.hugegraph.backend.serializer.BinaryEntryIterator;
 import com.baidu.hugegraph.backend.serializer.BinaryEntryIterator.PageState;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendIterator;
 import com.baidu.hugegraph.backend.store.BackendEntryIterator;
 import com.baidu.hugegraph.backend.store.BackendTable;
 import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.backend.store.hbase.HbaseSessions.RowIterator;
 import com.baidu.hugegraph.backend.store.hbase.HbaseSessions.Session;
 import com.baidu.hugegraph.exception.NotSupportException;
+import com.baidu.hugegraph.iterator.FlatMapperIterator;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
@@ -128,6 +132,11 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
             return ImmutableList.<BackendEntry>of().iterator();
         }
 
+        // Query in batch
+        if (query instanceof BatchQuery) {
+            return this.queryInBatch(session, (BatchQuery) query);
+        }
+
         // Query all
         if (query.empty()) {
             return newEntryIterator(this.queryAll(session, query), query);
@@ -163,6 +172,60 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
         return newEntryIterator(this.queryByCond(session, cq), query);
     }
 
+    @Override
+    public long queryNumber(Session session, Query query) {
+        // There is one row for each vertex or edge in HBase
+        long count;
+        if (query.empty()) {
+            count = session.count(this.table());
+        } else if (query instanceof IdPrefixQuery) {
+            IdPrefixQuery pq = (IdPrefixQuery) query;
+            count = session.count(this.table(), pq.start().asBytes(),
+                                  pq.inclusiveStart(), pq.prefix().asBytes());
+        } else {
+            return -1L;
+        }
+        LOG.debug("Return {} for query number {}", count, query);
+        return count;
+    }
+
+    protected Iterator<BackendEntry> queryInBatch(Session session,
+                                                  BatchQuery batch) {
+        /*
+         * Query one by one lazily if each prefix is limited, so that the
+         * region servers stop scanning a prefix once reached its limit,
+         * rather than transferring all the rows of it by one multi-ranges
+         * scan, or if can't scan all the prefixes in one pass
+         */
+        boolean oneByOne = batch.subLimit() != Query.NO_LIMIT;
+        List<byte[]> prefixes = new ArrayList<>(batch.size());
+        for (Query query : batch.queries()) {
+            if (oneByOne || !isPlainPrefixQuery(query)) {
+                oneByOne = true;
+                break;
+            }
+            prefixes.add(((IdPrefixQuery) query).prefix().asBytes());
+        }
+
+        if (oneByOne) {
+            return new FlatMapperIterator<>(batch.queries().iterator(), q -> {
+                return this.query(session, q);
+            });
+        }
+
+        prefixes.sort(Bytes::compare);
+        RowIterator rows = session.scan(this.table(), prefixes);
+        return newEntryIterator(rows, batch);
+    }
+
+    private static boolean isPlainPrefixQuery(Query query) {
+        if (!(query instanceof IdPrefixQuery) || query.offset() > 0L) {
+            return false;
+        }
+        IdPrefixQuery pq = (IdPrefixQuery) query;
+        return pq.inclusiveStart() && pq.start().equals(pq.prefix());
+    }
+
     protected RowIterator queryAll(Session session, Query query) {
         if (query.paging()) {
             PageState page = PageState.fromString(query.page());
@@ -184,8 +247,11 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
     }
 
     protected RowIterator queryByPrefix(Session session, IdPrefixQuery query) {
+        // The skipped rows of offset are also scanned
+        long limit = query.noLimit() ? -1L : query.total();
         return session.scan(this.table(), query.start().asBytes(),
-                            query.inclusiveStart(), query.prefix().asBytes());
+                            query.inclusiveStart(), query.prefix().asBytes(),
+                            limit);
     }
 
     protected RowIterator queryByRange(Session session, IdRangeQuery query) {
@@ -212,7 +278,7 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
         return session.scan(this.table(), start, end);
     }
 
-    private BackendEntryIterator newEntryIterator(RowIterator rows,
+    private BackendEntryIterator newEntryIterator(BackendIterator<Result> rows,
                                                   Query query) {
         return new BinaryEntryIterator<>(rows, query, (entry, row) -> {
             E.checkState(!row.isEmpty(), "Can't parse empty HBase result");
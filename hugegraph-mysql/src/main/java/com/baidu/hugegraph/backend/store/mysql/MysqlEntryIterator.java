@@ -39,17 +39,46 @@ import com.baidu.hugegraph.util.JsonUtil;
 
 public class MysqlEntryIterator extends BackendEntryIterator {
 
-    private final ResultSet results;
     private final BiFunction<BackendEntry, BackendEntry, BackendEntry> merger;
+    private final PageFetcher fetcher;
+    private final long pageSize;
+
+    private ResultSet results;
+    private long pageLimit;
+    private long pageRows;
+    private long rows;
 
     private BackendEntry next;
     private BackendEntry last;
 
     public MysqlEntryIterator(ResultSet rs, Query query,
            BiFunction<BackendEntry, BackendEntry, BackendEntry> merger) {
+        this(query, merger, rs, null, 0L);
+    }
+
+    /**
+     * Iterate the rows page by page, each page is fetched after the last
+     * row of the previous page by the fetcher, until a page is not full
+     */
+    public MysqlEntryIterator(Query query,
+           BiFunction<BackendEntry, BackendEntry, BackendEntry> merger,
+           PageFetcher fetcher, long pageSize) {
+        this(query, merger, null, fetcher, pageSize);
+        E.checkArgument(pageSize > 0L, "The page size must be > 0, but got %s",
+                        pageSize);
+    }
+
+    private MysqlEntryIterator(Query query,
+            BiFunction<BackendEntry, BackendEntry, BackendEntry> merger,
+            ResultSet rs, PageFetcher fetcher, long pageSize) {
         super(query);
-        this.results = rs;
         this.merger = merger;
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+        this.results = rs;
+        this.pageLimit = 0L;
+        this.pageRows = 0L;
+        this.rows = 0L;
         this.next = null;
         this.last = null;
     }
@@ -63,7 +92,7 @@ public class MysqlEntryIterator extends BackendEntryIterator {
         }
 
         try {
-            while (!this.results.isClosed() && this.results.next()) {
+            while (this.nextRow()) {
                 MysqlBackendEntry e = this.row2Entry(this.results);
                 this.last = e;
                 BackendEntry merged = this.merger.apply(this.current, e);
@@ -86,6 +115,38 @@ public class MysqlEntryIterator extends BackendEntryIterator {
         return this.current != null;
     }
 
+    private boolean nextRow() throws SQLException {
+        while (true) {
+            if (this.results != null) {
+                if (this.results.isClosed()) {
+                    return false;
+                }
+                if (this.results.next()) {
+                    this.pageRows++;
+                    this.rows++;
+                    return true;
+                }
+                if (this.fetcher == null || this.pageRows < this.pageLimit) {
+                    // Reached the last page
+                    return false;
+                }
+                this.results.close();
+            }
+
+            long limit = this.pageSize;
+            if (this.query.limit() != Query.NO_LIMIT) {
+                limit = Math.min(limit, this.query.limit() - this.rows);
+            }
+            if (limit <= 0L) {
+                return false;
+            }
+            this.results = this.fetcher.fetch((MysqlBackendEntry) this.last,
+                                              limit);
+            this.pageLimit = limit;
+            this.pageRows = 0L;
+        }
+    }
+
     @Override
     protected String pageState() {
         if (this.last == null) {
@@ -136,7 +197,22 @@ public class MysqlEntryIterator extends BackendEntryIterator {
 
     @Override
     public void close() throws Exception {
-        this.results.close();
+        if (this.results != null) {
+            this.results.close();
+        }
+    }
+
+    public interface PageFetcher {
+
+        /**
+         * Fetch a page of at most `limit` rows after the last row
+         * @param last the last row of the previous page, null for first page
+         * @param limit the max number of rows of the page
+         * @return the rows of the page
+         * @throws SQLException if a database access error occurs
+         */
+        public ResultSet fetch(MysqlBackendEntry last, long limit)
+                               throws SQLException;
     }
 
     public static class PageState {
@@ -75,6 +75,11 @@ public class MysqlFeatures implements BackendFeatures {
         return true;
     }
 
+    @Override
+    public boolean supportsQueryInBatch() {
+        return false;
+    }
+
     @Override
     public boolean supportsDeleteEdgeByLabel() {
         return true;
@@ -105,4 +110,9 @@ public class MysqlFeatures implements BackendFeatures {
     public boolean supportsNumberType() {
         return true;
     }
+
+    @Override
+    public boolean supportsIndexBitmap() {
+        return false;
+    }
 }
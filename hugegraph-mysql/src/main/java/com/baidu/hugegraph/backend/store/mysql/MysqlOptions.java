@@ -24,6 +24,7 @@ import static com.baidu.hugegraph.config.OptionChecker.rangeInt;
 
 import com.baidu.hugegraph.config.ConfigOption;
 import com.baidu.hugegraph.config.OptionHolder;
+import com.baidu.hugegraph.util.Bytes;
 
 public class MysqlOptions extends OptionHolder {
 
@@ -89,4 +90,32 @@ public class MysqlOptions extends OptionHolder {
                     rangeInt(1, 10),
                     3
             );
+
+    public static final ConfigOption<Long> JDBC_BATCH_INSERT_BYTES =
+            new ConfigOption<>(
+                    "jdbc.batch_insert_bytes",
+                    "The max size in bytes of rows inserted by one " +
+                    "multi-row statement, it should be less than the " +
+                    "max_allowed_packet of the database server.",
+                    rangeInt(1024L, 64L * Bytes.MB),
+                    1L * Bytes.MB
+            );
+
+    public static final ConfigOption<Integer> JDBC_STATEMENT_CACHE_SIZE =
+            new ConfigOption<>(
+                    "jdbc.statement_cache_size",
+                    "The max number of prepared statements cached by each " +
+                    "connection, 0 means disable the cache.",
+                    rangeInt(0, 10000),
+                    250
+            );
+
+    public static final ConfigOption<Integer> JDBC_SCAN_PAGE_SIZE =
+            new ConfigOption<>(
+                    "jdbc.scan_page_size",
+                    "The number of rows fetched by each keyset page when " +
+                    "scanning a table in primary key order.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    10000
+            );
 }
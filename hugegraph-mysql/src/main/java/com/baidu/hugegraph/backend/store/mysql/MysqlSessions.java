@@ -25,8 +25,12 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 
 import org.apache.http.client.utils.URIBuilder;
@@ -44,16 +48,23 @@ public class MysqlSessions extends BackendSessionPool {
     private static final Logger LOG = Log.logger(MysqlStore.class);
 
     private static final int DROP_DB_TIMEOUT = 10000;
+    // The max number of placeholders in a prepared statement of MySQL
+    private static final int MAX_STATEMENT_PARAMS = 65535;
+    // Multi-row insert statements are much longer than the default limit
+    private static final int STATEMENT_CACHE_SQL_LIMIT = 1024 * 1024;
 
     private HugeConfig config;
     private String database;
     private boolean opened;
+    // The multi-row insert statements shared by sessions: template -> sql
+    private final Map<String, String> insertStatements;
 
     public MysqlSessions(HugeConfig config, String database, String store) {
         super(database + "/" + store);
         this.config = config;
         this.database = database;
         this.opened = false;
+        this.insertStatements = new ConcurrentHashMap<>();
     }
 
     public HugeConfig config() {
@@ -93,11 +104,18 @@ public class MysqlSessions extends BackendSessionPool {
 
         int maxTimes = this.config.get(MysqlOptions.JDBC_RECONNECT_MAX_TIMES);
         int interval = this.config.get(MysqlOptions.JDBC_RECONNECT_INTERVAL);
+        int cacheSize = this.config.get(MysqlOptions.JDBC_STATEMENT_CACHE_SIZE);
 
         URIBuilder uriBuilder = new URIBuilder();
         uriBuilder.setPath(url)
                   .setParameter("rewriteBatchedStatements", "true")
                   .setParameter("useServerPrepStmts", "false")
+                  .setParameter("cachePrepStmts",
+                                String.valueOf(cacheSize > 0))
+                  .setParameter("prepStmtCacheSize",
+                                String.valueOf(cacheSize))
+                  .setParameter("prepStmtCacheSqlLimit",
+                                String.valueOf(STATEMENT_CACHE_SQL_LIMIT))
                   .setParameter("autoReconnect", String.valueOf(autoReconnect))
                   .setParameter("maxReconnects", String.valueOf(maxTimes))
                   .setParameter("initialTimeout", String.valueOf(interval));
@@ -133,6 +151,43 @@ public class MysqlSessions extends BackendSessionPool {
         return (Session) super.getOrNewSession();
     }
 
+    /**
+     * Build the statement to insert `rows` rows with the template like
+     * "REPLACE INTO table (k1, k2) VALUES ", the statements are shared by
+     * all the sessions to avoid building them again and again
+     */
+    protected String insertStatement(String template, int columns,
+                                     int rows) {
+        String key = template + rows;
+        String sql = this.insertStatements.get(key);
+        if (sql != null) {
+            return sql;
+        }
+
+        StringBuilder row = new StringBuilder(columns * 3 + 2);
+        row.append("(");
+        for (int i = 0; i < columns; i++) {
+            row.append("?");
+            if (i != columns - 1) {
+                row.append(", ");
+            }
+        }
+        row.append(")");
+
+        StringBuilder insert = new StringBuilder(template.length() +
+                                                 rows * (row.length() + 2));
+        insert.append(template);
+        for (int i = 0; i < rows; i++) {
+            insert.append(row);
+            if (i != rows - 1) {
+                insert.append(", ");
+            }
+        }
+        sql = insert.toString();
+        this.insertStatements.putIfAbsent(key, sql);
+        return sql;
+    }
+
     public void checkSessionConnected() {
         Session session = this.session();
         E.checkState(session != null, "MySQL session has not been initialized");
@@ -212,14 +267,25 @@ public class MysqlSessions extends BackendSessionPool {
 
         private Connection conn;
         private Map<String, PreparedStatement> statements;
+        // The rows to be inserted by multi-row statements: template -> rows
+        private final Map<String, InsertBatch> inserts;
+        private final long insertBatchBytes;
+        private final int scanPageSize;
         private boolean opened;
         private int count;
+        private int inserted;
 
         public Session() {
             this.conn = null;
             this.statements = new HashMap<>();
+            this.inserts = new HashMap<>();
+            this.insertBatchBytes = MysqlSessions.this.config.get(
+                                    MysqlOptions.JDBC_BATCH_INSERT_BYTES);
+            this.scanPageSize = MysqlSessions.this.config.get(
+                                MysqlOptions.JDBC_SCAN_PAGE_SIZE);
             this.opened = false;
             this.count = 0;
+            this.inserted = 0;
             try {
                 this.open();
             } catch (SQLException ignored) {
@@ -272,6 +338,10 @@ public class MysqlSessions extends BackendSessionPool {
         @Override
         public void clear() {
             this.count = 0;
+            this.inserted = 0;
+            for (InsertBatch batch : this.inserts.values()) {
+                batch.clear();
+            }
             SQLException exception = null;
             for (PreparedStatement statement : this.statements.values()) {
                 try {
@@ -301,6 +371,10 @@ public class MysqlSessions extends BackendSessionPool {
         public Integer commit() {
             int updated = 0;
             try {
+                for (InsertBatch batch : this.inserts.values()) {
+                    this.flush(batch);
+                }
+                updated += this.inserted;
                 for (PreparedStatement statement : this.statements.values()) {
                     updated += IntStream.of(statement.executeBatch()).sum();
                 }
@@ -334,6 +408,10 @@ public class MysqlSessions extends BackendSessionPool {
             return this.count > 0;
         }
 
+        public int scanPageSize() {
+            return this.scanPageSize;
+        }
+
         public ResultSet select(String sql) throws SQLException {
             assert this.conn.getAutoCommit();
             return this.conn.createStatement().executeQuery(sql);
@@ -354,6 +432,55 @@ public class MysqlSessions extends BackendSessionPool {
             }
         }
 
+        /**
+         * Add a row to be inserted with the template like
+         * "REPLACE INTO table (k1, k2) VALUES ", the rows of the same
+         * template are inserted by multi-row statements once the buffered
+         * rows reach the byte budget, and the rest are inserted when commit
+         */
+        public void insert(String template, Collection<Object> row) {
+            InsertBatch batch = this.inserts.get(template);
+            if (batch == null) {
+                batch = new InsertBatch(template, row.size());
+                this.inserts.put(template, batch);
+            }
+            batch.add(row);
+            this.count++;
+            if (batch.bytes() >= this.insertBatchBytes || batch.full()) {
+                this.flush(batch);
+            }
+        }
+
+        private void flush(InsertBatch batch) {
+            int columns = batch.columns();
+            int offset = 0;
+            int rows = batch.rows();
+            while (rows > 0) {
+                /*
+                 * Split the rows into groups with power-of-two sizes, so that
+                 * only a few statements are prepared for each template and
+                 * they can be reused by the later batches
+                 */
+                int size = Integer.highestOneBit(rows);
+                String sql = MysqlSessions.this.insertStatement(
+                             batch.template(), columns, size);
+                try {
+                    PreparedStatement statement = this.prepareStatement(sql);
+                    for (int i = 0, n = size * columns; i < n; i++) {
+                        statement.setObject(i + 1, batch.value(offset + i));
+                    }
+                    this.inserted += statement.executeUpdate();
+                } catch (SQLException e) {
+                    throw new BackendException("Failed to insert %s rows " +
+                                               "with '%s'", e, size,
+                                               batch.template());
+                }
+                offset += size * columns;
+                rows -= size;
+            }
+            batch.clear();
+        }
+
         public PreparedStatement prepareStatement(String sqlTemplate)
                                                   throws SQLException {
             PreparedStatement statement = this.statements.get(sqlTemplate);
@@ -364,4 +491,72 @@ public class MysqlSessions extends BackendSessionPool {
             return statement;
         }
     }
+
+    private static final class InsertBatch {
+
+        private final String template;
+        private final int columns;
+        private final int maxRows;
+        private final List<Object> values;
+        private long bytes;
+
+        public InsertBatch(String template, int columns) {
+            E.checkArgument(columns > 0, "The columns of '%s' can't be empty",
+                            template);
+            this.template = template;
+            this.columns = columns;
+            this.maxRows = Math.max(1, MAX_STATEMENT_PARAMS / columns);
+            this.values = new ArrayList<>();
+            this.bytes = 0L;
+        }
+
+        public String template() {
+            return this.template;
+        }
+
+        public int columns() {
+            return this.columns;
+        }
+
+        public int rows() {
+            return this.values.size() / this.columns;
+        }
+
+        public long bytes() {
+            return this.bytes;
+        }
+
+        public boolean full() {
+            return this.rows() >= this.maxRows;
+        }
+
+        public Object value(int index) {
+            return this.values.get(index);
+        }
+
+        public void add(Collection<Object> row) {
+            E.checkArgument(row.size() == this.columns,
+                            "Expect %s columns for '%s', but got %s",
+                            this.columns, this.template, row.size());
+            for (Object value : row) {
+                this.values.add(value);
+                this.bytes += sizeOf(value);
+            }
+        }
+
+        public void clear() {
+            this.values.clear();
+            this.bytes = 0L;
+        }
+
+        private static long sizeOf(Object value) {
+            // The estimated size of value in the statement sent to server
+            if (value instanceof String) {
+                return ((String) value).length() + 2L;
+            } else if (value instanceof byte[]) {
+                return ((byte[]) value).length * 2L + 3L;
+            }
+            return 8L;
+        }
+    }
 }
@@ -23,6 +23,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +38,7 @@ import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendTable;
 import com.baidu.hugegraph.backend.store.TableDefine;
+import com.baidu.hugegraph.backend.store.mysql.MysqlEntryIterator.PageFetcher;
 import com.baidu.hugegraph.backend.store.mysql.MysqlEntryIterator.PageState;
 import com.baidu.hugegraph.backend.store.mysql.MysqlSessions.Session;
 import com.baidu.hugegraph.exception.NotFoundException;
@@ -50,6 +52,9 @@ public abstract class MysqlTable
 
     private static final Logger LOG = Log.logger(MysqlStore.class);
 
+    private static final String SELECT_ALL = "SELECT *";
+    private static final String SELECT_COUNT = "SELECT COUNT(*)";
+
     // The template for insert and delete statements
     private String insertTemplate;
     private String deleteTemplate;
@@ -143,6 +148,10 @@ public abstract class MysqlTable
         return ImmutableList.of(id.asObject());
     }
 
+    /**
+     * Build the insert template like "REPLACE INTO table (k1, k2) VALUES ",
+     * the rows are appended to it by the session to insert multi-rows
+     */
     protected String buildInsertTemplate(MysqlBackendEntry.Row entry) {
         if (this.insertTemplate != null) {
             return this.insertTemplate;
@@ -159,15 +168,7 @@ public abstract class MysqlTable
                 insert.append(", ");
             }
         }
-        insert.append(") VALUES (");
-        // Fill with '?'
-        for (i = 0; i < n; i++) {
-            insert.append("?");
-            if (i != n - 1) {
-                insert.append(", ");
-            }
-        }
-        insert.append(")");
+        insert.append(") VALUES ");
 
         this.insertTemplate = insert.toString();
         return this.insertTemplate;
@@ -196,20 +197,7 @@ public abstract class MysqlTable
     @Override
     public void insert(Session session, MysqlBackendEntry.Row entry) {
         String template = this.buildInsertTemplate(entry);
-
-        PreparedStatement insertStmt;
-        try {
-            // Create or get insert prepare statement
-            insertStmt = session.prepareStatement(template);
-            int i = 1;
-            for (Object object : entry.columns().values()) {
-                insertStmt.setObject(i++, object);
-            }
-        } catch (SQLException e) {
-            throw new BackendException("Failed to prepare statement '%s'" +
-                                       "for entry: %s", template, entry);
-        }
-        session.add(insertStmt);
+        session.insert(template, entry.columns().values());
     }
 
     @Override
@@ -267,6 +255,11 @@ public abstract class MysqlTable
         List<StringBuilder> selections = this.query2Select(this.table(), query);
         try {
             for (StringBuilder selection : selections) {
+                if (this.keysetScan(query)) {
+                    rs.extend(this.scanByKeyset(session, query,
+                                                selection.toString()));
+                    continue;
+                }
                 ResultSet results = session.select(selection.toString());
                 rs.extend(this.results2Entries(query, results));
             }
@@ -278,10 +271,32 @@ public abstract class MysqlTable
         return rs;
     }
 
+    @Override
+    public long queryNumber(Session session, Query query) {
+        List<StringBuilder> selections = this.query2Select(this.table(), query);
+        long count = 0L;
+        try {
+            for (StringBuilder selection : selections) {
+                // Count by the server rather than returning the rows
+                selection.replace(0, SELECT_ALL.length(), SELECT_COUNT);
+                try (ResultSet results = session.select(selection.toString())) {
+                    if (results.next()) {
+                        count += results.getLong(1);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new BackendException("Failed to query number [%s]",
+                                       e, query);
+        }
+        LOG.debug("Return {} for query number {}", count, query);
+        return count;
+    }
+
     protected List<StringBuilder> query2Select(String table, Query query) {
         // Set table
         StringBuilder select = new StringBuilder(64);
-        select.append("SELECT * FROM ").append(table);
+        select.append(SELECT_ALL).append(" FROM ").append(table);
 
         // Is query by id?
         List<StringBuilder> ids = this.queryId2Select(query, select);
@@ -307,6 +322,9 @@ public abstract class MysqlTable
             }
             if (query.paging()) {
                 this.wrapPage(selection, query);
+            } else if (this.keysetScan(query)) {
+                // The offset and limit are applied by the keyset scan
+                continue;
             } else if (query.limit() != Query.NO_LIMIT || query.offset() > 0) {
                 this.wrapOffset(selection, query);
             }
@@ -493,11 +511,11 @@ public abstract class MysqlTable
                 values.add(columns.get(key));
             }
 
-            // Need add `where` to `select` when query is IdQuery
-            boolean startWithWhere = query.conditions().isEmpty();
-            WhereBuilder where = new WhereBuilder(startWithWhere);
-            where.gte(formatKeys(idColumnNames), values);
-            select.append(where.build());
+            this.wrapKeyset(select, hasWhere(query), values, true);
+        }
+        if (query.orders().isEmpty()) {
+            // The page state is the key of the next row in key order
+            this.wrapKeyOrder(select);
         }
 
         assert query.limit() != Query.NO_LIMIT;
@@ -518,6 +536,104 @@ public abstract class MysqlTable
         select.append(";");
     }
 
+    /**
+     * Whether to scan in primary key order page by page with the keyset
+     * predicates instead of the "limit/offset" clause, which is much faster
+     * for deep offsets and doesn't hold all the rows of a big table
+     */
+    protected boolean keysetScan(Query query) {
+        return !query.paging() && query.ids().isEmpty() &&
+               query.orders().isEmpty();
+    }
+
+    protected Iterator<BackendEntry> scanByKeyset(Session session, Query query,
+                                                  String select)
+                                                  throws SQLException {
+        boolean hasWhere = hasWhere(query);
+        List<HugeKeys> idNames = this.idColumnName();
+
+        List<Object> start = null;
+        if (query.offset() > 0L) {
+            start = this.seekOffset(session, select, query.offset());
+            if (start == null) {
+                // The offset exceeds the number of rows
+                return Collections.emptyIterator();
+            }
+        }
+        final List<Object> first = start;
+
+        PageFetcher fetcher = (last, limit) -> {
+            StringBuilder page = new StringBuilder(select);
+            if (last == null) {
+                if (first != null) {
+                    this.wrapKeyset(page, hasWhere, first, true);
+                }
+            } else {
+                List<Object> values = new ArrayList<>(idNames.size());
+                for (HugeKeys key : idNames) {
+                    values.add(last.column(key));
+                }
+                this.wrapKeyset(page, hasWhere, values, false);
+            }
+            this.wrapKeyOrder(page);
+            page.append(" limit ").append(limit).append(";");
+            return session.select(page.toString());
+        };
+        return new MysqlEntryIterator(query, this::mergeEntries, fetcher,
+                                      session.scanPageSize());
+    }
+
+    /**
+     * Get the key of the row at the offset, only the key columns are read
+     * to skip the rows before the offset
+     */
+    protected List<Object> seekOffset(Session session, String select,
+                                      long offset) throws SQLException {
+        assert select.startsWith(SELECT_ALL) : select;
+        List<String> keys = formatKeys(this.idColumnName());
+
+        StringBuilder seek = new StringBuilder(select.length() + 32);
+        seek.append("SELECT ").append(String.join(", ", keys));
+        seek.append(select, SELECT_ALL.length(), select.length());
+        this.wrapKeyOrder(seek);
+        seek.append(" limit 1 offset ").append(offset).append(";");
+
+        try (ResultSet result = session.select(seek.toString())) {
+            if (!result.next()) {
+                return null;
+            }
+            List<Object> values = new ArrayList<>(keys.size());
+            for (int i = 1; i <= keys.size(); i++) {
+                values.add(result.getObject(i));
+            }
+            return values;
+        }
+    }
+
+    protected void wrapKeyset(StringBuilder select, boolean hasWhere,
+                              List<Object> values, boolean inclusive) {
+        if (hasWhere) {
+            select.append(" AND");
+        }
+        WhereBuilder where = new WhereBuilder(!hasWhere);
+        List<String> keys = formatKeys(this.idColumnName());
+        if (inclusive) {
+            where.gte(keys, values);
+        } else {
+            where.gt(keys, values);
+        }
+        select.append(where.build());
+    }
+
+    protected void wrapKeyOrder(StringBuilder select) {
+        select.append(" ORDER BY ");
+        select.append(String.join(", ", formatKeys(this.idColumnName())));
+    }
+
+    private static boolean hasWhere(Query query) {
+        return !query.ids().isEmpty() || !query.conditions().isEmpty();
+    }
+
     private static Object serializeValue(Object value) {
         if (value instanceof Id) {
             value = ((Id) value).asObject();
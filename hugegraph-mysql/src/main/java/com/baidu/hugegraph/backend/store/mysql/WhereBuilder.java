@@ -181,35 +181,61 @@ public class WhereBuilder {
     }
 
     /**
-     * Concat as: (key1, key2...keyn) {@code >=} (val1, val2...valn)
+     * Concat as: (key1, key2...keyn) {@code >=} (val1, val2...valn), which
+     * is expanded to the form that can be served by a range scan of index:
+     * key1 {@code >=} val1 AND (key1 {@code >} val1 OR (key2 {@code >=}
+     * val2 AND (...)))
      * @param keys the keys to be concatted with {@code >=} operator
      * @param values the values to be concatted with {@code >=} operator
      */
     public void gte(List<String> keys, List<Object> values) {
+        this.seek(keys, values, true);
+    }
+
+    /**
+     * Concat as: (key1, key2...keyn) {@code >} (val1, val2...valn), which
+     * is expanded like {@link #gte(List, List)}
+     * @param keys the keys to be concatted with {@code >} operator
+     * @param values the values to be concatted with {@code >} operator
+     */
+    public void gt(List<String> keys, List<Object> values) {
+        this.seek(keys, values, false);
+    }
+
+    private void seek(List<String> keys, List<Object> values,
+                      boolean inclusive) {
         E.checkArgument(keys.size() == values.size(),
                         "The size of keys '%s' is not equal with " +
                         "values size '%s'",
                         keys.size(), values.size());
-        this.builder.append("(");
-        for (int i = 0, n = keys.size(); i < n; i++) {
-            this.builder.append(keys.get(i));
-            if (i != n - 1) {
-                this.builder.append(", ");
-            }
+        E.checkArgument(!keys.isEmpty(), "The keys can't be empty");
+
+        int n = keys.size();
+        if (n == 1) {
+            this.builder.append("(");
         }
-        this.builder.append(") >= (");
-        for (int i = 0, n = values.size(); i < n; i++) {
+        for (int i = 0; i < n; i++) {
+            String key = keys.get(i);
             Object value = values.get(i);
             if (value instanceof String) {
-                this.builder.append(MysqlUtil.escapeString((String) value));
-            } else {
-                this.builder.append(value);
+                value = MysqlUtil.escapeString((String) value);
             }
-            if (i != n - 1) {
-                this.builder.append(", ");
+            if (i == n - 1) {
+                // The last key decides whether the start row is included
+                this.builder.append(key).append(inclusive ? " >= " : " > ")
+                            .append(value);
+                break;
             }
+            this.builder.append("(").append(key).append(" >= ").append(value)
+                        .append(" AND (").append(key).append(" > ")
+                        .append(value).append(" OR ");
+        }
+        for (int i = 0; i < n - 1; i++) {
+            this.builder.append("))");
+        }
+        if (n == 1) {
+            this.builder.append(")");
         }
-        this.builder.append(")");
     }
 
     public String build() {
@@ -79,6 +79,11 @@ public class PaloFeatures implements BackendFeatures {
         return true;
     }
 
+    @Override
+    public boolean supportsQueryInBatch() {
+        return false;
+    }
+
     @Override
     public boolean supportsDeleteEdgeByLabel() {
         return true;
@@ -108,4 +113,9 @@ public class PaloFeatures implements BackendFeatures {
     public boolean supportsNumberType() {
         return true;
     }
+
+    @Override
+    public boolean supportsIndexBitmap() {
+        return false;
+    }
 }
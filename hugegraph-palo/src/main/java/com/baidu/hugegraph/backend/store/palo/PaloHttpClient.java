@@ -25,12 +25,20 @@ import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 
+import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.rest.RestClient;
+import com.baidu.hugegraph.rest.RestResult;
+import com.baidu.hugegraph.util.JsonUtil;
 import com.google.common.collect.ImmutableMap;
 
 public class PaloHttpClient {
 
+    private static final String STREAM_LOAD = "_stream_load";
+    private static final String STATUS_SUCCESS = "Success";
+    // The rows are committed and will be visible later
+    private static final String STATUS_PUBLISH_TIMEOUT = "Publish Timeout";
+
     private final RestClient client;
 
     public PaloHttpClient(HugeConfig config, String database) {
@@ -60,6 +68,34 @@ public class PaloHttpClient {
         this.client.put(path, body, headers, params);
     }
 
+    /**
+     * Load the rows into the table by a stream load, which returns after
+     * the rows are loaded
+     * @param body the rows separated by line separator, which is gzip
+     *             compressed if `compressed` is true
+     */
+    public void streamLoad(String table, byte[] body, String label,
+                           boolean compressed) {
+        // Format headers
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        headers.putSingle("Expect", "100-continue");
+        headers.putSingle("label", label);
+        if (compressed) {
+            headers.putSingle("compress_type", "gz");
+        }
+        // Send request to path '{table}/_stream_load'
+        RestResult result = this.client.put(table, STREAM_LOAD, body, headers);
+        Map<?, ?> response = JsonUtil.fromJson(result.content(), Map.class);
+        Object status = response.get("Status");
+        if (!STATUS_SUCCESS.equals(status) &&
+            !STATUS_PUBLISH_TIMEOUT.equals(status)) {
+            throw new BackendException("Failed to stream load '%s' with " +
+                                       "label '%s', status: %s, message: %s",
+                                       table, label, status,
+                                       response.get("Message"));
+        }
+    }
+
     private static class Client extends RestClient {
 
         private static final int SECOND = 1000;
@@ -107,4 +107,47 @@ public class PaloOptions extends OptionHolder {
                     rangeInt(10, 1000),
                     50
             );
+
+    public static final ConfigOption<Integer> PALO_STREAM_LOAD_BUFFER_SIZE =
+            new ConfigOption<>(
+                    "palo.stream_load_buffer_size",
+                    "The maximum size(MB) of rows buffered in memory and " +
+                    "being loaded by stream loads, the rows of a table " +
+                    "are written into files when it's exceeded or a load " +
+                    "failed, until the files of the table are loaded. " +
+                    "Note that the rows buffered in memory are lost if " +
+                    "the server crashes, 0 means always loading rows " +
+                    "from files.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    256
+            );
+
+    public static final ConfigOption<Integer> PALO_STREAM_LOAD_BATCH_SIZE =
+            new ConfigOption<>(
+                    "palo.stream_load_batch_size",
+                    "The size(MB) of rows of a table to be sent in a " +
+                    "stream load, the buffered rows are also sent every " +
+                    "poll interval.",
+                    rangeInt(1, 1000),
+                    16
+            );
+
+    public static final ConfigOption<Integer> PALO_STREAM_LOAD_THREADS =
+            new ConfigOption<>(
+                    "palo.stream_load_threads",
+                    "The max number of stream loads in flight, at most " +
+                    "one load of each table is in flight.",
+                    rangeInt(1, 64),
+                    4
+            );
+
+    public static final ConfigOption<Boolean> PALO_STREAM_LOAD_COMPRESS =
+            new ConfigOption<>(
+                    "palo.stream_load_compress",
+                    "Whether to compress the rows of stream loads by gzip, " +
+                    "which requires Palo supports the 'compress_type' " +
+                    "header.",
+                    disallowEmpty(),
+                    false
+            );
 }
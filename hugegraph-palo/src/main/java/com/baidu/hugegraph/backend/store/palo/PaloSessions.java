@@ -19,10 +19,12 @@
 
 package com.baidu.hugegraph.backend.store.palo;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.DateFormat;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -43,6 +45,8 @@ import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.store.mysql.MysqlSessions;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.date.SafeDateFormat;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.baidu.hugegraph.util.Log;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
@@ -56,6 +60,10 @@ public class PaloSessions extends MysqlSessions {
 
     private final Timer timer;
     private final PaloLoadTask loadTask;
+    private final PaloStreamLoader streamLoader;
+    // The session id of the files spilled by the stream loader
+    private final int spillId;
+    private final Map<String, Integer> spillParts;
 
     public PaloSessions(HugeConfig config, String database, String store,
                         List<String> tableDirs) {
@@ -65,6 +73,30 @@ public class PaloSessions extends MysqlSessions {
         // Scan disk files and restore session information
         this.restoreSessionInfo(config, tableDirs);
 
+        this.spillId = this.counter.incrementAndGet();
+        this.locks.put(this.spillId, new ReentrantReadWriteLock());
+        this.spillParts = new HashMap<>();
+        long bufferSize = config.get(
+                          PaloOptions.PALO_STREAM_LOAD_BUFFER_SIZE);
+        if (bufferSize > 0L) {
+            long batchSize = config.get(
+                             PaloOptions.PALO_STREAM_LOAD_BATCH_SIZE);
+            this.streamLoader = new PaloStreamLoader(
+                    new PaloHttpClient(config, database),
+                    Math.min(batchSize, bufferSize) * Bytes.MB,
+                    bufferSize * Bytes.MB,
+                    config.get(PaloOptions.PALO_STREAM_LOAD_THREADS),
+                    config.get(PaloOptions.PALO_STREAM_LOAD_COMPRESS),
+                    this::spill);
+            // Load the rows of tables with files from files until loaded
+            String path = config.get(PaloOptions.PALO_TEMP_DIR);
+            for (PaloFile file : PaloFile.scan(path, tableDirs)) {
+                this.streamLoader.suspend(file.table());
+            }
+        } else {
+            this.streamLoader = null;
+        }
+
         this.timer = new Timer();
         long interval = config.get(PaloOptions.PALO_POLL_INTERVAL);
         this.loadTask = new PaloLoadTask(tableDirs);
@@ -106,8 +138,62 @@ public class PaloSessions extends MysqlSessions {
         return (Session) super.getOrNewSession();
     }
 
+    /**
+     * Write the rows spilled by the stream loader into files of the spill
+     * session, which are loaded in order by the load task
+     */
+    private void spill(String table, List<String> rows) {
+        Lock lock = this.locks.get(this.spillId).writeLock();
+        lock.lock();
+        try {
+            synchronized (this.spillParts) {
+                this.spillParts.putIfAbsent(table, 0);
+                PaloFile file = this.tableFile(table, this.spillId,
+                                               this.spillParts);
+                file.writeLines(rows);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the file to write rows of the table for the session, increase
+     * the part number when the size of current file exceeds limit size
+     */
+    private PaloFile tableFile(String table, int sessionId,
+                               Map<String, Integer> parts) {
+        String tempDir = this.config().get(PaloOptions.PALO_TEMP_DIR);
+        long limitSize = PaloFile.limitSize(this.config());
+
+        // The table data path: 'palo-data/property_keys'
+        String path = Paths.get(tempDir, table).toString();
+        int part = parts.get(table);
+        // The full file name: 'palo-data/property_keys/session1-part0'
+        PaloFile file = new PaloFile(path, sessionId, part);
+        // Increase part number when file size exceed limit size
+        if (file.length() >= limitSize) {
+            parts.put(table, ++part);
+            file = new PaloFile(path, sessionId, part);
+        }
+        return file;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+        if (this.streamLoader != null) {
+            metrics.putAll(this.streamLoader.metrics());
+        }
+        metrics.put("pending_files", this.loadTask.pendingFiles());
+        return metrics;
+    }
+
     @Override
     public void close() {
+        if (this.streamLoader != null) {
+            // Complete the stream loads before loading the spilled files
+            this.streamLoader.close();
+        }
         if (this.loadTask != null) {
             this.loadTask.join();
         }
@@ -168,11 +254,19 @@ public class PaloSessions extends MysqlSessions {
 
         private int writeBatch() {
             int updated = 0;
+            PaloStreamLoader loader = PaloSessions.this.streamLoader;
             PaloSessions.this.locks.get(this.id).writeLock().lock();
             try {
                 for (String table : this.batch.keySet()) {
-                    PaloFile file = this.getOrCreate(table);
-                    updated += file.writeLines(this.batch.get(table));
+                    Collection<String> rows = this.batch.get(table);
+                    if (loader != null) {
+                        // The loader spills the rows to files by itself
+                        loader.add(table, rows);
+                        updated += rows.size();
+                        continue;
+                    }
+                    PaloFile file = tableFile(table, this.id, this.parts);
+                    updated += file.writeLines(rows);
                 }
             } finally {
                 PaloSessions.this.locks.get(this.id).writeLock().unlock();
@@ -180,21 +274,8 @@ public class PaloSessions extends MysqlSessions {
             return updated;
         }
 
-        private PaloFile getOrCreate(String table) {
-            String tempDir = config().get(PaloOptions.PALO_TEMP_DIR);
-            long limitSize = PaloFile.limitSize(config());
-
-            // The table data path: 'palo-data/property_keys'
-            String path = Paths.get(tempDir, table).toString();
-            int part = this.parts.get(table);
-            // The full file name: 'palo-data/property_keys/session1-part0'
-            PaloFile file = new PaloFile(path, this.id, part);
-            // Increase part number when file size exceed limit size
-            if (file.length() >= limitSize) {
-                this.parts.put(table, ++part);
-                file = new PaloFile(path, this.id, part);
-            }
-            return file;
+        public Map<String, Object> metrics() {
+            return PaloSessions.this.metrics();
         }
 
         @SuppressWarnings("unused")
@@ -263,9 +344,18 @@ public class PaloSessions extends MysqlSessions {
             }
         }
 
+        public int pendingFiles() {
+            List<PaloFile> files = this.lastPaloFiles;
+            return files == null ? 0 : files.size();
+        }
+
         @Override
         public void run() {
             LOG.debug("The Load task:{} ready to run", PaloSessions.this);
+            if (PaloSessions.this.streamLoader != null) {
+                // Send (or spill) the rows buffered for a while
+                PaloSessions.this.streamLoader.flush();
+            }
             // Scan the directory to get all file size
             String path = config().get(PaloOptions.PALO_TEMP_DIR);
             List<PaloFile> paloFiles = PaloFile.scan(path, this.tableDirs);
@@ -284,8 +374,15 @@ public class PaloSessions extends MysqlSessions {
         private void tryLoadBatch(List<PaloFile> files) {
             PaloFile file = this.peekFile(files);
             // Load the first file when stopped inserting data
-            this.loadThenDelete(file);
+            try {
+                this.loadThenDelete(file);
+            } catch (Throwable e) {
+                // Keep the file to be loaded next time, and keep the timer
+                LOG.error("Failed to load file: {}", file, e);
+                return;
+            }
             files.remove(file);
+            this.resumeStreamLoad(file.table());
         }
 
         private PaloFile peekFile(List<PaloFile> files) {
@@ -310,10 +407,20 @@ public class PaloSessions extends MysqlSessions {
             Lock lock = PaloSessions.this.locks.get(sessionId).writeLock();
             lock.lock();
             try {
-                String table = file.table();;
+                String table = file.table();
                 String data = file.readAsString();
                 String label = this.formatLabel(table);
-                this.client.bulkLoadAsync(table, data, label);
+                if (PaloSessions.this.streamLoader != null) {
+                    /*
+                     * Wait for the rows loaded before deleting the file,
+                     * the later rows of the table are stream loaded once
+                     * all the files of the table are loaded
+                     */
+                    byte[] body = data.getBytes(StandardCharsets.UTF_8);
+                    this.client.streamLoad(table, body, label, false);
+                } else {
+                    this.client.bulkLoadAsync(table, data, label);
+                }
                 // Force delete file
                 file.forceDelete();
             } finally {
@@ -321,6 +428,26 @@ public class PaloSessions extends MysqlSessions {
             }
         }
 
+        /**
+         * Load the later rows of the table from memory again if there is no
+         * file of the table, must be called without the lock of files
+         */
+        private void resumeStreamLoad(String table) {
+            PaloStreamLoader loader = PaloSessions.this.streamLoader;
+            if (loader == null) {
+                return;
+            }
+            String path = config().get(PaloOptions.PALO_TEMP_DIR);
+            loader.resume(table, () -> {
+                for (PaloFile file : PaloFile.scan(path, this.tableDirs)) {
+                    if (file.table().equals(table)) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+        }
+
         private String formatLabel(String table) {
             return table + "-" + this.DATE_FORMAT.format(new Date());
         }
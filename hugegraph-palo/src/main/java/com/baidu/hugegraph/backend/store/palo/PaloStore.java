@@ -37,6 +37,14 @@ public abstract class PaloStore extends MysqlStore {
     public PaloStore(BackendStoreProvider provider,
                      String database, String name) {
         super(provider, database, name);
+        this.registerMetaHandlers();
+    }
+
+    private void registerMetaHandlers() {
+        this.registerMetaHandler("metrics", (session, meta, args) -> {
+            assert session instanceof PaloSessions.Session;
+            return ((PaloSessions.Session) session).metrics();
+        });
     }
 
     @Override
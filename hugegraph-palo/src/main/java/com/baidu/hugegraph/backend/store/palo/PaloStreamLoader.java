@@ -0,0 +1,475 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.palo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.date.SafeDateFormat;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Load the rows into Palo by stream load requests directly from memory:
+ * the rows are buffered for each table, and sent in a stream load once
+ * the buffer of a table reaches the batch size (or it's flushed). The loads
+ * of different tables are in flight at the same time, while at most one
+ * load of a table is in flight and its batches are loaded in order, so that
+ * the later rows of a key are never replaced by the earlier ones.
+ *
+ * The rows of a table are spilled into the PaloFile when the buffered and
+ * loading rows exceed the buffer size (the loader falls behind), or when a
+ * load of the table fails. Once a table is spilled, its buffered rows and
+ * all the later rows are also spilled in order, until the files of the
+ * table are loaded and the table is resumed, so that the rows loaded from
+ * files never replace the later rows loaded from memory.
+ *
+ * NOTE: the rows buffered in memory are lost if the process crashes before
+ * they are loaded, unlike the rows written into files.
+ */
+public class PaloStreamLoader {
+
+    private static final Logger LOG = Log.logger(PaloStreamLoader.class);
+
+    private static final String DF = "yyyy-MM-dd-HH-mm-ss";
+    private static final long CLOSE_TIMEOUT = 60L;
+
+    private final DateFormat dateFormat = new SafeDateFormat(DF);
+
+    private final PaloHttpClient client;
+    private final long batchSize;
+    private final long bufferSize;
+    private final boolean compress;
+    private final BiConsumer<String, List<String>> spiller;
+    private final ExecutorService executor;
+
+    private final Map<String, TableBuffer> buffers;
+    private final long startTime;
+    private final AtomicLong labelCounter;
+
+    // The size of rows buffered or being loaded
+    private final AtomicLong pendingBytes;
+    private final AtomicLong loadingCount;
+    private final AtomicLong loadedCount;
+    private final AtomicLong loadedRows;
+    private final AtomicLong loadedBytes;
+    private final AtomicLong loadTime;
+    private final AtomicLong failedCount;
+    private final AtomicLong spilledRows;
+
+    private volatile boolean closed;
+
+    public PaloStreamLoader(PaloHttpClient client, long batchSize,
+                            long bufferSize, int threads, boolean compress,
+                            BiConsumer<String, List<String>> spiller) {
+        E.checkArgument(batchSize > 0L && batchSize <= bufferSize,
+                        "The batch size of stream load must be in (0, %s], " +
+                        "but got %s", bufferSize, batchSize);
+        this.client = client;
+        this.batchSize = batchSize;
+        this.bufferSize = bufferSize;
+        this.compress = compress;
+        this.spiller = spiller;
+        this.executor = ExecutorUtil.newFixedThreadPool(threads,
+                                                        "palo-load-%d");
+
+        this.buffers = new ConcurrentHashMap<>();
+        this.startTime = System.currentTimeMillis();
+        this.labelCounter = new AtomicLong();
+
+        this.pendingBytes = new AtomicLong();
+        this.loadingCount = new AtomicLong();
+        this.loadedCount = new AtomicLong();
+        this.loadedRows = new AtomicLong();
+        this.loadedBytes = new AtomicLong();
+        this.loadTime = new AtomicLong();
+        this.failedCount = new AtomicLong();
+        this.spilledRows = new AtomicLong();
+        this.closed = false;
+    }
+
+    /**
+     * Add the rows of a table to be loaded
+     * @return false if the rows are spilled into files since the loader
+     *         falls behind or the table is spilled
+     */
+    public boolean add(String table, Collection<String> rows) {
+        long size = sizeOf(rows);
+        TableBuffer buffer = this.buffers.computeIfAbsent(table,
+                                                          TableBuffer::new);
+        TableBuffer.Batch batch = null;
+        synchronized (buffer) {
+            if (!buffer.spilled && (this.closed ||
+                this.pendingBytes.get() + size > this.bufferSize)) {
+                buffer.spilled = true;
+            }
+            if (buffer.spilled) {
+                this.spillInOrder(buffer, rows);
+                return false;
+            }
+            this.pendingBytes.addAndGet(size);
+            buffer.add(rows, size);
+            if (buffer.size >= this.batchSize) {
+                batch = this.schedule(buffer, buffer.drain());
+            }
+        }
+        if (batch != null) {
+            this.load(buffer, batch);
+        }
+        return true;
+    }
+
+    /**
+     * Send the buffered rows of all tables to be loaded, or spill them if
+     * the table is spilled
+     */
+    public void flush() {
+        for (TableBuffer buffer : this.buffers.values()) {
+            try {
+                TableBuffer.Batch batch;
+                synchronized (buffer) {
+                    if (buffer.spilled) {
+                        this.spillInOrder(buffer, null);
+                        continue;
+                    }
+                    batch = this.schedule(buffer, buffer.drain());
+                }
+                if (batch != null) {
+                    this.load(buffer, batch);
+                }
+            } catch (Throwable e) {
+                // The rows are kept in memory and spilled by the next flush
+                LOG.error("Failed to flush the rows of table '{}'",
+                          buffer.table, e);
+            }
+        }
+    }
+
+    /**
+     * Spill the rows of a table, such as the table has files not loaded
+     * when starting, until the table is resumed
+     */
+    public void suspend(String table) {
+        TableBuffer buffer = this.buffers.computeIfAbsent(table,
+                                                          TableBuffer::new);
+        synchronized (buffer) {
+            buffer.spilled = true;
+            this.spillInOrder(buffer, null);
+        }
+    }
+
+    /**
+     * Load the later rows of a spilled table from memory again if all the
+     * files of the table are loaded
+     * @param loaded check whether all the files of the table are loaded,
+     *               it's called while no row of the table is spilled or
+     *               waiting to be spilled
+     */
+    public void resume(String table, BooleanSupplier loaded) {
+        TableBuffer buffer = this.buffers.get(table);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            if (buffer.spilled && !buffer.loading && !this.closed &&
+                buffer.batches.isEmpty() && loaded.getAsBoolean()) {
+                buffer.spilled = false;
+                LOG.info("Resume stream loads of table '{}'", table);
+            }
+        }
+    }
+
+    /**
+     * Flush the buffered rows and wait for the loads to complete, the rows
+     * failed to load are spilled
+     */
+    public void close() {
+        this.closed = true;
+        this.flush();
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(CLOSE_TIMEOUT,
+                                                TimeUnit.SECONDS)) {
+                LOG.warn("The stream loads are not completed in {}s",
+                         CLOSE_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            throw new BackendException("Interrupted while waiting for " +
+                                       "stream loads", e);
+        }
+        // Spill the rows failed to load by the loads in flight when closing
+        this.flush();
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+        long loadedRows = this.loadedRows.get();
+        long seconds = Math.max(1L, (System.currentTimeMillis() -
+                                     this.startTime) / 1000L);
+        long loads = this.loadedCount.get();
+        metrics.put("loaded_rows", loadedRows);
+        metrics.put("loaded_bytes", this.loadedBytes.get());
+        metrics.put("loaded_rows_per_second", loadedRows / seconds);
+        metrics.put("loads", loads);
+        metrics.put("avg_load_time_ms",
+                    loads == 0L ? 0L : this.loadTime.get() / loads);
+        metrics.put("failed_loads", this.failedCount.get());
+        metrics.put("inflight_loads", this.loadingCount.get());
+        metrics.put("pending_bytes", this.pendingBytes.get());
+        metrics.put("spilled_rows", this.spilledRows.get());
+        return metrics;
+    }
+
+    /**
+     * Schedule a batch of the table, it's queued if a load of the table is
+     * in flight, must be called with the lock of buffer
+     * @return the batch to be loaded now, or null if it's queued
+     */
+    private TableBuffer.Batch schedule(TableBuffer buffer,
+                                       TableBuffer.Batch batch) {
+        assert Thread.holdsLock(buffer);
+        if (batch == null || buffer.loading) {
+            if (batch != null) {
+                // Loaded by the in-flight load of the table after it's done
+                buffer.batches.add(batch);
+            }
+            return null;
+        }
+        buffer.loading = true;
+        return batch;
+    }
+
+    private void load(TableBuffer buffer, TableBuffer.Batch batch) {
+        this.loadingCount.incrementAndGet();
+        try {
+            this.executor.submit(() -> {
+                try {
+                    this.loadInOrder(buffer, batch);
+                } finally {
+                    this.loadingCount.decrementAndGet();
+                }
+            });
+        } catch (Throwable e) {
+            // The executor has been shut down
+            this.loadingCount.decrementAndGet();
+            synchronized (buffer) {
+                buffer.batches.addFirst(batch);
+                buffer.loading = false;
+                buffer.spilled = true;
+                this.spillInOrder(buffer, null);
+            }
+        }
+    }
+
+    private void loadInOrder(TableBuffer buffer, TableBuffer.Batch batch) {
+        while (batch != null) {
+            boolean loaded = this.doLoad(batch);
+            synchronized (buffer) {
+                if (loaded) {
+                    this.pendingBytes.addAndGet(-batch.size);
+                } else {
+                    // The failed rows and the later ones are spilled in order
+                    buffer.spilled = true;
+                    buffer.batches.addFirst(batch);
+                }
+                // Leave the batches of a spilled table to the writer or flush
+                batch = buffer.spilled ? null : buffer.batches.poll();
+                if (batch == null) {
+                    buffer.loading = false;
+                    buffer.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Spill the buffered rows of the table and then the rows in order, it
+     * waits for the in-flight load of the table since the rows of the load
+     * may fail and need to be spilled at first
+     */
+    private void spillInOrder(TableBuffer buffer, Collection<String> rows) {
+        assert Thread.holdsLock(buffer);
+        assert buffer.spilled;
+        try {
+            while (buffer.loading) {
+                buffer.wait();
+            }
+        } catch (InterruptedException e) {
+            throw new BackendException("Interrupted while waiting for " +
+                                       "the stream load of table '%s'",
+                                       e, buffer.table);
+        }
+        this.spillBuffered(buffer);
+        if (rows != null && !rows.isEmpty()) {
+            List<String> list = rows instanceof List ?
+                                (List<String>) rows : new ArrayList<>(rows);
+            this.spill(buffer.table, list);
+        }
+    }
+
+    private void spillBuffered(TableBuffer buffer) {
+        TableBuffer.Batch last = buffer.drain();
+        if (last != null) {
+            buffer.batches.add(last);
+        }
+        TableBuffer.Batch batch;
+        while ((batch = buffer.batches.peek()) != null) {
+            this.spill(batch.table, batch.rows);
+            buffer.batches.poll();
+            this.pendingBytes.addAndGet(-batch.size);
+        }
+    }
+
+    /**
+     * Load a batch of rows
+     * @return false if failed to load
+     */
+    private boolean doLoad(TableBuffer.Batch batch) {
+        String label = this.formatLabel(batch.table);
+        long start = System.currentTimeMillis();
+        try {
+            byte[] body = this.encode(batch.rows);
+            this.client.streamLoad(batch.table, body, label, this.compress);
+        } catch (Throwable e) {
+            this.failedCount.incrementAndGet();
+            LOG.warn("Failed to stream load {} rows into table '{}', " +
+                     "spill them to file", batch.rows.size(), batch.table, e);
+            return false;
+        }
+        this.loadTime.addAndGet(System.currentTimeMillis() - start);
+        this.loadedCount.incrementAndGet();
+        this.loadedRows.addAndGet(batch.rows.size());
+        this.loadedBytes.addAndGet(batch.size);
+        LOG.debug("Loaded {} rows into table '{}' with label '{}'",
+                  batch.rows.size(), batch.table, label);
+        return true;
+    }
+
+    private void spill(String table, List<String> rows) {
+        this.spiller.accept(table, rows);
+        this.spilledRows.addAndGet(rows.size());
+    }
+
+    private byte[] encode(List<String> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (!this.compress) {
+            writeRows(bytes, rows);
+            return bytes.toByteArray();
+        }
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writeRows(gzip, rows);
+        }
+        return bytes.toByteArray();
+    }
+
+    private String formatLabel(String table) {
+        return String.format("%s-%s-%s", table,
+                             this.dateFormat.format(new Date()),
+                             this.labelCounter.incrementAndGet());
+    }
+
+    private static void writeRows(OutputStream out, List<String> rows)
+                                  throws IOException {
+        for (String row : rows) {
+            out.write(row.getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+        }
+    }
+
+    private static long sizeOf(Collection<String> rows) {
+        long size = 0L;
+        for (String row : rows) {
+            // Estimated size, one more byte for the line separator
+            size += row.length() + 1;
+        }
+        return size;
+    }
+
+    private static class TableBuffer {
+
+        private final String table;
+        private List<String> rows;
+        private long size;
+        // The drained batches waiting for the in-flight load of the table
+        private final Deque<Batch> batches;
+        private boolean loading;
+        // Whether the rows of the table are spilled until it's resumed
+        private boolean spilled;
+
+        public TableBuffer(String table) {
+            this.table = table;
+            this.rows = new ArrayList<>();
+            this.size = 0L;
+            this.batches = new ArrayDeque<>();
+            this.loading = false;
+            this.spilled = false;
+        }
+
+        public void add(Collection<String> rows, long size) {
+            this.rows.addAll(rows);
+            this.size += size;
+        }
+
+        public Batch drain() {
+            if (this.rows.isEmpty()) {
+                return null;
+            }
+            Batch batch = new Batch(this.table, this.rows, this.size);
+            this.rows = new ArrayList<>();
+            this.size = 0L;
+            return batch;
+        }
+
+        private static class Batch {
+
+            private final String table;
+            private final List<String> rows;
+            private final long size;
+
+            public Batch(String table, List<String> rows, long size) {
+                this.table = table;
+                this.rows = rows;
+                this.size = size;
+            }
+        }
+    }
+}
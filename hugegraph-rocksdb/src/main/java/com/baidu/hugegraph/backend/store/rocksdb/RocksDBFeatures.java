@@ -77,6 +77,11 @@ public class RocksDBFeatures implements BackendFeatures {
         return true;
     }
 
+    @Override
+    public boolean supportsQueryInBatch() {
+        return true;
+    }
+
     @Override
     public boolean supportsDeleteEdgeByLabel() {
         // No index in RocksDB
@@ -109,4 +114,9 @@ public class RocksDBFeatures implements BackendFeatures {
     public boolean supportsNumberType() {
         return false;
     }
+
+    @Override
+    public boolean supportsIndexBitmap() {
+        return true;
+    }
 }
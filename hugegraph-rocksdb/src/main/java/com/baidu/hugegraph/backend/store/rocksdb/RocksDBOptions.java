@@ -67,6 +67,32 @@ public class RocksDBOptions extends OptionHolder {
                     ImmutableList.of()
             );
 
+    public static final ConfigListOption<String> PARTITIONED_TABLES =
+            new ConfigListOption<>(
+                    "rocksdb.partitioned_tables",
+                    false,
+                    "The tables split into multi partitions by the hash of " +
+                    "owner vertex id, each partition is stored in a separate " +
+                    "RocksDB instance. The format of each element: " +
+                    "`STORE/TABLE: PARTITIONS`. Allowed keys are " +
+                    "[graph/vertex, graph/edge_out, graph/edge_in]",
+                    null,
+                    String.class,
+                    ImmutableList.of()
+            );
+
+    public static final ConfigListOption<String> PARTITION_DISKS =
+            new ConfigListOption<>(
+                    "rocksdb.partition_disks",
+                    false,
+                    "The disks for storing the partitions of partitioned " +
+                    "tables, the partitions are placed on the disks in turn, " +
+                    "and placed on the data path if it's empty.",
+                    null,
+                    String.class,
+                    ImmutableList.of()
+            );
+
     public static final ConfigOption<String> WAL_PATH =
             new ConfigOption<>(
                     "rocksdb.wal_path",
@@ -83,6 +109,34 @@ public class RocksDBOptions extends OptionHolder {
                     ""
             );
 
+    public static final ConfigOption<Long> SST_LOAD_BUFFER_SIZE =
+            new ConfigOption<>(
+                    "rocksdb.sst_load_buffer_size",
+                    "The size in bytes of records buffered in memory for " +
+                    "each table by the rocksdbsst backend, the records are " +
+                    "sorted and spilled to a run file when it's full.",
+                    rangeInt(Bytes.MB, Long.MAX_VALUE),
+                    64L * Bytes.MB
+            );
+
+    public static final ConfigOption<Integer> SST_LOAD_PARTITIONS =
+            new ConfigOption<>(
+                    "rocksdb.sst_load_partitions",
+                    "The max number of range-partitioned SST files generated " +
+                    "for each table by the rocksdbsst backend.",
+                    rangeInt(1, 1024),
+                    8
+            );
+
+    public static final ConfigOption<Integer> SST_LOAD_THREADS =
+            new ConfigOption<>(
+                    "rocksdb.sst_load_threads",
+                    "The number of threads used to merge the spilled runs " +
+                    "into SST files by the rocksdbsst backend.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    4
+            );
+
     // TODO: support ConfigOption<InfoLogLevel>
     public static final ConfigOption<String> LOG_LEVEL =
             new ConfigOption<>(
@@ -0,0 +1,379 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.rocksdb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * A session of a partitioned table, each partition of the table is stored in
+ * a separate RocksDB instance. The records are routed to partitions by the
+ * hash of the owner vertex id, which is the leading id of the keys of the
+ * vertex and edge tables, so all the records of a vertex are stored in the
+ * same partition and the prefix scans of a vertex are routed to a partition.
+ * The other scans are executed on all the partitions one by one.
+ * NOTE: the changes are kept in the sessions of partitions, which are
+ * committed by the store.
+ */
+public class RocksDBPartitionedSession extends Session {
+
+    private final List<Session> partitions;
+
+    public RocksDBPartitionedSession(List<Session> partitions) {
+        E.checkArgument(partitions.size() > 1,
+                        "The partitions of a table must be > 1, but got %s",
+                        partitions.size());
+        this.partitions = partitions;
+    }
+
+    public List<Session> partitions() {
+        return this.partitions;
+    }
+
+    @Override
+    public void close() {
+        // pass, the sessions of partitions are closed by their pools
+    }
+
+    @Override
+    public boolean closed() {
+        for (Session session : this.partitions) {
+            if (session.closed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        for (Session session : this.partitions) {
+            session.clear();
+        }
+    }
+
+    @Override
+    public Object commit() {
+        int count = 0;
+        for (Session session : this.partitions) {
+            count += (Integer) session.commit();
+        }
+        return count;
+    }
+
+    @Override
+    public boolean hasChanges() {
+        for (Session session : this.partitions) {
+            if (session.hasChanges()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String property(String property) {
+        long sum = 0L;
+        for (Session session : this.partitions) {
+            sum += Long.parseLong(session.property(property));
+        }
+        return String.valueOf(sum);
+    }
+
+    @Override
+    public String property(String table, String property) {
+        long sum = 0L;
+        for (Session session : this.partitions) {
+            sum += Long.parseLong(session.property(table, property));
+        }
+        return String.valueOf(sum);
+    }
+
+    @Override
+    public void put(String table, byte[] key, byte[] value) {
+        this.partition(key).put(table, key, value);
+    }
+
+    @Override
+    public void merge(String table, byte[] key, byte[] value) {
+        this.partition(key).merge(table, key, value);
+    }
+
+    @Override
+    public void increase(String table, byte[] key, byte[] value) {
+        this.partition(key).increase(table, key, value);
+    }
+
+    @Override
+    public void remove(String table, byte[] key) {
+        this.partition(key).remove(table, key);
+    }
+
+    @Override
+    public void delete(String table, byte[] keyFrom, byte[] keyTo) {
+        for (Session session : this.partitions) {
+            session.delete(table, keyFrom, keyTo);
+        }
+    }
+
+    @Override
+    public void delete(String table, byte[] key) {
+        int index = this.indexOf(key);
+        if (index >= 0) {
+            this.partitions.get(index).delete(table, key);
+        } else {
+            // The key is a prefix shorter than the owner vertex id
+            for (Session session : this.partitions) {
+                session.delete(table, key);
+            }
+        }
+    }
+
+    @Override
+    public byte[] get(String table, byte[] key) {
+        return this.partition(key).get(table, key);
+    }
+
+    @Override
+    public BackendColumnIterator scan(String table) {
+        return this.scanAll(0, session -> session.scan(table));
+    }
+
+    @Override
+    public BackendColumnIterator scan(String table, byte[] prefix) {
+        int index = this.indexOf(prefix);
+        if (index >= 0) {
+            return this.partitions.get(index).scan(table, prefix);
+        }
+        return this.scanAll(0, session -> session.scan(table, prefix));
+    }
+
+    @Override
+    public BackendColumnIterator scan(String table, byte[] keyFrom,
+                                      byte[] keyTo, int scanType) {
+        int index = keyFrom == null ? -1 : this.indexOf(keyFrom);
+        if (index >= 0 && keyTo != null && sameOwner(keyFrom, keyTo)) {
+            // All the keys in the range are with the same owner vertex
+            Session session = this.partitions.get(index);
+            return session.scan(table, keyFrom, keyTo, scanType);
+        }
+
+        if (index >= 0 && keyTo == null && scanType == SCAN_ANY) {
+            /*
+             * Continue to scan from the position of paging, the partitions
+             * are scanned in order, so the partitions before the one which
+             * the position belongs to have been scanned
+             */
+            Session first = this.partitions.get(index);
+            BackendColumnIterator rest = this.scanAll(index + 1, session -> {
+                return session.scan(table);
+            });
+            return new ConcatColumnIterator(first.scan(table, keyFrom, null,
+                                                       scanType), rest);
+        }
+
+        return this.scanAll(0, session -> {
+            return session.scan(table, keyFrom, keyTo, scanType);
+        });
+    }
+
+    @Override
+    public BackendColumnIterator scan(String table, List<byte[]> prefixes,
+                                      long limitPerPrefix) {
+        List<List<byte[]>> groups = new ArrayList<>(this.partitions.size());
+        for (int i = 0; i < this.partitions.size(); i++) {
+            groups.add(new ArrayList<>());
+        }
+        // The order of prefixes is kept in each partition
+        for (byte[] prefix : prefixes) {
+            int index = this.indexOf(prefix);
+            E.checkArgument(index >= 0,
+                            "Can't scan partitioned table '%s' by prefix " +
+                            "without a complete owner vertex id", table);
+            groups.get(index).add(prefix);
+        }
+
+        BackendColumnIterator results = BackendColumnIterator.empty();
+        for (int i = this.partitions.size() - 1; i >= 0; i--) {
+            List<byte[]> group = groups.get(i);
+            if (group.isEmpty()) {
+                continue;
+            }
+            Session session = this.partitions.get(i);
+            results = new ConcatColumnIterator(session.scan(table, group,
+                                                            limitPerPrefix),
+                                               results);
+        }
+        return results;
+    }
+
+    private Session partition(byte[] key) {
+        int index = this.indexOf(key);
+        E.checkArgument(index >= 0,
+                        "Invalid key of partitioned table, the key must " +
+                        "start with a complete owner vertex id");
+        return this.partitions.get(index);
+    }
+
+    /**
+     * Scan the partitions from the specified one in order lazily
+     */
+    private BackendColumnIterator scanAll(int from, Function<Session,
+                                          BackendColumnIterator> scan) {
+        BackendColumnIterator results = BackendColumnIterator.empty();
+        for (int i = this.partitions.size() - 1; i >= from; i--) {
+            Session session = this.partitions.get(i);
+            results = new ConcatColumnIterator(() -> scan.apply(session),
+                                               results);
+        }
+        return results;
+    }
+
+    private int indexOf(byte[] key) {
+        return partitionOf(key, this.partitions.size());
+    }
+
+    /**
+     * Get the partition index of a key by the hash of its owner vertex id
+     * @return the partition index, or -1 if the key is shorter than the
+     *         owner vertex id
+     */
+    public static int partitionOf(byte[] key, int partitions) {
+        int length = ownerIdLength(key);
+        if (length < 0) {
+            return -1;
+        }
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + key[i];
+        }
+        // Spread the higher bits like HashMap
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, partitions);
+    }
+
+    /**
+     * Get the length of the owner vertex id at the beginning of the key,
+     * see BytesBuffer.writeId() for the format
+     * @return the length, or -1 if the key is shorter than the owner id
+     */
+    public static int ownerIdLength(byte[] key) {
+        if (key == null || key.length == 0) {
+            return -1;
+        }
+        int b = key[0] & 0xff;
+        int length;
+        if ((b & 0x80) == 0) {
+            // Number id: a length byte and the value
+            length = 1 + (b & 0x7f);
+        } else {
+            // String/UUID id: a length byte and the bytes of [1, 128]
+            length = 1 + (b & 0x7f) + 1;
+        }
+        return key.length >= length ? length : -1;
+    }
+
+    private static boolean sameOwner(byte[] key1, byte[] key2) {
+        int length = ownerIdLength(key1);
+        if (length < 0 || length != ownerIdLength(key2)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key1[i] != key2[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Concat the results of a partition and the rest ones, the iterator of
+     * the partition is created on demand
+     */
+    private static class ConcatColumnIterator implements BackendColumnIterator {
+
+        private final BackendColumnIterator rest;
+        private Supplier<BackendColumnIterator> first;
+        private BackendColumnIterator current;
+
+        public ConcatColumnIterator(BackendColumnIterator first,
+                                    BackendColumnIterator rest) {
+            this(() -> first, rest);
+        }
+
+        public ConcatColumnIterator(Supplier<BackendColumnIterator> first,
+                                    BackendColumnIterator rest) {
+            this.first = first;
+            this.rest = rest;
+            this.current = null;
+        }
+
+        private BackendColumnIterator current() {
+            if (this.current == null) {
+                this.current = this.first.get();
+                this.first = null;
+            }
+            return this.current;
+        }
+
+        @Override
+        public boolean hasNext() {
+            BackendColumnIterator current = this.current();
+            if (current != this.rest && !current.hasNext()) {
+                current.close();
+                this.current = this.rest;
+            }
+            return this.current.hasNext();
+        }
+
+        @Override
+        public BackendColumn next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.current.next();
+        }
+
+        @Override
+        public byte[] position() {
+            // Move to the next partition if the current one is finished
+            if (!this.hasNext()) {
+                return null;
+            }
+            return this.current.position();
+        }
+
+        @Override
+        public void close() {
+            if (this.current != null && this.current != this.rest) {
+                this.current.close();
+            }
+            this.rest.close();
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package com.baidu.hugegraph.backend.store.rocksdb;
 
+import java.util.List;
 import java.util.Set;
 
 import org.rocksdb.RocksDBException;
@@ -53,6 +54,8 @@ public abstract class RocksDBSessions extends BackendSessionPool {
         public static final int SCAN_GTE_BEGIN = 0x0c;
         public static final int SCAN_LT_END = 0x10;
         public static final int SCAN_LTE_END = 0x30;
+        // Read the keys only, the values are returned as empty
+        public static final int SCAN_KEY_ONLY = 0x100;
 
         public abstract String property(String property);
         public abstract String property(String table, String property);
@@ -80,5 +83,13 @@ public abstract class RocksDBSessions extends BackendSessionPool {
                                           byte[] keyTo) {
             return this.scan(table, keyFrom, keyTo, SCAN_LT_END);
         }
+
+        /**
+         * Scan records prefixed with each of the sorted prefixes in one pass,
+         * and return at most `limitPerPrefix` records of each prefix
+         */
+        public abstract BackendColumnIterator scan(String table,
+                                                   List<byte[]> prefixes,
+                                                   long limitPerPrefix);
     }
 }
@@ -552,6 +552,21 @@ public class RocksDBStdSessions extends RocksDBSessions {
             RocksIterator itor = rocksdb().newIterator(cf(table), options);
             return new ColumnIterator(table, itor, keyFrom, keyTo, scanType);
         }
+
+        /**
+         * Scan records by multi key prefixes from a table, with one iterator
+         */
+        @Override
+        public BackendColumnIterator scan(String table,
+                                          List<byte[]> prefixes,
+                                          long limitPerPrefix) {
+            assert !this.hasChanges();
+            ReadOptions options = new ReadOptions();
+            // Seek across prefixes with the same iterator
+            options.setTotalOrderSeek(true);
+            RocksIterator itor = rocksdb().newIterator(cf(table), options);
+            return new PrefixesColumnIterator(itor, prefixes, limitPerPrefix);
+        }
     }
 
     /**
@@ -559,6 +574,8 @@ public class RocksDBStdSessions extends RocksDBSessions {
      */
     private static class ColumnIterator implements BackendColumnIterator {
 
+        private static final byte[] EMPTY_VALUE = new byte[0];
+
         private final String table;
         private final RocksIterator itor;
         private final byte[] keyBegin;
@@ -739,6 +756,133 @@ public class RocksDBStdSessions extends RocksDBSessions {
             }
         }
 
+        @Override
+        public BackendColumn next() {
+            if (!this.matched) {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+            }
+
+            // Don't copy the value if only the key is needed
+            byte[] value = this.match(Session.SCAN_KEY_ONLY) ?
+                           EMPTY_VALUE : this.itor.value();
+            BackendColumn col = BackendColumn.of(this.itor.key(), value);
+            this.itor.next();
+            this.matched = false;
+
+            return col;
+        }
+
+        @Override
+        public long skip(long count) {
+            // Just move the iterator forward, the values are never read
+            long skipped = 0L;
+            while (skipped < count && this.hasNext()) {
+                this.itor.next();
+                this.matched = false;
+                skipped++;
+            }
+            return skipped;
+        }
+
+        @Override
+        public byte[] position() {
+            return this.position;
+        }
+
+        @Override
+        public void close() {
+            if (this.itor.isOwningHandle()) {
+                this.itor.close();
+            }
+        }
+    }
+
+    /**
+     * A wrapper for RocksIterator that scans multi key prefixes one by one
+     * by seeking the same iterator forward, and at most `limit` records of
+     * each prefix are returned.
+     * NOTE: the prefixes must be sorted, and the prefix which starts with
+     * the previous scanned prefix would be skipped since it's scanned.
+     */
+    private static class PrefixesColumnIterator
+                   implements BackendColumnIterator {
+
+        private final RocksIterator itor;
+        private final List<byte[]> prefixes;
+        private final long limit;
+
+        private byte[] prefix;
+        private int index;
+        private long count;
+
+        private byte[] position;
+        private boolean matched;
+
+        public PrefixesColumnIterator(RocksIterator itor,
+                                      List<byte[]> prefixes, long limit) {
+            E.checkNotNull(itor, "itor");
+            E.checkArgument(limit >= 0L, "Invalid limit %s", limit);
+            this.itor = itor;
+            this.prefixes = prefixes;
+            this.limit = limit;
+
+            this.prefix = null;
+            this.index = 0;
+            this.count = 0L;
+
+            this.position = null;
+            this.matched = false;
+
+            this.seekNextPrefix();
+        }
+
+        private boolean seekNextPrefix() {
+            while (this.index < this.prefixes.size()) {
+                byte[] next = this.prefixes.get(this.index++);
+                if (this.prefix != null &&
+                    Bytes.prefixWith(next, this.prefix)) {
+                    // Duplicated or scanned prefix
+                    continue;
+                }
+                this.prefix = next;
+                this.count = 0L;
+                this.itor.seek(next);
+                return true;
+            }
+            this.prefix = null;
+            return false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.matched) {
+                return true;
+            }
+            if (!this.itor.isOwningHandle()) {
+                // Maybe closed
+                return false;
+            }
+
+            while (this.prefix != null) {
+                if (this.count < this.limit && this.itor.isValid() &&
+                    Bytes.prefixWith(this.itor.key(), this.prefix)) {
+                    this.matched = true;
+                    // Update position
+                    this.position = this.itor.key();
+                    return true;
+                }
+                this.seekNextPrefix();
+            }
+
+            // The end
+            this.position = null;
+            // Free the iterator if finished
+            this.close();
+            return false;
+        }
+
         @Override
         public BackendColumn next() {
             if (!this.matched) {
@@ -750,6 +894,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
             BackendColumn col = BackendColumn.of(this.itor.key(),
                                                  this.itor.value());
             this.itor.next();
+            this.count++;
             this.matched = false;
 
             return col;
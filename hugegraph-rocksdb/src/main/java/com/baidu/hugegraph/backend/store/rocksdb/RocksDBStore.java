@@ -30,6 +30,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
@@ -49,6 +52,8 @@ import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.baidu.hugegraph.util.Log;
 import com.google.common.collect.ImmutableList;
 
@@ -58,6 +63,11 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
 
     private static final BackendFeatures FEATURES = new RocksDBFeatures();
 
+    private static final int MAX_PARTITIONS = 256;
+    private static final String PARTITION_SUFFIX = "-partition-";
+    private static final String PARTITION_COMMITTER =
+                                "rocksdb-partition-committer-%d";
+
     private final String store;
     private final String database;
 
@@ -66,6 +76,11 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
 
     private RocksDBSessions sessions;
     private final Map<HugeType, String> tableDiskMapping;
+    // Table:partitions mapping of partitioned tables
+    private final Map<HugeType, Integer> tablePartitions;
+    // The data path of each partition
+    private final List<String> partitionPaths;
+    private ExecutorService partitionCommitter;
 
     // DataPath:RocksDB mapping
     private static final Map<String, RocksDBSessions> dbs =
@@ -80,6 +95,9 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
         this.store = store;
         this.sessions = null;
         this.tableDiskMapping = new HashMap<>();
+        this.tablePartitions = new HashMap<>();
+        this.partitionPaths = new ArrayList<>();
+        this.partitionCommitter = null;
 
         this.registerMetaHandlers();
     }
@@ -87,7 +105,17 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
     private void registerMetaHandlers() {
         this.registerMetaHandler("metrics", (session, meta, args) -> {
             RocksDBMetrics metrics = new RocksDBMetrics(session);
-            return metrics.getMetrics();
+            Map<String, Object> results = metrics.getMetrics();
+            if (!this.partitionPaths.isEmpty()) {
+                Map<String, Object> partitions = InsertionOrderUtil.newMap();
+                for (String path : this.partitionPaths) {
+                    Session part = db(path).session();
+                    partitions.put(path,
+                                   new RocksDBMetrics(part).getMetrics());
+                }
+                results.put("partitions", partitions);
+            }
+            return results;
         });
     }
 
@@ -158,6 +186,26 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
                 this.open(config, disk, disk, Arrays.asList(table));
             }
         }
+
+        // Open partitions of partitioned tables
+        List<String> partitions = config.get(RocksDBOptions.PARTITIONED_TABLES);
+        if (!partitions.isEmpty()) {
+            List<String> partDisks = config.get(RocksDBOptions.PARTITION_DISKS);
+            if (partDisks.isEmpty()) {
+                partDisks = ImmutableList.of(
+                            config.get(RocksDBOptions.DATA_PATH));
+            }
+            this.parseTablePartitions(partitions, partDisks);
+            for (int i = 0; i < this.partitionPaths.size(); i++) {
+                String path = this.partitionPaths.get(i);
+                this.open(config, path, path, this.partitionTableNames(i));
+            }
+            if (this.partitionCommitter == null) {
+                this.partitionCommitter = ExecutorUtil.newFixedThreadPool(
+                                          this.partitionPaths.size(),
+                                          PARTITION_COMMITTER);
+            }
+        }
     }
 
     protected RocksDBSessions open(HugeConfig config, String dataPath,
@@ -249,6 +297,14 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
 
         this.checkOpened();
         this.sessions.close();
+
+        for (String path : this.partitionPaths) {
+            db(path).close();
+        }
+        if (this.partitionCommitter != null && this.sessions.closed()) {
+            this.partitionCommitter.shutdown();
+            this.partitionCommitter = null;
+        }
     }
 
     @Override
@@ -296,6 +352,13 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
         return table.query(this.session(tableType), query);
     }
 
+    @Override
+    public long queryNumber(Query query) {
+        HugeType tableType = RocksDBTable.tableType(query);
+        RocksDBTable table = this.table(tableType);
+        return table.queryNumber(this.session(tableType), query);
+    }
+
     @Override
     public void init() {
         this.checkOpened();
@@ -311,6 +374,14 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
             this.createTable(db, table);
         }
 
+        // Create partitions of partitioned tables
+        for (int i = 0; i < this.partitionPaths.size(); i++) {
+            RocksDBSessions db = db(this.partitionPaths.get(i));
+            for (String table : this.partitionTableNames(i)) {
+                this.createTable(db, table);
+            }
+        }
+
         LOG.debug("Store initialized: {}", this.store);
     }
 
@@ -338,12 +409,20 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
             this.dropTable(db, table);
         }
 
+        // Drop partitions of partitioned tables
+        for (int i = 0; i < this.partitionPaths.size(); i++) {
+            RocksDBSessions db = db(this.partitionPaths.get(i));
+            for (String table : this.partitionTableNames(i)) {
+                this.dropTable(db, table);
+            }
+        }
+
         LOG.debug("Store cleared: {}", this.store);
     }
 
     private void dropTable(RocksDBSessions db, String table) {
         try {
-            this.sessions.dropTable(table);
+            db.dropTable(table);
         } catch (BackendException e) {
             if (e.getMessage().contains("is not opened")) {
                 return;
@@ -374,6 +453,7 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
     public void commitTx() {
         this.checkOpened();
         // Unable to guarantee atomicity when committing multi sessions
+        this.commitPartitions();
         for (Session session : this.session()) {
             Object count = session.commit();
             if (LOG.isDebugEnabled()) {
@@ -382,6 +462,55 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
         }
     }
 
+    /**
+     * Commit the changes of partitions concurrently, each partition is
+     * written to its own RocksDB instance with its own WAL and memtables.
+     * The changes retained in the partitions failed to commit would be
+     * cleared by rollbackTx().
+     */
+    private void commitPartitions() {
+        List<Session> sessions = new ArrayList<>();
+        for (String path : this.partitionPaths) {
+            Session session = db(path).session();
+            if (session.hasChanges()) {
+                sessions.add(session);
+            }
+        }
+        if (sessions.size() <= 1) {
+            for (Session session : sessions) {
+                session.commit();
+            }
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(sessions.size());
+        for (Session session : sessions) {
+            futures.add(this.partitionCommitter.submit(session::commit));
+        }
+        BackendException error = null;
+        for (Future<?> future : futures) {
+            try {
+                Object count = future.get();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Store {} committed {} items to partition",
+                              this.store, count);
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                // Wait for all the partitions to finish before throwing
+                if (error == null) {
+                    Throwable cause = e instanceof ExecutionException ?
+                                      e.getCause() : e;
+                    error = new BackendException("Failed to commit " +
+                                                 "partitions of '%s'",
+                                                 cause, this.store);
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
     @Override
     public void rollbackTx() {
         this.checkOpened();
@@ -389,12 +518,25 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
         for (Session session : this.session()) {
             session.clear();
         }
+        for (String path : this.partitionPaths) {
+            db(path).session().clear();
+        }
     }
 
     @Override
     protected Session session(HugeType tableType) {
         this.checkOpened();
 
+        // Partitioned table
+        Integer partitions = this.tablePartitions.get(tableType);
+        if (partitions != null) {
+            List<Session> sessions = new ArrayList<>(partitions);
+            for (int i = 0; i < partitions; i++) {
+                sessions.add(db(this.partitionPaths.get(i)).session());
+            }
+            return new RocksDBPartitionedSession(sessions);
+        }
+
         // Optimized disk
         String disk = this.tableDiskMapping.get(tableType);
         if (disk != null) {
@@ -447,6 +589,63 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
         }
     }
 
+    private void parseTablePartitions(List<String> tables,
+                                      List<String> disks) {
+        this.tablePartitions.clear();
+        this.partitionPaths.clear();
+        int maxPartitions = 0;
+        for (String table : tables) {
+            // The format of `table` like: `graph/edge_out: 4`
+            String[] pair = table.split(":", 2);
+            E.checkState(pair.length == 2,
+                         "Invalid partitioned table format: '%s', " +
+                         "expect `NAME:PARTITIONS`", table);
+            String name = pair[0].trim();
+            int partitions = Integer.parseInt(pair[1].trim());
+            pair = name.split("/", 2);
+            E.checkState(pair.length == 2,
+                         "Invalid partitioned table key format: '%s', " +
+                         "expect `STORE/TABLE`", name);
+            String store = pair[0].trim();
+            HugeType type = HugeType.valueOf(pair[1].trim().toUpperCase());
+            if (!this.store.equals(store)) {
+                continue;
+            }
+            E.checkState(type == HugeType.VERTEX ||
+                         type == HugeType.EDGE_OUT || type == HugeType.EDGE_IN,
+                         "Only the vertex and edge tables can be " +
+                         "partitioned, but got '%s'", name);
+            E.checkState(partitions > 1 && partitions <= MAX_PARTITIONS,
+                         "The partitions of '%s' must be in (1, %s], " +
+                         "but got %s", name, MAX_PARTITIONS, partitions);
+            E.checkState(!this.tableDiskMapping.containsKey(type),
+                         "The table '%s' can't be both partitioned and " +
+                         "stored in an optimized disk", name);
+            this.tablePartitions.put(type, partitions);
+            maxPartitions = Math.max(maxPartitions, partitions);
+        }
+
+        // The partitions are placed on the disks in turn
+        for (int i = 0; i < maxPartitions; i++) {
+            // Like `/path/to/disk/graph-partition-0`
+            String disk = this.wrapPath(disks.get(i % disks.size()));
+            this.partitionPaths.add(disk + PARTITION_SUFFIX + i);
+        }
+    }
+
+    /**
+     * Get the tables which are with the specified partition
+     */
+    private List<String> partitionTableNames(int partition) {
+        List<String> tables = new ArrayList<>();
+        for (Entry<HugeType, Integer> e : this.tablePartitions.entrySet()) {
+            if (partition < e.getValue()) {
+                tables.add(this.table(e.getKey()).table());
+            }
+        }
+        return tables;
+    }
+
     private static RocksDBSessions db(String disk) {
         RocksDBSessions db = dbs.get(disk);
         E.checkState(db != null && !db.closed(),
@@ -19,11 +19,14 @@
 
 package com.baidu.hugegraph.backend.store.rocksdb;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.query.BatchQuery;
 import com.baidu.hugegraph.backend.query.Condition.Relation;
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.IdPrefixQuery;
@@ -42,6 +45,7 @@ import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
 import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.iterator.ExtendableIterator;
 import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.Log;
 import com.google.common.collect.ImmutableList;
@@ -117,6 +121,11 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
             return ImmutableList.<BackendEntry>of().iterator();
         }
 
+        // Query in batch
+        if (query instanceof BatchQuery) {
+            return this.queryInBatch(session, (BatchQuery) query);
+        }
+
         // Query all
         if (query.empty()) {
             return newEntryIterator(this.queryAll(session, query), query);
@@ -149,6 +158,85 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
         return newEntryIterator(this.queryByCond(session, cq), query);
     }
 
+    /**
+     * Count the records by iterating the keys only, without copying values,
+     * each edge is a record and the records of a vertex are adjacent
+     */
+    @Override
+    public long queryNumber(Session session, Query query) {
+        BackendColumnIterator cols;
+        String table = this.table();
+        if (query.empty()) {
+            cols = session.scan(table, null, null,
+                                Session.SCAN_ANY | Session.SCAN_KEY_ONLY);
+        } else if (query instanceof IdPrefixQuery) {
+            IdPrefixQuery pq = (IdPrefixQuery) query;
+            cols = session.scan(table, pq.start().asBytes(),
+                                pq.prefix().asBytes(),
+                                scanType(pq) | Session.SCAN_KEY_ONLY);
+        } else if (query instanceof IdRangeQuery) {
+            IdRangeQuery rq = (IdRangeQuery) query;
+            byte[] end = rq.end() == null ? null : rq.end().asBytes();
+            cols = session.scan(table, rq.start().asBytes(), end,
+                                scanType(rq) | Session.SCAN_KEY_ONLY);
+        } else {
+            return -1L;
+        }
+
+        HugeType type = query.resultType();
+        long count = 0L;
+        try {
+            BackendEntry entry = null;
+            while (cols.hasNext()) {
+                BackendColumn col = cols.next();
+                if (type.isEdge()) {
+                    count++;
+                } else if (entry == null || !entry.belongToMe(col)) {
+                    entry = new BinaryBackendEntry(type, col.name);
+                    count++;
+                }
+            }
+        } finally {
+            cols.close();
+        }
+        return count;
+    }
+
+    protected Iterator<BackendEntry> queryInBatch(Session session,
+                                                  BatchQuery batch) {
+        long limit = batch.subLimit();
+        List<byte[]> prefixes = new ArrayList<>(batch.size());
+        for (Query query : batch.queries()) {
+            if (!isPlainPrefixQuery(query) || limit < 0L) {
+                prefixes = null;
+                break;
+            }
+            prefixes.add(((IdPrefixQuery) query).prefix().asBytes());
+        }
+
+        if (prefixes == null) {
+            // Query one by one if can't scan all the prefixes in one pass
+            ExtendableIterator<BackendEntry> rs = new ExtendableIterator<>();
+            for (Query query : batch.queries()) {
+                rs.extend(this.query(session, query));
+            }
+            return rs;
+        }
+
+        prefixes.sort(Bytes::compare);
+        BackendColumnIterator cols = session.scan(this.table(), prefixes,
+                                                  limit);
+        return newEntryIterator(cols, batch);
+    }
+
+    private static boolean isPlainPrefixQuery(Query query) {
+        if (!(query instanceof IdPrefixQuery) || query.offset() > 0L) {
+            return false;
+        }
+        IdPrefixQuery pq = (IdPrefixQuery) query;
+        return pq.inclusiveStart() && pq.start().equals(pq.prefix());
+    }
+
     protected BackendColumnIterator queryAll(Session session, Query query) {
         if (query.paging()) {
             PageState page = PageState.fromString(query.page());
@@ -166,24 +254,32 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
 
     protected BackendColumnIterator queryByPrefix(Session session,
                                                   IdPrefixQuery query) {
-        int type = query.inclusiveStart() ?
-                   Session.SCAN_GTE_BEGIN : Session.SCAN_GT_BEGIN;
-        type |= Session.SCAN_PREFIX_WITH_END;
         return session.scan(this.table(), query.start().asBytes(),
-                            query.prefix().asBytes(), type);
+                            query.prefix().asBytes(), scanType(query));
     }
 
     protected BackendColumnIterator queryByRange(Session session,
                                                  IdRangeQuery query) {
         byte[] start = query.start().asBytes();
         byte[] end = query.end() == null ? null : query.end().asBytes();
+        return session.scan(this.table(), start, end, scanType(query));
+    }
+
+    private static int scanType(IdPrefixQuery query) {
+        int type = query.inclusiveStart() ?
+                   Session.SCAN_GTE_BEGIN : Session.SCAN_GT_BEGIN;
+        type |= Session.SCAN_PREFIX_WITH_END;
+        return type;
+    }
+
+    private static int scanType(IdRangeQuery query) {
         int type = query.inclusiveStart() ?
                    Session.SCAN_GTE_BEGIN : Session.SCAN_GT_BEGIN;
-        if (end != null) {
+        if (query.end() != null) {
             type |= query.inclusiveEnd() ?
                     Session.SCAN_LTE_END : Session.SCAN_LT_END;
         }
-        return session.scan(this.table(), start, end, type);
+        return type;
     }
 
     protected BackendColumnIterator queryByCond(Session session,
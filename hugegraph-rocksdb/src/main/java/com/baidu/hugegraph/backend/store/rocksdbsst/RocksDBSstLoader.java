@@ -0,0 +1,424 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.rocksdbsst;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBStdSessions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Bulk loader of a table for the rocksdbsst backend, it accepts unsorted
+ * records from many threads. The records are buffered in memory, and sorted
+ * and spilled to a run file when the buffer is full. When finishing, all the
+ * runs are k-way merged into multiple range-partitioned SST files, each
+ * partition is merged by a separate task. The SST files are generated in the
+ * directory of the table and don't overlap with each other, so they can be
+ * ingested by RocksDBIngester in one step.
+ *
+ * If a key is added multiple times, the last added one is kept.
+ */
+public class RocksDBSstLoader {
+
+    private static final Logger LOG = Log.logger(RocksDBSstLoader.class);
+
+    private static final String RUNS_SUFFIX = "-runs";
+    private static final String RUN_PREFIX = "run-";
+    private static final String SST_SUFFIX = ".sst";
+
+    // Record a sparse index entry of a run every INDEX_INTERVAL records
+    private static final int INDEX_INTERVAL = 1024;
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    // The memory overhead of a buffered record except key and value
+    private static final int RECORD_OVERHEAD = 64;
+
+    private final HugeConfig conf;
+    private final String table;
+    private final File directory;
+    private final File runsDirectory;
+    private final long bufferSize;
+    private final int partitions;
+
+    private List<Pair<byte[], byte[]>> buffer;
+    private long bufferBytes;
+    private int nextRun;
+    private final List<SortedRun> runs;
+
+    public RocksDBSstLoader(HugeConfig conf, String dataPath, String table,
+                            long bufferSize, int partitions) {
+        E.checkArgument(bufferSize > 0L,
+                        "The buffer size must be > 0, but got %s", bufferSize);
+        E.checkArgument(partitions > 0,
+                        "The partitions must be > 0, but got %s", partitions);
+        this.conf = conf;
+        this.table = table;
+        this.directory = new File(dataPath, table);
+        this.runsDirectory = new File(dataPath, table + RUNS_SUFFIX);
+        this.bufferSize = bufferSize;
+        this.partitions = partitions;
+
+        this.buffer = new ArrayList<>();
+        this.bufferBytes = 0L;
+        this.nextRun = 0;
+        this.runs = new ArrayList<>();
+
+        mkdirs(this.directory);
+        mkdirs(this.runsDirectory);
+    }
+
+    public String table() {
+        return this.table;
+    }
+
+    public File directory() {
+        return this.directory;
+    }
+
+    /**
+     * Add records in any order, it's thread-safe. The buffer is sorted and
+     * spilled out of the lock, so the other threads are not blocked.
+     */
+    public void add(List<Pair<byte[], byte[]>> records) {
+        List<Pair<byte[], byte[]>> full = null;
+        int run = -1;
+        synchronized (this) {
+            for (Pair<byte[], byte[]> record : records) {
+                this.buffer.add(record);
+                this.bufferBytes += record.getKey().length +
+                                    record.getValue().length +
+                                    RECORD_OVERHEAD;
+            }
+            if (this.bufferBytes >= this.bufferSize) {
+                full = this.buffer;
+                run = this.nextRun++;
+                this.buffer = new ArrayList<>();
+                this.bufferBytes = 0L;
+            }
+        }
+        if (full != null) {
+            SortedRun sortedRun = this.spill(run, full);
+            synchronized (this) {
+                this.runs.add(sortedRun);
+            }
+        }
+    }
+
+    /**
+     * Spill the rest of buffer, and generate the tasks to merge the runs
+     * into SST files, each task generates a SST file of a key range.
+     * NOTE: all the threads which add records must be finished
+     */
+    public synchronized List<Callable<String>> finish() {
+        if (!this.buffer.isEmpty()) {
+            this.runs.add(this.spill(this.nextRun++, this.buffer));
+            this.buffer = new ArrayList<>();
+            this.bufferBytes = 0L;
+        }
+        if (this.runs.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<byte[]> splits = this.splitKeys();
+        List<Callable<String>> tasks = new ArrayList<>(splits.size() + 1);
+        for (int i = 0; i <= splits.size(); i++) {
+            byte[] lower = i == 0 ? null : splits.get(i - 1);
+            byte[] upper = i == splits.size() ? null : splits.get(i);
+            File sst = new File(this.directory, String.format(
+                                "%s-%04d%s", this.table, i, SST_SUFFIX));
+            tasks.add(() -> this.merge(sst, lower, upper));
+        }
+        return tasks;
+    }
+
+    /**
+     * Remove the run files, it should be called after the merge tasks are
+     * done or abandoned
+     */
+    public synchronized void clear() {
+        this.buffer = new ArrayList<>();
+        this.bufferBytes = 0L;
+        this.runs.clear();
+        try {
+            FileUtils.deleteDirectory(this.runsDirectory);
+        } catch (IOException e) {
+            LOG.warn("Failed to delete run files of table '{}'",
+                     this.table, e);
+        }
+    }
+
+    /**
+     * Choose the split keys of partitions from the sparse index of runs,
+     * each index entry stands for about INDEX_INTERVAL records
+     */
+    private List<byte[]> splitKeys() {
+        List<byte[]> samples = new ArrayList<>();
+        for (SortedRun run : this.runs) {
+            samples.addAll(run.indexKeys);
+        }
+        samples.sort(Bytes::compare);
+
+        List<byte[]> splits = new ArrayList<>(this.partitions);
+        for (int i = 1; i < this.partitions; i++) {
+            byte[] split = samples.get(i * samples.size() / this.partitions);
+            int last = splits.size() - 1;
+            if (Bytes.compare(split, samples.get(0)) > 0 &&
+                (last < 0 || Bytes.compare(split, splits.get(last)) > 0)) {
+                splits.add(split);
+            }
+        }
+        return splits;
+    }
+
+    private SortedRun spill(int id, List<Pair<byte[], byte[]>> records) {
+        // The sort is stable, so the last added one of same keys is the last
+        records.sort((r1, r2) -> Bytes.compare(r1.getKey(), r2.getKey()));
+
+        File file = new File(this.runsDirectory, RUN_PREFIX + id);
+        SortedRun run = new SortedRun(id, file);
+        try (DataOutputStream output = new DataOutputStream(
+                                       new BufferedOutputStream(
+                                       new FileOutputStream(file),
+                                       IO_BUFFER_SIZE))) {
+            long offset = 0L;
+            int count = 0;
+            int size = records.size();
+            for (int i = 0; i < size; i++) {
+                byte[] key = records.get(i).getKey();
+                if (i + 1 < size &&
+                    Bytes.equals(key, records.get(i + 1).getKey())) {
+                    // Overridden by the later one
+                    continue;
+                }
+                byte[] value = records.get(i).getValue();
+                if (count++ % INDEX_INTERVAL == 0) {
+                    run.indexKeys.add(key);
+                    run.indexOffsets.add(offset);
+                }
+                output.writeInt(key.length);
+                output.write(key);
+                output.writeInt(value.length);
+                output.write(value);
+                offset += 8L + key.length + value.length;
+            }
+        } catch (IOException e) {
+            throw new BackendException("Failed to spill run '%s' of " +
+                                       "table '%s'", e, file, this.table);
+        }
+        LOG.debug("Spilled {} records to run '{}'", records.size(), file);
+        return run;
+    }
+
+    private String merge(File sst, byte[] lower, byte[] upper)
+                         throws IOException, RocksDBException {
+        PriorityQueue<RunReader> heads = new PriorityQueue<>();
+        SstFileWriter writer = null;
+        long count = 0L;
+        try {
+            for (SortedRun run : this.runs) {
+                RunReader reader = new RunReader(run, lower, upper);
+                if (reader.next()) {
+                    heads.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+
+            byte[] last = null;
+            while (!heads.isEmpty()) {
+                RunReader head = heads.poll();
+                // The newer run is polled first if the keys are the same
+                if (last == null || !Bytes.equals(last, head.key)) {
+                    if (writer == null) {
+                        writer = this.newWriter(sst);
+                    }
+                    writer.put(head.key, head.value);
+                    last = head.key;
+                    count++;
+                }
+                if (head.next()) {
+                    heads.add(head);
+                } else {
+                    head.close();
+                }
+            }
+            if (writer != null) {
+                writer.finish();
+            }
+        } finally {
+            for (RunReader reader : heads) {
+                reader.close();
+            }
+            if (writer != null) {
+                writer.close();
+            }
+        }
+        LOG.debug("Merged {} records into SST file '{}'", count, sst);
+        return count > 0L ? sst.getPath() : null;
+    }
+
+    private SstFileWriter newWriter(File sst) throws RocksDBException {
+        EnvOptions env = new EnvOptions();
+        Options options = new Options();
+        RocksDBStdSessions.initOptions(this.conf, options, options, options);
+        // NOTE: unset merge op due to SIGSEGV when cf.setMergeOperatorName()
+        options.setMergeOperatorName("not-exist-merge-op");
+        SstFileWriter writer = new SstFileWriter(env, options);
+        writer.open(sst.getPath());
+        return writer;
+    }
+
+    private static void mkdirs(File path) {
+        if (!path.exists()) {
+            E.checkState(path.mkdirs(), "Can't mkdir '%s'", path);
+        }
+    }
+
+    /**
+     * A run file of sorted records with a sparse index in memory, the record
+     * is in format: key-length(int) + key + value-length(int) + value
+     */
+    private static class SortedRun {
+
+        private final int id;
+        private final File file;
+        private final List<byte[]> indexKeys;
+        private final List<Long> indexOffsets;
+
+        public SortedRun(int id, File file) {
+            this.id = id;
+            this.file = file;
+            this.indexKeys = new ArrayList<>();
+            this.indexOffsets = new ArrayList<>();
+        }
+
+        /**
+         * Get the offset of the last index entry whose key <= the given key
+         */
+        public long floorOffset(byte[] key) {
+            int low = 0;
+            int high = this.indexKeys.size() - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (Bytes.compare(this.indexKeys.get(mid), key) <= 0) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found < 0 ? 0L : this.indexOffsets.get(found);
+        }
+    }
+
+    /**
+     * Read the records of a run in range [lower, upper)
+     */
+    private static class RunReader implements Comparable<RunReader>,
+                                              AutoCloseable {
+
+        private final SortedRun run;
+        private final byte[] lower;
+        private final byte[] upper;
+        private final DataInputStream input;
+
+        private byte[] key;
+        private byte[] value;
+
+        public RunReader(SortedRun run, byte[] lower, byte[] upper)
+                         throws IOException {
+            this.run = run;
+            this.lower = lower;
+            this.upper = upper;
+
+            FileInputStream file = new FileInputStream(run.file);
+            if (lower != null) {
+                file.getChannel().position(run.floorOffset(lower));
+            }
+            this.input = new DataInputStream(new BufferedInputStream(
+                                             file, IO_BUFFER_SIZE));
+        }
+
+        public boolean next() throws IOException {
+            while (true) {
+                int keyLength;
+                try {
+                    keyLength = this.input.readInt();
+                } catch (EOFException e) {
+                    return false;
+                }
+                byte[] key = new byte[keyLength];
+                this.input.readFully(key);
+                byte[] value = new byte[this.input.readInt()];
+                this.input.readFully(value);
+
+                if (this.lower != null && Bytes.compare(key, this.lower) < 0) {
+                    continue;
+                }
+                if (this.upper != null && Bytes.compare(key, this.upper) >= 0) {
+                    return false;
+                }
+                this.key = key;
+                this.value = value;
+                return true;
+            }
+        }
+
+        @Override
+        public int compareTo(RunReader other) {
+            int cmp = Bytes.compare(this.key, other.key);
+            if (cmp != 0) {
+                return cmp;
+            }
+            // The newer run first
+            return Integer.compare(other.run.id, this.run.id);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.input.close();
+        }
+    }
+}
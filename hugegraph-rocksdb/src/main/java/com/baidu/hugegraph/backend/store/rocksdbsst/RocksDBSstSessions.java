@@ -20,35 +20,41 @@
 package com.baidu.hugegraph.backend.store.rocksdbsst;
 
 import java.io.File;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.rocksdb.EnvOptions;
-import org.rocksdb.Options;
 import org.rocksdb.RocksDBException;
-import org.rocksdb.SstFileWriter;
+import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBOptions;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions;
-import com.baidu.hugegraph.backend.store.rocksdb.RocksDBStdSessions;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.Log;
 
 public class RocksDBSstSessions extends RocksDBSessions {
 
+    private static final Logger LOG = Log.logger(RocksDBSstSessions.class);
+
+    private static final String SST_LOADER = "rocksdb-sst-loader-%d";
+
     private final HugeConfig conf;
     private final String dataPath;
-    private final Map<String, SstFileWriter> tables;
+    private final Map<String, RocksDBSstLoader> tables;
 
     public RocksDBSstSessions(HugeConfig conf, String dataPath,
                               String database, String store) {
@@ -90,28 +96,28 @@ public class RocksDBSstSessions extends RocksDBSessions {
 
     @Override
     public void createTable(String table) throws RocksDBException {
-        EnvOptions env = new EnvOptions();
-        Options options = new Options();
-        RocksDBStdSessions.initOptions(this.conf, options, options, options);
-        // NOTE: unset merge op due to SIGSEGV when cf.setMergeOperatorName()
-        options.setMergeOperatorName("not-exist-merge-op");
-        SstFileWriter sst = new SstFileWriter(env, options);
-        Path path = Paths.get(this.dataPath, table);
-        sst.open(path.toString() + ".sst");
-        this.tables.put(table, sst);
+        long bufferSize = this.conf.get(RocksDBOptions.SST_LOAD_BUFFER_SIZE);
+        int partitions = this.conf.get(RocksDBOptions.SST_LOAD_PARTITIONS);
+        RocksDBSstLoader loader = new RocksDBSstLoader(this.conf,
+                                                       this.dataPath, table,
+                                                       bufferSize, partitions);
+        this.tables.put(table, loader);
     }
 
     @Override
     public void dropTable(String table) throws RocksDBException {
-        this.tables.remove(table);
+        RocksDBSstLoader loader = this.tables.remove(table);
+        if (loader != null) {
+            loader.clear();
+        }
     }
 
-    private SstFileWriter table(String table) {
-        SstFileWriter sst = this.tables.get(table);
-        if (sst == null) {
+    private RocksDBSstLoader table(String table) {
+        RocksDBSstLoader loader = this.tables.get(table);
+        if (loader == null) {
             throw new BackendException("Table '%s' is not opened", table);
         }
-        return sst;
+        return loader;
     }
 
     @Override
@@ -126,21 +132,38 @@ public class RocksDBSstSessions extends RocksDBSessions {
 
     @Override
     protected synchronized void doClose() {
-        final String NO_ENTRIES = "Cannot create sst file with no entries";
-
-        for (SstFileWriter sst : this.tables.values()) {
-            E.checkState(sst.isOwningHandle(), "SstFileWriter closed");
-            try {
-                sst.finish();
-            } catch (RocksDBException e) {
-                if (e.getMessage().equals(NO_ENTRIES)) {
-                    continue;
+        // Merge the spilled runs of all the tables into SST files in parallel
+        List<Callable<String>> tasks = new ArrayList<>();
+        for (RocksDBSstLoader loader : this.tables.values()) {
+            tasks.addAll(loader.finish());
+        }
+
+        int threads = this.conf.get(RocksDBOptions.SST_LOAD_THREADS);
+        threads = Math.max(1, Math.min(threads, tasks.size()));
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(threads,
+                                                                   SST_LOADER);
+        try {
+            int ssts = 0;
+            for (Future<String> future : executor.invokeAll(tasks)) {
+                if (future.get() != null) {
+                    ssts++;
                 }
-                throw new BackendException("Failed to close SstFileWriter", e);
             }
-            sst.close();
+            LOG.info("Generated {} SST files of {} tables in '{}'",
+                     ssts, this.tables.size(), this.dataPath);
+        } catch (InterruptedException e) {
+            throw new BackendException("Interrupted while generating " +
+                                       "SST files", e);
+        } catch (ExecutionException e) {
+            throw new BackendException("Failed to generate SST files",
+                                       e.getCause());
+        } finally {
+            executor.shutdown();
+            for (RocksDBSstLoader loader : this.tables.values()) {
+                loader.clear();
+            }
+            this.tables.clear();
         }
-        this.tables.clear();
     }
 
     /**
@@ -193,22 +216,14 @@ public class RocksDBSstSessions extends RocksDBSessions {
                 return 0;
             }
 
-            try {
-                for (Entry<String, Changes> table : this.batch.entrySet()) {
-                    if (table.getValue().isEmpty() ||
-                        table.getKey().endsWith("i")) {
-                        // Skip empty value table or index table
-                        continue;
-                    }
-
-                    // TODO: limit individual SST file size
-                    SstFileWriter sst = table(table.getKey());
-                    for (Pair<byte[], byte[]> change : table.getValue()) {
-                        sst.put(change.getKey(), change.getValue());
-                    }
+            for (Entry<String, Changes> table : this.batch.entrySet()) {
+                if (table.getValue().isEmpty() ||
+                    table.getKey().endsWith("i")) {
+                    // Skip empty value table or index table
+                    continue;
                 }
-            } catch (RocksDBException e) {
-                throw new BackendException("Failed to commit", e);
+                // The records can be in any order, they are sorted by loader
+                table(table.getKey()).add(table.getValue());
             }
 
             // Clear batch if write() successfully (retained if failed)
@@ -325,6 +340,17 @@ public class RocksDBSstSessions extends RocksDBSessions {
             assert !this.hasChanges();
             return BackendColumnIterator.empty();
         }
+
+        /**
+         * Scan records by multi key prefixes from a table
+         */
+        @Override
+        public BackendColumnIterator scan(String table,
+                                          List<byte[]> prefixes,
+                                          long limitPerPrefix) {
+            assert !this.hasChanges();
+            return BackendColumnIterator.empty();
+        }
     }
 
     private static class Changes extends ArrayList<Pair<byte[], byte[]>> {
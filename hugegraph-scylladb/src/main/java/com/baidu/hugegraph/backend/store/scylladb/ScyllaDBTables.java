@@ -217,6 +217,16 @@ public class ScyllaDBTables {
             }
             return super.query(session, query);
         }
+
+        @Override
+        public long queryNumber(CassandraSessionPool.Session session,
+                                Query query) {
+            query = queryByLabelIndex(session, indexTable(), query);
+            if (query == null) {
+                return 0L;
+            }
+            return super.queryNumber(session, query);
+        }
     }
 
     public static class Edge extends CassandraTables.Edge {
@@ -325,6 +335,17 @@ public class ScyllaDBTables {
             return super.query(session, query);
         }
 
+        @Override
+        public long queryNumber(CassandraSessionPool.Session session,
+                                Query query) {
+            query = queryByLabelIndex(session, indexTable(), query);
+
+            if (query == null) {
+                return 0L;
+            }
+            return super.queryNumber(session, query);
+        }
+
         public static Edge out(String store) {
             return new Edge(store, Directions.OUT);
         }
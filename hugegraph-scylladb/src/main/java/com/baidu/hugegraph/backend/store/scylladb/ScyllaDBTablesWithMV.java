@@ -99,6 +99,16 @@ public class ScyllaDBTablesWithMV {
             }
             return super.query2Select(table, query);
         }
+
+        @Override
+        protected long queryNumber(CassandraSessionPool.Session session,
+                                   String table, Query query) {
+            if (isQueryByLabel(query)) {
+                // Count from materialized view
+                return super.queryNumber(session, MV_LABEL2VERTEX, query);
+            }
+            return super.queryNumber(session, table, query);
+        }
     }
 
     public static class Edge extends CassandraTables.Edge {
@@ -159,6 +169,16 @@ public class ScyllaDBTablesWithMV {
             return super.query2Select(table, query);
         }
 
+        @Override
+        protected long queryNumber(CassandraSessionPool.Session session,
+                                   String table, Query query) {
+            if (isQueryByLabel(query)) {
+                // Count from materialized view
+                return super.queryNumber(session, MV_LABEL2EDGE, query);
+            }
+            return super.queryNumber(session, table, query);
+        }
+
         public static Edge out(String store) {
             return new Edge(store, Directions.OUT);
         }
@@ -42,6 +42,7 @@ import org.junit.Test;
 
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.serializer.BytesBuffer;
@@ -57,6 +58,7 @@ import com.baidu.hugegraph.testutil.Utils;
 import com.baidu.hugegraph.traversal.optimize.Text;
 import com.baidu.hugegraph.traversal.optimize.TraversalUtil;
 import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -946,6 +948,71 @@ public class EdgeCoreTest extends BaseCoreTest {
         Assert.assertEquals(4, edges.size());
     }
 
+    @Test
+    public void testQueryCountOfEdges() {
+        HugeGraph graph = graph();
+        init18Edges();
+
+        GraphTraversalSource g = graph.traversal();
+        Assert.assertEquals(18L, (long) g.E().count().next());
+        Assert.assertEquals(g.E().toList().size(),
+                            (long) g.E().count().next());
+
+        Vertex james = vertex("author", "id", 1);
+        Assert.assertEquals(4L, (long) g.V(james.id()).outE().count().next());
+        Assert.assertEquals(g.V(james.id()).outE().toList().size(),
+                            (long) g.V(james.id()).outE().count().next());
+
+        Vertex louise = vertex("person", "name", "Louise");
+        Assert.assertEquals(g.V(louise.id()).outE("look").toList().size(),
+                            (long) g.V(louise.id()).outE("look")
+                                    .count().next());
+        Assert.assertEquals(g.V(louise.id()).bothE().toList().size(),
+                            (long) g.V(louise.id()).bothE().count().next());
+    }
+
+    @Test
+    public void testQueryAdjacentEdgeIdsOfVertexExceedingMaxDegree() {
+        HugeGraph graph = graph();
+        // NOTE: edge.adjacency_cache_max_degree is 10 in the test config
+        Vertex hub = graph.addVertex(T.label, "person", "name", "Hub");
+        Vertex leaf = graph.addVertex(T.label, "person", "name", "Leaf");
+        for (int i = 0; i < 25; i++) {
+            Vertex v = graph.addVertex(T.label, "person", "name", "P" + i);
+            hub.addEdge("friend", v);
+        }
+        leaf.addEdge("friend", hub);
+        graph.tx().commit();
+
+        Id hubId = (Id) hub.id();
+        Id leafId = (Id) leaf.id();
+        Id friend = graph.edgeLabel("friend").id();
+        GraphTransaction tx = graph.graphTransaction();
+        // Query twice to read from the backend and then from the cache
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals(25, IteratorUtils.count(
+                                    tx.queryAdjacentEdgeIds(hubId,
+                                    Directions.OUT, null, -1L)));
+            Assert.assertEquals(5, IteratorUtils.count(
+                                   tx.queryAdjacentEdgeIds(hubId,
+                                   Directions.OUT, friend, 5L)));
+            Assert.assertEquals(1, IteratorUtils.count(
+                                   tx.queryAdjacentEdgeIds(leafId,
+                                   Directions.OUT, null, -1L)));
+
+            List<Id> vertices = ImmutableList.of(hubId, leafId);
+            Assert.assertEquals(26, IteratorUtils.count(
+                                    tx.queryAdjacentEdgeIds(vertices,
+                                    Directions.OUT, null, -1L)));
+            Assert.assertEquals(4, IteratorUtils.count(
+                                   tx.queryAdjacentEdgeIds(vertices,
+                                   Directions.OUT, friend, 3L)));
+            Assert.assertEquals(27, IteratorUtils.count(
+                                    tx.queryAdjacentEdgeIds(vertices,
+                                    Directions.BOTH, null, 30L)));
+        }
+    }
+
     @Test
     public void testQueryOutVerticesOfVertex() {
         HugeGraph graph = graph();
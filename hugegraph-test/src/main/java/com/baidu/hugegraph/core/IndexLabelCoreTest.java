@@ -20,6 +20,8 @@
 package com.baidu.hugegraph.core;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Edge;
@@ -28,13 +30,19 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.junit.Assume;
 import org.junit.Test;
 
+import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.exception.NoIndexException;
 import com.baidu.hugegraph.exception.NotFoundException;
+import com.baidu.hugegraph.job.schema.LabelTraverser;
+import com.baidu.hugegraph.job.schema.SchemaCallable;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.SchemaManager;
 import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.task.HugeTask;
+import com.baidu.hugegraph.task.TaskStatus;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.IndexType;
@@ -841,4 +849,183 @@ public class IndexLabelCoreTest extends SchemaCoreTest {
                .has("contribution", "test").next();
         Assert.assertNotNull(edge);
     }
+
+    @Test
+    public void testQueryByIndexCacheInvalidatedByIndexLabel() {
+        HugeGraph graph = graph();
+        Assume.assumeTrue("Index cache is disabled",
+                          graph.indexCache() != null);
+        super.initPropertyKeys();
+        SchemaManager schema = graph.schema();
+        schema.vertexLabel("person").properties("name", "city")
+              .primaryKeys("name").create();
+        schema.indexLabel("personByCity").onV("person").secondary()
+              .by("city").create();
+
+        Vertex baby = graph.addVertex(T.label, "person", "name", "Baby",
+                                      "city", "Hongkong");
+        graph.tx().commit();
+        // Cache the ids of the index query
+        Assert.assertEquals(1L, countByCity("Hongkong"));
+        Assert.assertEquals(1L, countByCity("Hongkong"));
+
+        // The version of the index label is bumped after committed
+        baby.property("city", "Beijing");
+        graph.tx().commit();
+        Assert.assertEquals(0L, countByCity("Hongkong"));
+        Assert.assertEquals(1L, countByCity("Beijing"));
+
+        graph.addVertex(T.label, "person", "name", "James",
+                        "city", "Beijing");
+        graph.tx().commit();
+        Assert.assertEquals(2L, countByCity("Beijing"));
+
+        // The rolled back update is not visible to the index query
+        baby.property("city", "Shanghai");
+        graph.tx().rollback();
+        Assert.assertEquals(2L, countByCity("Beijing"));
+        Assert.assertEquals(0L, countByCity("Shanghai"));
+
+        // Rebuild the index label
+        schema.indexLabel("personByCity").rebuild();
+        Assert.assertEquals(2L, countByCity("Beijing"));
+
+        // Remove and recreate the index label
+        schema.indexLabel("personByCity").remove();
+        graph.addVertex(T.label, "person", "name", "Tom",
+                        "city", "Beijing");
+        graph.tx().commit();
+        schema.indexLabel("personByCity").onV("person").secondary()
+              .by("city").create();
+        Assert.assertEquals(3L, countByCity("Beijing"));
+    }
+
+    private long countByCity(String city) {
+        return graph().traversal().V().hasLabel("person")
+                      .has("city", city).count().next();
+    }
+
+    @Test
+    public void testTraverseLabelResumedFromCheckpoint() throws Exception {
+        HugeGraph graph = graph();
+        Assume.assumeTrue("Not support traverse by shard",
+                          graph.graphTransaction().supportsTraverseByShard());
+        super.initPropertyKeys();
+        SchemaManager schema = graph.schema();
+        schema.vertexLabel("person").properties("name", "city")
+              .primaryKeys("name").create();
+        // More than the schema.job_shard_threshold of the tests
+        int size = 200;
+        for (int i = 0; i < size; i++) {
+            graph.addVertex(T.label, "person", "name", "p" + i,
+                            "city", "Beijing");
+        }
+        graph.tx().commit();
+
+        // Interrupt the job when traversing each shard
+        TraverseLabelJob job = new TraverseLabelJob("person", 0);
+        HugeTask<Object> task = this.scheduleJob(job, null);
+        Assert.assertThrows(ExecutionException.class, () -> {
+            task.get();
+        });
+        Assert.assertEquals(TaskStatus.FAILED, task.status());
+        Assert.assertTrue(job.sharded);
+        Assert.assertFalse(job.resumed);
+        String checkpoint = task.checkpoint();
+        Assert.assertNotNull(checkpoint);
+
+        // Resume the job and traverse the unfinished shards again
+        job = new TraverseLabelJob("person", Integer.MAX_VALUE);
+        HugeTask<Object> resumed = this.scheduleJob(job, checkpoint);
+        resumed.get();
+        Assert.assertEquals(TaskStatus.SUCCESS, resumed.status());
+        Assert.assertTrue(job.sharded);
+        Assert.assertTrue(job.resumed);
+        Assert.assertEquals(size, job.count.get());
+        Assert.assertEquals(100, resumed.progress());
+
+        // All shards have been finished, nothing to traverse
+        job = new TraverseLabelJob("person", Integer.MAX_VALUE);
+        resumed = this.scheduleJob(job, resumed.checkpoint());
+        resumed.get();
+        Assert.assertEquals(TaskStatus.SUCCESS, resumed.status());
+        Assert.assertTrue(job.resumed);
+        Assert.assertEquals(0, job.count.get());
+    }
+
+    @Test
+    public void testTraverseSmallLabelSequentially() throws Exception {
+        HugeGraph graph = graph();
+        super.initPropertyKeys();
+        SchemaManager schema = graph.schema();
+        schema.vertexLabel("person").properties("name", "city")
+              .primaryKeys("name").create();
+        // Less than the schema.job_shard_threshold of the tests
+        int size = 10;
+        for (int i = 0; i < size; i++) {
+            graph.addVertex(T.label, "person", "name", "p" + i,
+                            "city", "Beijing");
+        }
+        graph.tx().commit();
+
+        TraverseLabelJob job = new TraverseLabelJob("person",
+                                                    Integer.MAX_VALUE);
+        HugeTask<Object> task = this.scheduleJob(job, null);
+        task.get();
+        Assert.assertEquals(TaskStatus.SUCCESS, task.status());
+        Assert.assertFalse(job.sharded);
+        Assert.assertFalse(job.resumed);
+        Assert.assertEquals(size, job.count.get());
+        // No checkpoint is saved when traversing by label index
+        Assert.assertNull(task.checkpoint());
+    }
+
+    private HugeTask<Object> scheduleJob(TraverseLabelJob job,
+                                         String checkpoint) {
+        HugeGraph graph = graph();
+        VertexLabel label = graph.schema().getVertexLabel(job.label);
+        Id id = graph.schemaTransaction().store().nextId(HugeType.TASK);
+        HugeTask<Object> task = new HugeTask<>(id, null, job);
+        task.type(job.type());
+        task.name(SchemaCallable.formatTaskName(HugeType.VERTEX_LABEL,
+                                                label.id(), label.name()));
+        task.checkpoint(checkpoint);
+        graph.taskScheduler().schedule(task);
+        return task;
+    }
+
+    public static class TraverseLabelJob extends SchemaCallable {
+
+        private final String label;
+        private final int interruptAfter;
+        private final AtomicInteger count;
+        private volatile boolean sharded;
+        private volatile boolean resumed;
+
+        public TraverseLabelJob(String label, int interruptAfter) {
+            this.label = label;
+            this.interruptAfter = interruptAfter;
+            this.count = new AtomicInteger(0);
+        }
+
+        @Override
+        public String type() {
+            return "traverse_label";
+        }
+
+        @Override
+        public Object execute() {
+            VertexLabel label = this.graph().schema()
+                                    .getVertexLabel(this.label);
+            LabelTraverser traverser = new LabelTraverser(this, label);
+            this.resumed = traverser.resumed();
+            this.sharded = traverser.sharded();
+            traverser.traverse((tx, vertex) -> {
+                if (this.count.incrementAndGet() > this.interruptAfter) {
+                    throw new HugeException("Interrupted by test");
+                }
+            });
+            return null;
+        }
+    }
 }
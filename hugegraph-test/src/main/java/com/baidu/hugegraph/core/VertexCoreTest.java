@@ -803,6 +803,143 @@ public class VertexCoreTest extends BaseCoreTest {
                           SplicingIdGenerator.splicing(bookId, "java-5")));
     }
 
+    @Test
+    public void testQueryCount() {
+        HugeGraph graph = graph();
+        init10Vertices();
+
+        GraphTraversalSource g = graph.traversal();
+        Assert.assertEquals(10L, (long) g.V().count().next());
+        Assert.assertEquals(g.V().toList().size(),
+                            (long) g.V().count().next());
+
+        Assert.assertEquals(5L, (long) g.V().hasLabel("book").count().next());
+        Assert.assertEquals(g.V().hasLabel("book").toList().size(),
+                            (long) g.V().hasLabel("book").count().next());
+        Assert.assertEquals(8L, (long) g.V().hasLabel("book", "language")
+                                        .count().next());
+        Assert.assertEquals(0L, (long) g.V().hasLabel("person")
+                                        .count().next());
+    }
+
+    @Test
+    public void testQueryCountByIndexAfterUpdate() {
+        HugeGraph graph = graph();
+        initPersonIndex(true);
+        init5Persons();
+
+        GraphTraversalSource g = graph.traversal();
+        Assert.assertEquals(3L, (long) g.V().hasLabel("person")
+                                        .has("city", "Beijing")
+                                        .count().next());
+
+        // Update the indexed property
+        Vertex james = g.V().hasLabel("person").has("name", "James").next();
+        james.property("city", "Shanghai");
+        graph.tx().commit();
+
+        // Overwrite the vertex, the index of old value is left
+        graph.addVertex(T.label, "person", "name", "Tom Cat",
+                        "city", "Hongkong", "age", 21,
+                        "birth", Utils.date("2014-01-01 00:00:00"));
+        graph.tx().commit();
+
+        // The left index entries must not be counted
+        Assert.assertEquals(1L, (long) g.V().hasLabel("person")
+                                        .has("city", "Beijing")
+                                        .count().next());
+        Assert.assertEquals(1, g.V().hasLabel("person")
+                                .has("city", "Beijing").toList().size());
+
+        Assert.assertEquals(1L, (long) g.V().hasLabel("person")
+                                        .has("age", 20).count().next());
+        Assert.assertEquals(1, g.V().hasLabel("person")
+                                .has("age", 20).toList().size());
+        Assert.assertEquals(2L, (long) g.V().hasLabel("person")
+                                        .has("age", P.gt(20))
+                                        .count().next());
+        Assert.assertEquals(2, g.V().hasLabel("person")
+                                .has("age", P.gt(20)).toList().size());
+    }
+
+    @Test
+    public void testQueryByAsyncIndex() {
+        HugeGraph graph = graph();
+        // The index label is listed in the option index.async_labels
+        graph.schema().indexLabel("personByCityAsync").onV("person")
+             .secondary().by("city").create();
+        init5Persons();
+
+        // The query waits for the indexes of committed vertices to be built
+        GraphTraversalSource g = graph.traversal();
+        Assert.assertEquals(3, g.V().has("city", "Beijing").toList().size());
+        Assert.assertEquals(0L, graph.asyncIndexWorker().lag());
+
+        Vertex james = g.V().has("city", "Beijing")
+                        .has("name", "James").next();
+        james.property("city", "Shanghai");
+        graph.tx().commit();
+        Assert.assertEquals(2, g.V().has("city", "Beijing").toList().size());
+        Assert.assertEquals(1, g.V().has("city", "Shanghai").toList().size());
+
+        g.V().has("city", "Beijing").has("name", "Lisa").next().remove();
+        graph.tx().commit();
+        Assert.assertEquals(1, g.V().has("city", "Beijing").toList().size());
+        Assert.assertEquals(0L, graph.asyncIndexWorker().lag());
+    }
+
+    @Test
+    public void testUpdateVertexWithAsyncIndexConcurrently()
+                throws InterruptedException {
+        HugeGraph graph = graph();
+        graph.schema().indexLabel("personByCityAsync").onV("person")
+             .secondary().by("city").create();
+        graph.addVertex(T.label, "person", "name", "Baby",
+                        "city", "Hongkong", "age", 3);
+        graph.tx().commit();
+
+        String[] cities = {"Beijing", "Shanghai", "Taipei", "Hongkong"};
+        int threadsNum = 4;
+        int times = 50;
+        List<Thread> threads = new LinkedList<>();
+        AtomicInteger failures = new AtomicInteger(0);
+        for (int i = 0; i < threadsNum; i++) {
+            int offset = i;
+            Thread t = new Thread(() -> {
+                try {
+                    // Race with the worker building the indexes
+                    for (int j = 0; j < times; j++) {
+                        Vertex baby = graph.traversal().V("person:Baby")
+                                           .next();
+                        String city = cities[(offset + j) % cities.length];
+                        baby.property("city", city);
+                        graph.tx().commit();
+                    }
+                } catch (Throwable e) {
+                    LOG.error("Failed to update vertex", e);
+                    failures.incrementAndGet();
+                } finally {
+                    graph.closeTx();
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        Assert.assertEquals(0, failures.get());
+
+        // The index of the last committed value must not be lost
+        GraphTraversalSource g = graph.traversal();
+        String city = g.V("person:Baby").next().value("city");
+        for (String c : cities) {
+            List<Vertex> vertices = g.V().has("city", c).toList();
+            Assert.assertEquals(c.equals(city) ? 1 : 0, vertices.size());
+        }
+        Assert.assertEquals(0L, graph.asyncIndexWorker().lag());
+    }
+
     @Test
     public void testQueryByLabelNotExists() {
         HugeGraph graph = graph();
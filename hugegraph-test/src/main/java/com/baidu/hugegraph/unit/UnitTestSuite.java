@@ -22,29 +22,66 @@ package com.baidu.hugegraph.unit;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import com.baidu.hugegraph.unit.api.WriteAdmissionTest;
+import com.baidu.hugegraph.unit.cache.AdjacencyTest;
 import com.baidu.hugegraph.unit.cache.CacheManagerTest;
+import com.baidu.hugegraph.unit.cache.IndexCacheTest;
+import com.baidu.hugegraph.unit.cache.OffheapCacheTest;
 import com.baidu.hugegraph.unit.cache.RamCacheTest;
+import com.baidu.hugegraph.unit.cache.TinyLfuCacheTest;
 import com.baidu.hugegraph.unit.core.AnalyzerTest;
 import com.baidu.hugegraph.unit.core.BackendMutationTest;
+import com.baidu.hugegraph.unit.core.ConcurrentIdSetTest;
 import com.baidu.hugegraph.unit.core.ConditionQueryFlattenTest;
 import com.baidu.hugegraph.unit.core.EdgeIdTest;
+import com.baidu.hugegraph.unit.core.GroupCommitterTest;
+import com.baidu.hugegraph.unit.core.HugeElementPropertiesTest;
+import com.baidu.hugegraph.unit.core.IdBitmapTest;
+import com.baidu.hugegraph.unit.core.IdParentMapTest;
+import com.baidu.hugegraph.unit.core.IndexBitmapCompactorTest;
 import com.baidu.hugegraph.unit.core.VersionTest;
+import com.baidu.hugegraph.unit.mysql.WhereBuilderTest;
+import com.baidu.hugegraph.unit.palo.PaloStreamLoaderTest;
 import com.baidu.hugegraph.unit.rocksdb.RocksDBCountersTest;
+import com.baidu.hugegraph.unit.rocksdb.RocksDBPartitionedSessionTest;
 import com.baidu.hugegraph.unit.rocksdb.RocksDBSessionsTest;
+import com.baidu.hugegraph.unit.rocksdb.RocksDBSstLoaderTest;
+import com.baidu.hugegraph.unit.ultrasearch.UltraSearchFeederTest;
+import com.baidu.hugegraph.unit.ultrasearch.UltraSearchResultReaderTest;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
     RamCacheTest.class,
+    TinyLfuCacheTest.class,
+    OffheapCacheTest.class,
+    AdjacencyTest.class,
     CacheManagerTest.class,
+    IndexCacheTest.class,
 
     VersionTest.class,
     BackendMutationTest.class,
     ConditionQueryFlattenTest.class,
     EdgeIdTest.class,
     AnalyzerTest.class,
+    ConcurrentIdSetTest.class,
+    IdBitmapTest.class,
+    IdParentMapTest.class,
+    GroupCommitterTest.class,
+    HugeElementPropertiesTest.class,
+    IndexBitmapCompactorTest.class,
 
     RocksDBSessionsTest.class,
-    RocksDBCountersTest.class
+    RocksDBCountersTest.class,
+    RocksDBPartitionedSessionTest.class,
+    RocksDBSstLoaderTest.class,
+
+    WhereBuilderTest.class,
+    PaloStreamLoaderTest.class,
+
+    UltraSearchFeederTest.class,
+    UltraSearchResultReaderTest.class,
+
+    WriteAdmissionTest.class
 })
 public class UnitTestSuite {
 }
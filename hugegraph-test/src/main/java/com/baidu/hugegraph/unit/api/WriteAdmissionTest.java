@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.api;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.api.graph.WriteAdmission;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+
+public class WriteAdmissionTest extends BaseUnitTest {
+
+    private static final String GRAPH = "hugegraph";
+
+    private static Thread acquire(WriteAdmission admission, String graph,
+                                  List<String> acquired, String name) {
+        Thread thread = new Thread(() -> {
+            admission.acquire(graph);
+            acquired.add(name);
+        }, name);
+        thread.start();
+        return thread;
+    }
+
+    private static void waitForWaiting(Thread thread)
+                                       throws InterruptedException {
+        // Wait until the thread is parked in the queue of the permits
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(10L);
+        }
+    }
+
+    private static void assertStatus(WebApplicationException e, int status) {
+        Assert.assertEquals(status, e.getResponse().getStatus());
+        Assert.assertNotNull(e.getResponse().getHeaderString(
+                             HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void testAcquireInOrder() throws InterruptedException {
+        WriteAdmission admission = new WriteAdmission(1, 0, 10, 60000L);
+        List<String> acquired = new CopyOnWriteArrayList<>();
+
+        admission.acquire(GRAPH);
+        Thread first = acquire(admission, GRAPH, acquired, "first");
+        waitForWaiting(first);
+        Thread second = acquire(admission, GRAPH, acquired, "second");
+        waitForWaiting(second);
+        Assert.assertEquals(2, admission.waitingThreads());
+        Assert.assertEquals(0, acquired.size());
+
+        // The waiting requests are admitted in the order they arrived
+        admission.release(GRAPH);
+        first.join();
+        Assert.assertEquals(1, admission.waitingThreads());
+        admission.release(GRAPH);
+        second.join();
+        Assert.assertEquals(0, admission.waitingThreads());
+        Assert.assertEquals(2, acquired.size());
+        Assert.assertEquals("first", acquired.get(0));
+        Assert.assertEquals("second", acquired.get(1));
+
+        admission.release(GRAPH);
+    }
+
+    @Test
+    public void testAcquireWithFullQueue() throws InterruptedException {
+        WriteAdmission admission = new WriteAdmission(1, 0, 1, 60000L);
+        List<String> acquired = new CopyOnWriteArrayList<>();
+
+        admission.acquire(GRAPH);
+        Thread waiting = acquire(admission, GRAPH, acquired, "waiting");
+        waitForWaiting(waiting);
+
+        // Reject at once if the queue is full
+        Assert.assertThrows(WebApplicationException.class, () -> {
+            admission.acquire(GRAPH);
+        }, e -> {
+            assertStatus((WebApplicationException) e,
+                         WriteAdmission.TOO_MANY_REQUESTS);
+        });
+        Assert.assertEquals(1, admission.waitingThreads());
+
+        admission.release(GRAPH);
+        waiting.join();
+        Assert.assertEquals(1, acquired.size());
+        admission.release(GRAPH);
+    }
+
+    @Test
+    public void testAcquireTimeout() {
+        WriteAdmission admission = new WriteAdmission(1, 0, 10, 100L);
+
+        admission.acquire(GRAPH);
+        long start = System.currentTimeMillis();
+        Assert.assertThrows(WebApplicationException.class, () -> {
+            admission.acquire(GRAPH);
+        }, e -> {
+            assertStatus((WebApplicationException) e, 503);
+        });
+        // Waited about the timeout before rejected
+        Assert.assertTrue(System.currentTimeMillis() - start >= 50L);
+        Assert.assertEquals(0, admission.waitingThreads());
+
+        // The permit is available again after released
+        admission.release(GRAPH);
+        admission.acquire(GRAPH);
+        admission.release(GRAPH);
+    }
+
+    @Test
+    public void testAcquireWithGraphThreads() {
+        WriteAdmission admission = new WriteAdmission(2, 1, 10, 0L);
+
+        admission.acquire(GRAPH);
+        // The other graphs are not blocked by the busy graph
+        admission.acquire("hugegraph2");
+        admission.release("hugegraph2");
+
+        Assert.assertThrows(WebApplicationException.class, () -> {
+            admission.acquire(GRAPH);
+        }, e -> {
+            assertStatus((WebApplicationException) e, 503);
+        });
+
+        admission.release(GRAPH);
+        admission.acquire(GRAPH);
+        admission.release(GRAPH);
+    }
+
+    @Test
+    public void testCreateWithInvalidOptions() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new WriteAdmission(-1, 0, 10, 100L);
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new WriteAdmission(1, 0, 10, -1L);
+        });
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.cache.Adjacency;
+import com.baidu.hugegraph.backend.id.EdgeId;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableList;
+
+public class AdjacencyTest extends BaseUnitTest {
+
+    private static final Id KNOWS = IdGenerator.of(1);
+    private static final Id CREATED = IdGenerator.of(2);
+
+    private static List<EdgeId> toList(Iterator<EdgeId> iter) {
+        List<EdgeId> list = new ArrayList<>();
+        while (iter.hasNext()) {
+            list.add(iter.next());
+        }
+        return list;
+    }
+
+    private static EdgeId edge(Id owner, Directions dir, Id label,
+                               String name, Id other) {
+        return new EdgeId(owner, dir, label, name, other);
+    }
+
+    @Test
+    public void testNumberVertices() {
+        Id owner = IdGenerator.of(100);
+        List<EdgeId> edges = ImmutableList.of(
+                edge(owner, Directions.OUT, KNOWS, "", IdGenerator.of(1)),
+                edge(owner, Directions.OUT, KNOWS, "", IdGenerator.of(2)),
+                edge(owner, Directions.OUT, CREATED, "", IdGenerator.of(3)),
+                edge(owner, Directions.OUT, KNOWS, "", IdGenerator.of(4)));
+
+        Adjacency.Builder builder = Adjacency.builder(owner, Directions.OUT);
+        for (EdgeId edge : edges) {
+            builder.add(edge);
+        }
+        Adjacency adjacency = builder.build();
+
+        Assert.assertEquals(owner, adjacency.owner());
+        Assert.assertEquals(Directions.OUT, adjacency.direction());
+        Assert.assertEquals(4, adjacency.size());
+        Assert.assertEquals(3, adjacency.size(KNOWS));
+        Assert.assertEquals(1, adjacency.size(CREATED));
+        Assert.assertEquals(0, adjacency.size(IdGenerator.of(3)));
+
+        // Grouped by label
+        Assert.assertEquals(ImmutableList.of(edges.get(0), edges.get(1),
+                                             edges.get(3), edges.get(2)),
+                            toList(adjacency.edgeIds(null, -1L)));
+        Assert.assertEquals(ImmutableList.of(edges.get(0), edges.get(1),
+                                             edges.get(3)),
+                            toList(adjacency.edgeIds(KNOWS, -1L)));
+        Assert.assertEquals(ImmutableList.of(edges.get(2)),
+                            toList(adjacency.edgeIds(CREATED, -1L)));
+        Assert.assertEquals(ImmutableList.of(),
+                            toList(adjacency.edgeIds(IdGenerator.of(3), -1L)));
+    }
+
+    @Test
+    public void testStringVerticesWithSortValues() {
+        Id owner = IdGenerator.of("1:marko");
+        List<EdgeId> edges = ImmutableList.of(
+                edge(owner, Directions.IN, KNOWS, "2017", IdGenerator.of(1)),
+                edge(owner, Directions.IN, KNOWS, "", IdGenerator.of("2:a")),
+                edge(owner, Directions.IN, CREATED, "", IdGenerator.of(3)));
+
+        Adjacency.Builder builder = Adjacency.builder(owner, Directions.IN);
+        for (EdgeId edge : edges) {
+            builder.add(edge);
+        }
+        Adjacency adjacency = builder.build();
+
+        List<EdgeId> results = toList(adjacency.edgeIds(null, -1L));
+        Assert.assertEquals(edges, results);
+        Assert.assertEquals("2017", results.get(0).sortValues());
+        Assert.assertEquals(IdGenerator.of(1), results.get(0).otherVertexId());
+        Assert.assertEquals(IdGenerator.of("2:a"),
+                            results.get(1).otherVertexId());
+    }
+
+    @Test
+    public void testEdgeIdsWithLimit() {
+        Id owner = IdGenerator.of(100);
+        Adjacency.Builder builder = Adjacency.builder(owner, Directions.OUT);
+        for (int i = 0; i < 10; i++) {
+            Id label = i % 2 == 0 ? KNOWS : CREATED;
+            builder.add(edge(owner, Directions.OUT, label, "",
+                             IdGenerator.of(i)));
+        }
+        Adjacency adjacency = builder.build();
+
+        Assert.assertEquals(3, toList(adjacency.edgeIds(null, 3L)).size());
+        Assert.assertEquals(10, toList(adjacency.edgeIds(null, 20L)).size());
+        Assert.assertEquals(0, toList(adjacency.edgeIds(null, 0L)).size());
+
+        List<EdgeId> results = toList(adjacency.edgeIds(CREATED, 2L));
+        Assert.assertEquals(2, results.size());
+        Assert.assertEquals(IdGenerator.of(1), results.get(0).otherVertexId());
+        Assert.assertEquals(IdGenerator.of(3), results.get(1).otherVertexId());
+        Assert.assertEquals(CREATED, results.get(1).edgeLabelId());
+    }
+
+    @Test
+    public void testEmptyAdjacency() {
+        Id owner = IdGenerator.of(100);
+        Adjacency adjacency = Adjacency.builder(owner, Directions.OUT).build();
+        Assert.assertEquals(0, adjacency.size());
+        Assert.assertFalse(adjacency.edgeIds(null, -1L).hasNext());
+        Assert.assertFalse(adjacency.edgeIds(KNOWS, -1L).hasNext());
+    }
+
+    @Test
+    public void testKey() {
+        Id v1 = IdGenerator.of(1);
+        Id v2 = IdGenerator.of("1");
+        Assert.assertEquals(Adjacency.key(v1, Directions.OUT, KNOWS),
+                            Adjacency.key(v1, Directions.OUT, KNOWS));
+        Assert.assertNotEquals(Adjacency.key(v1, Directions.OUT, KNOWS),
+                               Adjacency.key(v2, Directions.OUT, KNOWS));
+        Assert.assertNotEquals(Adjacency.key(v1, Directions.OUT, KNOWS),
+                               Adjacency.key(v1, Directions.IN, KNOWS));
+        Assert.assertNotEquals(Adjacency.key(v1, Directions.OUT, KNOWS),
+                               Adjacency.key(v1, Directions.OUT, null));
+    }
+
+    @Test
+    public void testInvalidDirection() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            Adjacency.builder(IdGenerator.of(1), Directions.BOTH);
+        });
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.cache;
+
+import java.util.Set;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.backend.cache.IndexCache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.store.BackendStoreProvider;
+import com.baidu.hugegraph.event.EventListener;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableSet;
+
+public class IndexCacheTest extends BaseUnitTest {
+
+    private static ConditionQuery query(Id indexLabel, Object value) {
+        ConditionQuery query = new ConditionQuery(HugeType.SECONDARY_INDEX);
+        query.eq(HugeKeys.INDEX_LABEL_ID, indexLabel);
+        query.eq(HugeKeys.FIELD_VALUES, value);
+        return query;
+    }
+
+    private static IndexCache newCache(String graph,
+                                       BackendStoreProvider provider) {
+        return new IndexCache(graph, provider, 100, 0L);
+    }
+
+    @Test
+    public void testListenStoreEventsOnce() {
+        BackendStoreProvider provider = Mockito.mock(
+                                        BackendStoreProvider.class);
+        IndexCache cache = newCache("index-cache-test-listen", provider);
+
+        ArgumentCaptor<EventListener> listener = ArgumentCaptor.forClass(
+                                                 EventListener.class);
+        Mockito.verify(provider, Mockito.times(1)).listen(listener.capture());
+
+        cache.close();
+        Mockito.verify(provider, Mockito.times(1))
+               .unlisten(listener.getValue());
+    }
+
+    @Test
+    public void testInvalidateByIndexLabelVersion() {
+        BackendStoreProvider provider = Mockito.mock(
+                                        BackendStoreProvider.class);
+        IndexCache cache = newCache("index-cache-test-version", provider);
+        Id personByCity = IdGenerator.of(1L);
+        Id personByAge = IdGenerator.of(2L);
+        Set<Id> ids = ImmutableSet.of(IdGenerator.of(11L));
+
+        Id cityKey = cache.key(personByCity, query(personByCity, "Beijing"));
+        Id ageKey = cache.key(personByAge, query(personByAge, 18));
+        cache.update(cityKey, ids);
+        cache.update(ageKey, ids);
+        // The key is stable before the index label is updated
+        Assert.assertEquals(cityKey, cache.key(personByCity,
+                                               query(personByCity,
+                                                     "Beijing")));
+        Assert.assertEquals(ids, cache.get(cityKey));
+
+        // Bump the version of personByCity
+        cache.invalidate(personByCity);
+        Id newCityKey = cache.key(personByCity,
+                                  query(personByCity, "Beijing"));
+        Assert.assertNotEquals(cityKey, newCityKey);
+        Assert.assertNull(cache.get(newCityKey));
+
+        // The items of other index labels are still reachable
+        Assert.assertEquals(ageKey, cache.key(personByAge,
+                                              query(personByAge, 18)));
+        Assert.assertEquals(ids, cache.get(ageKey));
+
+        cache.close();
+    }
+
+    @Test
+    public void testClear() {
+        BackendStoreProvider provider = Mockito.mock(
+                                        BackendStoreProvider.class);
+        IndexCache cache = newCache("index-cache-test-clear", provider);
+        Id personByCity = IdGenerator.of(1L);
+        Set<Id> ids = ImmutableSet.of(IdGenerator.of(11L));
+
+        Id key = cache.key(personByCity, query(personByCity, "Beijing"));
+        cache.update(key, ids);
+        Assert.assertEquals(ids, cache.get(key));
+
+        cache.clear();
+        Assert.assertNull(cache.get(key));
+
+        cache.close();
+    }
+}
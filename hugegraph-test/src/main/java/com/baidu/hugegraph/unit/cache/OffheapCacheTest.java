@@ -0,0 +1,207 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.cache.OffheapCache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.StringEncoding;
+
+public class OffheapCacheTest extends BaseUnitTest {
+
+    private static final OffheapCache.Codec STRING_CODEC =
+                                            new OffheapCache.Codec() {
+        @Override
+        public byte[] encode(Object value) {
+            return StringEncoding.encode((String) value);
+        }
+
+        @Override
+        public Object decode(Id id, byte[] bytes) {
+            return StringEncoding.decode(bytes);
+        }
+    };
+
+    private static OffheapCache newCache(long capacity) {
+        return new OffheapCache(capacity, STRING_CODEC);
+    }
+
+    @Test
+    public void testUpdateGet() {
+        OffheapCache cache = newCache(1024 * 1024);
+        Id id1 = IdGenerator.of("1");
+        Id id2 = IdGenerator.of(2L);
+        cache.update(id1, "value-1");
+        cache.update(id2, "value-2");
+        Assert.assertEquals("value-1", cache.get(id1));
+        Assert.assertEquals("value-2", cache.get(id2));
+
+        cache.update(id1, "value-11");
+        Assert.assertEquals("value-11", cache.get(id1));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(3, cache.hits());
+        Assert.assertEquals(0, cache.miss());
+    }
+
+    @Test
+    public void testUpdateIfAbsentAndPresent() {
+        OffheapCache cache = newCache(1024 * 1024);
+        Id id = IdGenerator.of("1");
+        cache.updateIfPresent(id, "value-0");
+        Assert.assertEquals(null, cache.get(id));
+
+        cache.updateIfAbsent(id, "value-1");
+        cache.updateIfAbsent(id, "value-2");
+        Assert.assertEquals("value-1", cache.get(id));
+
+        cache.updateIfPresent(id, "value-3");
+        Assert.assertEquals("value-3", cache.get(id));
+    }
+
+    @Test
+    public void testInvalidateAndClear() {
+        OffheapCache cache = newCache(1024 * 1024);
+        Id id1 = IdGenerator.of("1");
+        Id id2 = IdGenerator.of("2");
+        cache.update(id1, "value-1");
+        cache.update(id2, "value-2");
+
+        cache.invalidate(id1);
+        Assert.assertEquals(null, cache.get(id1));
+        Assert.assertEquals("value-2", cache.get(id2));
+
+        cache.clear();
+        Assert.assertEquals(null, cache.get(id2));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateManyKeys() {
+        OffheapCache cache = newCache(16 * 1024 * 1024);
+        int size = 10000;
+        for (int i = 0; i < size; i++) {
+            cache.update(IdGenerator.of(i), "value-" + i);
+        }
+        Assert.assertEquals(size, cache.size());
+
+        for (int i = 0; i < size; i += 2) {
+            cache.invalidate(IdGenerator.of(i));
+        }
+        Assert.assertEquals(size / 2, cache.size());
+        for (int i = 0; i < size; i++) {
+            Object value = cache.get(IdGenerator.of(i));
+            if (i % 2 == 0) {
+                Assert.assertEquals(null, value);
+            } else {
+                Assert.assertEquals("value-" + i, value);
+            }
+        }
+
+        for (int i = 0; i < size; i += 2) {
+            cache.updateIfAbsent(IdGenerator.of(i), "value-new-" + i);
+        }
+        Assert.assertEquals(size, cache.size());
+        Assert.assertEquals("value-new-0", cache.get(IdGenerator.of(0)));
+        Assert.assertEquals("value-1", cache.get(IdGenerator.of(1)));
+    }
+
+    @Test
+    public void testEvictWithReachCapacity() {
+        OffheapCache cache = newCache(1024 * 1024);
+        Assert.assertEquals(1024 * 1024, cache.capacity());
+
+        Map<Id, String> values = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            Id id = IdGenerator.of("key-" + i);
+            String value = "value-" + i;
+            cache.update(id, value);
+            values.put(id, value);
+        }
+        Assert.assertTrue(cache.size() < 100000);
+        Assert.assertTrue(cache.size() > 0);
+
+        // The cached values must be the latest ones
+        int found = 0;
+        for (Map.Entry<Id, String> e : values.entrySet()) {
+            Object value = cache.get(e.getKey());
+            if (value != null) {
+                Assert.assertEquals(e.getValue(), value);
+                found++;
+            }
+        }
+        Assert.assertEquals(cache.size(), found);
+        // The latest written one must be kept
+        Assert.assertEquals("value-99999",
+                            cache.get(IdGenerator.of("key-99999")));
+    }
+
+    @Test
+    public void testSkipTooLargeValue() {
+        OffheapCache cache = newCache(64 * 1024);
+        Id id = IdGenerator.of("1");
+        cache.update(id, "value-1");
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 64 * 1024; i++) {
+            sb.append('v');
+        }
+        cache.update(id, sb.toString());
+        // The old value is invalidated
+        Assert.assertEquals(null, cache.get(id));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testTraverse() {
+        OffheapCache cache = newCache(1024 * 1024);
+        cache.update(IdGenerator.of("1"), "value-1");
+        cache.update(IdGenerator.of("2"), "value-2");
+        cache.update(IdGenerator.of("2"), "value-22");
+
+        Map<String, Integer> values = new HashMap<>();
+        cache.traverse(value -> values.put((String) value, 1));
+        Assert.assertEquals(2, values.size());
+        Assert.assertTrue(values.containsKey("value-1"));
+        Assert.assertTrue(values.containsKey("value-22"));
+    }
+
+    @Test
+    public void testExpire() {
+        OffheapCache cache = newCache(1024 * 1024);
+        cache.update(IdGenerator.of("1"), "value-1");
+        cache.update(IdGenerator.of("2"), "value-2");
+        Assert.assertEquals(2, cache.size());
+
+        cache.expire(2);
+        waitTillNext(2);
+        cache.update(IdGenerator.of("3"), "value-3");
+        Assert.assertEquals(2, cache.tick());
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("value-3", cache.get(IdGenerator.of("3")));
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.cache.TinyLfuCache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+
+public class TinyLfuCacheTest extends BaseUnitTest {
+
+    private static final int THREADS_NUM = 8;
+
+    @Test
+    public void testUpdateGet() {
+        TinyLfuCache cache = new TinyLfuCache();
+        Id id = IdGenerator.of("1");
+        cache.update(id, "value-1");
+        Assert.assertEquals("value-1", cache.get(id));
+
+        cache.update(id, "value-2");
+        Assert.assertEquals("value-2", cache.get(id));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testUpdateIfAbsentAndPresent() {
+        TinyLfuCache cache = new TinyLfuCache();
+        Id id = IdGenerator.of("1");
+        cache.updateIfPresent(id, "value-0");
+        Assert.assertEquals(null, cache.get(id));
+
+        cache.updateIfAbsent(id, "value-1");
+        Assert.assertEquals("value-1", cache.get(id));
+        cache.updateIfAbsent(id, "value-2");
+        Assert.assertEquals("value-1", cache.get(id));
+
+        cache.updateIfPresent(id, "value-3");
+        Assert.assertEquals("value-3", cache.get(id));
+    }
+
+    @Test
+    public void testInvalidateAndClear() {
+        TinyLfuCache cache = new TinyLfuCache();
+        Id id1 = IdGenerator.of("1");
+        Id id2 = IdGenerator.of("2");
+        cache.update(id1, "value-1");
+        cache.update(id2, "value-2");
+
+        cache.invalidate(id1);
+        Assert.assertEquals(null, cache.get(id1));
+        Assert.assertEquals("value-2", cache.get(id2));
+
+        cache.clear();
+        Assert.assertEquals(null, cache.get(id2));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testHitsAndMiss() {
+        TinyLfuCache cache = new TinyLfuCache();
+        Id id = IdGenerator.of("1");
+        cache.get(id);
+        cache.update(id, "value-1");
+        cache.get(id);
+        cache.get(id);
+        Assert.assertEquals(2, cache.hits());
+        Assert.assertEquals(1, cache.miss());
+    }
+
+    @Test
+    public void testCapacity() {
+        Assert.assertEquals(10, new TinyLfuCache(10).capacity());
+        Assert.assertEquals(1024, new TinyLfuCache(1024).capacity());
+        // The min capacity is 1
+        Assert.assertEquals(1, new TinyLfuCache(0).capacity());
+    }
+
+    @Test
+    public void testSizeWithReachCapacity() {
+        TinyLfuCache cache = new TinyLfuCache(10);
+        for (int i = 0; i < 20; i++) {
+            Id id = IdGenerator.of("key-" + i);
+            cache.update(id, "value-" + i);
+        }
+        Assert.assertEquals(10, cache.size());
+
+        cache = new TinyLfuCache(1);
+        for (int i = 0; i < 20; i++) {
+            Id id = IdGenerator.of("key-" + i);
+            cache.update(id, "value-" + i);
+        }
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testScanNotFlushHotItems() {
+        TinyLfuCache cache = new TinyLfuCache(100);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                Id id = IdGenerator.of("hot-" + i);
+                if (cache.get(id) == null) {
+                    cache.update(id, "value-" + i);
+                }
+            }
+        }
+
+        // Scan lots of cold items which are accessed only once
+        for (int i = 0; i < 10000; i++) {
+            cache.update(IdGenerator.of("cold-" + i), "value-" + i);
+        }
+
+        int hot = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get(IdGenerator.of("hot-" + i)) != null) {
+                hot++;
+            }
+        }
+        Assert.assertTrue("Expect most hot items are kept, but got " + hot,
+                          hot >= 45);
+        Assert.assertEquals(100, cache.size());
+    }
+
+    @Test
+    public void testExpire() {
+        TinyLfuCache cache = new TinyLfuCache();
+        cache.update(IdGenerator.of("1"), "value-1");
+        cache.update(IdGenerator.of("2"), "value-2");
+        Assert.assertEquals(2, cache.size());
+
+        cache.expire(0);
+        waitTillNext(1);
+        cache.tick();
+        Assert.assertEquals(2, cache.size());
+
+        cache.expire(2);
+        waitTillNext(2);
+        cache.tick();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMutiThreadsUpdateAndCheck() {
+        TinyLfuCache cache = new TinyLfuCache();
+
+        runWithThreads(THREADS_NUM, () -> {
+            Map<Id, Object> map = new HashMap<>(1000);
+
+            for (int i = 0; i < 1000; i++) {
+                Id id = IdGenerator.of(Thread.currentThread().getName() +
+                                       "-" + i);
+                String value = "value-" + i;
+                cache.update(id, value);
+
+                map.put(id, value);
+            }
+
+            for (Map.Entry<Id, Object> entry : map.entrySet()) {
+                Assert.assertEquals(entry.getValue(),
+                                    cache.get(entry.getKey()));
+            }
+        });
+        Assert.assertEquals(THREADS_NUM * 1000, cache.size());
+    }
+
+    @Test
+    public void testMutiThreadsUpdateWithGtCapacity() {
+        TinyLfuCache cache = new TinyLfuCache(10);
+
+        runWithThreads(THREADS_NUM, () -> {
+            for (int i = 0; i < 10000 * 100; i++) {
+                Id id = IdGenerator.of(
+                        Thread.currentThread().getName() + "-" + i);
+                cache.update(id, "value-" + i);
+            }
+        });
+        // Trigger the pending maintenance
+        cache.update(IdGenerator.of("last"), "value-last");
+        Assert.assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void testMutiThreadsGetAndUpdateWithGtCapacity() {
+        TinyLfuCache cache = new TinyLfuCache(10);
+
+        runWithThreads(THREADS_NUM, () -> {
+            for (int i = 0; i < 10000 * 20; i++) {
+                for (int k = 0; k < 15; k++) {
+                    Id id = IdGenerator.of(k);
+                    Object value = cache.get(id);
+                    if (value != null) {
+                        Assert.assertEquals("value-" + k, value);
+                    } else {
+                        cache.update(id, "value-" + k);
+                    }
+                }
+            }
+        });
+        cache.update(IdGenerator.of("last"), "value-last");
+        Assert.assertEquals(10, cache.size());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.ConcurrentIdSet;
+
+public class ConcurrentIdSetTest extends BaseUnitTest {
+
+    @Test
+    public void testAddAndContains() {
+        ConcurrentIdSet set = new ConcurrentIdSet();
+        Assert.assertTrue(set.isEmpty());
+
+        Assert.assertTrue(set.add(IdGenerator.of(1)));
+        Assert.assertTrue(set.add(IdGenerator.of(0)));
+        Assert.assertTrue(set.add(IdGenerator.of(-1)));
+        Assert.assertTrue(set.add(IdGenerator.of("1")));
+        Assert.assertFalse(set.add(IdGenerator.of(1)));
+        Assert.assertFalse(set.add(IdGenerator.of(0)));
+        Assert.assertFalse(set.add(IdGenerator.of("1")));
+
+        Assert.assertEquals(4L, set.size());
+        Assert.assertTrue(set.contains(IdGenerator.of(1)));
+        Assert.assertTrue(set.contains(IdGenerator.of(0)));
+        Assert.assertTrue(set.contains(IdGenerator.of(-1)));
+        Assert.assertTrue(set.contains(IdGenerator.of("1")));
+        Assert.assertFalse(set.contains(IdGenerator.of(2)));
+        Assert.assertFalse(set.contains(IdGenerator.of("2")));
+    }
+
+    @Test
+    public void testAddManyNumberIds() {
+        ConcurrentIdSet set = new ConcurrentIdSet();
+        for (int i = 0; i < 100000; i++) {
+            Assert.assertTrue(set.add(IdGenerator.of(i * 7L)));
+        }
+        Assert.assertEquals(100000L, set.size());
+        for (int i = 0; i < 100000; i++) {
+            Assert.assertTrue(set.contains(IdGenerator.of(i * 7L)));
+            Assert.assertFalse(set.contains(IdGenerator.of(i * 7L + 1L)));
+        }
+    }
+
+    @Test
+    public void testAddWithMultiThreads() {
+        ConcurrentIdSet set = new ConcurrentIdSet();
+        AtomicInteger added = new AtomicInteger(0);
+        runWithThreads(10, () -> {
+            for (int i = 0; i < 10000; i++) {
+                if (set.add(IdGenerator.of(i))) {
+                    added.incrementAndGet();
+                }
+                if (set.add(IdGenerator.of("v" + i))) {
+                    added.incrementAndGet();
+                }
+            }
+        });
+        Assert.assertEquals(20000, added.get());
+        Assert.assertEquals(20000L, set.size());
+    }
+}
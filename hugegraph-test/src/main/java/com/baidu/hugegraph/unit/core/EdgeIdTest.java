@@ -28,6 +28,7 @@ import org.junit.Test;
 import com.baidu.hugegraph.backend.id.EdgeId;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.unit.BaseUnitTest;
@@ -79,6 +80,64 @@ public class EdgeIdTest extends BaseUnitTest {
         Assert.assertFalse(edgeId3.equals(edgeId1));
     }
 
+    @Test
+    public void testEdgeIdNotEqual() {
+        EdgeId edgeId = new EdgeId(IdGenerator.of("1:marko"), Directions.OUT,
+                                   IdGenerator.of(1), "",
+                                   IdGenerator.of("1:josh"));
+        Assert.assertFalse(edgeId.equals(new EdgeId(
+                           IdGenerator.of("1:marko"), Directions.OUT,
+                           IdGenerator.of(2), "",
+                           IdGenerator.of("1:josh"))));
+        Assert.assertFalse(edgeId.equals(new EdgeId(
+                           IdGenerator.of("1:marko"), Directions.OUT,
+                           IdGenerator.of(1), "2019",
+                           IdGenerator.of("1:josh"))));
+        Assert.assertFalse(edgeId.equals(new EdgeId(
+                           IdGenerator.of("1:marko"), Directions.IN,
+                           IdGenerator.of(1), "",
+                           IdGenerator.of("1:josh"))));
+        Assert.assertFalse(edgeId.equals(edgeId.directed(true)));
+        Assert.assertFalse(edgeId.equals(IdGenerator.of(edgeId.asString())));
+    }
+
+    @Test
+    public void testEdgeIdHashCode() {
+        EdgeId edgeId1 = new EdgeId(IdGenerator.of("1:marko"), Directions.OUT,
+                                    IdGenerator.of(1), "",
+                                    IdGenerator.of(2));
+        EdgeId edgeId2 = new EdgeId(IdGenerator.of(2), Directions.IN,
+                                    IdGenerator.of(1), "",
+                                    IdGenerator.of("1:marko"));
+        Assert.assertEquals(edgeId1.hashCode(), edgeId2.hashCode());
+        Assert.assertEquals(edgeId1.hashCode(),
+                            EdgeId.parse(edgeId1.asString()).hashCode());
+        Assert.assertEquals(edgeId1, EdgeId.parse(edgeId2.asString()));
+
+        EdgeId edgeId3 = edgeId1.directed(true);
+        Assert.assertEquals(edgeId3.hashCode(),
+                            edgeId2.switchDirection().directed(true)
+                                   .hashCode());
+        Assert.assertEquals(edgeId3, edgeId2.switchDirection().directed(true));
+        Assert.assertEquals(edgeId3, EdgeId.parse(edgeId3.asString())
+                                           .directed(true));
+    }
+
+    @Test
+    public void testEdgeIdBinary() {
+        EdgeId edgeId = new EdgeId(IdGenerator.of("1:marko"), Directions.IN,
+                                   IdGenerator.of(1), "2019",
+                                   IdGenerator.of(2), true);
+        BytesBuffer buffer = BytesBuffer.allocate(0);
+        byte[] bytes = buffer.writeEdgeId(edgeId).bytes();
+
+        EdgeId edgeId2 = BytesBuffer.wrap(bytes).readEdgeId();
+        Assert.assertEquals(edgeId, edgeId2);
+        Assert.assertEquals(edgeId.hashCode(), edgeId2.hashCode());
+        Assert.assertEquals(edgeId.asString(), edgeId2.asString());
+        Assert.assertTrue(edgeId2.directed());
+    }
+
     @Test
     public void testCollectionContainsEdgeId() {
         EdgeId edgeId1 = new EdgeId(IdGenerator.of("1:marko"), Directions.OUT,
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.store.BackendMutation;
+import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.backend.tx.GroupCommitter;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.ExecutorUtil;
+
+public class GroupCommitterTest extends BaseUnitTest {
+
+    private static final int THREADS = 8;
+
+    private static List<Boolean> commitConcurrently(GroupCommitter committer,
+                                                    BackendStore store)
+                                                    throws Exception {
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(
+                                   THREADS, "group-commit-test-%d");
+        CountDownLatch latch = new CountDownLatch(THREADS);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    latch.countDown();
+                    latch.await();
+                    return committer.commit(store, new BackendMutation());
+                }));
+            }
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCommitAlone() {
+        BackendStore store = Mockito.mock(BackendStore.class);
+        GroupCommitter committer = new GroupCommitter(10L, 100);
+
+        // Commit as usual if nobody joined the group
+        Assert.assertFalse(committer.commit(store, new BackendMutation()));
+        Mockito.verify(store, Mockito.never()).commitTx();
+    }
+
+    @Test
+    public void testCommitConcurrently() throws Exception {
+        BackendStore store = Mockito.mock(BackendStore.class);
+        AtomicInteger mutated = new AtomicInteger();
+        AtomicInteger committed = new AtomicInteger();
+        Mockito.doAnswer(invocation -> mutated.incrementAndGet())
+               .when(store).mutate(Mockito.any());
+        Mockito.doAnswer(invocation -> committed.incrementAndGet())
+               .when(store).commitTx();
+
+        GroupCommitter committer = new GroupCommitter(500L, 10000);
+        List<Boolean> results = commitConcurrently(committer, store);
+
+        int grouped = 0;
+        for (boolean result : results) {
+            if (result) {
+                grouped++;
+            }
+        }
+        // Each grouped commit is written by the leader of its group
+        Assert.assertTrue(grouped > 1);
+        Assert.assertEquals(grouped, mutated.get());
+        Assert.assertTrue(committed.get() < grouped);
+    }
+
+    @Test
+    public void testCommitFullGroupWithoutWaiting() throws Exception {
+        BackendStore store = Mockito.mock(BackendStore.class);
+        // A very long window, the group is committed when it's full
+        GroupCommitter committer = new GroupCommitter(1000L * 60, 1);
+
+        BackendMutation mutation = Mockito.mock(BackendMutation.class);
+        Mockito.when(mutation.size()).thenReturn(1);
+        Assert.assertFalse(committer.commit(store, mutation));
+    }
+
+    @Test
+    public void testCommitGroupFailed() throws Exception {
+        BackendStore store = Mockito.mock(BackendStore.class);
+        Mockito.doThrow(new BackendException("Failed to mutate"))
+               .when(store).mutate(Mockito.any());
+
+        GroupCommitter committer = new GroupCommitter(500L, 10000);
+        List<Boolean> results = commitConcurrently(committer, store);
+
+        // All the committers should commit alone
+        for (boolean result : results) {
+            Assert.assertFalse(result);
+        }
+        Mockito.verify(store, Mockito.atLeastOnce()).rollbackTx();
+        Mockito.verify(store, Mockito.never()).commitTx();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.structure.HugeProperty;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.define.Cardinality;
+import com.baidu.hugegraph.type.define.DataType;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableSet;
+
+public class HugeElementPropertiesTest extends BaseUnitTest {
+
+    private HugeGraph graph;
+    private VertexLabel person;
+
+    private PropertyKey name;
+    private PropertyKey age;
+    private PropertyKey score;
+    private PropertyKey alive;
+    private PropertyKey born;
+    private PropertyKey tags;
+    private PropertyKey extra;
+
+    @Before
+    public void setup() {
+        this.graph = Mockito.mock(HugeGraph.class);
+        Mockito.when(this.graph.compactProperties()).thenReturn(true);
+
+        this.name = this.propertyKey(1, "name", DataType.TEXT);
+        this.age = this.propertyKey(2, "age", DataType.INT);
+        this.score = this.propertyKey(3, "score", DataType.DOUBLE);
+        this.alive = this.propertyKey(4, "alive", DataType.BOOLEAN);
+        this.born = this.propertyKey(5, "born", DataType.DATE);
+        this.tags = this.propertyKey(6, "tags", DataType.TEXT);
+        this.tags.cardinality(Cardinality.SET);
+        // Not a property of the label
+        this.extra = this.propertyKey(7, "extra", DataType.LONG);
+
+        this.person = new VertexLabel(this.graph, IdGenerator.of(1),
+                                      "person");
+        this.person.properties(this.name.id(), this.age.id(),
+                               this.score.id(), this.alive.id(),
+                               this.born.id(), this.tags.id());
+    }
+
+    @After
+    public void teardown() {
+        // pass
+    }
+
+    private PropertyKey propertyKey(long id, String name, DataType type) {
+        PropertyKey pkey = new PropertyKey(this.graph, IdGenerator.of(id),
+                                           name);
+        pkey.dataType(type);
+        Mockito.when(this.graph.propertyKey(pkey.id())).thenReturn(pkey);
+        return pkey;
+    }
+
+    private HugeVertex newVertex() {
+        return new HugeVertex(this.graph, IdGenerator.of(1L), this.person);
+    }
+
+    @Test
+    public void testAddAndGetProperties() {
+        HugeVertex vertex = this.newVertex();
+        Assert.assertFalse(vertex.hasProperties());
+
+        Date date = new Date(1514736000000L);
+        vertex.addProperty(this.name, "marko");
+        vertex.addProperty(this.age, 29);
+        vertex.addProperty(this.score, 9.5D);
+        vertex.addProperty(this.alive, true);
+        vertex.addProperty(this.born, date);
+        vertex.addProperty(this.extra, 100L);
+
+        Assert.assertEquals(6, vertex.sizeOfProperties());
+        Assert.assertTrue(vertex.hasProperty(this.age.id()));
+        Assert.assertFalse(vertex.hasProperty(this.tags.id()));
+
+        Assert.assertEquals("marko", vertex.getPropertyValue(this.name.id()));
+        Assert.assertEquals(29, (int) vertex.getPropertyValue(this.age.id()));
+        Assert.assertEquals(9.5D, (double) vertex.getPropertyValue(
+                                  this.score.id()), 0.0D);
+        Assert.assertTrue(vertex.getPropertyValue(this.alive.id()));
+        Assert.assertEquals(date, vertex.getPropertyValue(this.born.id()));
+        Assert.assertEquals(100L, (long) vertex.getPropertyValue(
+                                  this.extra.id()));
+        Assert.assertNull(vertex.getPropertyValue(this.tags.id()));
+
+        HugeProperty<Integer> age = vertex.getProperty(this.age.id());
+        Assert.assertEquals(this.age, age.propertyKey());
+        Assert.assertEquals(vertex, age.element());
+
+        Map<Id, HugeProperty<?>> props = vertex.getProperties();
+        Assert.assertEquals(6, props.size());
+        Assert.assertEquals(6, props.values().size());
+        for (Map.Entry<Id, HugeProperty<?>> e : props.entrySet()) {
+            Assert.assertEquals(e.getKey(), e.getValue().propertyKey().id());
+        }
+
+        Map<Id, Object> values = vertex.getPropertiesMap();
+        Assert.assertEquals(6, values.size());
+        Assert.assertEquals(29, values.get(this.age.id()));
+    }
+
+    @Test
+    public void testUpdateAndRemoveProperties() {
+        HugeVertex vertex = this.newVertex();
+        vertex.addProperty(this.age, 29);
+        vertex.addProperty(this.tags, "a");
+        vertex.addProperty(this.tags, ImmutableSet.of("b", "c"));
+
+        HugeProperty<?> prop = vertex.addProperty(this.age, 30);
+        Assert.assertEquals(30, prop.value());
+        Assert.assertEquals(30, (int) vertex.getPropertyValue(this.age.id()));
+        Assert.assertEquals(ImmutableSet.of("a", "b", "c"),
+                            vertex.getPropertyValue(this.tags.id()));
+        Assert.assertEquals(2, vertex.sizeOfProperties());
+
+        HugeProperty<?> removed = vertex.removeProperty(this.age.id());
+        Assert.assertEquals(30, removed.value());
+        Assert.assertNull(vertex.removeProperty(this.age.id()));
+        Assert.assertFalse(vertex.hasProperty(this.age.id()));
+        Assert.assertEquals(1, vertex.sizeOfProperties());
+
+        vertex.resetProperties();
+        Assert.assertFalse(vertex.hasProperties());
+        Assert.assertEquals(0, vertex.getProperties().size());
+    }
+
+    @Test
+    public void testCopyProperties() {
+        HugeVertex vertex = this.newVertex();
+        vertex.addProperty(this.name, "marko");
+        vertex.addProperty(this.age, 29);
+        vertex.addProperty(this.extra, 100L);
+
+        HugeVertex copy = vertex.copy();
+        copy.removeProperty(this.name.id());
+        copy.removeProperty(this.extra.id());
+        copy.addProperty(this.age, 30);
+
+        Assert.assertEquals(3, vertex.sizeOfProperties());
+        Assert.assertEquals("marko", vertex.getPropertyValue(this.name.id()));
+        Assert.assertEquals(29, (int) vertex.getPropertyValue(this.age.id()));
+        Assert.assertEquals(100L, (long) vertex.getPropertyValue(
+                                  this.extra.id()));
+
+        Assert.assertEquals(1, copy.sizeOfProperties());
+        Assert.assertEquals(30, (int) copy.getPropertyValue(this.age.id()));
+        Assert.assertSame(copy, copy.getProperty(this.age.id()).element());
+    }
+}
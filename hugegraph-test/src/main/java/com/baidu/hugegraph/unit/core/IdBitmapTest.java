@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.IdBitmap;
+
+public class IdBitmapTest extends BaseUnitTest {
+
+    private static List<Long> toList(IdBitmap bitmap) {
+        List<Long> values = new ArrayList<>();
+        PrimitiveIterator.OfLong iter = bitmap.iterator();
+        while (iter.hasNext()) {
+            values.add(iter.nextLong());
+        }
+        return values;
+    }
+
+    @Test
+    public void testAddRemoveAndContains() {
+        IdBitmap bitmap = new IdBitmap();
+        Assert.assertTrue(bitmap.isEmpty());
+
+        Assert.assertTrue(bitmap.add(1L));
+        Assert.assertTrue(bitmap.add(0L));
+        Assert.assertTrue(bitmap.add(-1L));
+        Assert.assertTrue(bitmap.add(Long.MAX_VALUE));
+        Assert.assertTrue(bitmap.add(Long.MIN_VALUE));
+        Assert.assertFalse(bitmap.add(1L));
+
+        Assert.assertEquals(5L, bitmap.cardinality());
+        Assert.assertTrue(bitmap.contains(1L));
+        Assert.assertTrue(bitmap.contains(-1L));
+        Assert.assertTrue(bitmap.contains(Long.MIN_VALUE));
+        Assert.assertFalse(bitmap.contains(2L));
+
+        Assert.assertTrue(bitmap.remove(1L));
+        Assert.assertFalse(bitmap.remove(1L));
+        Assert.assertFalse(bitmap.remove(2L));
+        Assert.assertFalse(bitmap.contains(1L));
+        Assert.assertEquals(4L, bitmap.cardinality());
+
+        Assert.assertEquals(IdBitmap.of(Long.MIN_VALUE, -1L, 0L,
+                                        Long.MAX_VALUE), bitmap);
+    }
+
+    @Test
+    public void testIterateInOrder() {
+        IdBitmap bitmap = IdBitmap.of(100000L, 3L, -5L, 65536L, 65535L);
+        Assert.assertEquals(5L, bitmap.cardinality());
+        Assert.assertEquals(toList(IdBitmap.of(-5L, 3L, 65535L,
+                                               65536L, 100000L)),
+                            toList(bitmap));
+    }
+
+    @Test
+    public void testAddAndRemoveManyValues() {
+        // Dense chunks are converted to bitmap containers and back
+        IdBitmap bitmap = new IdBitmap();
+        for (long i = 0; i < 20000L; i++) {
+            Assert.assertTrue(bitmap.add(i));
+        }
+        Assert.assertEquals(20000L, bitmap.cardinality());
+        for (long i = 0; i < 20000L; i++) {
+            Assert.assertTrue(bitmap.contains(i));
+        }
+        Assert.assertFalse(bitmap.contains(20000L));
+
+        for (long i = 0; i < 20000L; i += 2) {
+            Assert.assertTrue(bitmap.remove(i));
+        }
+        Assert.assertEquals(10000L, bitmap.cardinality());
+        for (long i = 0; i < 20000L; i++) {
+            Assert.assertEquals(i % 2 == 1, bitmap.contains(i));
+        }
+
+        for (long i = 1; i < 20000L; i += 2) {
+            Assert.assertTrue(bitmap.remove(i));
+        }
+        Assert.assertTrue(bitmap.isEmpty());
+        Assert.assertEquals(new IdBitmap(), bitmap);
+    }
+
+    @Test
+    public void testSetOperations() {
+        Random random = new Random(7);
+        TreeSet<Long> set1 = new TreeSet<>();
+        TreeSet<Long> set2 = new TreeSet<>();
+        IdBitmap bitmap1 = new IdBitmap();
+        IdBitmap bitmap2 = new IdBitmap();
+        for (int i = 0; i < 30000; i++) {
+            long value1 = random.nextInt(200000);
+            long value2 = random.nextInt(i % 2 == 0 ? 200000 : 1000);
+            set1.add(value1);
+            bitmap1.add(value1);
+            set2.add(value2);
+            bitmap2.add(value2);
+        }
+        Assert.assertEquals(new ArrayList<>(set1), toList(bitmap1));
+        Assert.assertEquals(new ArrayList<>(set2), toList(bitmap2));
+
+        TreeSet<Long> expected = new TreeSet<>(set1);
+        expected.addAll(set2);
+        IdBitmap result = IdBitmap.or(bitmap1, bitmap2);
+        Assert.assertEquals(new ArrayList<>(expected), toList(result));
+        Assert.assertEquals(expected.size(), result.cardinality());
+
+        expected = new TreeSet<>(set1);
+        expected.retainAll(set2);
+        result = IdBitmap.and(bitmap1, bitmap2);
+        Assert.assertEquals(new ArrayList<>(expected), toList(result));
+        Assert.assertEquals(expected.size(), result.cardinality());
+
+        expected = new TreeSet<>(set1);
+        expected.removeAll(set2);
+        result = IdBitmap.andNot(bitmap1, bitmap2);
+        Assert.assertEquals(new ArrayList<>(expected), toList(result));
+        Assert.assertEquals(expected.size(), result.cardinality());
+
+        // The in-place operations
+        result = bitmap1.copy();
+        result.or(bitmap2);
+        Assert.assertEquals(IdBitmap.or(bitmap1, bitmap2), result);
+        result.andNot(bitmap2);
+        Assert.assertEquals(IdBitmap.andNot(bitmap1, bitmap2), result);
+        result.and(bitmap2);
+        Assert.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testToBytesAndFromBytes() {
+        IdBitmap bitmap = IdBitmap.of(-1L, 1L, 1L << 40);
+        for (long i = 100000L; i < 110000L; i++) {
+            bitmap.add(i);
+        }
+        byte[] bytes = bitmap.toBytes();
+        IdBitmap result = IdBitmap.fromBytes(bytes);
+        Assert.assertEquals(bitmap, result);
+        Assert.assertEquals(bitmap.cardinality(), result.cardinality());
+
+        Assert.assertEquals(new IdBitmap(),
+                            IdBitmap.fromBytes(new IdBitmap().toBytes()));
+    }
+
+    @Test
+    public void testFromInvalidBytes() {
+        byte[] bytes = IdBitmap.of(1L, 2L, 3L).toBytes();
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Assert.assertThrows(HugeException.class, () -> {
+            IdBitmap.fromBytes(truncated);
+        });
+
+        // Invalid type of container
+        bytes[12] = (byte) 0x7f;
+        byte[] invalidType = bytes;
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            IdBitmap.fromBytes(invalidType);
+        });
+    }
+}
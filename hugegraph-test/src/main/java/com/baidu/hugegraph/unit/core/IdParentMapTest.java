@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.IdParentMap;
+
+public class IdParentMapTest extends BaseUnitTest {
+
+    @Test
+    public void testPutAndGet() {
+        IdParentMap map = new IdParentMap();
+        Assert.assertTrue(map.isEmpty());
+
+        Id root = IdGenerator.of(0);
+        Assert.assertTrue(map.putIfAbsent(root, root));
+        Assert.assertTrue(map.putIfAbsent(IdGenerator.of(1), root));
+        Assert.assertTrue(map.putIfAbsent(IdGenerator.of("a"), root));
+        Assert.assertTrue(map.putIfAbsent(IdGenerator.of(2),
+                                          IdGenerator.of("a")));
+        Assert.assertFalse(map.putIfAbsent(IdGenerator.of(1),
+                                           IdGenerator.of(2)));
+        Assert.assertFalse(map.putIfAbsent(root, IdGenerator.of(1)));
+
+        Assert.assertEquals(4L, map.size());
+        Assert.assertEquals(root, map.get(root));
+        Assert.assertEquals(root, map.get(IdGenerator.of(1)));
+        Assert.assertEquals(root, map.get(IdGenerator.of("a")));
+        Assert.assertEquals(IdGenerator.of("a"), map.get(IdGenerator.of(2)));
+
+        Assert.assertTrue(map.containsKey(IdGenerator.of(2)));
+        Assert.assertFalse(map.containsKey(IdGenerator.of(3)));
+        Assert.assertFalse(map.containsKey(IdGenerator.of("1")));
+        Assert.assertNull(map.get(IdGenerator.of(3)));
+        Assert.assertNull(map.get(IdGenerator.of("b")));
+    }
+
+    @Test
+    public void testPutManyNumberIds() {
+        IdParentMap map = new IdParentMap();
+        for (int i = 1; i <= 100000; i++) {
+            Assert.assertTrue(map.putIfAbsent(IdGenerator.of(i),
+                                              IdGenerator.of(i - 1)));
+        }
+        Assert.assertEquals(100000L, map.size());
+        for (int i = 1; i <= 100000; i++) {
+            Assert.assertEquals(IdGenerator.of(i - 1),
+                                map.get(IdGenerator.of(i)));
+        }
+        Assert.assertFalse(map.containsKey(IdGenerator.of(0)));
+        Assert.assertFalse(map.containsKey(IdGenerator.of(100001)));
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.backend.tx.IndexBitmapCompactor;
+import com.baidu.hugegraph.schema.IndexLabel;
+import com.baidu.hugegraph.structure.HugeIndex;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+
+public class IndexBitmapCompactorTest extends BaseUnitTest {
+
+    private static final long WAIT = 10L;
+
+    private static HugeGraph graph(GraphTransaction tx) {
+        HugeGraph graph = Mockito.mock(HugeGraph.class);
+        Mockito.when(graph.name()).thenReturn("g");
+        Mockito.when(graph.graphTransaction()).thenReturn(tx);
+        return graph;
+    }
+
+    private static IndexLabel indexLabel(long id) {
+        IndexLabel indexLabel = Mockito.mock(IndexLabel.class);
+        Mockito.when(indexLabel.id()).thenReturn(IdGenerator.of(id));
+        Mockito.when(indexLabel.name()).thenReturn("index" + id);
+        return indexLabel;
+    }
+
+    private static HugeIndex index(String id, Object fieldValues) {
+        HugeIndex index = Mockito.mock(HugeIndex.class);
+        Mockito.when(index.id()).thenReturn(IdGenerator.of(id));
+        Mockito.when(index.fieldValues()).thenReturn(fieldValues);
+        return index;
+    }
+
+    @Test
+    public void testCompactOnceUntilCompacted() throws Exception {
+        GraphTransaction tx = Mockito.mock(GraphTransaction.class);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicInteger compacted = new AtomicInteger();
+        Mockito.doAnswer(invocation -> {
+            compacted.incrementAndGet();
+            started.countDown();
+            blocked.await();
+            return null;
+        }).when(tx).compactIndexBitmap(Mockito.any(), Mockito.any());
+
+        IndexBitmapCompactor compactor = new IndexBitmapCompactor(graph(tx));
+        IndexLabel indexLabel = indexLabel(1L);
+        HugeIndex index = index("1:Beijing", "Beijing");
+        try {
+            compactor.compact(indexLabel, index);
+            Assert.assertTrue(started.await(WAIT, TimeUnit.SECONDS));
+            // Ignore the requests of the index being compacted
+            compactor.compact(indexLabel, index);
+            compactor.compact(indexLabel, index);
+            blocked.countDown();
+        } finally {
+            compactor.close();
+        }
+
+        Assert.assertEquals(1, compacted.get());
+        Mockito.verify(tx).compactIndexBitmap(indexLabel, "Beijing");
+
+        // Ignore the requests after closed
+        compactor.compact(indexLabel, index);
+        Assert.assertEquals(1, compacted.get());
+    }
+
+    @Test
+    public void testCompactAgainAfterFailed() throws Exception {
+        GraphTransaction tx = Mockito.mock(GraphTransaction.class);
+        CountDownLatch failed = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            failed.countDown();
+            throw new IllegalStateException("Failed to compact");
+        }).doNothing().when(tx).compactIndexBitmap(Mockito.any(),
+                                                   Mockito.any());
+
+        HugeGraph graph = graph(tx);
+        IndexBitmapCompactor compactor = new IndexBitmapCompactor(graph);
+        IndexLabel indexLabel = indexLabel(1L);
+        HugeIndex index = index("1:Beijing", "Beijing");
+        try {
+            compactor.compact(indexLabel, index);
+            Assert.assertTrue(failed.await(WAIT, TimeUnit.SECONDS));
+        } finally {
+            compactor.close();
+        }
+        Mockito.verify(graph).closeTx();
+
+        compactor = new IndexBitmapCompactor(graph);
+        try {
+            compactor.compact(indexLabel, index);
+        } finally {
+            compactor.close();
+        }
+        Mockito.verify(tx, Mockito.times(2))
+               .compactIndexBitmap(indexLabel, "Beijing");
+    }
+
+    @Test
+    public void testCompactAfterCommitted() throws Exception {
+        GraphTransaction tx = Mockito.mock(GraphTransaction.class);
+        IndexBitmapCompactor compactor = new IndexBitmapCompactor(graph(tx));
+        IndexLabel indexLabel = indexLabel(1L);
+        Id other = IdGenerator.of(2L);
+
+        CountDownLatch compacting = new CountDownLatch(1);
+        CountDownLatch compacted = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            compacting.countDown();
+            Lock lock = compactor.lockCompact(indexLabel.id());
+            try {
+                compacted.countDown();
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }).when(tx).compactIndexBitmap(Mockito.any(), Mockito.any());
+
+        try {
+            // The commit locks of an index label are shared
+            Lock committing = compactor.lockCommit(indexLabel.id());
+            Lock committing2 = compactor.lockCommit(indexLabel.id());
+
+            compactor.compact(indexLabel, index("1:Beijing", "Beijing"));
+            Assert.assertTrue(compacting.await(WAIT, TimeUnit.SECONDS));
+            // Wait for the transactions committing deltas of the label
+            Assert.assertFalse(compacted.await(100L, TimeUnit.MILLISECONDS));
+
+            // The other index labels are not blocked
+            compactor.lockCommit(other).unlock();
+
+            committing.unlock();
+            Assert.assertFalse(compacted.await(100L, TimeUnit.MILLISECONDS));
+            committing2.unlock();
+            Assert.assertTrue(compacted.await(WAIT, TimeUnit.SECONDS));
+        } finally {
+            compactor.close();
+        }
+    }
+}
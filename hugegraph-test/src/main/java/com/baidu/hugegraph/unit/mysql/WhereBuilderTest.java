@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.mysql;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.store.mysql.WhereBuilder;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableList;
+
+public class WhereBuilderTest extends BaseUnitTest {
+
+    @Test
+    public void testKeysetOfSingleKey() {
+        WhereBuilder where = new WhereBuilder();
+        where.gte(ImmutableList.of("ID"), ImmutableList.of(1));
+        Assert.assertEquals(" WHERE (ID >= 1)", where.build());
+
+        where = new WhereBuilder();
+        where.gt(ImmutableList.of("ID"), ImmutableList.of("v1"));
+        Assert.assertEquals(" WHERE (ID > 'v1')", where.build());
+    }
+
+    @Test
+    public void testKeysetOfMultiKeys() {
+        WhereBuilder where = new WhereBuilder();
+        where.gte(ImmutableList.of("A", "B"), ImmutableList.of("a", 2));
+        Assert.assertEquals(" WHERE (A >= 'a' AND (A > 'a' OR B >= 2))",
+                            where.build());
+
+        where = new WhereBuilder(false);
+        where.gt(ImmutableList.of("A", "B", "C"),
+                 ImmutableList.of(1, 2, 3));
+        Assert.assertEquals(" (A >= 1 AND (A > 1 OR " +
+                            "(B >= 2 AND (B > 2 OR C > 3))))",
+                            where.build());
+    }
+
+    @Test
+    public void testKeysetWithUnmatchedValues() {
+        WhereBuilder where = new WhereBuilder();
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            where.gt(ImmutableList.of("A", "B"), ImmutableList.of(1));
+        });
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.palo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.store.palo.PaloHttpClient;
+import com.baidu.hugegraph.backend.store.palo.PaloStreamLoader;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+
+public class PaloStreamLoaderTest extends BaseUnitTest {
+
+    private static final String TABLE = "vertices";
+
+    private static List<String> rows(int from, int to) {
+        List<String> rows = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            rows.add(i + "\tv" + i);
+        }
+        return rows;
+    }
+
+    @Test
+    public void testLoadByBatchSizeAndFlush() {
+        PaloHttpClient client = Mockito.mock(PaloHttpClient.class);
+        List<String> spilled = Collections.synchronizedList(new ArrayList<>());
+        // Each row takes 7 bytes, send a stream load per 10 rows
+        PaloStreamLoader loader = new PaloStreamLoader(client, 70L, 1024L,
+                                                       2, false,
+                                                       (table, rows) -> {
+            spilled.addAll(rows);
+        });
+
+        Assert.assertTrue(loader.add(TABLE, rows(10, 20)));
+        Assert.assertTrue(loader.add(TABLE, rows(20, 25)));
+        loader.close();
+
+        Mockito.verify(client, Mockito.times(2))
+               .streamLoad(Mockito.eq(TABLE), Mockito.any(),
+                           Mockito.anyString(), Mockito.eq(false));
+        Map<String, Object> metrics = loader.metrics();
+        Assert.assertEquals(15L, metrics.get("loaded_rows"));
+        Assert.assertEquals(2L, metrics.get("loads"));
+        Assert.assertEquals(0L, metrics.get("pending_bytes"));
+        Assert.assertEquals(0, spilled.size());
+    }
+
+    @Test
+    public void testLoadBatchesOfTableInOrder() {
+        PaloHttpClient client = Mockito.mock(PaloHttpClient.class);
+        List<String> loaded = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Mockito.doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                // The earlier loads are slower
+                Thread.sleep(loaded.isEmpty() ? 20L : 1L);
+                byte[] body = (byte[]) invocation.getArguments()[1];
+                loaded.add(new String(body, StandardCharsets.UTF_8));
+            } finally {
+                running.decrementAndGet();
+            }
+            return null;
+        }).when(client).streamLoad(Mockito.eq(TABLE), Mockito.any(),
+                                   Mockito.anyString(), Mockito.eq(false));
+        // Each row takes 7 bytes, send a stream load per row
+        PaloStreamLoader loader = new PaloStreamLoader(client, 7L, 1024L,
+                                                       4, false,
+                                                       (table, rows) -> {
+            Assert.fail("Unexpected spilling");
+        });
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 10; i < 30; i++) {
+            Assert.assertTrue(loader.add(TABLE, rows(i, i + 1)));
+            expected.add(i + "\tv" + i + "\n");
+        }
+        loader.close();
+
+        // At most one load of a table is in flight
+        Assert.assertEquals(1, maxRunning.get());
+        Assert.assertEquals(expected, loaded);
+        Assert.assertEquals(20L, loader.metrics().get("loads"));
+        Assert.assertEquals(0L, loader.metrics().get("inflight_loads"));
+    }
+
+    @Test
+    public void testSpillFailedLoad() {
+        PaloHttpClient client = Mockito.mock(PaloHttpClient.class);
+        Mockito.doThrow(new BackendException("Failed to load"))
+               .when(client).streamLoad(Mockito.anyString(), Mockito.any(),
+                                        Mockito.anyString(),
+                                        Mockito.anyBoolean());
+        List<String> spilled = Collections.synchronizedList(new ArrayList<>());
+        PaloStreamLoader loader = new PaloStreamLoader(client, 70L, 1024L,
+                                                       2, true,
+                                                       (table, rows) -> {
+            spilled.addAll(rows);
+        });
+
+        Assert.assertTrue(loader.add(TABLE, rows(10, 20)));
+        loader.close();
+
+        Assert.assertEquals(rows(10, 20), spilled);
+        Map<String, Object> metrics = loader.metrics();
+        Assert.assertEquals(0L, metrics.get("loaded_rows"));
+        Assert.assertEquals(1L, metrics.get("failed_loads"));
+        Assert.assertEquals(10L, metrics.get("spilled_rows"));
+    }
+
+    @Test
+    public void testSpillLaterBatchesOfFailedLoad() {
+        PaloHttpClient client = Mockito.mock(PaloHttpClient.class);
+        Mockito.doAnswer(invocation -> {
+            Thread.sleep(20L);
+            throw new BackendException("Failed to load");
+        }).when(client).streamLoad(Mockito.anyString(), Mockito.any(),
+                                   Mockito.anyString(), Mockito.anyBoolean());
+        List<String> spilled = Collections.synchronizedList(new ArrayList<>());
+        // Each row takes 7 bytes, send a stream load per row
+        PaloStreamLoader loader = new PaloStreamLoader(client, 7L, 1024L,
+                                                       2, false,
+                                                       (table, rows) -> {
+            spilled.addAll(rows);
+        });
+
+        for (int i = 10; i < 15; i++) {
+            loader.add(TABLE, rows(i, i + 1));
+        }
+        loader.close();
+
+        // The later batches are spilled after the failed one in order
+        Mockito.verify(client, Mockito.times(1))
+               .streamLoad(Mockito.eq(TABLE), Mockito.any(),
+                           Mockito.anyString(), Mockito.eq(false));
+        Assert.assertEquals(rows(10, 15), spilled);
+        Assert.assertEquals(0L, loader.metrics().get("pending_bytes"));
+    }
+
+    @Test
+    public void testSpillWhenBufferIsFull() {
+        PaloHttpClient client = Mockito.mock(PaloHttpClient.class);
+        List<String> spilled = Collections.synchronizedList(new ArrayList<>());
+        PaloStreamLoader loader = new PaloStreamLoader(client, 70L, 100L,
+                                                       1, false,
+                                                       (table, rows) -> {
+            spilled.addAll(rows);
+        });
+
+        // Buffer 56 bytes, less than the batch size
+        Assert.assertTrue(loader.add(TABLE, rows(10, 18)));
+        Assert.assertEquals(56L, loader.metrics().get("pending_bytes"));
+        // Spill the buffered rows and then 49 bytes exceeding the buffer
+        Assert.assertFalse(loader.add(TABLE, rows(20, 27)));
+        Assert.assertEquals(15L, loader.metrics().get("spilled_rows"));
+        Assert.assertEquals(0L, loader.metrics().get("pending_bytes"));
+
+        // Spill the later rows until the files of the table are loaded
+        Assert.assertFalse(loader.add(TABLE, rows(30, 31)));
+        loader.resume(TABLE, () -> false);
+        Assert.assertFalse(loader.add(TABLE, rows(31, 32)));
+        loader.resume(TABLE, () -> true);
+        Assert.assertTrue(loader.add(TABLE, rows(40, 41)));
+
+        List<String> expected = new ArrayList<>();
+        expected.addAll(rows(10, 18));
+        expected.addAll(rows(20, 27));
+        expected.addAll(rows(30, 32));
+        Assert.assertEquals(expected, spilled);
+
+        loader.close();
+        Assert.assertFalse(loader.add(TABLE, rows(50, 51)));
+        Assert.assertEquals(1L, loader.metrics().get("loaded_rows"));
+    }
+}
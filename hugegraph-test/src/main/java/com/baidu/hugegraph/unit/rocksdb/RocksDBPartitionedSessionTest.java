@@ -0,0 +1,215 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.rocksdb;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.rocksdb.RocksDBException;
+
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBPartitionedSession;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBStdSessions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.Bytes;
+
+public class RocksDBPartitionedSessionTest extends BaseUnitTest {
+
+    private static final String TMP_DIR = System.getProperty("java.io.tmpdir");
+    private static final String DB_PATH = TMP_DIR + "/" + "rocksdb-partition-";
+    private static final String TABLE = "test-table";
+    private static final int PARTITIONS = 2;
+
+    private List<RocksDBSessions> dbs;
+
+    @Before
+    public void setup() throws RocksDBException {
+        Configuration conf = Mockito.mock(PropertiesConfiguration.class);
+        Mockito.when(conf.getKeys()).thenReturn(Collections.emptyIterator());
+        HugeConfig config = new HugeConfig(conf);
+
+        this.dbs = new ArrayList<>();
+        for (int i = 0; i < PARTITIONS; i++) {
+            String path = DB_PATH + i;
+            RocksDBSessions db = new RocksDBStdSessions(config, path, path,
+                                                        "db", "store");
+            db.createTable(TABLE);
+            db.session();
+            this.dbs.add(db);
+        }
+    }
+
+    @After
+    public void teardown() throws RocksDBException, IOException {
+        for (int i = 0; i < PARTITIONS; i++) {
+            RocksDBSessions db = this.dbs.get(i);
+            db.dropTable(TABLE);
+            db.close();
+            FileUtils.forceDelete(FileUtils.getFile(DB_PATH + i));
+        }
+    }
+
+    private Session session() {
+        List<Session> sessions = new ArrayList<>();
+        for (RocksDBSessions db : this.dbs) {
+            sessions.add(db.session());
+        }
+        return new RocksDBPartitionedSession(sessions);
+    }
+
+    private static byte[] key(Object owner, String suffix) {
+        BytesBuffer buffer = BytesBuffer.allocate(32);
+        if (owner instanceof Long) {
+            buffer.writeId(IdGenerator.of((long) owner));
+        } else {
+            buffer.writeId(IdGenerator.of((String) owner));
+        }
+        return buffer.write(suffix.getBytes()).bytes();
+    }
+
+    private static int count(Iterator<BackendColumn> itor) {
+        int count = 0;
+        while (itor.hasNext()) {
+            itor.next();
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void testOwnerIdLength() {
+        Assert.assertEquals(2, RocksDBPartitionedSession.ownerIdLength(
+                               key(1L, "")));
+        Assert.assertEquals(5, RocksDBPartitionedSession.ownerIdLength(
+                               key(100000L, "")));
+        Assert.assertEquals(6, RocksDBPartitionedSession.ownerIdLength(
+                               key("marko", "abc")));
+        Assert.assertEquals(-1, RocksDBPartitionedSession.ownerIdLength(
+                                new byte[]{(byte) 0x84, 'a'}));
+        Assert.assertEquals(-1, RocksDBPartitionedSession.ownerIdLength(
+                                new byte[0]));
+    }
+
+    @Test
+    public void testPartitionOfSameOwner() {
+        int partition = RocksDBPartitionedSession.partitionOf(key(1L, "a"),
+                                                              PARTITIONS);
+        Assert.assertEquals(partition, RocksDBPartitionedSession.partitionOf(
+                                       key(1L, "bcd"), PARTITIONS));
+        Assert.assertEquals(partition, RocksDBPartitionedSession.partitionOf(
+                                       key(1L, ""), PARTITIONS));
+
+        boolean[] used = new boolean[PARTITIONS];
+        for (long i = 0; i < 100; i++) {
+            used[RocksDBPartitionedSession.partitionOf(key(i, ""),
+                                                       PARTITIONS)] = true;
+        }
+        for (boolean u : used) {
+            Assert.assertTrue(u);
+        }
+    }
+
+    @Test
+    public void testPutGetAndScan() {
+        Session session = this.session();
+        for (long i = 0; i < 100; i++) {
+            session.put(TABLE, key(i, "name"), ("v" + i).getBytes());
+            session.put(TABLE, key(i, "age"), ("" + i).getBytes());
+        }
+        Assert.assertTrue(session.hasChanges());
+        Assert.assertEquals(200, session.commit());
+        Assert.assertFalse(session.hasChanges());
+
+        for (long i = 0; i < 100; i++) {
+            Assert.assertArrayEquals(("v" + i).getBytes(),
+                                     session.get(TABLE, key(i, "name")));
+        }
+
+        // Records are distributed to all the partitions
+        for (RocksDBSessions db : this.dbs) {
+            Assert.assertTrue(db.session().scan(TABLE).hasNext());
+        }
+
+        Assert.assertEquals(200, count(session.scan(TABLE)));
+        Assert.assertEquals(2, count(session.scan(TABLE, key(7L, ""))));
+        Assert.assertEquals(1, count(session.scan(TABLE, key(7L, "n"))));
+
+        List<byte[]> prefixes = new ArrayList<>();
+        prefixes.add(key(1L, ""));
+        prefixes.add(key(2L, ""));
+        prefixes.add(key(3L, ""));
+        Assert.assertEquals(6, count(session.scan(TABLE, prefixes, 10L)));
+        Assert.assertEquals(3, count(session.scan(TABLE, prefixes, 1L)));
+
+        session.remove(TABLE, key(7L, "name"));
+        session.commit();
+        Assert.assertNull(session.get(TABLE, key(7L, "name")));
+        Assert.assertEquals(199, count(session.scan(TABLE)));
+    }
+
+    @Test
+    public void testScanFromPosition() {
+        Session session = this.session();
+        for (long i = 0; i < 10; i++) {
+            session.put(TABLE, key(i, "name"), ("v" + i).getBytes());
+        }
+        session.commit();
+
+        // Scan half of records, then continue to scan from the position
+        BackendColumnIterator itor = session.scan(TABLE);
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            keys.add(itor.next().name);
+        }
+        byte[] position = itor.position();
+        Assert.assertNotNull(position);
+        itor.close();
+
+        itor = session.scan(TABLE, position, null, Session.SCAN_ANY);
+        while (itor.hasNext()) {
+            keys.add(itor.next().name);
+        }
+        Assert.assertEquals(10, keys.size());
+        for (long i = 0; i < 10; i++) {
+            byte[] key = key(i, "name");
+            Assert.assertTrue(keys.stream().anyMatch(k -> {
+                return Bytes.equals(k, key);
+            }));
+        }
+        Assert.assertNull(itor.position());
+    }
+}
@@ -22,6 +22,7 @@ package com.baidu.hugegraph.unit.rocksdb;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Assume;
@@ -29,8 +30,10 @@ import org.junit.Test;
 import org.rocksdb.RocksDBException;
 
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
 import com.baidu.hugegraph.testutil.Assert;
+import com.google.common.collect.ImmutableList;
 
 public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
 
@@ -136,6 +139,71 @@ public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
         Assert.assertEquals("Lisa", get("person:2gname"));
     }
 
+    @Test
+    public void testScanByPrefixes() throws RocksDBException {
+        put("person:1gname", "James");
+        put("person:1gage", "19");
+        put("person:1gcity", "Beijing");
+
+        put("person:2gname", "Lisa");
+        put("person:2gage", "20");
+        put("person:2gcity", "Beijing");
+
+        put("person:3gname", "Hebe");
+        put("person:3gage", "21");
+        put("person:3gcity", "Taipei");
+
+        Map<String, String> results = new HashMap<>();
+        Session session = this.rocks.session();
+        List<byte[]> prefixes = ImmutableList.of(b("person:1"),
+                                                 b("person:3"),
+                                                 b("person:4"));
+        Iterator<BackendColumn> itor = session.scan(TABLE, prefixes,
+                                                    Long.MAX_VALUE);
+        while (itor.hasNext()) {
+            BackendColumn col = itor.next();
+            results.put(s(col.name), s(col.value));
+        }
+
+        Assert.assertEquals(6, results.size());
+        Assert.assertEquals("James", results.get("person:1gname"));
+        Assert.assertEquals("19", results.get("person:1gage"));
+        Assert.assertEquals("Beijing", results.get("person:1gcity"));
+
+        Assert.assertEquals("Hebe", results.get("person:3gname"));
+        Assert.assertEquals("21", results.get("person:3gage"));
+        Assert.assertEquals("Taipei", results.get("person:3gcity"));
+
+        Assert.assertEquals("Lisa", get("person:2gname"));
+
+        // Limit the records of each prefix
+        results.clear();
+        itor = session.scan(TABLE, ImmutableList.of(b("person:1"),
+                                                    b("person:2")), 2L);
+        while (itor.hasNext()) {
+            BackendColumn col = itor.next();
+            results.put(s(col.name), s(col.value));
+        }
+        Assert.assertEquals(4, results.size());
+        Assert.assertEquals("19", results.get("person:1gage"));
+        Assert.assertEquals("Beijing", results.get("person:1gcity"));
+        Assert.assertEquals("20", results.get("person:2gage"));
+        Assert.assertEquals("Beijing", results.get("person:2gcity"));
+
+        // Skip the duplicated prefix
+        itor = session.scan(TABLE, ImmutableList.of(b("person:1"),
+                                                    b("person:1")), 0L);
+        Assert.assertFalse(itor.hasNext());
+        itor = session.scan(TABLE, ImmutableList.of(b("person:1"),
+                                                    b("person:1g")), 10L);
+        int count = 0;
+        while (itor.hasNext()) {
+            itor.next();
+            count++;
+        }
+        Assert.assertEquals(3, count);
+    }
+
     @Test
     public void testScanByRange() throws RocksDBException {
         put("person:1gname", "James");
@@ -172,6 +240,38 @@ public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
         Assert.assertEquals("Hebe", get("person:3gname"));
     }
 
+    @Test
+    public void testScanAndSkip() throws RocksDBException {
+        put("person:1gname", "James");
+        put("person:1gage", "19");
+        put("person:1gcity", "Beijing");
+
+        put("person:2gname", "Lisa");
+        put("person:2gage", "20");
+        put("person:2gcity", "Beijing");
+
+        Session session = this.rocks.session();
+        BackendColumnIterator itor = session.scan(TABLE, b("person:1"));
+        // Keys are sorted: age, city, name
+        Assert.assertEquals(2L, itor.skip(2L));
+        BackendColumn col = itor.next();
+        Assert.assertEquals("person:1gname", s(col.name));
+        Assert.assertEquals("James", s(col.value));
+        Assert.assertEquals(0L, itor.skip(2L));
+        Assert.assertFalse(itor.hasNext());
+
+        itor = session.scan(TABLE, b("person:1"), b("person:3"));
+        Assert.assertEquals(5L, itor.skip(5L));
+        col = itor.next();
+        Assert.assertEquals("person:2gname", s(col.name));
+        Assert.assertEquals("Lisa", s(col.value));
+        Assert.assertFalse(itor.hasNext());
+
+        itor = session.scan(TABLE);
+        Assert.assertEquals(6L, itor.skip(10L));
+        Assert.assertFalse(itor.hasNext());
+    }
+
     @Test
     public void testScanByRangeWithBytes() throws RocksDBException {
         Session session = this.rocks.session();
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.rocksdb;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
+
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBIngester;
+import com.baidu.hugegraph.backend.store.rocksdbsst.RocksDBSstLoader;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.ExecutorUtil;
+
+public class RocksDBSstLoaderTest extends BaseUnitTest {
+
+    private static final String TMP_DIR = System.getProperty("java.io.tmpdir");
+    private static final String SST_PATH = TMP_DIR + "/" + "rocksdb-sst";
+    private static final String DB_PATH = TMP_DIR + "/" + "rocksdb-ingest";
+    private static final String TABLE = "test-table";
+
+    private HugeConfig config;
+
+    @Before
+    public void setup() {
+        Configuration conf = Mockito.mock(PropertiesConfiguration.class);
+        Mockito.when(conf.getKeys()).thenReturn(Collections.emptyIterator());
+        this.config = new HugeConfig(conf);
+    }
+
+    @After
+    public void teardown() {
+        FileUtils.deleteQuietly(new File(SST_PATH));
+        FileUtils.deleteQuietly(new File(DB_PATH));
+    }
+
+    private static byte[] key(int i) {
+        return String.format("key-%06d", i).getBytes();
+    }
+
+    @Test
+    public void testLoadUnsortedRecordsConcurrently() throws Exception {
+        // A small buffer to spill many runs
+        RocksDBSstLoader loader = new RocksDBSstLoader(this.config, SST_PATH,
+                                                       TABLE, 4096L, 4);
+        int threads = 4;
+        int records = 5000;
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(
+                                   threads, "sst-loader-test-%d");
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    // Add records of the thread in descending order
+                    for (int i = records - 1; i >= 0; i--) {
+                        if (i % threads != thread) {
+                            continue;
+                        }
+                        byte[] value = ("v" + i).getBytes();
+                        loader.add(Collections.singletonList(
+                                   Pair.of(key(i), value)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            // Override a key
+            loader.add(Collections.singletonList(
+                       Pair.of(key(7), "updated".getBytes())));
+
+            List<Callable<String>> tasks = loader.finish();
+            Assert.assertEquals(4, tasks.size());
+            int ssts = 0;
+            for (Future<String> future : executor.invokeAll(tasks)) {
+                if (future.get() != null) {
+                    ssts++;
+                }
+            }
+            Assert.assertEquals(4, ssts);
+        } finally {
+            executor.shutdown();
+            loader.clear();
+        }
+
+        // Ingest the non-overlapping SST files in one step
+        try (Options options = new Options().setCreateIfMissing(true);
+             RocksDB rocksdb = RocksDB.open(options, DB_PATH)) {
+            RocksDBIngester ingester = new RocksDBIngester(rocksdb);
+            List<String> ssts = ingester.ingest(
+                                loader.directory().toPath(),
+                                rocksdb.getDefaultColumnFamily());
+            Assert.assertEquals(4, ssts.size());
+
+            try (RocksIterator itor = rocksdb.newIterator()) {
+                int i = 0;
+                for (itor.seekToFirst(); itor.isValid(); itor.next(), i++) {
+                    Assert.assertArrayEquals(key(i), itor.key());
+                    String value = i == 7 ? "updated" : "v" + i;
+                    Assert.assertArrayEquals(value.getBytes(), itor.value());
+                }
+                Assert.assertEquals(records, i);
+            }
+        }
+    }
+
+    @Test
+    public void testFinishWithoutRecords() {
+        RocksDBSstLoader loader = new RocksDBSstLoader(this.config, SST_PATH,
+                                                       TABLE, 4096L, 4);
+        Assert.assertEquals(0, loader.finish().size());
+        loader.clear();
+    }
+}
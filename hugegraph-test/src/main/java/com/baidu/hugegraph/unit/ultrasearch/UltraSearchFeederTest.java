@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.ultrasearch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.store.ultrasearch.UltraSearchFeeder;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableList;
+
+public class UltraSearchFeederTest extends BaseUnitTest {
+
+    private static String put(String id) {
+        return "{\"put\":\"" + id + "\"}";
+    }
+
+    @Test
+    public void testFeedInBatchesOfTable() {
+        List<String> requests = Collections.synchronizedList(
+                                new ArrayList<>());
+        UltraSearchFeeder feeder = new UltraSearchFeeder((table, body) -> {
+            requests.add(table + body);
+        }, 2, 2, 0, 0L);
+        try {
+            UltraSearchFeeder.Batch batch = feeder.batch();
+            batch.add("t1", put("1"));
+            batch.add("t2", put("2"));
+            batch.add("t1", put("3"));
+            batch.add("t1", put("4"));
+            Assert.assertEquals(4, batch.size());
+
+            Assert.assertEquals(4, batch.flush());
+            Assert.assertEquals(0, batch.size());
+
+            Collections.sort(requests);
+            Assert.assertEquals(3, requests.size());
+            Assert.assertEquals("t1[" + put("1") + "," + put("3") + "]",
+                                requests.get(0));
+            Assert.assertEquals("t1[" + put("4") + "]", requests.get(1));
+            Assert.assertEquals("t2[" + put("2") + "]", requests.get(2));
+
+            Map<String, Object> metrics = feeder.metrics();
+            Assert.assertEquals(4L, metrics.get("fed_operations"));
+            Assert.assertEquals(3L, metrics.get("feed_requests"));
+            Assert.assertEquals(0, metrics.get("inflight_requests"));
+        } finally {
+            feeder.close();
+        }
+    }
+
+    @Test
+    public void testRetryFailedRequest() {
+        AtomicInteger sent = new AtomicInteger();
+        UltraSearchFeeder feeder = new UltraSearchFeeder((table, body) -> {
+            if (sent.incrementAndGet() <= 2) {
+                throw new IOException("Unexpected status 503");
+            }
+        }, 10, 2, 3, 0L);
+        try {
+            UltraSearchFeeder.Batch batch = feeder.batch();
+            batch.add("t1", put("1"));
+            batch.add("t1", put("2"));
+            Assert.assertEquals(2, batch.flush());
+
+            Assert.assertEquals(3, sent.get());
+            Map<String, Object> metrics = feeder.metrics();
+            Assert.assertEquals(2L, metrics.get("retried_requests"));
+            Assert.assertEquals(0L, metrics.get("failed_requests"));
+            Assert.assertEquals(2L, metrics.get("fed_operations"));
+        } finally {
+            feeder.close();
+        }
+    }
+
+    @Test
+    public void testFailAfterRetries() {
+        UltraSearchFeeder feeder = new UltraSearchFeeder((table, body) -> {
+            throw new IOException("Unexpected status 503");
+        }, 10, 2, 1, 0L);
+        try {
+            UltraSearchFeeder.Batch batch = feeder.batch();
+            batch.add("t1", put("1"));
+            batch.add("t2", put("2"));
+            Assert.assertThrows(BackendException.class, () -> {
+                batch.flush();
+            });
+            Assert.assertEquals(0, batch.size());
+
+            Map<String, Object> metrics = feeder.metrics();
+            Assert.assertEquals(2L, metrics.get("retried_requests"));
+            Assert.assertEquals(2L, metrics.get("failed_requests"));
+            Assert.assertEquals(2L, metrics.get("failed_operations"));
+            Assert.assertEquals(0L, metrics.get("fed_operations"));
+        } finally {
+            feeder.close();
+        }
+    }
+
+    @Test
+    public void testBoundInflightRequests() {
+        AtomicInteger inflight = new AtomicInteger();
+        AtomicInteger maxInflight = new AtomicInteger();
+        UltraSearchFeeder feeder = new UltraSearchFeeder((table, body) -> {
+            int current = inflight.incrementAndGet();
+            maxInflight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(10L);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                inflight.decrementAndGet();
+            }
+        }, 1, 2, 0, 0L);
+        try {
+            UltraSearchFeeder.Batch batch = feeder.batch();
+            for (int i = 0; i < 20; i++) {
+                batch.add("t" + (i % 3), put(String.valueOf(i)));
+            }
+            Assert.assertEquals(20, batch.flush());
+            Assert.assertTrue(maxInflight.get() <= 2);
+            Assert.assertEquals(20L, feeder.metrics().get("feed_requests"));
+        } finally {
+            feeder.close();
+        }
+    }
+
+    @Test
+    public void testFeedRequestsOfTableInOrder() {
+        Map<String, List<String>> requests = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger maxRunning = new AtomicInteger();
+        UltraSearchFeeder feeder = new UltraSearchFeeder((table, body) -> {
+            AtomicInteger counter = running.computeIfAbsent(
+                                    table, k -> new AtomicInteger());
+            maxRunning.accumulateAndGet(counter.incrementAndGet(), Math::max);
+            try {
+                // The earlier requests are slower
+                Thread.sleep(requests.getOrDefault(table, ImmutableList.of())
+                                     .isEmpty() ? 20L : 1L);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                counter.decrementAndGet();
+            }
+            requests.computeIfAbsent(table, k -> Collections.synchronizedList(
+                                                 new ArrayList<>()))
+                    .add(body);
+        }, 1, 4, 0, 0L);
+        try {
+            UltraSearchFeeder.Batch batch = feeder.batch();
+            for (int i = 0; i < 20; i++) {
+                batch.add("t" + (i % 2), put(String.valueOf(i)));
+            }
+            Assert.assertEquals(20, batch.flush());
+
+            // At most one request of a table is in flight
+            Assert.assertEquals(1, maxRunning.get());
+            for (int t = 0; t < 2; t++) {
+                List<String> expected = new ArrayList<>();
+                for (int i = t; i < 20; i += 2) {
+                    expected.add("[" + put(String.valueOf(i)) + "]");
+                }
+                Assert.assertEquals(expected, requests.get("t" + t));
+            }
+        } finally {
+            feeder.close();
+        }
+    }
+}
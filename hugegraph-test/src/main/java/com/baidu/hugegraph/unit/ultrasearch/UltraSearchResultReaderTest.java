@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.ultrasearch;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.backend.store.ultrasearch.UltraSearchPages;
+import com.baidu.hugegraph.backend.store.ultrasearch.UltraSearchResultReader;
+import com.baidu.hugegraph.backend.store.ultrasearch.UltraSearchResultReader.Hit;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+
+import net.sf.json.JSONArray;
+
+public class UltraSearchResultReaderTest extends BaseUnitTest {
+
+    private static UltraSearchResultReader reader(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new UltraSearchResultReader(new ByteArrayInputStream(bytes),
+                                           null);
+    }
+
+    private static String response(long from, long to) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"root\":{\"id\":\"toplevel\",\"relevance\":1.0,")
+          .append("\"fields\":{\"totalCount\":").append(to - from)
+          .append("},\"children\":[");
+        for (long i = from; i < to; i++) {
+            if (i > from) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":\"id:t:t::").append(i)
+              .append("\",\"relevance\":0.0,\"fields\":{\"ID\":").append(i)
+              .append(",\"NAME\":\"v").append(i).append("\"}}");
+        }
+        return sb.append("]}}").toString();
+    }
+
+    @Test
+    public void testReadHits() {
+        UltraSearchResultReader reader = reader(
+                "{\"timing\":{\"querytime\":0.01},\"root\":{" +
+                "\"id\":\"toplevel\",\"children\":[{\"id\":\"id:t:t::1\"," +
+                "\"fields\":{\"ID\":1,\"BIG\":10000000000,\"SCORE\":1.5," +
+                "\"FLAG\":true,\"VALUES\":[1,2],\"NAME\":\"marko\"}}," +
+                "{\"id\":\"id:t:t::2\",\"fields\":{\"ID\":2}}]," +
+                "\"coverage\":{\"full\":true}}}");
+
+        Assert.assertTrue(reader.hasNext());
+        Hit hit = reader.next();
+        Assert.assertEquals("id:t:t::1", hit.id());
+        Assert.assertEquals(1, hit.fields().get("ID"));
+        Assert.assertEquals(10000000000L, hit.fields().get("BIG"));
+        Assert.assertEquals(1.5, hit.fields().get("SCORE"));
+        Assert.assertEquals(true, hit.fields().get("FLAG"));
+        Assert.assertEquals("marko", hit.fields().get("NAME"));
+        Object values = hit.fields().get("VALUES");
+        Assert.assertTrue(values instanceof JSONArray);
+        Assert.assertEquals(2, ((JSONArray) values).size());
+
+        Assert.assertTrue(reader.hasNext());
+        Assert.assertEquals("id:t:t::2", reader.next().id());
+        Assert.assertFalse(reader.hasNext());
+        reader.close();
+    }
+
+    @Test
+    public void testReadEmptyResult() {
+        UltraSearchResultReader reader = reader(
+                "{\"root\":{\"id\":\"toplevel\"," +
+                "\"fields\":{\"totalCount\":0}}}");
+        Assert.assertFalse(reader.hasNext());
+
+        reader = reader(response(0L, 0L));
+        Assert.assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void testReadErrors() {
+        Assert.assertThrows(BackendException.class, () -> {
+            reader("{\"root\":{\"id\":\"toplevel\",\"errors\":[{" +
+                   "\"code\":4,\"message\":\"Invalid query\"}]}}");
+        });
+
+        UltraSearchResultReader reader = reader(
+                "{\"root\":{\"children\":[{\"id\":\"id:t:t::1\"}]," +
+                "\"errors\":[{\"code\":12,\"message\":\"Timeout\"}]}}");
+        Assert.assertEquals("id:t:t::1", reader.next().id());
+        Assert.assertThrows(BackendException.class, () -> {
+            reader.hasNext();
+        });
+    }
+
+    @Test
+    public void testReadPages() {
+        long total = 25L;
+        List<String> requests = new ArrayList<>();
+        UltraSearchPages.PageFetcher fetcher = (offset, size) -> {
+            requests.add(offset + "+" + size);
+            return reader(response(Math.min(offset, total),
+                                   Math.min(offset + size, total)));
+        };
+
+        List<String> ids = new ArrayList<>();
+        try (UltraSearchPages pages = new UltraSearchPages(
+                                      fetcher, 0L, Query.NO_LIMIT, 10)) {
+            while (pages.hasNext()) {
+                ids.add(pages.next().id());
+            }
+            Assert.assertEquals(25L, pages.position());
+        }
+        Assert.assertEquals(25, ids.size());
+        Assert.assertEquals("id:t:t::24", ids.get(24));
+        Assert.assertEquals(3, requests.size());
+        Assert.assertEquals("20+10", requests.get(2));
+
+        // Continue from the offset with a limit
+        requests.clear();
+        ids.clear();
+        try (UltraSearchPages pages = new UltraSearchPages(
+                                      fetcher, 5L, 12L, 10)) {
+            while (pages.hasNext()) {
+                ids.add(pages.next().id());
+            }
+            Assert.assertEquals(17L, pages.position());
+        }
+        Assert.assertEquals(12, ids.size());
+        Assert.assertEquals("id:t:t::5", ids.get(0));
+        Assert.assertEquals(2, requests.size());
+        Assert.assertEquals("5+10", requests.get(0));
+        Assert.assertEquals("15+2", requests.get(1));
+    }
+
+    @Test
+    public void testReadPagesOfExactSize() {
+        List<String> requests = new ArrayList<>();
+        UltraSearchPages.PageFetcher fetcher = (offset, size) -> {
+            requests.add(offset + "+" + size);
+            return reader(response(Math.min(offset, 20L),
+                                   Math.min(offset + size, 20L)));
+        };
+
+        int count = 0;
+        try (UltraSearchPages pages = new UltraSearchPages(
+                                      fetcher, 0L, Query.NO_LIMIT, 10)) {
+            while (pages.hasNext()) {
+                pages.next();
+                count++;
+            }
+        }
+        Assert.assertEquals(20, count);
+        // The last page is empty
+        Assert.assertEquals(3, requests.size());
+    }
+}
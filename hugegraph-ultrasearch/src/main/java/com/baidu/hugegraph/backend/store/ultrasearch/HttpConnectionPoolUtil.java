@@ -25,6 +25,7 @@ import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.params.CoreConnectionPNames;
 import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.core.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -274,6 +275,64 @@ public class HttpConnectionPoolUtil {
         return isSuccess;
     }
 
+    /**
+     * Post the body with the pooled client, the response is always consumed
+     * to release the connection back to the pool
+     * @return the response content
+     * @throws IOException if the request failed or the status isn't 200
+     */
+    public static String httpPostBatch(String url, String body)
+                                       throws IOException {
+        HttpPost post = new HttpPost(url);
+        post.setHeader("Content-type", "application/json");
+        post.setEntity(new StringEntity(body, Charset.forName("UTF-8")));
+
+        try (CloseableHttpResponse response = getHttpClient(url)
+                                              .execute(post)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            String content = response.getEntity() == null ? "" :
+                             EntityUtils.toString(response.getEntity(),
+                                                  "UTF-8");
+            if (statusCode != HttpStatus.SC_OK) {
+                throw new IOException(String.format(
+                          "Unexpected status %s of '%s': %s",
+                          statusCode, url, content));
+            }
+            return content;
+        } finally {
+            post.releaseConnection();
+        }
+    }
+
+    /**
+     * Post the body with the pooled client and return the response to be
+     * read as a stream, the caller must close the response to release the
+     * connection back to the pool
+     * @throws IOException if the request failed or the status isn't 200
+     */
+    public static CloseableHttpResponse httpPostStream(String url, String body)
+                                                       throws IOException {
+        HttpPost post = new HttpPost(url);
+        post.setHeader("Content-type", "application/json");
+        post.setEntity(new StringEntity(body, Charset.forName("UTF-8")));
+
+        CloseableHttpResponse response = getHttpClient(url).execute(post);
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode != HttpStatus.SC_OK || response.getEntity() == null) {
+            try {
+                String content = response.getEntity() == null ? "" :
+                                 EntityUtils.toString(response.getEntity(),
+                                                      "UTF-8");
+                throw new IOException(String.format(
+                          "Unexpected status %s of '%s': %s",
+                          statusCode, url, content));
+            } finally {
+                response.close();
+            }
+        }
+        return response;
+    }
+
     public static boolean httpPut(String url, String fieldJson){
         HttpClient httpClient = getHttpClient(url);
 
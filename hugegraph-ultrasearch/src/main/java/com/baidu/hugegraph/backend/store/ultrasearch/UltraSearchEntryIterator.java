@@ -8,48 +8,45 @@ import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendEntryIterator;
+import com.baidu.hugegraph.backend.store.ultrasearch.UltraSearchResultReader.Hit;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.JsonUtil;
 import com.baidu.hugegraph.util.E;
-import net.sf.json.JSONArray;
+import com.google.common.collect.ImmutableMap;
 import net.sf.json.JSONObject;
 
 public class UltraSearchEntryIterator extends BackendEntryIterator {
 
-    private final JSONArray results;
+    private final UltraSearchPages results;
     private final BiFunction<BackendEntry, BackendEntry, BackendEntry> merger;
 
     private BackendEntry next;
     private BackendEntry last;
+    // The offset of the hit of the last entry
+    private long lastPosition;
 
-    private Integer nextPos = -1;
-    private Integer totalLen = -1;
-
-    public UltraSearchEntryIterator(JSONArray rs, Query query,
+    public UltraSearchEntryIterator(UltraSearchPages rs, Query query,
                               BiFunction<BackendEntry, BackendEntry, BackendEntry> merger) {
         super(query);
         this.results = rs;
         this.merger = merger;
         this.next = null;
         this.last = null;
-
-        if(null != results) totalLen = results.size();
-        nextPos = 0;
+        this.lastPosition = -1L;
     }
 
     @Override
     protected final boolean fetch() {
-        if(null == this.results) return false;
-
         assert this.current == null;
         if (this.next != null) {
             this.current = this.next;
             this.next = null;
         }
 
-        while (nextPos < totalLen) {
-            UltraSearchBackendEntry e = this.row2Entry(this.results);
+        while (this.results.hasNext()) {
+            this.lastPosition = this.results.position();
+            UltraSearchBackendEntry e = this.row2Entry(this.results.next());
             this.last = e;
             BackendEntry merged = this.merger.apply(this.current, e);
             if (this.current == null) {
@@ -78,8 +75,8 @@ public class UltraSearchEntryIterator extends BackendEntryIterator {
             // There is no next page
             return null;
         }
-        UltraSearchBackendEntry entry = (UltraSearchBackendEntry) this.last;
-        PageState pageState = new PageState(entry.columnsMap());
+        // Continue from the hit of the last entry which is not returned
+        PageState pageState = new PageState(this.lastPosition);
         return pageState.toString();
     }
 
@@ -105,10 +102,10 @@ public class UltraSearchEntryIterator extends BackendEntryIterator {
         return e.subRows().size();
     }
 
-    private UltraSearchBackendEntry row2Entry(JSONArray result) {
+    private UltraSearchBackendEntry row2Entry(Hit hit) {
         HugeType type = this.query.resultType();
         UltraSearchBackendEntry entry = new UltraSearchBackendEntry(type);
-        JSONObject fields = result.getJSONObject(nextPos).getJSONObject("fields");
+        JSONObject fields = hit.fields();
         Iterator iter = fields.keys();
         while(iter.hasNext())
         {
@@ -124,27 +121,31 @@ public class UltraSearchEntryIterator extends BackendEntryIterator {
                 entry.column(UltraSearchTable.parseKey(name), value);
             }
         }
-        ++nextPos;
 
         return entry;
     }
 
     @Override
     public void close() throws Exception {
-        if(null != results) this.results.clear();
+        this.results.close();
     }
 
+    /**
+     * The continuation of a paging query, which is the offset of the first
+     * hit of the next page
+     */
     public static class PageState {
 
         private static final String CHARSET = "utf-8";
-        private final Map<HugeKeys, Object> columns;
+        private static final String OFFSET = "offset";
+        private final long offset;
 
-        public PageState(Map<HugeKeys, Object> columns) {
-            this.columns = columns;
+        public PageState(long offset) {
+            this.offset = offset;
         }
 
-        public Map<HugeKeys, Object> columns() {
-            return this.columns;
+        public long offset() {
+            return this.offset;
         }
 
         @Override
@@ -153,7 +154,8 @@ public class UltraSearchEntryIterator extends BackendEntryIterator {
         }
 
         public byte[] toBytes() {
-            String json = JsonUtil.toJson(this.columns);
+            String json = JsonUtil.toJson(ImmutableMap.of(OFFSET,
+                                                          this.offset));
             try {
                 return json.getBytes(CHARSET);
             } catch (UnsupportedEncodingException e) {
@@ -178,14 +180,17 @@ public class UltraSearchEntryIterator extends BackendEntryIterator {
             } catch (UnsupportedEncodingException e) {
                 throw new BackendException(e);
             }
-            @SuppressWarnings("unchecked")
-            Map<String, Object> columns = JsonUtil.fromJson(json, Map.class);
-            Map<HugeKeys, Object> keyColumns = new LinkedHashMap<>();
-            for (Map.Entry<String, Object> entry : columns.entrySet()) {
-                HugeKeys key = UltraSearchTable.parseKey(entry.getKey());
-                keyColumns.put(key, entry.getValue());
+            Map<?, ?> state;
+            try {
+                state = JsonUtil.fromJson(json, Map.class);
+            } catch (Exception e) {
+                throw new BackendException("Invalid page: '%s'", e, json);
             }
-            return new PageState(keyColumns);
+            Object offset = state.get(OFFSET);
+            E.checkArgument(offset instanceof Number &&
+                            ((Number) offset).longValue() >= 0L,
+                            "Invalid offset of page: '%s'", json);
+            return new PageState(((Number) offset).longValue());
         }
     }
 }
@@ -56,6 +56,11 @@ public class UltraSearchFeatures implements BackendFeatures {
         return true;
     }
 
+    @Override
+    public boolean supportsQueryInBatch() {
+        return false;
+    }
+
     @Override
     public boolean supportsDeleteEdgeByLabel() {
         return true;
@@ -86,4 +91,9 @@ public class UltraSearchFeatures implements BackendFeatures {
     public boolean supportsNumberType() {
         return true;
     }
+
+    @Override
+    public boolean supportsIndexBitmap() {
+        return false;
+    }
 }
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.ultrasearch;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Feed the put/remove operations of documents in bulk requests: the
+ * operations are grouped by table in a batch of the session, and sent in
+ * one request once a table has batch-size operations (or it's flushed).
+ * The requests of different tables are in flight at the same time, while
+ * the requests of a table are sent one by one in the order of submitting,
+ * so that the later operations of a document are never applied before the
+ * earlier ones. The writer is blocked when the max number of in-flight
+ * requests is reached. A failed request is retried with the same
+ * operations before reporting the error.
+ */
+public class UltraSearchFeeder {
+
+    private static final Logger LOG = Log.logger(UltraSearchFeeder.class);
+
+    private static final long CLOSE_TIMEOUT = 60L;
+
+    private final Sender sender;
+    private final int batchSize;
+    private final int maxInflight;
+    private final int retries;
+    private final long retryInterval;
+    private final Semaphore inflight;
+    private final ExecutorService executor;
+    // The pending requests of each table, the first one is running
+    private final Map<String, Queue<FutureTask<?>>> queues;
+
+    private final long startTime;
+    private final AtomicLong requests;
+    private final AtomicLong fedOperations;
+    private final AtomicLong fedBytes;
+    private final AtomicLong feedTime;
+    private final AtomicLong retriedRequests;
+    private final AtomicLong failedRequests;
+    private final AtomicLong failedOperations;
+
+    public UltraSearchFeeder(Sender sender, int batchSize, int maxInflight,
+                             int retries, long retryInterval) {
+        E.checkArgument(batchSize > 0,
+                        "The feed batch size must be > 0, but got %s",
+                        batchSize);
+        E.checkArgument(maxInflight > 0,
+                        "The max in-flight feed requests must be > 0, " +
+                        "but got %s", maxInflight);
+        this.sender = sender;
+        this.batchSize = batchSize;
+        this.maxInflight = maxInflight;
+        this.retries = retries;
+        this.retryInterval = retryInterval;
+        this.inflight = new Semaphore(maxInflight);
+        this.executor = ExecutorUtil.newFixedThreadPool(maxInflight,
+                                                        "ultrasearch-feed-%d");
+        this.queues = new HashMap<>();
+
+        this.startTime = System.currentTimeMillis();
+        this.requests = new AtomicLong();
+        this.fedOperations = new AtomicLong();
+        this.fedBytes = new AtomicLong();
+        this.feedTime = new AtomicLong();
+        this.retriedRequests = new AtomicLong();
+        this.failedRequests = new AtomicLong();
+        this.failedOperations = new AtomicLong();
+    }
+
+    /**
+     * Create a batch to buffer the operations, which is not thread safe
+     * and expected to be owned by a session
+     */
+    public Batch batch() {
+        return new Batch();
+    }
+
+    /**
+     * Wait for the in-flight requests to complete
+     */
+    public void close() {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(CLOSE_TIMEOUT,
+                                                TimeUnit.SECONDS)) {
+                LOG.warn("The feed requests are not completed in {}s",
+                         CLOSE_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            throw new BackendException("Interrupted while waiting for " +
+                                       "feed requests", e);
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+        long operations = this.fedOperations.get();
+        long seconds = Math.max(1L, (System.currentTimeMillis() -
+                                     this.startTime) / 1000L);
+        long requests = this.requests.get();
+        metrics.put("fed_operations", operations);
+        metrics.put("fed_bytes", this.fedBytes.get());
+        metrics.put("fed_operations_per_second", operations / seconds);
+        metrics.put("feed_requests", requests);
+        metrics.put("avg_feed_time_ms",
+                    requests == 0L ? 0L : this.feedTime.get() / requests);
+        metrics.put("retried_requests", this.retriedRequests.get());
+        metrics.put("failed_requests", this.failedRequests.get());
+        metrics.put("failed_operations", this.failedOperations.get());
+        metrics.put("inflight_requests",
+                    this.maxInflight - this.inflight.availablePermits());
+        return metrics;
+    }
+
+    private Future<?> submit(String table, List<String> operations) {
+        try {
+            this.inflight.acquire();
+        } catch (InterruptedException e) {
+            throw new BackendException("Interrupted while waiting for " +
+                                       "feed requests", e);
+        }
+        FutureTask<?> task = new FutureTask<>(() -> {
+            try {
+                this.feed(table, operations);
+            } finally {
+                this.inflight.release();
+            }
+            return null;
+        });
+        Queue<FutureTask<?>> queue;
+        synchronized (this.queues) {
+            queue = this.queues.computeIfAbsent(table,
+                                                k -> new ArrayDeque<>());
+            queue.add(task);
+            if (queue.size() > 1) {
+                // Run after the previous requests of the table
+                return task;
+            }
+        }
+        try {
+            this.executor.execute(() -> this.drain(table, queue));
+        } catch (RejectedExecutionException e) {
+            // Also cancel the requests queued after it in the meantime
+            synchronized (this.queues) {
+                this.queues.remove(table);
+                for (FutureTask<?> queued : queue) {
+                    queued.cancel(false);
+                    this.inflight.release();
+                }
+            }
+            throw new BackendException("The feeder has been closed", e);
+        }
+        return task;
+    }
+
+    /**
+     * Run the requests of a table in order until its queue is empty
+     */
+    private void drain(String table, Queue<FutureTask<?>> queue) {
+        FutureTask<?> task;
+        synchronized (this.queues) {
+            task = queue.peek();
+        }
+        while (task != null) {
+            task.run();
+            synchronized (this.queues) {
+                queue.remove();
+                task = queue.peek();
+                if (task == null) {
+                    this.queues.remove(table);
+                }
+            }
+        }
+    }
+
+    private void feed(String table, List<String> operations)
+                      throws IOException, InterruptedException {
+        String body = toJsonArray(operations);
+        for (int retry = 0; ; retry++) {
+            long start = System.currentTimeMillis();
+            try {
+                this.sender.send(table, body);
+            } catch (IOException e) {
+                if (retry >= this.retries) {
+                    this.failedRequests.incrementAndGet();
+                    this.failedOperations.addAndGet(operations.size());
+                    throw e;
+                }
+                LOG.warn("Failed to feed {} operations into table '{}', " +
+                         "retry {}/{}", operations.size(), table,
+                         retry + 1, this.retries, e);
+                this.retriedRequests.incrementAndGet();
+                Thread.sleep(this.retryInterval * (retry + 1));
+                continue;
+            }
+            this.feedTime.addAndGet(System.currentTimeMillis() - start);
+            this.requests.incrementAndGet();
+            this.fedOperations.addAndGet(operations.size());
+            this.fedBytes.addAndGet(body.length());
+            LOG.debug("Fed {} operations into table '{}'",
+                      operations.size(), table);
+            return;
+        }
+    }
+
+    private static String toJsonArray(List<String> operations) {
+        int size = 2;
+        for (String operation : operations) {
+            size += operation.length() + 1;
+        }
+        StringBuilder sb = new StringBuilder(size);
+        sb.append('[');
+        for (int i = 0; i < operations.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(operations.get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+    @FunctionalInterface
+    public interface Sender {
+
+        void send(String table, String body) throws IOException;
+    }
+
+    public class Batch {
+
+        private final Map<String, List<String>> operations;
+        private final List<Future<?>> futures;
+        private int size;
+
+        private Batch() {
+            this.operations = new LinkedHashMap<>();
+            this.futures = new ArrayList<>();
+            this.size = 0;
+        }
+
+        /**
+         * Add an operation in json format of the table, the operations
+         * of the table are sent if reached the batch size
+         */
+        public void add(String table, String operation) {
+            List<String> operations = this.operations.computeIfAbsent(
+                                      table, k -> new ArrayList<>());
+            operations.add(operation);
+            this.size++;
+            if (operations.size() >= UltraSearchFeeder.this.batchSize) {
+                this.send(table, this.operations.remove(table));
+            }
+        }
+
+        /**
+         * The number of operations buffered or in flight
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Send the buffered operations and wait for all the requests
+         * @return the number of operations fed
+         */
+        public int flush() {
+            for (Map.Entry<String, List<String>> e :
+                 this.operations.entrySet()) {
+                this.send(e.getKey(), e.getValue());
+            }
+            this.operations.clear();
+
+            int count = this.size;
+            List<Future<?>> futures = new ArrayList<>(this.futures);
+            this.futures.clear();
+            this.size = 0;
+
+            Throwable failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                } catch (InterruptedException e) {
+                    throw new BackendException("Interrupted while waiting " +
+                                               "for feed requests", e);
+                }
+            }
+            if (failure != null) {
+                throw new BackendException("Failed to feed documents",
+                                           failure);
+            }
+            return count;
+        }
+
+        /**
+         * Discard the buffered operations, the in-flight requests can't be
+         * cancelled and are not waited for
+         */
+        public void clear() {
+            this.operations.clear();
+            this.futures.clear();
+            this.size = 0;
+        }
+
+        private void send(String table, List<String> operations) {
+            this.futures.add(UltraSearchFeeder.this.submit(table,
+                                                           operations));
+        }
+    }
+}
@@ -37,4 +37,58 @@ public class UltraSearchOptions extends OptionHolder {
                     rangeInt(8000, 10000),
                     8080
             );
+
+    public static final ConfigOption<Integer> ULTRASEARCH_QUERY_PAGE_SIZE =
+            new ConfigOption<>(
+                    "ultrasearch.query_page_size",
+                    "The max number of hits requested in one search request, " +
+                    "the hits of a query are read page by page.",
+                    rangeInt(1, 100000),
+                    1000
+            );
+
+    public static final ConfigOption<String> ULTRASEARCH_FEED_PATH =
+            new ConfigOption<>(
+                    "ultrasearch.feed_path",
+                    "The path of the bulk feed api, which accepts a json " +
+                    "array of put/remove operations of documents.",
+                    disallowEmpty(),
+                    "/document/v1/batch"
+            );
+
+    public static final ConfigOption<Integer> ULTRASEARCH_FEED_BATCH_SIZE =
+            new ConfigOption<>(
+                    "ultrasearch.feed_batch_size",
+                    "The max number of operations of a table sent in one " +
+                    "bulk feed request.",
+                    rangeInt(1, 10000),
+                    200
+            );
+
+    public static final ConfigOption<Integer> ULTRASEARCH_FEED_INFLIGHT =
+            new ConfigOption<>(
+                    "ultrasearch.feed_inflight_requests",
+                    "The max number of bulk feed requests in flight at the " +
+                    "same time, the writers are blocked when reached. The " +
+                    "requests of a table are sent one by one in order.",
+                    rangeInt(1, 100),
+                    8
+            );
+
+    public static final ConfigOption<Integer> ULTRASEARCH_FEED_RETRIES =
+            new ConfigOption<>(
+                    "ultrasearch.feed_retries",
+                    "The max times to retry a failed bulk feed request.",
+                    rangeInt(0, 10),
+                    3
+            );
+
+    public static final ConfigOption<Long> ULTRASEARCH_FEED_RETRY_INTERVAL =
+            new ConfigOption<>(
+                    "ultrasearch.feed_retry_interval",
+                    "The interval in ms before retrying a failed bulk feed " +
+                    "request, which grows with the retry times.",
+                    rangeInt(0L, Long.MAX_VALUE),
+                    100L
+            );
 }
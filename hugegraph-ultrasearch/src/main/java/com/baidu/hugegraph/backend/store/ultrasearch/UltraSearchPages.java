@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.ultrasearch;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.backend.store.ultrasearch.UltraSearchResultReader.Hit;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * Iterate the hits of a search page by page, the next page is requested
+ * from the offset of the next hit (the continuation) only after the hits
+ * of the previous page have been consumed. A page with less hits than
+ * requested means there are no more hits.
+ */
+public class UltraSearchPages implements Iterator<Hit>, AutoCloseable {
+
+    private final PageFetcher fetcher;
+    private final int pageSize;
+
+    private long position;
+    private long remaining;
+
+    private UltraSearchResultReader page;
+    private long pageRequested;
+    private long pageRead;
+    private boolean exhausted;
+
+    /**
+     * @param offset the offset of the first hit
+     * @param limit  the max number of hits, Query.NO_LIMIT if not limited
+     */
+    public UltraSearchPages(PageFetcher fetcher, long offset, long limit,
+                            int pageSize) {
+        E.checkArgument(offset >= 0L && limit >= 0L,
+                        "Invalid offset %s or limit %s", offset, limit);
+        E.checkArgument(pageSize > 0,
+                        "The page size must be > 0, but got %s", pageSize);
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+        this.position = offset;
+        this.remaining = limit;
+        this.page = null;
+        this.pageRequested = 0L;
+        this.pageRead = 0L;
+        this.exhausted = false;
+    }
+
+    /**
+     * The offset of the next hit, which is used as the continuation to
+     * request the following hits
+     */
+    public long position() {
+        return this.position;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (this.remaining > 0L) {
+            if (this.page != null) {
+                if (this.page.hasNext()) {
+                    return true;
+                }
+                this.page.close();
+                this.page = null;
+                if (this.pageRead < this.pageRequested) {
+                    this.exhausted = true;
+                }
+            }
+            if (this.exhausted) {
+                return false;
+            }
+            this.pageRequested = Math.min(this.pageSize, this.remaining);
+            this.pageRead = 0L;
+            this.page = this.fetcher.fetch(this.position, this.pageRequested);
+        }
+        return false;
+    }
+
+    @Override
+    public Hit next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Hit hit = this.page.next();
+        this.pageRead++;
+        this.position++;
+        if (this.remaining != Query.NO_LIMIT && --this.remaining == 0L) {
+            // Release the page in reading once reached the limit
+            this.close();
+        }
+        return hit;
+    }
+
+    @Override
+    public void close() {
+        if (this.page != null) {
+            this.page.close();
+            this.page = null;
+        }
+        this.exhausted = true;
+    }
+
+    @FunctionalInterface
+    public interface PageFetcher {
+
+        UltraSearchResultReader fetch(long offset, long size);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.ultrasearch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+
+/**
+ * Read the hits of a search response incrementally, only the hit being
+ * read is kept in memory instead of the whole response. The response is
+ * like: {"root": {"errors": [...], "children": [{"id": ..., "fields":
+ * {...}}, ...]}}, the fields of a hit are converted to a JSONObject as
+ * if the whole response is parsed by json-lib.
+ */
+public class UltraSearchResultReader
+       implements Iterator<UltraSearchResultReader.Hit>, AutoCloseable {
+
+    private final JsonReader reader;
+    private final Closeable resource;
+
+    private Hit next;
+    private boolean inChildren;
+    private boolean finished;
+
+    public UltraSearchResultReader(InputStream in, Closeable resource) {
+        this.reader = new JsonReader(new InputStreamReader(
+                                     in, StandardCharsets.UTF_8));
+        this.reader.setLenient(true);
+        this.resource = resource;
+        this.next = null;
+        this.inChildren = false;
+        this.finished = false;
+
+        try {
+            this.reader.beginObject();
+            while (this.reader.hasNext()) {
+                if ("root".equals(this.reader.nextName())) {
+                    this.reader.beginObject();
+                    this.seekChildren();
+                    return;
+                }
+                this.reader.skipValue();
+            }
+            this.close();
+        } catch (IOException | RuntimeException e) {
+            throw this.failed(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next != null) {
+            return true;
+        }
+        if (this.finished) {
+            return false;
+        }
+        try {
+            if (this.inChildren && this.reader.hasNext()) {
+                this.next = this.readHit();
+                return true;
+            }
+            if (this.inChildren) {
+                this.reader.endArray();
+                this.inChildren = false;
+                // Check the errors after the children
+                this.seekChildren();
+            }
+        } catch (IOException | RuntimeException e) {
+            throw this.failed(e);
+        }
+        return this.hasNext();
+    }
+
+    @Override
+    public Hit next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Hit hit = this.next;
+        this.next = null;
+        return hit;
+    }
+
+    @Override
+    public void close() {
+        this.finished = true;
+        try {
+            this.reader.close();
+            if (this.resource != null) {
+                this.resource.close();
+            }
+        } catch (IOException ignored) {
+            // Ignore the error of closing
+        }
+    }
+
+    private void seekChildren() throws IOException {
+        while (this.reader.hasNext()) {
+            String name = this.reader.nextName();
+            if ("children".equals(name) &&
+                this.reader.peek() == JsonToken.BEGIN_ARRAY) {
+                this.reader.beginArray();
+                this.inChildren = true;
+                return;
+            } else if ("errors".equals(name)) {
+                Object errors = this.readValue();
+                if (errors instanceof JSONArray &&
+                    !((JSONArray) errors).isEmpty() ||
+                    errors instanceof JSONObject &&
+                    !((JSONObject) errors).isEmpty()) {
+                    throw new BackendException("Failed to search: %s",
+                                               errors);
+                }
+            } else {
+                this.reader.skipValue();
+            }
+        }
+        // No more hits, release the response as soon as possible
+        this.close();
+    }
+
+    private BackendException failed(Exception e) {
+        this.close();
+        if (e instanceof BackendException) {
+            return (BackendException) e;
+        }
+        return new BackendException("Failed to read search result", e);
+    }
+
+    private Hit readHit() throws IOException {
+        String id = null;
+        JSONObject fields = new JSONObject();
+        this.reader.beginObject();
+        while (this.reader.hasNext()) {
+            String name = this.reader.nextName();
+            if ("id".equals(name)) {
+                id = this.reader.nextString();
+            } else if ("fields".equals(name)) {
+                fields = this.readObject();
+            } else {
+                this.reader.skipValue();
+            }
+        }
+        this.reader.endObject();
+        return new Hit(id, fields);
+    }
+
+    private Object readValue() throws IOException {
+        switch (this.reader.peek()) {
+            case BEGIN_OBJECT:
+                return this.readObject();
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                this.reader.beginArray();
+                while (this.reader.hasNext()) {
+                    array.add(this.readValue());
+                }
+                this.reader.endArray();
+                return array;
+            case STRING:
+                return this.reader.nextString();
+            case NUMBER:
+                return parseNumber(this.reader.nextString());
+            case BOOLEAN:
+                return this.reader.nextBoolean();
+            case NULL:
+                this.reader.nextNull();
+                return JSONNull.getInstance();
+            default:
+                throw new BackendException("Unexpected json token: %s",
+                                           this.reader.peek());
+        }
+    }
+
+    private JSONObject readObject() throws IOException {
+        // The string value like json is converted into json by put()
+        JSONObject object = new JSONObject();
+        this.reader.beginObject();
+        while (this.reader.hasNext()) {
+            String name = this.reader.nextName();
+            object.put(name, this.readValue());
+        }
+        this.reader.endObject();
+        return object;
+    }
+
+    private static Number parseNumber(String number) {
+        if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 ||
+            number.indexOf('E') >= 0) {
+            return Double.valueOf(number);
+        }
+        long value = Long.parseLong(number);
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    public static class Hit {
+
+        private final String id;
+        private final JSONObject fields;
+
+        public Hit(String id, JSONObject fields) {
+            this.id = id;
+            this.fields = fields;
+        }
+
+        public String id() {
+            return this.id;
+        }
+
+        public JSONObject fields() {
+            return this.fields;
+        }
+    }
+}
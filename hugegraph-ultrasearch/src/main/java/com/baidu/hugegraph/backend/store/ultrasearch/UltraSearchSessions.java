@@ -9,16 +9,14 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.utils.URIBuilder;
@@ -28,22 +26,13 @@ import org.apache.http.impl.client.HttpClients;
 import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.store.BackendSession;
 import com.baidu.hugegraph.backend.store.BackendSessionPool;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.Log;
 
-import com.ultracloud.ultrasearch.http.client.FeedClient;
-import com.ultracloud.ultrasearch.http.client.FeedClientFactory;
-import com.ultracloud.ultrasearch.http.client.SimpleLoggerResultCallback;
-import com.ultracloud.ultrasearch.http.client.config.Cluster;
-import com.ultracloud.ultrasearch.http.client.config.ConnectionParams;
-import com.ultracloud.ultrasearch.http.client.config.Endpoint;
-import com.ultracloud.ultrasearch.http.client.config.FeedParams;
-import com.ultracloud.ultrasearch.http.client.config.SessionParams;
-
-import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 import org.apache.http.Header;
 import org.apache.http.HttpResponse;
@@ -61,6 +50,7 @@ public class UltraSearchSessions extends BackendSessionPool {
     private HugeConfig config;
     private String database;
     private boolean opened;
+    private final UltraSearchFeeder feeder;
 
     public UltraSearchSessions(HugeConfig config, String database, String store) {
         super(database + "/" + store);
@@ -68,6 +58,25 @@ public class UltraSearchSessions extends BackendSessionPool {
         this.config = config;
         this.database = database;
         this.opened = false;
+
+        this.feeder = newFeeder(config);
+    }
+
+    private static UltraSearchFeeder newFeeder(HugeConfig config) {
+        String url = "http://" +
+                     config.get(UltraSearchOptions.ULTRASEARCH_IP) + ":" +
+                     config.get(UltraSearchOptions.ULTRASEARCH_PORT) +
+                     config.get(UltraSearchOptions.ULTRASEARCH_FEED_PATH);
+        int batchSize = config.get(
+                        UltraSearchOptions.ULTRASEARCH_FEED_BATCH_SIZE);
+        int inflight = config.get(
+                       UltraSearchOptions.ULTRASEARCH_FEED_INFLIGHT);
+        int retries = config.get(UltraSearchOptions.ULTRASEARCH_FEED_RETRIES);
+        long interval = config.get(
+                UltraSearchOptions.ULTRASEARCH_FEED_RETRY_INTERVAL);
+        return new UltraSearchFeeder((table, body) -> {
+            HttpConnectionPoolUtil.httpPostBatch(url, body);
+        }, batchSize, inflight, retries, interval);
     }
 
     public HugeConfig config() {
@@ -103,7 +112,11 @@ public class UltraSearchSessions extends BackendSessionPool {
 
     @Override
     protected void doClose() {
-        // pass
+        this.feeder.close();
+    }
+
+    public Map<String, Object> metrics() {
+        return this.feeder.metrics();
     }
 
     @Override
@@ -124,28 +137,15 @@ public class UltraSearchSessions extends BackendSessionPool {
         LOG.info("checkSessionConnected here3");
     }
 
-    public static class Operation {
-        final public String documentId;
-        final public CharSequence data;
-
-        public Operation(String id, CharSequence data) {
-            this.documentId = id;
-            this.data = data;
-        }
-    }
-
     public class Session extends BackendSession {
 
-        private BlockingQueue<Operation> operations = new ArrayBlockingQueue<Operation>(100);
-        private FeedClient feedClient;
-        private AtomicInteger pending = new AtomicInteger(0);
-        private AtomicBoolean drain = new AtomicBoolean(false);
-        private final CountDownLatch finishedDraining = new CountDownLatch(1);
+        private final UltraSearchFeeder.Batch batch;
         private boolean opened;
         private HugeConfig config;
         private String database;
 
         public Session(HugeConfig config, String database) {
+            this.batch = UltraSearchSessions.this.feeder.batch();
             this.opened = false;
             this.config = config;
             this.database = database;
@@ -158,32 +158,17 @@ public class UltraSearchSessions extends BackendSessionPool {
         }
 
         public void open(){
-            Endpoint endPoint = Endpoint.create(config.get(UltraSearchOptions.ULTRASEARCH_IP), config.get(UltraSearchOptions.ULTRASEARCH_PORT), false);
-            SessionParams sessionParams = new SessionParams.Builder()
-                    .addCluster(new Cluster.Builder().addEndpoint(endPoint).build())
-                    .setConnectionParams(new ConnectionParams.Builder().setDryRun(false).build())
-                    .setFeedParams(new FeedParams.Builder()
-                            .setDataFormat(FeedParams.DataFormat.JSON_UTF8)
-                            .build())
-                    .build();
-
-            this.feedClient = FeedClientFactory.create(sessionParams, new SimpleLoggerResultCallback(this.pending, 1));
             this.opened = true;
         }
 
-
-
         @Override
         public void close() {
             assert this.closeable();
-            drain.set(true);
             try {
-                finishedDraining.await();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+                this.batch.flush();
+            } finally {
+                this.opened = false;
             }
-
-            this.opened = false;
         }
 
         @Override
@@ -193,70 +178,73 @@ public class UltraSearchSessions extends BackendSessionPool {
 
         @Override
         public void clear() {
-            synchronized (this){
-                operations.clear();
-            }
+            this.batch.clear();
         }
 
+        /**
+         * Send the buffered operations and wait for them to be fed
+         */
         @Override
         public Integer commit() {
-            throw new RuntimeException("Not supported by US");
+            return this.batch.flush();
         }
 
         @Override
         public boolean hasChanges() {
-            return this.operations.size() > 0;
+            return this.batch.size() > 0;
+        }
+
+        public Map<String, Object> metrics() {
+            return UltraSearchSessions.this.metrics();
         }
 
-        public JSONArray select(String sql){
+        /**
+         * Search the hits matched the sql in one request, the hits are read
+         * from the response stream lazily
+         */
+        public UltraSearchResultReader search(String sql){
             JSONObject sqlObj = new JSONObject();
             sqlObj.put("sql", sql + ";");
-            sql = sqlObj.toString();
 
-            LOG.info("select : " + sql);
+            LOG.debug("search: {}", sql);
 
-            String url = new String("http://" +
-                    config.get(UltraSearchOptions.ULTRASEARCH_IP) + ":" +
-                    config.get(UltraSearchOptions.ULTRASEARCH_PORT) + "/search/");
+            String url = "http://" +
+                         config.get(UltraSearchOptions.ULTRASEARCH_IP) + ":" +
+                         config.get(UltraSearchOptions.ULTRASEARCH_PORT) +
+                         "/search/";
 
-            StringBuilder resultJson = new StringBuilder();
-            boolean ret = HttpConnectionPoolUtil.httpPostWithJson(sql, url, resultJson);
-            if(!ret || 0 == resultJson.toString().length()){
-                LOG.error("select failed! resultJson: " + resultJson);
-                return null;
+            CloseableHttpResponse response;
+            InputStream in;
+            try {
+                response = HttpConnectionPoolUtil.httpPostStream(
+                           url, sqlObj.toString());
+            } catch (IOException e) {
+                throw new BackendException("Failed to search: %s", e, sql);
             }
-
-            LOG.info("resultJson : " + resultJson.toString());
-
-            //解析出children
-            JSONArray children = null;
-            {
-                JSONObject obj = JSONObject.fromObject(resultJson.toString());
-                JSONObject root = obj.getJSONObject("root");
-                if(null == root){
-                    LOG.error("json error!");
-                    return null;
-                }
-
-                //检测是否sql有错误
-                JSONObject errors = root.getJSONObject("errors");
-                if(!errors.isEmpty()){
-                    LOG.error("execute failed!");
-                    return null;
-                }
-
-                if(!root.has("children")){
-                    LOG.info("not data");
-                    return null;
+            try {
+                in = response.getEntity().getContent();
+            } catch (IOException e) {
+                try {
+                    response.close();
+                } catch (IOException ignored) {
+                    // Ignore the error of closing
                 }
-
-                //得到结果
-                children = root.getJSONArray("children");
-
-
+                throw new BackendException("Failed to search: %s", e, sql);
             }
+            return new UltraSearchResultReader(in, response);
+        }
 
-            return children;
+        /**
+         * Search the hits matched the sql page by page from the offset,
+         * each page is requested with `limit` and `offset` appended
+         */
+        public UltraSearchPages search(String sql, long offset, long limit){
+            int pageSize = config.get(
+                           UltraSearchOptions.ULTRASEARCH_QUERY_PAGE_SIZE);
+            return new UltraSearchPages((pageOffset, size) -> {
+                return this.search(sql + " limit " + size +
+                                   " offset " + pageOffset);
+            }, offset, limit, pageSize);
         }
 
         public JSONObject get(String tableName, String docID){
@@ -284,29 +272,13 @@ public class UltraSearchSessions extends BackendSessionPool {
             return fields;
         }
 
-        public void add(Operation op) {
-            LOG.info("add documentId:  " + op.documentId + "  data: " + op.data);
-
-            synchronized (this){
-                //operations.add(op);
-                pending.incrementAndGet();
-                feedClient.stream(op.documentId, op.data);
-            }
-        }
-
-        public void add(String docID, String opJson) {
-            LOG.info("add1 documentId:  " + docID + "  data: " + opJson);
-
-            Operation op = new Operation(docID, opJson);
-            synchronized (this){
-                //operations.add(op);
-                pending.incrementAndGet();
-                feedClient.stream(op.documentId, op.data);
-            }
+        public void add(String table, String operation) {
+            LOG.debug("add table: {} operation: {}", table, operation);
+            this.batch.add(table, operation);
         }
 
         public void postDoc(String tableName, String id, String fieldJson){
-            LOG.info("postDoc documentId:  " + id + "  data: " + fieldJson);
+            LOG.debug("postDoc documentId: {} data: {}", id, fieldJson);
 
             String url = new String("http://" +
                     config.get(UltraSearchOptions.ULTRASEARCH_IP) + ":" +
@@ -321,7 +293,7 @@ public class UltraSearchSessions extends BackendSessionPool {
         }
 
         public boolean putDoc(String tableName, String id, String fieldJson){
-            LOG.info("putDoc documentId:  " + id + "  data: " + fieldJson);
+            LOG.debug("putDoc documentId: {} data: {}", id, fieldJson);
 
             String url = new String("http://" +
                     config.get(UltraSearchOptions.ULTRASEARCH_IP) + ":" +
@@ -335,30 +307,32 @@ public class UltraSearchSessions extends BackendSessionPool {
             return true;
         }
 
-        public void delete(String docID) {
+        public void remove(String table, String docID) {
             JSONObject obj = new JSONObject();
             obj.put("remove", docID);
-
-            Operation op = new Operation(docID, obj.toString());
-            synchronized (this){
-                operations.add(op);
-            }
-
-            LOG.info("add documentId:  " + op.documentId + "  data: " + op.data);
+            this.add(table, obj.toString());
         }
 
-        public void deleteWhere(String sql){
-            JSONArray result = select(sql);
-            if(null == result) return;
-
-            for (int i = 0; i < result.size(); i++) {
-                JSONObject item = result.getJSONObject(i);
-
-                String docID = item.getString("id");
-                delete(docID);
+        /**
+         * Remove the documents matched the sql, the buffered operations are
+         * fed before selecting to make sure they are visible
+         */
+        public void deleteWhere(String table, String sql){
+            this.batch.flush();
+
+            // Collect the ids before removing, which may shift the pages
+            List<String> ids = new ArrayList<>();
+            try (UltraSearchPages hits = this.search(sql, 0L,
+                                                     Query.NO_LIMIT)) {
+                while (hits.hasNext()) {
+                    ids.add(hits.next().id());
+                }
+            }
+            for (String id : ids) {
+                this.remove(table, id);
             }
 
-            LOG.info("deleteWhere sql:  " + sql);
+            LOG.debug("deleteWhere sql: {}, removed: {}", sql, ids.size());
         }
 
         public String getDocID(String table, String id){
@@ -48,9 +48,16 @@ public abstract class UltraSearchStore extends AbstractBackendStore<Session> {
         this.sessions = null;
         this.tables = new ConcurrentHashMap<>();
 
+        this.registerMetaHandlers();
         LOG.info("Store loaded: {}", store);
     }
 
+    private void registerMetaHandlers() {
+        this.registerMetaHandler("metrics", (session, meta, args) -> {
+            return session.metrics();
+        });
+    }
+
     protected void registerTableManager(HugeType type, UltraSearchTable table) {
         this.tables.put(type, table);
     }
@@ -250,8 +257,6 @@ public abstract class UltraSearchStore extends AbstractBackendStore<Session> {
     }
 
     private void mutate(Session session, BackendAction item) {
-        LOG.info("mutate");
-
         UltraSearchBackendEntry entry = castBackendEntry(item.entry());
         UltraSearchTable table = this.table(entry.type());
 
@@ -276,16 +281,9 @@ public abstract class UltraSearchStore extends AbstractBackendStore<Session> {
 
     @Override
     public Iterator<BackendEntry> query(Query query) {
-        LOG.info("query");
-
         this.checkSessionConnected();
 
-        LOG.info("query here10");
-
         UltraSearchTable table = this.table(UltraSearchTable.tableType(query));
-
-        LOG.info("query here11");
-
         return table.query(this.sessions.session(), query);
     }
 
@@ -296,12 +294,20 @@ public abstract class UltraSearchStore extends AbstractBackendStore<Session> {
 
     @Override
     public void commitTx() {
-        //throw new BackendException("beginTx not Unsupported");
+        this.checkSessionConnected();
+
+        Session session = this.sessions.session();
+        int count = session.commit();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Store {} committed {} items", this.store, count);
+        }
     }
 
     @Override
     public void rollbackTx() {
-        //throw new BackendException("beginTx not Unsupported");
+        this.checkSessionConnected();
+        Session session = this.sessions.session();
+        session.clear();
     }
 
     @Override
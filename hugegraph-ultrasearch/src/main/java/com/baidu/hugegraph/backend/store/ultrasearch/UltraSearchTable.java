@@ -5,7 +5,6 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 
-import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 import org.slf4j.Logger;
 
@@ -100,28 +99,7 @@ public abstract class UltraSearchTable
     public void insert(Session session, UltraSearchBackendEntry.Row entry) {
         //printEntryRow(entry);
 
-        String docID = new String();
-        {
-            if(1 == this.idColumnName().size()){
-                LOG.info("insert doc table: " + this.table());
-                docID = session.getDocID(this.table(), entry.id().asString());
-            }else{
-                List<HugeKeys> idNames = this.idColumnName();
-                String valuesID = new String();
-
-                for (int i = 0, n = idNames.size(); i < n; i++) {
-                    HugeKeys key = idNames.get(i);
-                    Object value = entry.column(key);
-
-                    if(null == value) continue;
-
-                    valuesID = valuesID + ":" + value;
-                }
-
-                docID = session.getDocID(this.table(), valuesID);
-                LOG.info("insert valuesID: " + valuesID);
-            }
-        }
+        String docID = this.docID(session, entry);
 
         JSONObject obj = new JSONObject();
         obj.put("put", docID);
@@ -142,9 +120,31 @@ public abstract class UltraSearchTable
         }
 
         obj.put("fields", fields);
-        session.add(docID, obj.toString());
+        session.add(this.table(), obj.toString());
+    }
 
-        LOG.info("insert : " + obj.toString());
+    /**
+     * The document id of the row, the values of id columns are joined
+     * if there are more than one id column
+     */
+    protected String docID(Session session, UltraSearchBackendEntry.Row entry) {
+        if(1 == this.idColumnName().size()){
+            return session.getDocID(this.table(), entry.id().asString());
+        }
+
+        List<HugeKeys> idNames = this.idColumnName();
+        String valuesID = new String();
+
+        for (int i = 0, n = idNames.size(); i < n; i++) {
+            HugeKeys key = idNames.get(i);
+            Object value = entry.column(key);
+
+            if(null == value) continue;
+
+            valuesID = valuesID + ":" + value;
+        }
+
+        return session.getDocID(this.table(), valuesID);
     }
 
     protected String buildDeleteTemplate(List<HugeKeys> idNames, List<Object> values) {
@@ -170,6 +170,16 @@ public abstract class UltraSearchTable
         List<Object> values = new ArrayList<>();
         List<HugeKeys> realIDNames = new ArrayList<>();
 
+        /*
+         * Remove the document by id directly if the id columns are
+         * specified, which avoids selecting the matched documents
+         */
+        if (1 == idNames.size() || (!entry.columns().isEmpty() &&
+            idNames.stream().allMatch(key -> entry.column(key) != null))) {
+            session.remove(this.table(), this.docID(session, entry));
+            return;
+        }
+
         if (entry.columns().isEmpty()) {
             // Delete just by id
             List<Long> idValues = this.idColumnValue(entry);
@@ -183,7 +193,7 @@ public abstract class UltraSearchTable
             }
 
             String sql = this.buildDeleteTemplate(realIDNames, values);
-            session.deleteWhere(sql);
+            session.deleteWhere(this.table(), sql);
         } else {
             for (int i = 0, n = idNames.size(); i < n; i++) {
 
@@ -197,7 +207,7 @@ public abstract class UltraSearchTable
             }
 
             String sql = this.buildDeleteTemplate(realIDNames, values);
-            session.deleteWhere(sql);
+            session.deleteWhere(this.table(), sql);
         }
     }
 
@@ -254,20 +264,19 @@ public abstract class UltraSearchTable
             return rs;
         }
 
-        LOG.info("query here1");
-
         List<StringBuilder> selections = this.query2Select(this.table(), query);
 
-        LOG.info("query here2");
-
+        long offset = this.queryOffset(query);
+        long limit = this.queryLimit(query);
         for (StringBuilder selection : selections) {
-            LOG.info("query selection:" + selection.toString());
+            LOG.debug("query selection: {}", selection);
 
-            JSONArray results = session.select(checkAndHandleSelect(selection.toString()));
+            String sql = checkAndHandleSelect(selection.toString());
+            UltraSearchPages results = session.search(sql, offset, limit);
             rs.extend(this.results2Entries(query, results));
         }
 
-        LOG.info("Return {} for query {}", rs, query);
+        LOG.debug("Return {} for query {}", rs, query);
         return rs;
     }
 
@@ -283,7 +292,7 @@ public abstract class UltraSearchTable
 
         if (query.conditions().isEmpty()) {
             // Query only by id
-            LOG.info("Query only by id(s): {}", ids);
+            LOG.debug("Query only by id(s): {}", ids);
             selections = ids;
         } else {
             selections = new ArrayList<>(ids.size());
@@ -291,18 +300,16 @@ public abstract class UltraSearchTable
                 // Query by condition
                 selections.addAll(this.queryCondition2Select(query, selection));
             }
-            LOG.info("Query by conditions: {}", selections);
+            LOG.debug("Query by conditions: {}", selections);
         }
-        // Set page, order-by and limit
-        for (StringBuilder selection : selections) {
-            if (!query.orders().isEmpty()) {
+        /*
+         * Set order-by, the limit and offset are set for each page of
+         * the results, see queryOffset() and queryLimit()
+         */
+        if (!query.orders().isEmpty()) {
+            for (StringBuilder selection : selections) {
                 this.wrapOrderBy(selection, query);
             }
-            if (query.paging()) {
-                this.wrapPage(selection, query);
-            } else if (query.limit() != Query.NO_LIMIT || query.offset() > 0) {
-                this.wrapOffset(selection, query);
-            }
         }
 
         return selections;
@@ -492,40 +499,33 @@ public abstract class UltraSearchTable
         }
     }
 
-    protected void wrapPage(StringBuilder select, Query query) {
+    /**
+     * The offset of the first hit to read, which is the continuation in
+     * the page state if paging
+     */
+    protected long queryOffset(Query query) {
+        if (!query.paging()) {
+            assert query.offset() >= 0;
+            return query.offset();
+        }
         String page = query.page();
         // It's the first time if page is empty
-        if (!page.isEmpty()) {
-            PageState pageState = PageState.fromString(page);
-            Map<HugeKeys, Object> columns = pageState.columns();
-
-            List<HugeKeys> idColumnNames = this.idColumnName();
-            List<Object> values = new ArrayList<>(idColumnNames.size());
-            for (HugeKeys key : idColumnNames) {
-                values.add(columns.get(key));
-            }
-
-            // Need add `where` to `select` when query is IdQuery
-            boolean startWithWhere = query.conditions().isEmpty();
-            WhereBuilder where = new WhereBuilder(startWithWhere);
-            where.gte(formatKeys(idColumnNames), values);
-            select.append(where.build());
+        if (page.isEmpty()) {
+            return 0L;
         }
+        return PageState.fromString(page).offset();
+    }
 
+    /**
+     * The max number of hits to read
+     */
+    protected long queryLimit(Query query) {
+        if (!query.paging()) {
+            return query.limit();
+        }
         assert query.limit() != Query.NO_LIMIT;
         // Fetch `limit + 1` records for judging whether reached the last page
-        select.append(" limit ");
-        select.append(query.limit() + 1);
-    }
-
-    protected void wrapOffset(StringBuilder select, Query query) {
-        assert query.limit() >= 0;
-        assert query.offset() >= 0;
-        // Set limit and offset
-        select.append(" limit ");
-        select.append(query.limit());
-        select.append(" offset ");
-        select.append(query.offset());
+        return query.limit() + 1;
     }
 
     private static Object serializeValue(Object value) {
@@ -539,7 +539,7 @@ public abstract class UltraSearchTable
     }
 
     protected Iterator<BackendEntry> results2Entries(Query query,
-                                                     JSONArray results) {
+                                                     UltraSearchPages results) {
         return new UltraSearchEntryIterator(results, query, this::mergeEntries);
     }
 
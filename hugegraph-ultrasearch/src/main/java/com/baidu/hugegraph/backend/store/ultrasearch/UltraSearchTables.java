@@ -301,7 +301,7 @@ public class UltraSearchTables {
 
         private void deleteEdgesByLabel(UltraSearchSessions.Session session, Id label) {
             String sql = this.delByLabelTemplate.replace("SSS", label.asString());
-            session.deleteWhere(sql);
+            session.deleteWhere(this.table(), sql);
         }
 
         @Override